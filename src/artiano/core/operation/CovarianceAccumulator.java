@@ -0,0 +1,195 @@
+/**
+ * CovarianceAccumulator.java
+ */
+package artiano.core.operation;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import artiano.core.structure.Matrix;
+import artiano.core.structure.Syrk;
+
+/**
+ * <p>单遍、可合并的均值与协方差累加器。</p>
+ * <p>累加器逐行（Welford方法）或逐块（Chan方法）地接收样本（矩阵的每一行为一个样本），只保存样本数、
+ * 均值向量以及离差积和矩阵，因此不需要将全部样本读入内存，也不需要先求均值再求协方差的两遍计算。
+ * 在不同线程或不同文件块上得到的累加器可以通过{@link #merge(CovarianceAccumulator)}精确地合并，
+ * 例如逐块读取csv文件：
+ * <pre><code>
+ * CovarianceAccumulator acc = new CovarianceAccumulator(loader.columns());
+ * while (loader.hasMore())
+ *     acc.add(loader.read(CSVLoader.DEFAULT_READ_STEP).toMatrix());
+ * Matrix cov = acc.covariance(true);
+ * </code></pre>
+ * 得到的协方差矩阵与{@link Matrix#covarianceOfRows(int, Matrix, boolean)}使用
+ * {@link Matrix#COVARIANCE_NORMAL}计算得到的相同。</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class CovarianceAccumulator implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	/** 样本的维数 */
+	private int dimension = 0;
+	/** 已累加的样本数 */
+	private long count = 0;
+	/** 均值向量 */
+	private double[] mean = null;
+	/** 离差积和矩阵sum[(x-mean)'*(x-mean)]，dimension*dimension，只维护上三角 */
+	private double[] comoment = null;
+	/** 逐行累加时使用的缓冲区 */
+	private transient double[] delta = null;
+
+	/**
+	 * 构造一个空的累加器。
+	 * @param dimension 样本的维数
+	 */
+	public CovarianceAccumulator(int dimension){
+		if (dimension <= 0)
+			throw new IllegalArgumentException("CovarianceAccumulator, dimension must be positive integer.");
+		this.dimension = dimension;
+		this.mean = new double[dimension];
+		this.comoment = new double[dimension * dimension];
+	}
+
+	/**
+	 * 获取样本的维数。
+	 * @return 维数
+	 */
+	public int dimension(){
+		return dimension;
+	}
+
+	/**
+	 * 获取已累加的样本数。
+	 * @return 样本数
+	 */
+	public long count(){
+		return count;
+	}
+
+	/**
+	 * 清空累加器。
+	 */
+	public void reset(){
+		count = 0;
+		Arrays.fill(mean, 0.);
+		Arrays.fill(comoment, 0.);
+	}
+
+	/**
+	 * 累加一个样本。
+	 * @param x 样本数据
+	 * @param off 样本首元素在x中的下标，样本占据[off, off+dimension())
+	 */
+	public void add(double[] x, int off){
+		count++;
+		if (delta == null)
+			delta = new double[dimension];
+		for (int j = 0; j < dimension; j++){
+			delta[j] = x[off + j] - mean[j];
+			mean[j] += delta[j] / count;
+		}
+		//C += delta'*(x-mean), with the updated mean
+		for (int i = 0; i < dimension; i++){
+			double di = delta[i];
+			if (di == 0.)
+				continue;
+			int ci = i * dimension;
+			for (int j = i; j < dimension; j++)
+				comoment[ci + j] += di * (x[off + j] - mean[j]);
+		}
+	}
+
+	/**
+	 * 累加一组样本，矩阵的每一行为一个样本。多行时先计算这一块的均值与离差积和矩阵（使用{@link Syrk}），
+	 * 再与已有的结果合并。
+	 * @param samples 样本矩阵，列数须等于{@link #dimension()}
+	 */
+	public void add(Matrix samples){
+		if (samples.columns() != dimension)
+			throw new IllegalArgumentException("CovarianceAccumulator add, size not match.");
+		if (samples.rows() == 1){
+			Matrix x = samples.clone();
+			add(x.data(), 0);
+			return;
+		}
+		//center the block in a compact copy
+		int n = samples.rows();
+		Matrix t = samples.clone();
+		double[] d = t.data();
+		double[] m = new double[dimension];
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < dimension; j++)
+				m[j] += d[i * dimension + j];
+		for (int j = 0; j < dimension; j++)
+			m[j] /= n;
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < dimension; j++)
+				d[i * dimension + j] -= m[j];
+		double[] c = new double[dimension * dimension];
+		Syrk.syrk(true, dimension, n, 1., d, 0, dimension, 0., c, 0, dimension);
+		merge(n, m, c);
+	}
+
+	/**
+	 * 合并另一个累加器，合并后的结果与将两个累加器的样本依次累加得到的结果相同。另一个累加器不会被修改。
+	 * @param other 另一个累加器，维数须相同
+	 */
+	public void merge(CovarianceAccumulator other){
+		if (other.dimension != dimension)
+			throw new IllegalArgumentException("CovarianceAccumulator merge, size not match.");
+		merge(other.count, other.mean, other.comoment);
+	}
+
+	/**
+	 * Chan et al.的合并公式：
+	 * mean = meanA + delta*nB/n, C = CA + CB + delta'*delta*nA*nB/n, delta = meanB - meanA
+	 */
+	private void merge(long n, double[] m, double[] c){
+		if (n == 0)
+			return;
+		long total = count + n;
+		double[] diff = new double[dimension];
+		for (int j = 0; j < dimension; j++)
+			diff[j] = m[j] - mean[j];
+		double f = (double)count * n / total;
+		for (int i = 0; i < dimension; i++){
+			int ci = i * dimension;
+			double di = diff[i] * f;
+			for (int j = i; j < dimension; j++)
+				comoment[ci + j] += c[ci + j] + di * diff[j];
+		}
+		for (int j = 0; j < dimension; j++)
+			mean[j] += diff[j] * n / total;
+		count = total;
+	}
+
+	/**
+	 * 获取均值向量。
+	 * @return 1*dimension()的行向量
+	 */
+	public Matrix mean(){
+		return new Matrix(1, dimension, mean.clone());
+	}
+
+	/**
+	 * 获取协方差矩阵。
+	 * @param doScale 若为<code>true</code>，则协方差矩阵除以样本数，否则返回离差积和矩阵，与
+	 * {@link Matrix#covarianceOfRows(int, Matrix, boolean)}的参数意义相同
+	 * @return dimension()*dimension()的对称矩阵
+	 */
+	public Matrix covariance(boolean doScale){
+		double s = doScale && count > 0 ? 1. / count: 1.;
+		double[] c = new double[dimension * dimension];
+		for (int i = 0; i < dimension; i++)
+			for (int j = i; j < dimension; j++){
+				c[i * dimension + j] = comoment[i * dimension + j] * s;
+				c[j * dimension + i] = c[i * dimension + j];
+			}
+		return new Matrix(dimension, dimension, c);
+	}
+}
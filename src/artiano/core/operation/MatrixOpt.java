@@ -3,6 +3,7 @@
  */
 package artiano.core.operation;
 
+import artiano.core.structure.BufferMatrix;
 import artiano.core.structure.Matrix;
 
 /**
@@ -167,7 +168,7 @@ public class MatrixOpt {
 		Matrix cov = new Matrix(mean.columns(), mean.columns());
 		for (int i = 0; i < matrices.length; i++){
 			Matrix t = matrices[i].minus(mean, true);
-			cov.plus(t.t().multiply(t));
+			cov.plus(t.multiplyTranspose(Matrix.MULTIPLY_LEFT_TRANSPOSE));
 		}
 		cov.multiply(scale);
 		return cov;
@@ -183,4 +184,357 @@ public class MatrixOpt {
 	public static Matrix compute2DCovariance(Matrix[] matrices, Matrix mean){
 		return compute2DCovariance(matrices, mean, 1.);
 	}
+	
+	/**
+	 * Compute y := alpha*x + y on strided arrays, where x(k)=x[xOff+k*incX] and y(k)=y[yOff+k*incY].
+	 * @param n Number of elements.
+	 * @param alpha Scalar.
+	 * @param x Source array.
+	 * @param xOff Index of the first element of x.
+	 * @param incX Distance between two elements of x.
+	 * @param y Destination array.
+	 * @param yOff Index of the first element of y.
+	 * @param incY Distance between two elements of y.
+	 */
+	public static void axpy(int n, double alpha, double[] x, int xOff, int incX, double[] y, int yOff, int incY){
+		if (alpha == 0.)
+			return;
+		if (incX == 1 && incY == 1){
+			int k = 0;
+			for (; k + 3 < n; k += 4){
+				y[yOff + k] += alpha * x[xOff + k];
+				y[yOff + k + 1] += alpha * x[xOff + k + 1];
+				y[yOff + k + 2] += alpha * x[xOff + k + 2];
+				y[yOff + k + 3] += alpha * x[xOff + k + 3];
+			}
+			for (; k < n; k++)
+				y[yOff + k] += alpha * x[xOff + k];
+			return;
+		}
+		for (int k = 0; k < n; k++)
+			y[yOff + k * incY] += alpha * x[xOff + k * incX];
+	}
+	
+	/**
+	 * Compute x := alpha*x on a strided array.
+	 * @param n Number of elements.
+	 * @param alpha Scalar.
+	 * @param x Array to scale.
+	 * @param off Index of the first element.
+	 * @param inc Distance between two elements.
+	 */
+	public static void scal(int n, double alpha, double[] x, int off, int inc){
+		for (int k = 0; k < n; k++)
+			x[off + k * inc] *= alpha;
+	}
+	
+	/**
+	 * Compute the dot product of two strided arrays.
+	 * @param n Number of elements.
+	 * @param x First array.
+	 * @param xOff Index of the first element of x.
+	 * @param incX Distance between two elements of x.
+	 * @param y Second array.
+	 * @param yOff Index of the first element of y.
+	 * @param incY Distance between two elements of y.
+	 * @return Dot product.
+	 */
+	public static double dot(int n, double[] x, int xOff, int incX, double[] y, int yOff, int incY){
+		double sum = 0.;
+		if (incX == 1 && incY == 1){
+			double s1 = 0., s2 = 0., s3 = 0.;
+			int k = 0;
+			for (; k + 3 < n; k += 4){
+				sum += x[xOff + k] * y[yOff + k];
+				s1 += x[xOff + k + 1] * y[yOff + k + 1];
+				s2 += x[xOff + k + 2] * y[yOff + k + 2];
+				s3 += x[xOff + k + 3] * y[yOff + k + 3];
+			}
+			for (; k < n; k++)
+				sum += x[xOff + k] * y[yOff + k];
+			return sum + s1 + s2 + s3;
+		}
+		for (int k = 0; k < n; k++)
+			sum += x[xOff + k * incX] * y[yOff + k * incY];
+		return sum;
+	}
+	
+	/**
+	 * Compute the Euclidean norm of a strided array, the sum of squares is scaled to avoid 
+	 * underflow and overflow.
+	 * @param n Number of elements.
+	 * @param x Array.
+	 * @param off Index of the first element.
+	 * @param inc Distance between two elements.
+	 * @return Euclidean norm.
+	 */
+	public static double nrm2(int n, double[] x, int off, int inc){
+		double scale = 0., ssq = 1.;
+		for (int k = 0; k < n; k++){
+			double v = x[off + k * inc];
+			if (v == 0.)
+				continue;
+			double a = Math.abs(v);
+			if (scale < a){
+				double r = scale / a;
+				ssq = 1. + ssq * r * r;
+				scale = a;
+			} else {
+				double r = a / scale;
+				ssq += r * r;
+			}
+		}
+		return scale * Math.sqrt(ssq);
+	}
+	
+	/**
+	 * Compute y := alpha*x + y in place, where x and y are matrices of the same type, or vectors 
+	 * of the same size (a row vector and a column vector are allowed).
+	 * @param alpha Scalar.
+	 * @param x Source matrix.
+	 * @param y Destination matrix.
+	 */
+	public static void axpy(double alpha, Matrix x, Matrix y){
+		if (isVector(x) && isVector(y)){
+			if (x.size() != y.size())
+				throw new IllegalArgumentException("MatrixOpt axpy, size not match.");
+			if (onHeap(x) && onHeap(y)){
+				axpy(x.size(), alpha, x.data(), x.offset(), inc(x), y.data(), y.offset(), inc(y));
+				return;
+			}
+			for (int k = 0; k < x.size(); k++)
+				y.set(k, y.at(k) + alpha * x.at(k));
+			return;
+		}
+		if (!x.sameType(y))
+			throw new IllegalArgumentException("MatrixOpt axpy, size not match.");
+		if (onHeap(x) && onHeap(y)){
+			for (int i = 0; i < x.rows(); i++)
+				axpy(x.columns(), alpha, x.data(), x.offset() + i * x.dataColumns(), 1, 
+						y.data(), y.offset() + i * y.dataColumns(), 1);
+			return;
+		}
+		for (int i = 0; i < x.rows(); i++)
+			for (int j = 0; j < x.columns(); j++)
+				y.set(i, j, y.at(i, j) + alpha * x.at(i, j));
+	}
+	
+	/**
+	 * Compute y := alpha*x + y in place, where x is a vector and y is an array of the same size.
+	 * @param alpha Scalar.
+	 * @param x Source vector.
+	 * @param y Destination array.
+	 */
+	public static void axpy(double alpha, Matrix x, double[] y){
+		if (!isVector(x) || x.size() != y.length)
+			throw new IllegalArgumentException("MatrixOpt axpy, size not match.");
+		if (onHeap(x)){
+			axpy(y.length, alpha, x.data(), x.offset(), inc(x), y, 0, 1);
+			return;
+		}
+		for (int k = 0; k < y.length; k++)
+			y[k] += alpha * x.at(k);
+	}
+	
+	/**
+	 * Compute x := alpha*x in place.
+	 * @param alpha Scalar.
+	 * @param x Matrix to scale.
+	 */
+	public static void scal(double alpha, Matrix x){
+		if (onHeap(x)){
+			for (int i = 0; i < x.rows(); i++)
+				scal(x.columns(), alpha, x.data(), x.offset() + i * x.dataColumns(), 1);
+			return;
+		}
+		for (int i = 0; i < x.rows(); i++)
+			for (int j = 0; j < x.columns(); j++)
+				x.set(i, j, x.at(i, j) * alpha);
+	}
+	
+	/**
+	 * Compute the dot product of two vectors of the same size (a row vector and a column vector
+	 * are allowed), or the sum of the element-wise product of two matrices of the same type.
+	 * @param x First matrix.
+	 * @param y Second matrix.
+	 * @return Dot product.
+	 */
+	public static double dot(Matrix x, Matrix y){
+		if (isVector(x) && isVector(y)){
+			if (x.size() != y.size())
+				throw new IllegalArgumentException("MatrixOpt dot, size not match.");
+			if (onHeap(x) && onHeap(y))
+				return dot(x.size(), x.data(), x.offset(), inc(x), y.data(), y.offset(), inc(y));
+			double sum = 0.;
+			for (int k = 0; k < x.size(); k++)
+				sum += x.at(k) * y.at(k);
+			return sum;
+		}
+		if (!x.sameType(y))
+			throw new IllegalArgumentException("MatrixOpt dot, size not match.");
+		double sum = 0.;
+		if (onHeap(x) && onHeap(y)){
+			for (int i = 0; i < x.rows(); i++)
+				sum += dot(x.columns(), x.data(), x.offset() + i * x.dataColumns(), 1, 
+						y.data(), y.offset() + i * y.dataColumns(), 1);
+			return sum;
+		}
+		for (int i = 0; i < x.rows(); i++)
+			for (int j = 0; j < x.columns(); j++)
+				sum += x.at(i, j) * y.at(i, j);
+		return sum;
+	}
+	
+	/**
+	 * Compute the Euclidean norm of a vector (the Frobenius norm of a matrix).
+	 * @param x Vector or matrix.
+	 * @return Euclidean norm.
+	 */
+	public static double nrm2(Matrix x){
+		if (isVector(x) && onHeap(x))
+			return nrm2(x.size(), x.data(), x.offset(), inc(x));
+		double scale = 0., ssq = 1.;
+		for (int i = 0; i < x.rows(); i++){
+			for (int j = 0; j < x.columns(); j++){
+				double a = Math.abs(x.at(i, j));
+				if (a == 0.)
+					continue;
+				if (scale < a){
+					ssq = 1. + ssq * (scale / a) * (scale / a);
+					scale = a;
+				} else
+					ssq += (a / scale) * (a / scale);
+			}
+		}
+		return scale * Math.sqrt(ssq);
+	}
+	
+	/**
+	 * Matrix-vector multiplication, compute y := alpha*op(A)*x + beta*y in place, where op(A)=A 
+	 * or op(A)=transpose(A). x and y may be row vectors or column vectors.
+	 * @param transA Indicate transpose A or not.
+	 * @param alpha Scalar of op(A)*x.
+	 * @param a Matrix A.
+	 * @param x Vector x, the size of x should equal to the columns of op(A).
+	 * @param beta Scalar of y.
+	 * @param y Vector y, the size of y should equal to the rows of op(A).
+	 */
+	public static void gemv(boolean transA, double alpha, Matrix a, Matrix x, double beta, Matrix y){
+		int m = transA ? a.columns(): a.rows();
+		int n = transA ? a.rows(): a.columns();
+		if (!isVector(x) || !isVector(y) || x.size() != n || y.size() != m)
+			throw new IllegalArgumentException("MatrixOpt gemv, size not match.");
+		if (!onHeap(a) || !onHeap(x) || !onHeap(y)){
+			for (int i = 0; i < m; i++){
+				double sum = 0.;
+				for (int j = 0; j < n; j++)
+					sum += (transA ? a.at(j, i): a.at(i, j)) * x.at(j);
+				y.set(i, beta * y.at(i) + alpha * sum);
+			}
+			return;
+		}
+		double[] ad = a.data(), xd = x.data(), yd = y.data();
+		int lda = a.dataColumns();
+		int xOff = x.offset(), incX = inc(x), yOff = y.offset(), incY = inc(y);
+		if (!transA){
+			for (int i = 0; i < m; i++){
+				double sum = dot(n, ad, a.offset() + i * lda, 1, xd, xOff, incX);
+				int k = yOff + i * incY;
+				yd[k] = (beta == 0. ? 0.: beta * yd[k]) + alpha * sum;
+			}
+			return;
+		}
+		if (beta == 0.){
+			for (int i = 0; i < m; i++)
+				yd[yOff + i * incY] = 0.;
+		} else if (beta != 1.)
+			scal(m, beta, yd, yOff, incY);
+		//y += alpha*x(j)*A(j,:), walk A by rows
+		for (int j = 0; j < n; j++)
+			axpy(m, alpha * xd[xOff + j * incX], ad, a.offset() + j * lda, 1, yd, yOff, incY);
+	}
+	
+	/**
+	 * Rank-1 update, compute A := alpha*x*transpose(y) + A in place.
+	 * @param alpha Scalar.
+	 * @param x Vector x, the size of x should equal to the rows of A.
+	 * @param y Vector y, the size of y should equal to the columns of A.
+	 * @param a Matrix A.
+	 */
+	public static void ger(double alpha, Matrix x, Matrix y, Matrix a){
+		if (!isVector(x) || !isVector(y) || x.size() != a.rows() || y.size() != a.columns())
+			throw new IllegalArgumentException("MatrixOpt ger, size not match.");
+		if (!onHeap(a) || !onHeap(x) || !onHeap(y)){
+			for (int i = 0; i < a.rows(); i++)
+				for (int j = 0; j < a.columns(); j++)
+					a.set(i, j, a.at(i, j) + alpha * x.at(i) * y.at(j));
+			return;
+		}
+		double[] xd = x.data();
+		int xOff = x.offset(), incX = inc(x);
+		for (int i = 0; i < a.rows(); i++)
+			axpy(a.columns(), alpha * xd[xOff + i * incX], y.data(), y.offset(), inc(y), 
+					a.data(), a.offset() + i * a.dataColumns(), 1);
+	}
+	
+	/**
+	 * Add the row vector to every row of the source matrix, dst(i,:) := src(i,:) + row.
+	 * @param src Source matrix.
+	 * @param row Row vector, its columns should equal to the columns of src.
+	 * @param dst Destination matrix, the same type with src, can be src itself.
+	 * @return Destination matrix.
+	 */
+	public static Matrix addRow(Matrix src, Matrix row, Matrix dst){
+		return broadcastRow(src, row, dst, 1.);
+	}
+	
+	/**
+	 * Subtract the row vector from every row of the source matrix, dst(i,:) := src(i,:) - row.
+	 * @param src Source matrix.
+	 * @param row Row vector, its columns should equal to the columns of src.
+	 * @param dst Destination matrix, the same type with src, can be src itself.
+	 * @return Destination matrix.
+	 */
+	public static Matrix subtractRow(Matrix src, Matrix row, Matrix dst){
+		return broadcastRow(src, row, dst, -1.);
+	}
+	
+	private static Matrix broadcastRow(Matrix src, Matrix row, Matrix dst, double sign){
+		if (row.rows() != 1 || row.columns() != src.columns() || !src.sameType(dst))
+			throw new IllegalArgumentException("MatrixOpt broadcast row, size not match.");
+		int n = src.columns();
+		if (!onHeap(src) || !onHeap(row) || !onHeap(dst)){
+			for (int i = 0; i < src.rows(); i++)
+				for (int j = 0; j < n; j++)
+					dst.set(i, j, src.at(i, j) + sign * row.at(0, j));
+			return dst;
+		}
+		double[] s = src.data(), r = row.data(), t = dst.data();
+		int rOff = row.offset();
+		for (int i = 0; i < src.rows(); i++){
+			int si = src.offset() + i * src.dataColumns();
+			int ti = dst.offset() + i * dst.dataColumns();
+			for (int j = 0; j < n; j++)
+				t[ti + j] = s[si + j] + sign * r[rOff + j];
+		}
+		return dst;
+	}
+	
+	private static boolean isVector(Matrix x){
+		return x.rows() == 1 || x.columns() == 1;
+	}
+	
+	/**
+	 * distance between two elements of a vector in the data array
+	 */
+	private static int inc(Matrix x){
+		return x.rows() == 1 ? 1: x.dataColumns();
+	}
+	
+	/**
+	 * data of the matrix can be accessed by {@link Matrix#data()}
+	 */
+	private static boolean onHeap(Matrix x){
+		return !(x instanceof BufferMatrix);
+	}
 }
@@ -46,15 +46,12 @@ public abstract class Attribute implements Serializable {
 	}
 
 	/**
-	 * 判断表中是否有缺失值
+	 * 判断表中是否有缺失值，由值向量的有效位图得到
 	 * 
 	 * @return
 	 */
 	public boolean hasMissing() {
-		for (int i = 0; i < vector.size(); i++)
-			if (vector.at(i).equals(MISSING_VALUE))
-				return true;
-		return false;
+		return vector.hasMissing();
 	}
 
 	/**
@@ -65,7 +62,7 @@ public abstract class Attribute implements Serializable {
 	 * @return
 	 */
 	public boolean isMissing(int i) {
-		return vector.at(i).equals(MISSING_VALUE);
+		return vector.isMissing(i);
 	}
 
 	/**
@@ -74,11 +71,7 @@ public abstract class Attribute implements Serializable {
 	 * @return
 	 */
 	public int countNoneMissing() {
-		int size = 0;
-		for (int i = 0; i < vector.size(); i++)
-			if (!isMissing(i))
-				size++;
-		return size;
+		return vector.size() - vector.countMissing();
 	}
 
 	/**
@@ -96,11 +89,7 @@ public abstract class Attribute implements Serializable {
 	 * @return
 	 */
 	public int countMissing() {
-		int count = 0;
-		for (int i = 0; i < vector.size(); i++)
-			if (isMissing(i))
-				count++;
-		return count;
+		return vector.countMissing();
 	}
 
 	/**
@@ -0,0 +1,335 @@
+/**
+ * BufferMatrix.java
+ */
+package artiano.core.structure;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>数据存放于堆外内存（直接缓冲区）或内存映射文件中的矩阵。</p>
+ * <p>普通的{@link Matrix}将数据保存在堆上的<code>double[]</code>中，当数据量很大时需要很大的堆，并且会带来
+ * 很长的GC停顿。这个类具有和{@link Matrix}相同的接口，但数据保存在{@link DoubleBuffer}中：
+ * <li>{@link #allocateDirect(int, int)}在堆外分配存储空间；</li>
+ * <li>{@link #map(File, int, int, long, ByteOrder, boolean)}、{@link #open(File, boolean)}将文件映射
+ * 为矩阵，打开时不会读取数据，数据由操作系统按需调入内存。</li>
+ * 数据按行优先顺序存放，并被切分为若干大小为2<sup>27</sup>个元素的块，因此矩阵的存储空间不受单个缓冲区2GB
+ * 的限制。</p>
+ * <p><b><i>NOTICE:</i></b>
+ * <li>{@link #data()}将抛出{@link UnsupportedOperationException}，因为数据不在堆上；</li>
+ * <li>以只读方式映射的矩阵在被修改时将抛出{@link java.nio.ReadOnlyBufferException}，因此将其交给会修改
+ * 输入的算法（如{@link artiano.math.algebra.LUDecomposition}）时，应使用保留原始矩阵（reserve）的构造方法；</li>
+ * <li>{@link #clone()}得到的是普通的堆上矩阵；序列化时同样保存为普通矩阵。</li></p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class BufferMatrix extends Matrix {
+
+	private static final long serialVersionUID = 1L;
+	/** 每个数据块元素个数的以2为底的对数 */
+	static final int CHUNK_SHIFT = 27;
+	/** 每个数据块的元素个数 */
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	/** 文件头的标识 "AMAT" */
+	static final int MAGIC = 0x414D4154;
+	/** 文件头的长度（字节） */
+	public static final int HEADER_SIZE = 16;
+
+	/** 数据块 */
+	transient DoubleBuffer[] chunks = null;
+	/** 映射文件时各数据块对应的映射缓冲区，用于将修改写回文件 */
+	transient MappedByteBuffer[] mapped = null;
+
+	private BufferMatrix(){ }
+
+	/**
+	 * 使用已有的数据块构造一个矩阵
+	 * @param rows 行数
+	 * @param cols 列数
+	 * @param chunks 数据块，除最后一块外每块的元素个数都应为{@link #CHUNK_SIZE}
+	 */
+	BufferMatrix(int rows, int cols, DoubleBuffer[] chunks){
+		if (cols <= 0 || rows <= 0)
+			throw new IllegalArgumentException("BufferMatrix, columns and rows must be positive integer.");
+		this.rows = rows;
+		this.cols = cols;
+		this.dCols = cols;
+		this.chunks = chunks;
+		rowRange = new Range(0, rows);
+		colRange = new Range(0, cols);
+	}
+
+	/**
+	 * 在堆外内存中分配一个rows*cols的矩阵，所有元素初始化为0。
+	 * @param rows 行数
+	 * @param cols 列数
+	 * @return 矩阵
+	 */
+	public static BufferMatrix allocateDirect(int rows, int cols){
+		long size = (long)rows * cols;
+		DoubleBuffer[] chunks = new DoubleBuffer[chunkCount(size)];
+		for (int i = 0; i < chunks.length; i++){
+			int n = (int)Math.min(CHUNK_SIZE, size - ((long)i << CHUNK_SHIFT));
+			chunks[i] = ByteBuffer.allocateDirect(n * 8).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+		}
+		return new BufferMatrix(rows, cols, chunks);
+	}
+
+	/**
+	 * 将一个普通矩阵拷贝到堆外内存中。
+	 * @param x 矩阵
+	 * @return 堆外矩阵
+	 */
+	public static BufferMatrix allocateDirect(Matrix x){
+		BufferMatrix y = allocateDirect(x.rows, x.cols);
+		x.copyTo(y);
+		return y;
+	}
+
+	/**
+	 * 将文件中从position开始的rows*cols个双精度浮点数（行优先存放）映射为矩阵。
+	 * <br>若以读写方式映射且文件长度不足，文件将被扩展。映射建立后即可关闭文件，对矩阵的修改将由操作系统写回文件。
+	 * @param file 文件
+	 * @param rows 行数
+	 * @param cols 列数
+	 * @param position 数据在文件中的开始位置（字节）
+	 * @param order 数据的字节序
+	 * @param readOnly 是否只读
+	 * @return 映射得到的矩阵
+	 * @throws IOException 文件不存在或无法映射
+	 */
+	public static BufferMatrix map(File file, int rows, int cols, long position, ByteOrder order,
+			boolean readOnly) throws IOException {
+		if (cols <= 0 || rows <= 0)
+			throw new IllegalArgumentException("BufferMatrix map, columns and rows must be positive integer.");
+		long size = (long)rows * cols;
+		RandomAccessFile raf = new RandomAccessFile(file, readOnly ? "r": "rw");
+		try {
+			FileChannel channel = raf.getChannel();
+			if (readOnly && channel.size() < position + size * 8)
+				throw new IOException("BufferMatrix map, file is too short.");
+			FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY: FileChannel.MapMode.READ_WRITE;
+			DoubleBuffer[] chunks = new DoubleBuffer[chunkCount(size)];
+			MappedByteBuffer[] mapped = new MappedByteBuffer[chunks.length];
+			for (int i = 0; i < chunks.length; i++){
+				long begin = (long)i << CHUNK_SHIFT;
+				long n = Math.min(CHUNK_SIZE, size - begin);
+				mapped[i] = channel.map(mode, position + begin * 8, n * 8);
+				chunks[i] = mapped[i].order(order).asDoubleBuffer();
+			}
+			BufferMatrix x = new BufferMatrix(rows, cols, chunks);
+			x.mapped = mapped;
+			return x;
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * 映射一个由{@link #save(Matrix, File)}或{@link #create(File, int, int)}生成的矩阵文件，矩阵的大小和
+	 * 字节序从文件头中读取。
+	 * @param file 矩阵文件
+	 * @param readOnly 是否只读
+	 * @return 映射得到的矩阵
+	 * @throws IOException 文件不存在或格式错误
+	 */
+	public static BufferMatrix open(File file, boolean readOnly) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			while (header.hasRemaining())
+				if (channel.read(header) < 0)
+					throw new IOException("BufferMatrix open, invalid matrix file.");
+		} finally {
+			raf.close();
+		}
+		header.flip();
+		if (header.getInt() != MAGIC)
+			throw new IOException("BufferMatrix open, invalid matrix file.");
+		ByteOrder order = header.getInt() == 0 ? ByteOrder.BIG_ENDIAN: ByteOrder.LITTLE_ENDIAN;
+		int rows = header.getInt();
+		int cols = header.getInt();
+		return map(file, rows, cols, HEADER_SIZE, order, readOnly);
+	}
+
+	/**
+	 * 创建一个rows*cols的矩阵文件，并以读写方式映射。
+	 * @param file 文件，若已存在将被覆盖
+	 * @param rows 行数
+	 * @param cols 列数
+	 * @return 映射得到的矩阵，所有元素为0
+	 * @throws IOException 文件无法创建
+	 */
+	public static BufferMatrix create(File file, int rows, int cols) throws IOException {
+		writeHeader(file, rows, cols, ByteOrder.nativeOrder());
+		return map(file, rows, cols, HEADER_SIZE, ByteOrder.nativeOrder(), false);
+	}
+
+	/**
+	 * 将矩阵保存为可以由{@link #open(File, boolean)}打开的矩阵文件。
+	 * @param x 矩阵
+	 * @param file 文件，若已存在将被覆盖
+	 * @throws IOException 文件无法写入
+	 */
+	public static void save(Matrix x, File file) throws IOException {
+		BufferMatrix y = create(file, x.rows, x.cols);
+		x.copyTo(y);
+		y.force();
+	}
+
+	static void writeHeader(File file, int rows, int cols, ByteOrder order) throws IOException {
+		if (cols <= 0 || rows <= 0)
+			throw new IllegalArgumentException("BufferMatrix, columns and rows must be positive integer.");
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(HEADER_SIZE + (long)rows * cols * 8);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(order == ByteOrder.BIG_ENDIAN ? 0: 1).putInt(rows).putInt(cols);
+			header.flip();
+			FileChannel channel = raf.getChannel();
+			while (header.hasRemaining())
+				channel.write(header, header.position());
+		} finally {
+			raf.close();
+		}
+	}
+
+	static int chunkCount(long size){
+		return (int)((size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+	}
+
+	/**
+	 * 将对映射矩阵的修改写回文件，对堆外矩阵没有作用。
+	 */
+	public void force(){
+		if (mapped == null || isReadOnly())
+			return;
+		for (int i = 0; i < mapped.length; i++)
+			mapped[i].force();
+	}
+
+	/**
+	 * 是否为只读矩阵
+	 * @return
+	 */
+	public boolean isReadOnly(){
+		return chunks[0].isReadOnly();
+	}
+
+	/**
+	 * 元素(i,j)在数据块中的下标
+	 */
+	private long index(int i, int j){
+		return (long)(i + rowRange.start) * dCols + j + colRange.start;
+	}
+
+	private double get(long idx){
+		return chunks[(int)(idx >>> CHUNK_SHIFT)].get((int)(idx & CHUNK_MASK));
+	}
+
+	private void put(long idx, double value){
+		chunks[(int)(idx >>> CHUNK_SHIFT)].put((int)(idx & CHUNK_MASK), value);
+	}
+
+	/**
+	 * 数据不在堆上，不支持此操作。
+	 * @throws UnsupportedOperationException
+	 */
+	@Override
+	public double[] data(){
+		throw new UnsupportedOperationException("BufferMatrix data, data is not stored on heap.");
+	}
+
+	@Override
+	public double at(int i, int j){
+		if (i < 0 || i >= rows || j < 0 || j >= cols)
+			throw new IndexOutOfBoundsException("Matrix at, index out of range.");
+		return get(index(i, j));
+	}
+
+	@Override
+	public void set(int i, int j, double value){
+		if (i < 0 || i >= rows || j < 0 || j >= cols)
+			throw new IndexOutOfBoundsException("Matrix set, index out of range."+" i:"+i+"    j:"+j);
+		put(index(i, j), value);
+	}
+
+	@Override
+	public void plus(int i, int j, Number value){
+		if (i < 0 || i >= rows || j < 0 || j >= cols)
+			throw new IndexOutOfBoundsException("Matrix at, index out of range.");
+		long idx = index(i, j);
+		put(idx, get(idx) + value.doubleValue());
+	}
+
+	@Override
+	public void minus(int i, int j, Number value){
+		if (i < 0 || i >= rows || j < 0 || j >= cols)
+			throw new IndexOutOfBoundsException("Matrix at, index out of range.");
+		long idx = index(i, j);
+		put(idx, get(idx) - value.doubleValue());
+	}
+
+	/**
+	 * 获取子矩阵，子矩阵与原矩阵共享数据块。
+	 * @see Matrix#at(Range, Range)
+	 */
+	@Override
+	public Matrix at(Range row, Range col){
+		row = row.equals(Range.all()) ? new Range(rowRange.start, rowRange.end):
+			new Range(row.begin() + rowRange.start, row.end() + rowRange.start);
+		col = col.equals(Range.all()) ? new Range(colRange.start, colRange.end):
+			new Range(col.begin() + colRange.start, col.end() + colRange.start);
+		if (!rowRange.isContain(row) || !colRange.isContain(col))
+			throw new IllegalArgumentException("Matrix at, out of range.");
+		BufferMatrix x = new BufferMatrix();
+		x.rowRange = row;
+		x.colRange = col;
+		x.dCols = dCols;
+		x.chunks = chunks;
+		x.mapped = mapped;
+		x.rows = row.length();
+		x.cols = col.length();
+		return x;
+	}
+
+	/**
+	 * 将矩阵中[row, row+rows)行拷贝到堆上的数组dst中（行优先紧密存放）。
+	 * @param row 开始行
+	 * @param rows 行数
+	 * @param dst 目标数组
+	 * @param off dst中的开始下标
+	 */
+	public void copyRows(int row, int rows, double[] dst, int off){
+		if (row < 0 || rows < 0 || row + rows > this.rows)
+			throw new IndexOutOfBoundsException("BufferMatrix copyRows, out of range.");
+		for (int i = row; i < row + rows; i++){
+			long idx = index(i, 0);
+			for (int j = 0; j < cols; j++)
+				dst[off++] = get(idx + j);
+		}
+	}
+
+	@Override
+	public void mergeAfterRow(Matrix otherMx){
+		throw new UnsupportedOperationException("BufferMatrix merge, the storage can not grow.");
+	}
+
+	/**
+	 * 序列化为普通矩阵
+	 */
+	private Object writeReplace(){
+		return clone();
+	}
+}
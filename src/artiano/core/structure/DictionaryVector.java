@@ -0,0 +1,393 @@
+/**
+ * DictionaryVector.java
+ */
+package artiano.core.structure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * <p>
+ * 基础数据结构，字典编码的自增长向量，是{@link NominalAttribute}默认的值向量。每个不同的取值在字典中只存放一次，
+ * 并被编码为一个整数（按加入字典的顺序从0开始），向量中只存放每个值的编码，相等比较、计数与分组可以直接使用编码：
+ * </p>
+ * <pre><code>
+ * int[] counts = new int[vector.cardinality()];
+ * for (int i = 0; i &lt; vector.size(); i++)
+ *     if (vector.codeAt(i) != DictionaryVector.MISSING_CODE)
+ *         counts[vector.codeAt(i)]++;
+ * </code></pre>
+ * <p>
+ * 缺失值（{@link Attribute#MISSING_VALUE}或<code>null</code>）的编码为{@link #MISSING_CODE}，不进入字典。字典只增不减，
+ * 值被移除或替换后其编码仍然有效。
+ * </p>
+ *
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class DictionaryVector extends IncrementVector {
+	private static final long serialVersionUID = -2392520839917049016L;
+
+	/** 缺失值的编码 */
+	public static final int MISSING_CODE = -1;
+
+	/** 按编码存放的取值 */
+	protected ArrayList<Object> dictionary = new ArrayList<Object>();
+	/** 取值到编码的映射 */
+	protected HashMap<Object, Integer> codes = new HashMap<Object, Integer>();
+	/** 存储编码的数组 */
+	protected int[] column = null;
+
+	/**
+	 * 构造一个字典编码向量，此时向量的容量为{@link #DEFAULT_CAPACITY}
+	 */
+	public DictionaryVector() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 构造一个字典编码向量
+	 *
+	 * @param capacity
+	 *            向量容量
+	 */
+	public DictionaryVector(int capacity) {
+		super(0);
+		this.column = new int[capacity];
+		this.validity = new ValidityBitmap(capacity);
+	}
+
+	/**
+	 * 将一个值向量转换为字典编码向量
+	 *
+	 * @param vector
+	 *            值向量
+	 */
+	public DictionaryVector(IncrementVector vector) {
+		this(Math.max(vector.size(), DEFAULT_CAPACITY));
+		append(vector);
+	}
+
+	/**
+	 * 获取值的编码，值不在字典中时加入字典
+	 *
+	 * @param value
+	 *            值
+	 * @return 编码，缺失值为{@link #MISSING_CODE}
+	 */
+	public int encode(Object value) {
+		if (isMissingValue(value))
+			return MISSING_CODE;
+		Integer code = codes.get(value);
+		if (code == null) {
+			code = dictionary.size();
+			dictionary.add(value);
+			codes.put(value, code);
+		}
+		return code;
+	}
+
+	/**
+	 * 获取值在字典中的编码
+	 *
+	 * @param value
+	 *            值
+	 * @return 编码，缺失值为{@link #MISSING_CODE}，不在字典中时为-2
+	 */
+	public int codeOf(Object value) {
+		if (isMissingValue(value))
+			return MISSING_CODE;
+		Integer code = codes.get(value);
+		return code == null ? -2 : code;
+	}
+
+	/**
+	 * 获取编码对应的值
+	 *
+	 * @param code
+	 *            编码
+	 * @return 值，{@link #MISSING_CODE}对应{@link Attribute#MISSING_VALUE}
+	 */
+	public Object valueOf(int code) {
+		if (code == MISSING_CODE)
+			return Attribute.MISSING_VALUE;
+		return dictionary.get(code);
+	}
+
+	/**
+	 * 获取字典中取值的个数，编码的范围为[0, cardinality())
+	 *
+	 * @return 取值的个数
+	 */
+	public int cardinality() {
+		return dictionary.size();
+	}
+
+	/**
+	 * 获取在下标i处的值的编码
+	 *
+	 * @param i
+	 *            下标
+	 * @return 编码，缺失值为{@link #MISSING_CODE}
+	 */
+	public int codeAt(int i) {
+		if (i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		return column[i];
+	}
+
+	/**
+	 * 获取存放编码的数组，数组的前{@link #size()}个元素为向量的编码。数组不是拷贝，向量增长后可能被替换。
+	 *
+	 * @return 存放编码的数组
+	 */
+	public int[] codes() {
+		return column;
+	}
+
+	/**
+	 * 统计每个编码出现的次数，缺失值不被统计
+	 *
+	 * @return 长度为{@link #cardinality()}的数组
+	 */
+	public int[] countCodes() {
+		int[] counts = new int[dictionary.size()];
+		for (int i = 0; i < size; i++)
+			if (column[i] != MISSING_CODE)
+				counts[column[i]]++;
+		return counts;
+	}
+
+	/**
+	 * 保证容量不小于声明的容量
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > column.length)
+			setCapacity(Math.max(capacity, incrementFactor * (column.length + 1)));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#copy()
+	 */
+	@Override
+	public DictionaryVector copy() {
+		DictionaryVector vector = new DictionaryVector(this.capacity());
+		vector.dictionary.addAll(dictionary);
+		vector.codes.putAll(codes);
+		vector.size = this.size;
+		System.arraycopy(this.column, 0, vector.column, 0, size);
+		vector.validity = validity.copy();
+		return vector;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#setCapacity(int)
+	 */
+	@Override
+	public void setCapacity(int capacity) {
+		int[] newColumn = new int[capacity];
+		System.arraycopy(column, 0, newColumn, 0, Math.min(capacity, size));
+		this.column = newColumn;
+		if (column.length < size) {
+			size = column.length;
+			validity.truncate(size);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#capacity()
+	 */
+	@Override
+	public int capacity() {
+		return this.column.length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#back()
+	 */
+	@Override
+	public Object back() {
+		return valueOf(column[size - 1]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#at(int)
+	 */
+	@Override
+	public Object at(int i) {
+		return valueOf(codeAt(i));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#set(int, java.lang.Object)
+	 */
+	@Override
+	public void set(int i, Object value) {
+		if (i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		column[i] = encode(value);
+		validity.set(i, column[i] != MISSING_CODE);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#insert(int, java.lang.Object)
+	 */
+	@Override
+	public void insert(int i, Object value) {
+		if (i < 0 || i > size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		ensureCapacity(size + 1);
+		System.arraycopy(column, i, column, i + 1, size - i);
+		column[i] = encode(value);
+		validity.insert(i, column[i] != MISSING_CODE);
+		size++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#remove(int)
+	 */
+	@Override
+	public void remove(int i) {
+		if (i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		System.arraycopy(column, i + 1, column, i, size - i - 1);
+		validity.remove(i);
+		size--;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#clear()
+	 */
+	@Override
+	public void clear() {
+		validity.clear();
+		size = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#push(java.lang.Object)
+	 */
+	@Override
+	public void push(Object value) {
+		if (size == column.length)
+			setCapacity(incrementFactor * (column.length + 1));
+		column[size] = encode(value);
+		validity.push(column[size] != MISSING_CODE);
+		size++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#append(artiano.core.structure.IncrementVector)
+	 */
+	@Override
+	public void append(IncrementVector vector) {
+		ensureCapacity(size + vector.size);
+		if (vector instanceof DictionaryVector) {
+			// translate the codes of the other dictionary once
+			DictionaryVector v = (DictionaryVector) vector;
+			int[] map = new int[v.dictionary.size()];
+			for (int c = 0; c < map.length; c++)
+				map[c] = encode(v.dictionary.get(c));
+			for (int i = 0; i < v.size; i++)
+				column[size + i] = v.column[i] == MISSING_CODE ? MISSING_CODE : map[v.column[i]];
+		} else {
+			for (int i = 0; i < vector.size; i++)
+				column[size + i] = encode(vector.at(i));
+		}
+		for (int i = 0; i < vector.size; i++)
+			validity.push(column[size + i] != MISSING_CODE);
+		size += vector.size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#pop()
+	 */
+	@Override
+	public void pop() {
+		if (size == 0)
+			throw new ArrayIndexOutOfBoundsException(-1);
+		size--;
+		validity.truncate(size);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#retain(long[], int)
+	 */
+	@Override
+	public void retain(long[] keep, int length) {
+		int j = 0;
+		for (int i = 0; i < size; i++)
+			if (i >= length || ValidityBitmap.get(keep, i))
+				column[j++] = column[i];
+		validity.retain(keep, length);
+		size = j;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#indexOf(java.lang.Object)
+	 */
+	@Override
+	public int indexOf(Object value) {
+		int code = codeOf(value);
+		for (int i = 0; i < size; i++)
+			if (column[i] == code)
+				return i;
+		return -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#toArray()
+	 */
+	@Override
+	public Object[] toArray() {
+		Object[] obj = new Object[size];
+		for (int i = 0; i < size; i++)
+			obj[i] = valueOf(column[i]);
+		return obj;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#trim()
+	 */
+	@Override
+	public void trim() {
+		if (column.length != size)
+			setCapacity(size);
+	}
+
+}
@@ -0,0 +1,594 @@
+/**
+ * DoubleVector.java
+ */
+package artiano.core.structure;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * <p>
+ * 基础数据结构，使用<code>double[]</code>存放数值的自增长向量，是{@link NumericAttribute}默认的值向量。
+ * 与{@link IncrementVector}的语义相同，但每个值只占8个字节，读写不需要装箱与拆箱。通过
+ * {@link #array()}、{@link #buffer()}与{@link #copyTo(int, double[], int, int)}可以直接访问或成块拷贝数据。
+ * </p>
+ * <p>
+ * 继承自{@link IncrementVector}的方法以{@link Double}读写，字符串按数值解析，不能解析的值（包括<code>null</code>）
+ * 存放为缺失值{@link Attribute#MISSING_VALUE}。通过{@link #array()}直接写入数据后应调用{@link #refresh()}
+ * 重建有效位图。
+ * </p>
+ * <p>
+ * 向量在写入值时增量地维护非缺失值的个数、和、最小值、最大值与离差平方和（Welford方法），
+ * 因此{@link #min()}、{@link #max()}、{@link #mean()}与{@link #variance()}都是O(1)的。
+ * 移除值或覆盖非缺失值后统计量被标记为过期，在下次获取时重新计算一次，多个线程同时只读访问时也是安全的。
+ * </p>
+ *
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class DoubleVector extends IncrementVector {
+	private static final long serialVersionUID = 2870543265170498371L;
+
+	/** 存储数值的数组 */
+	protected double[] values = null;
+	/** 统计量是否与数据一致，最后写入，读到true时其余统计量都已写入 */
+	private volatile boolean statsValid = true;
+	/** 非缺失值的个数 */
+	private int count = 0;
+	/** 非缺失值的和 */
+	private double sum = 0;
+	/** 非缺失值的均值（Welford） */
+	private double average = 0;
+	/** 非缺失值的离差平方和 */
+	private double m2 = 0;
+	/** 最小值 */
+	private double min = Attribute.MISSING_VALUE;
+	/** 最大值 */
+	private double max = Attribute.MISSING_VALUE;
+
+	/**
+	 * 构造一个数值向量，此时向量的容量为{@link #DEFAULT_CAPACITY}
+	 */
+	public DoubleVector() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 构造一个数值向量
+	 *
+	 * @param capacity
+	 *            向量容量
+	 */
+	public DoubleVector(int capacity) {
+		super(0);
+		this.values = new double[capacity];
+		this.validity = new ValidityBitmap(capacity);
+	}
+
+	/**
+	 * 使用数组中的前size个值构造一个数值向量，数组被直接使用而不拷贝
+	 *
+	 * @param values
+	 *            数值数组
+	 * @param size
+	 *            向量大小
+	 */
+	public DoubleVector(double[] values, int size) {
+		super(0);
+		if (size < 0 || size > values.length)
+			throw new IllegalArgumentException("DoubleVector, size out of range.");
+		this.values = values;
+		this.size = size;
+		refresh();
+	}
+
+	/**
+	 * 将一个值向量转换为数值向量
+	 *
+	 * @param vector
+	 *            值向量
+	 */
+	public DoubleVector(IncrementVector vector) {
+		this(Math.max(vector.size(), DEFAULT_CAPACITY));
+		append(vector);
+	}
+
+	/**
+	 * 将值转换为double，字符串按数值解析，不能解析的值转换为缺失值
+	 */
+	private static double toDouble(Object value) {
+		if (value instanceof Number)
+			return ((Number) value).doubleValue();
+		if (value instanceof String) {
+			try {
+				return Double.parseDouble((String) value);
+			} catch (NumberFormatException e) {
+				return Attribute.MISSING_VALUE;
+			}
+		}
+		return Attribute.MISSING_VALUE;
+	}
+
+	/**
+	 * 根据数组中的值重建有效位图并将统计量标记为过期，在通过{@link #array()}直接写入数据后调用
+	 */
+	public void refresh() {
+		validity.clear();
+		for (int i = 0; i < size; i++)
+			validity.push(values[i] == values[i]);
+		statsValid = false;
+	}
+
+	/**
+	 * 将一个值计入统计量，缺失值被忽略
+	 */
+	private void accumulate(double x) {
+		if (x != x || !statsValid)
+			return;
+		count++;
+		sum += x;
+		double delta = x - average;
+		average += delta / count;
+		m2 += delta * (x - average);
+		if (count == 1 || x < min)
+			min = x;
+		if (count == 1 || x > max)
+			max = x;
+	}
+
+	/**
+	 * 清空统计量
+	 */
+	private void resetStatistics() {
+		statsValid = true;
+		count = 0;
+		sum = average = m2 = 0;
+		min = max = Attribute.MISSING_VALUE;
+	}
+
+	/**
+	 * 统计量过期时重新计算。先在局部变量中计算，再一并写入，因此多个线程同时读取过期的统计量时，
+	 * 各自写入的都是相同的值
+	 */
+	private void ensureStatistics() {
+		if (statsValid)
+			return;
+		int c = 0;
+		double s = 0, avg = 0, m = 0;
+		double lo = Attribute.MISSING_VALUE, hi = Attribute.MISSING_VALUE;
+		for (int i = 0; i < size; i++) {
+			double x = values[i];
+			if (x != x)
+				continue;
+			c++;
+			s += x;
+			double delta = x - avg;
+			avg += delta / c;
+			m += delta * (x - avg);
+			if (c == 1 || x < lo)
+				lo = x;
+			if (c == 1 || x > hi)
+				hi = x;
+		}
+		count = c;
+		sum = s;
+		average = avg;
+		m2 = m;
+		min = lo;
+		max = hi;
+		statsValid = true;
+	}
+
+	/**
+	 * 获取非缺失值的最小值
+	 * 
+	 * @return 最小值，全部缺失时为{@link Attribute#MISSING_VALUE}
+	 */
+	public double min() {
+		ensureStatistics();
+		return min;
+	}
+
+	/**
+	 * 获取非缺失值的最大值
+	 * 
+	 * @return 最大值，全部缺失时为{@link Attribute#MISSING_VALUE}
+	 */
+	public double max() {
+		ensureStatistics();
+		return max;
+	}
+
+	/**
+	 * 获取非缺失值的和
+	 * 
+	 * @return 和
+	 */
+	public double sum() {
+		ensureStatistics();
+		return sum;
+	}
+
+	/**
+	 * 获取非缺失值的均值
+	 * 
+	 * @return 均值，全部缺失时为NaN
+	 */
+	public double mean() {
+		ensureStatistics();
+		return sum / count;
+	}
+
+	/**
+	 * 获取非缺失值的样本方差
+	 * 
+	 * @return 方差
+	 */
+	public double variance() {
+		ensureStatistics();
+		return m2 / (count - 1);
+	}
+
+	/**
+	 * 保证容量不小于声明的容量
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > values.length)
+			setCapacity(Math.max(capacity, incrementFactor * (values.length + 1)));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#copy()
+	 */
+	@Override
+	public DoubleVector copy() {
+		DoubleVector vector = new DoubleVector(this.capacity());
+		vector.size = this.size;
+		System.arraycopy(this.values, 0, vector.values, 0, size);
+		vector.validity = validity.copy();
+		vector.statsValid = statsValid;
+		vector.count = count;
+		vector.sum = sum;
+		vector.average = average;
+		vector.m2 = m2;
+		vector.min = min;
+		vector.max = max;
+		return vector;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#setCapacity(int)
+	 */
+	@Override
+	public void setCapacity(int capacity) {
+		double[] newValues = new double[capacity];
+		System.arraycopy(values, 0, newValues, 0, Math.min(capacity, size));
+		this.values = newValues;
+		if (values.length < size) {
+			size = values.length;
+			validity.truncate(size);
+			statsValid = false;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#capacity()
+	 */
+	@Override
+	public int capacity() {
+		return this.values.length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#back()
+	 */
+	@Override
+	public Object back() {
+		return this.values[size - 1];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#at(int)
+	 */
+	@Override
+	public Object at(int i) {
+		return doubleAt(i);
+	}
+
+	/**
+	 * 获取在下标i处的值
+	 *
+	 * @param i
+	 *            下标
+	 * @return 在下标i处的值
+	 */
+	public double doubleAt(int i) {
+		if (i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		return this.values[i];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#set(int, java.lang.Object)
+	 */
+	@Override
+	public void set(int i, Object value) {
+		set(i, toDouble(value));
+	}
+
+	/**
+	 * 在下标i处设置值
+	 *
+	 * @param i
+	 *            声明的下标
+	 * @param value
+	 *            待设置的值
+	 */
+	public void set(int i, double value) {
+		if (i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		// overwriting a value may move min or max, recompute later
+		if (values[i] == values[i])
+			statsValid = false;
+		this.values[i] = value;
+		validity.set(i, value == value);
+		accumulate(value);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#insert(int, java.lang.Object)
+	 */
+	@Override
+	public void insert(int i, Object value) {
+		insert(i, toDouble(value));
+	}
+
+	/**
+	 * 在下标i处插入一个值
+	 *
+	 * @param i
+	 *            声明的下标
+	 * @param value
+	 *            待插入的值
+	 */
+	public void insert(int i, double value) {
+		if (i < 0 || i > size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		ensureCapacity(size + 1);
+		System.arraycopy(values, i, values, i + 1, size - i);
+		values[i] = value;
+		validity.insert(i, value == value);
+		accumulate(value);
+		size++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#remove(int)
+	 */
+	@Override
+	public void remove(int i) {
+		if (i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		// removing a missing value leaves the statistics unchanged
+		if (values[i] == values[i])
+			statsValid = false;
+		System.arraycopy(values, i + 1, values, i, size - i - 1);
+		validity.remove(i);
+		size--;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#clear()
+	 */
+	@Override
+	public void clear() {
+		validity.clear();
+		resetStatistics();
+		size = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#push(java.lang.Object)
+	 */
+	@Override
+	public void push(Object value) {
+		push(toDouble(value));
+	}
+
+	/**
+	 * 在向量的尾部插入一个值
+	 *
+	 * @param value
+	 *            待插入的值
+	 */
+	public void push(double value) {
+		if (size == values.length)
+			setCapacity(incrementFactor * (values.length + 1));
+		values[size++] = value;
+		validity.push(value == value);
+		accumulate(value);
+	}
+
+	/**
+	 * 在向量的尾部成块地插入数组src中从offset开始的length个值
+	 *
+	 * @param src
+	 *            数组
+	 * @param offset
+	 *            起始下标
+	 * @param length
+	 *            值的个数
+	 */
+	public void push(double[] src, int offset, int length) {
+		ensureCapacity(size + length);
+		System.arraycopy(src, offset, values, size, length);
+		for (int i = 0; i < length; i++) {
+			validity.push(src[offset + i] == src[offset + i]);
+			accumulate(src[offset + i]);
+		}
+		size += length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#append(artiano.core.structure.IncrementVector)
+	 */
+	@Override
+	public void append(IncrementVector vector) {
+		if (vector instanceof DoubleVector) {
+			push(((DoubleVector) vector).values, 0, vector.size);
+			return;
+		}
+		ensureCapacity(size + vector.size);
+		for (int i = 0; i < vector.size; i++) {
+			values[size + i] = toDouble(vector.at(i));
+			validity.push(values[size + i] == values[size + i]);
+			accumulate(values[size + i]);
+		}
+		size += vector.size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#pop()
+	 */
+	@Override
+	public void pop() {
+		if (size == 0)
+			throw new ArrayIndexOutOfBoundsException(-1);
+		size--;
+		validity.truncate(size);
+		if (values[size] == values[size])
+			statsValid = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#retain(long[], int)
+	 */
+	@Override
+	public void retain(long[] keep, int length) {
+		int j = 0;
+		for (int i = 0; i < size; i++)
+			if (i >= length || ValidityBitmap.get(keep, i))
+				values[j++] = values[i];
+		validity.retain(keep, length);
+		if (j < size)
+			statsValid = false;
+		size = j;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#indexOf(java.lang.Object)
+	 */
+	@Override
+	public int indexOf(Object value) {
+		if (!(value instanceof Number))
+			return -1;
+		double x = ((Number) value).doubleValue();
+		for (int i = 0; i < size; i++)
+			// Double.equals semantics, NaN equals NaN
+			if (Double.doubleToLongBits(values[i]) == Double.doubleToLongBits(x))
+				return i;
+		return -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#toArray()
+	 */
+	@Override
+	public Object[] toArray() {
+		Object[] obj = new Object[size];
+		for (int i = 0; i < size; i++)
+			obj[i] = values[i];
+		return obj;
+	}
+
+	/**
+	 * 将向量拷贝为数值数组
+	 *
+	 * @return 长度为{@link #size()}的数组
+	 */
+	public double[] toDoubleArray() {
+		double[] d = new double[size];
+		System.arraycopy(values, 0, d, 0, size);
+		return d;
+	}
+
+	/**
+	 * 获取存放数值的数组，数组的前{@link #size()}个元素为向量的值。数组不是拷贝，向量增长后可能被替换。
+	 *
+	 * @return 存放数值的数组
+	 */
+	public double[] array() {
+		return values;
+	}
+
+	/**
+	 * 获取包装向量数据的缓冲区，位置为0，界限为{@link #size()}，与向量共享数据
+	 *
+	 * @return 缓冲区
+	 */
+	public DoubleBuffer buffer() {
+		return DoubleBuffer.wrap(values, 0, size);
+	}
+
+	/**
+	 * 将从from开始的length个值拷贝到数组dst中从offset开始的位置
+	 *
+	 * @param from
+	 *            向量中的起始下标
+	 * @param dst
+	 *            目标数组
+	 * @param offset
+	 *            目标数组中的起始下标
+	 * @param length
+	 *            值的个数
+	 */
+	public void copyTo(int from, double[] dst, int offset, int length) {
+		if (from < 0 || from + length > size)
+			throw new ArrayIndexOutOfBoundsException("DoubleVector copyTo, range out of size.");
+		System.arraycopy(values, from, dst, offset, length);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see artiano.core.structure.IncrementVector#trim()
+	 */
+	@Override
+	public void trim() {
+		if (values.length != size)
+			setCapacity(size);
+	}
+
+}
@@ -0,0 +1,529 @@
+/**
+ * FloatMatrix.java
+ */
+package artiano.core.structure;
+
+import java.io.Serializable;
+
+/**
+ * <p>单精度浮点型矩阵。</p>
+ * <p>对于传感器特征、归一化后的CSV数据等不需要64位精度的数据，使用单精度存储可以减少一半的内存以及内存带宽。
+ * 这个类提供了与{@link Matrix}相同的主要运算（乘法、加减、转置、均值、归一化等），数据以行优先的方式紧密存放于
+ * <code>float[]</code>中；求和、均值等累加运算在内部使用双精度进行以减小舍入误差。</p>
+ * <p>与{@link Matrix}之间的转换需要显式进行：
+ * <pre><code>
+ * FloatMatrix f = FloatMatrix.valueOf(x); //Matrix -> FloatMatrix
+ * Matrix y = f.toMatrix(); //FloatMatrix -> Matrix
+ * </code></pre></p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class FloatMatrix implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	/** 矩阵乘法中行的分块大小 */
+	static final int BLOCK_ROWS = 64;
+	/** 矩阵乘法中公共维的分块大小 */
+	static final int BLOCK_DEPTH = 256;
+	/**
+	 * 矩阵的行数
+	 */
+	protected int rows = 0;
+	/**
+	 * 矩阵的列数
+	 */
+	protected int cols = 0;
+	/**
+	 * 保存矩阵的数据
+	 */
+	protected float[] d = null;
+
+	/**
+	 * 使用声明的行数rows和列数cols构造一个矩阵，此时内存已经被分配
+	 * @param rows 矩阵行数
+	 * @param cols 矩阵列数
+	 */
+	public FloatMatrix(int rows, int cols){
+		this(rows, cols, new float[rows * cols]);
+	}
+
+	/**
+	 * 使用声明的行数和列数以及预先分配的单精度浮点型数据构造一个矩阵。
+	 * @param rows 矩阵行数
+	 * @param cols 矩阵列数
+	 * @param data 预先存储的数据（行优先）
+	 */
+	public FloatMatrix(int rows, int cols, float[] data){
+		if (cols <= 0 || rows <= 0)
+			throw new IllegalArgumentException("FloatMatrix, columns and rows must be positive integer.");
+		if (cols * rows > data.length)
+			throw new IllegalArgumentException("FloatMatrix, the size of the matrix does not match the length of the data.");
+		this.rows = rows;
+		this.cols = cols;
+		this.d = data;
+	}
+
+	/**
+	 * 将双精度矩阵转换为单精度矩阵，超出单精度表示范围的数将变为无穷大。
+	 * @param x 双精度矩阵
+	 * @return 单精度矩阵
+	 */
+	public static FloatMatrix valueOf(Matrix x){
+		FloatMatrix y = new FloatMatrix(x.rows(), x.columns());
+		int c = 0;
+		if (x.d != null){
+			for (int i = 0; i < x.rows; i++){
+				int xi = x.offset() + i * x.dCols;
+				for (int j = 0; j < x.cols; j++)
+					y.d[c++] = (float)x.d[xi + j];
+			}
+		} else {
+			for (int i = 0; i < x.rows(); i++)
+				for (int j = 0; j < x.columns(); j++)
+					y.d[c++] = (float)x.at(i, j);
+		}
+		return y;
+	}
+
+	/**
+	 * 将矩阵转换为双精度矩阵。
+	 * @return 双精度矩阵
+	 */
+	public Matrix toMatrix(){
+		double[] x = new double[rows * cols];
+		for (int i = 0; i < x.length; i++)
+			x[i] = d[i];
+		return new Matrix(rows, cols, x);
+	}
+
+	/**
+	 * 将矩阵的第i行转换后写入双精度矩阵dst的第0行。
+	 * @param i 行下标
+	 * @param dst 目标矩阵，为1*columns()的行向量
+	 */
+	public void rowTo(int i, Matrix dst){
+		if (i < 0 || i >= rows)
+			throw new IndexOutOfBoundsException("FloatMatrix rowTo, index out of range.");
+		if (dst.rows() != 1 || dst.columns() != cols)
+			throw new IllegalArgumentException("FloatMatrix rowTo, size not match.");
+		for (int j = 0; j < cols; j++)
+			dst.set(0, j, d[i * cols + j]);
+	}
+
+	/**
+	 * 获取存储于矩阵中的数据。
+	 * @return 数据
+	 */
+	public float[] data(){
+		return d;
+	}
+
+	/**
+	 * 获取矩阵的行数。
+	 * @return 矩阵行数。
+	 */
+	public int rows(){
+		return rows;
+	}
+
+	/**
+	 * 获取矩阵的列数。
+	 * @return 矩阵的列数。
+	 */
+	public int columns(){
+		return cols;
+	}
+
+	/**
+	 * 得到矩阵大小（size=rows*columns）
+	 * @return
+	 */
+	public int size(){
+		return rows * cols;
+	}
+
+	/**
+	 * 判断两个矩阵是否是同型矩阵（即行列相等）
+	 * @param x
+	 * @return 同型返回<code>true</code>，反之则反
+	 */
+	public boolean sameType(FloatMatrix x){
+		return rows == x.rows && cols == x.cols;
+	}
+
+	/**
+	 * 获取矩阵在行下标为i列下标为j处的值。
+	 * @param i 行下标。
+	 * @param j 列下标。
+	 * @return 值。
+	 */
+	public float at(int i, int j){
+		if (i < 0 || i >= rows || j < 0 || j >= cols)
+			throw new IndexOutOfBoundsException("FloatMatrix at, index out of range.");
+		return d[i * cols + j];
+	}
+
+	/**
+	 * 获取向量在下标i处的值（行向量或列向量均可）。
+	 * @param i 下标。
+	 * @return 值。
+	 */
+	public float at(int i){
+		if (rows != 1 && cols != 1)
+			throw new UnsupportedOperationException("FloatMatrix at, only vector takes one parameter.");
+		if (i < 0 || i >= rows * cols)
+			throw new IndexOutOfBoundsException("FloatMatrix at, index out of range.");
+		return d[i];
+	}
+
+	/**
+	 * 设置矩阵在行下标i以及列下标j出的值。
+	 * @param i 行下标。
+	 * @param j 列下标。
+	 * @param value 需要设置的值。
+	 */
+	public void set(int i, int j, float value){
+		if (i < 0 || i >= rows || j < 0 || j >= cols)
+			throw new IndexOutOfBoundsException("FloatMatrix set, index out of range.");
+		d[i * cols + j] = value;
+	}
+
+	/**
+	 * 获取矩阵在行下标为i处的行向量（拷贝）。
+	 * @param i 行下标。
+	 * @return 行向量。
+	 */
+	public FloatMatrix row(int i){
+		if (i < 0 || i >= rows)
+			throw new IndexOutOfBoundsException("FloatMatrix row, index out of range.");
+		FloatMatrix x = new FloatMatrix(1, cols);
+		System.arraycopy(d, i * cols, x.d, 0, cols);
+		return x;
+	}
+
+	/**
+	 * 转置当前矩阵。
+	 * @return 矩阵的转置。
+	 */
+	public FloatMatrix t(){
+		FloatMatrix x = new FloatMatrix(cols, rows);
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < cols; j++)
+				x.d[j * rows + i] = d[i * cols + j];
+		return x;
+	}
+
+	/**
+	 * 矩阵加法 (z = x + y)
+	 * @param x
+	 * @param reserve 指示是否保留原始矩阵
+	 * @return 结果
+	 */
+	public FloatMatrix plus(FloatMatrix x, boolean reserve){
+		if (!sameType(x))
+			throw new IllegalArgumentException("FloatMatrix add, size not match.");
+		FloatMatrix y = reserve ? new FloatMatrix(rows, cols): this;
+		for (int i = 0; i < rows * cols; i++)
+			y.d[i] = d[i] + x.d[i];
+		return y;
+	}
+
+	/**
+	 * 矩阵加法 (z = x + y)，结果将替换原始矩阵。
+	 * @param x
+	 * @return 结果
+	 */
+	public FloatMatrix plus(FloatMatrix x){
+		return plus(x, false);
+	}
+
+	/**
+	 * 矩阵加法 (z=x+y, y 为标量)
+	 * @param x
+	 * @param reserve 指示是否保留原始矩阵
+	 * @return 结果
+	 */
+	public FloatMatrix plus(Number x, boolean reserve){
+		FloatMatrix y = reserve ? new FloatMatrix(rows, cols): this;
+		float v = x.floatValue();
+		for (int i = 0; i < rows * cols; i++)
+			y.d[i] = d[i] + v;
+		return y;
+	}
+
+	/**
+	 * 矩阵加法 (z=x+y, y 为标量)，结果将替换原始矩阵。
+	 * @param x
+	 * @return 结果
+	 */
+	public FloatMatrix plus(Number x){
+		return plus(x, false);
+	}
+
+	/**
+	 * 矩阵减法 (z=x-y)
+	 * @param x
+	 * @param reserve 指示是否保留原始矩阵
+	 * @return 结果
+	 */
+	public FloatMatrix minus(FloatMatrix x, boolean reserve){
+		if (!sameType(x))
+			throw new IllegalArgumentException("FloatMatrix minus, size not match.");
+		FloatMatrix y = reserve ? new FloatMatrix(rows, cols): this;
+		for (int i = 0; i < rows * cols; i++)
+			y.d[i] = d[i] - x.d[i];
+		return y;
+	}
+
+	/**
+	 * 矩阵减法 (z=x-y)，结果将替换原始矩阵。
+	 * @param x
+	 * @return 结果
+	 */
+	public FloatMatrix minus(FloatMatrix x){
+		return minus(x, false);
+	}
+
+	/**
+	 * 矩阵减法 (z=x-y, y 为标量)
+	 * @param x
+	 * @param reserve 指示是否保留原始矩阵
+	 * @return 结果
+	 */
+	public FloatMatrix minus(Number x, boolean reserve){
+		return plus(-x.floatValue(), reserve);
+	}
+
+	/**
+	 * 矩阵减法 (z=x-y, y 为标量)，结果将替换原始矩阵。
+	 * @param x
+	 * @return 结果
+	 */
+	public FloatMatrix minus(Number x){
+		return minus(x, false);
+	}
+
+	/**
+	 * 矩阵数乘
+	 * @param x
+	 * @param reserve 指示是否保留原始矩阵
+	 * @return 结果
+	 */
+	public FloatMatrix multiply(Number x, boolean reserve){
+		FloatMatrix y = reserve ? new FloatMatrix(rows, cols): this;
+		float v = x.floatValue();
+		for (int i = 0; i < rows * cols; i++)
+			y.d[i] = d[i] * v;
+		return y;
+	}
+
+	/**
+	 * 矩阵数乘，结果将替换原始矩阵。
+	 * @param x
+	 * @return 结果
+	 */
+	public FloatMatrix multiply(Number x){
+		return multiply(x, false);
+	}
+
+	/**
+	 * 矩阵除法(z=x/y, y 为标量)
+	 * @param x
+	 * @param reserve 指示是否保留原始矩阵
+	 * @return 结果
+	 */
+	public FloatMatrix divide(Number x, boolean reserve){
+		if (x.doubleValue() == 0.)
+			throw new ArithmeticException("FloatMatrix divide, divisor is 0.");
+		return multiply(1. / x.doubleValue(), reserve);
+	}
+
+	/**
+	 * 矩阵除法(z=x/y, y 为标量)，结果将替换原始矩阵。
+	 * @param x
+	 * @return 结果
+	 */
+	public FloatMatrix divide(Number x){
+		return divide(x, false);
+	}
+
+	/**
+	 * 矩阵乘法 (z=x*y)，按行和公共维分块以i-k-j顺序计算。
+	 * @param x
+	 * @return 结果
+	 */
+	public FloatMatrix multiply(FloatMatrix x){
+		if (x.rows != cols)
+			throw new IllegalArgumentException("FloatMatrix multiplication, size not match.");
+		int m = rows;
+		int s = cols;
+		int n = x.cols;
+		FloatMatrix y = new FloatMatrix(m, n);
+		float[] a = d, b = x.d, c = y.d;
+		for (int i0 = 0; i0 < m; i0 += BLOCK_ROWS){
+			int i1 = Math.min(m, i0 + BLOCK_ROWS);
+			for (int p0 = 0; p0 < s; p0 += BLOCK_DEPTH){
+				int p1 = Math.min(s, p0 + BLOCK_DEPTH);
+				for (int i = i0; i < i1; i++){
+					int ci = i * n;
+					for (int p = p0; p < p1; p++){
+						float aip = a[i * s + p];
+						int bp = p * n;
+						for (int j = 0; j < n; j++)
+							c[ci + j] += aip * b[bp + j];
+					}
+				}
+			}
+		}
+		return y;
+	}
+
+	/**
+	 * 求取矩阵行元素的最大值
+	 * @return 1*columns()的行向量
+	 */
+	public FloatMatrix rowMax(){
+		FloatMatrix m = new FloatMatrix(1, cols);
+		System.arraycopy(d, 0, m.d, 0, cols);
+		for (int i = 1; i < rows; i++)
+			for (int j = 0; j < cols; j++)
+				if (m.d[j] < d[i * cols + j])
+					m.d[j] = d[i * cols + j];
+		return m;
+	}
+
+	/**
+	 * 求取矩阵行元素的最小值
+	 * @return 1*columns()的行向量
+	 */
+	public FloatMatrix rowMin(){
+		FloatMatrix m = new FloatMatrix(1, cols);
+		System.arraycopy(d, 0, m.d, 0, cols);
+		for (int i = 1; i < rows; i++)
+			for (int j = 0; j < cols; j++)
+				if (m.d[j] > d[i * cols + j])
+					m.d[j] = d[i * cols + j];
+		return m;
+	}
+
+	/**
+	 * 计算矩阵的行向量集合的均值向量。
+	 * @return 均值向量。
+	 */
+	public FloatMatrix rowMean(){
+		double[] sum = new double[cols];
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < cols; j++)
+				sum[j] += d[i * cols + j];
+		FloatMatrix mean = new FloatMatrix(1, cols);
+		for (int j = 0; j < cols; j++)
+			mean.d[j] = (float)(sum[j] / rows);
+		return mean;
+	}
+
+	/**
+	 * 计算矩阵的列向量集合的均值向量。
+	 * @return 均值向量。
+	 */
+	public FloatMatrix colMean(){
+		FloatMatrix mean = new FloatMatrix(rows, 1);
+		for (int i = 0; i < rows; i++){
+			double sum = 0.;
+			for (int j = 0; j < cols; j++)
+				sum += d[i * cols + j];
+			mean.d[i] = (float)(sum / cols);
+		}
+		return mean;
+	}
+
+	/**
+	 * 将矩阵按行归一化到[-1,1]
+	 * @param reserve 指示是否保留原矩阵
+	 * @return
+	 */
+	public FloatMatrix normalizeRowsN11(boolean reserve){
+		return normalizeRows(reserve, 2.f, -1.f);
+	}
+
+	/**
+	 * 将矩阵按行归一化到[-1,1]
+	 * @return
+	 */
+	public FloatMatrix normalizeRowsN11(){
+		return normalizeRowsN11(false);
+	}
+
+	/**
+	 * 将矩阵按行归一化到[0,1]
+	 * @param reserve 指示是否保留原矩阵
+	 * @return
+	 */
+	public FloatMatrix normalizeRows01(boolean reserve){
+		return normalizeRows(reserve, 1.f, 0.f);
+	}
+
+	/**
+	 * 将矩阵按行归一化到[0,1]
+	 * @return
+	 */
+	public FloatMatrix normalizeRows01(){
+		return normalizeRows01(false);
+	}
+
+	/**
+	 * 按行归一化：x=scale*(x-min)/(max-min)+shift
+	 */
+	private FloatMatrix normalizeRows(boolean reserve, float scale, float shift){
+		FloatMatrix x = reserve ? new FloatMatrix(rows, cols): this;
+		FloatMatrix max = rowMax();
+		FloatMatrix min = rowMin();
+		float[] factor = new float[cols];
+		for (int j = 0; j < cols; j++)
+			factor[j] = scale / (max.d[j] - min.d[j]);
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < cols; j++)
+				x.d[i * cols + j] = (d[i * cols + j] - min.d[j]) * factor[j] + shift;
+		return x;
+	}
+
+	/**
+	 * 克隆一个矩阵。
+	 */
+	@Override
+	public FloatMatrix clone(){
+		FloatMatrix x = new FloatMatrix(rows, cols);
+		System.arraycopy(d, 0, x.d, 0, rows * cols);
+		return x;
+	}
+
+	/**
+	 * 检查两个矩阵是否相等。
+	 */
+	@Override
+	public boolean equals(Object obj){
+		if (!(obj instanceof FloatMatrix))
+			return false;
+		FloatMatrix x = (FloatMatrix)obj;
+		if (!sameType(x))
+			return false;
+		for (int i = 0; i < rows * cols; i++)
+			if (d[i] != x.d[i])
+				return false;
+		return true;
+	}
+
+	@Override
+	public int hashCode(){
+		return rows * cols;
+	}
+
+	/**
+	 * 辅助方法，将矩阵打印到控制台
+	 */
+	public void print(){
+		toMatrix().print();
+	}
+}
@@ -0,0 +1,337 @@
+/**
+ * Gemm.java
+ */
+package artiano.core.structure;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>通用矩阵乘法（GEMM）计算核心，计算：
+ * <pre><code>
+ * C = alpha*op(A)*op(B) + beta*C
+ * </code></pre>
+ * 其中op(X)为X或X的转置。所有矩阵都以行优先的方式存放于一维数组中，由偏移量（offset）和行跨度
+ * （leading dimension，即相邻两行首元素在数组中的距离）描述，因此可以直接作用于子矩阵。</p>
+ * <p>实现上将A、B按缓存大小分块并打包（packing）为连续的面板，再由4*4的寄存器分块微内核完成计算；
+ * 当计算量超过阈值时，按输出矩阵C的分块使用Fork/Join并行计算。</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public final class Gemm {
+	/** 微内核的行分块大小 */
+	static final int MR = 4;
+	/** 微内核的列分块大小 */
+	static final int NR = 4;
+	/** A面板的行数（MR的整数倍），使打包后的A驻留在L2缓存中 */
+	static final int MC = 128;
+	/** 打包面板的公共维长度 */
+	static final int KC = 256;
+	/** B面板的列数（NR的整数倍） */
+	static final int NC = 2048;
+	/** 计算量（m*n*k）小于此值时直接使用简单循环，避免打包的开销 */
+	static final long SMALL_WORK = 24L * 24 * 24;
+	/** 计算量（m*n*k）大于此值时并行计算 */
+	static final long PARALLEL_WORK = 96L * 96 * 96;
+	/** 并行计算时每个任务的最小计算量 */
+	static final long TASK_WORK = 64L * 64 * 256;
+
+	/** 是否允许并行计算 */
+	private static volatile boolean parallel = true;
+	/** 并行计算使用的线程池 */
+	private static ForkJoinPool pool = null;
+	/** 每个线程的打包缓冲区 */
+	private static final ThreadLocal<double[][]> buffers = new ThreadLocal<double[][]>(){
+		@Override
+		protected double[][] initialValue() {
+			return new double[][]{new double[MC * KC], new double[KC * NC], new double[MR * NR]};
+		}
+	};
+
+	private Gemm(){ }
+
+	/**
+	 * 设置是否允许并行计算，默认允许。
+	 * @param enabled 若为<code>false</code>，则所有计算都在调用线程中完成
+	 */
+	public static void setParallel(boolean enabled){
+		parallel = enabled;
+	}
+
+	/**
+	 * 是否允许并行计算
+	 * @return
+	 */
+	public static boolean isParallel(){
+		return parallel;
+	}
+
+	/**
+	 * 获取并行计算使用的线程池，库中其它的并行算法（如{@link artiano.math.algebra.QRDecomposition#tsqr(Matrix)}）
+	 * 也使用这个线程池
+	 * @return 线程池
+	 */
+	public static synchronized ForkJoinPool pool(){
+		if (pool == null)
+			pool = new ForkJoinPool();
+		return pool;
+	}
+
+	/**
+	 * 计算C = alpha*op(A)*op(B) + beta*C，op(A)为m*k矩阵，op(B)为k*n矩阵，C为m*n矩阵。
+	 * <br><b><i>NOTICE:</i></b> C不能与A或B共享存储空间。
+	 * @param transA 是否转置A，若为<code>true</code>，则A以k*m的形式存放
+	 * @param transB 是否转置B，若为<code>true</code>，则B以n*k的形式存放
+	 * @param m op(A)与C的行数
+	 * @param n op(B)与C的列数
+	 * @param k op(A)的列数与op(B)的行数
+	 * @param alpha 乘积的缩放系数
+	 * @param a A的数据
+	 * @param aOff A的首元素在a中的下标
+	 * @param lda A的行跨度
+	 * @param b B的数据
+	 * @param bOff B的首元素在b中的下标
+	 * @param ldb B的行跨度
+	 * @param beta C的缩放系数，为0时C的原始值将被忽略
+	 * @param c C的数据
+	 * @param cOff C的首元素在c中的下标
+	 * @param ldc C的行跨度
+	 */
+	public static void gemm(boolean transA, boolean transB, int m, int n, int k, double alpha,
+			double[] a, int aOff, int lda, double[] b, int bOff, int ldb,
+			double beta, double[] c, int cOff, int ldc){
+		if (m < 0 || n < 0 || k < 0)
+			throw new IllegalArgumentException("Gemm, size must not be negative.");
+		if (m == 0 || n == 0)
+			return;
+		long work = (long)m * n * k;
+		if (work <= SMALL_WORK || alpha == 0.){
+			scale(beta, c, cOff, ldc, 0, m, 0, n);
+			if (alpha != 0.)
+				simple(transA, transB, 0, m, 0, n, k, alpha, a, aOff, lda, b, bOff, ldb, c, cOff, ldc);
+			return;
+		}
+		Task task = new Task(transA, transB, 0, m, 0, n, k, alpha, a, aOff, lda, b, bOff, ldb, beta, c, cOff, ldc);
+		if (parallel && work >= PARALLEL_WORK && Runtime.getRuntime().availableProcessors() > 1)
+			pool().invoke(task);
+		else
+			task.compute();
+	}
+
+	/**
+	 * 计算C = A*B，A为m*k矩阵，B为k*n矩阵，均为行优先紧密存放
+	 * @param m A的行数
+	 * @param n B的列数
+	 * @param k A的列数
+	 * @param a A的数据
+	 * @param b B的数据
+	 * @param c C的数据
+	 */
+	public static void gemm(int m, int n, int k, double[] a, double[] b, double[] c){
+		gemm(false, false, m, n, k, 1., a, 0, k, b, 0, n, 0., c, 0, n);
+	}
+
+	/**
+	 * 对C的子块[i0,i1)*[j0,j1)乘以beta
+	 */
+	static void scale(double beta, double[] c, int cOff, int ldc, int i0, int i1, int j0, int j1){
+		if (beta == 1.)
+			return;
+		for (int i = i0; i < i1; i++){
+			int ci = cOff + i * ldc;
+			if (beta == 0.)
+				for (int j = j0; j < j1; j++) c[ci + j] = 0.;
+			else
+				for (int j = j0; j < j1; j++) c[ci + j] *= beta;
+		}
+	}
+
+	/**
+	 * 不分块的简单实现（i-k-j顺序），用于小矩阵
+	 */
+	static void simple(boolean transA, boolean transB, int i0, int i1, int j0, int j1, int k,
+			double alpha, double[] a, int aOff, int lda, double[] b, int bOff, int ldb,
+			double[] c, int cOff, int ldc){
+		for (int i = i0; i < i1; i++){
+			int ci = cOff + i * ldc;
+			for (int p = 0; p < k; p++){
+				double aip = alpha * (transA ? a[aOff + p * lda + i]: a[aOff + i * lda + p]);
+				if (transB){
+					int bj = bOff + p;
+					for (int j = j0; j < j1; j++)
+						c[ci + j] += aip * b[bj + j * ldb];
+				} else {
+					int bp = bOff + p * ldb;
+					for (int j = j0; j < j1; j++)
+						c[ci + j] += aip * b[bp + j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * 分块计算C的子块[i0,i1)*[j0,j1)，C的子块须已乘以beta
+	 */
+	static void blocked(boolean transA, boolean transB, int i0, int i1, int j0, int j1, int k,
+			double alpha, double[] a, int aOff, int lda, double[] b, int bOff, int ldb,
+			double[] c, int cOff, int ldc){
+		double[][] buf = buffers.get();
+		double[] ap = buf[0];
+		double[] bp = buf[1];
+		double[] tile = buf[2];
+		for (int jc = j0; jc < j1; jc += NC){
+			int nc = Math.min(NC, j1 - jc);
+			for (int pc = 0; pc < k; pc += KC){
+				int kc = Math.min(KC, k - pc);
+				packB(transB, b, bOff, ldb, pc, jc, kc, nc, bp);
+				for (int ic = i0; ic < i1; ic += MC){
+					int mc = Math.min(MC, i1 - ic);
+					packA(transA, a, aOff, lda, ic, pc, mc, kc, ap);
+					macroKernel(mc, nc, kc, alpha, ap, bp, c, cOff + ic * ldc + jc, ldc, tile);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 将A的子块[ic,ic+mc)*[pc,pc+kc)打包为MR行一组的连续条带，不足MR行的部分补0
+	 */
+	static void packA(boolean transA, double[] a, int aOff, int lda, int ic, int pc, int mc, int kc, double[] ap){
+		int idx = 0;
+		for (int ir = 0; ir < mc; ir += MR){
+			int mr = Math.min(MR, mc - ir);
+			for (int p = 0; p < kc; p++){
+				int ii = 0;
+				if (transA){
+					int base = aOff + (pc + p) * lda + ic + ir;
+					for (; ii < mr; ii++) ap[idx++] = a[base + ii];
+				} else {
+					int base = aOff + (ic + ir) * lda + pc + p;
+					for (; ii < mr; ii++) ap[idx++] = a[base + ii * lda];
+				}
+				for (; ii < MR; ii++) ap[idx++] = 0.;
+			}
+		}
+	}
+
+	/**
+	 * 将B的子块[pc,pc+kc)*[jc,jc+nc)打包为NR列一组的连续条带，不足NR列的部分补0
+	 */
+	static void packB(boolean transB, double[] b, int bOff, int ldb, int pc, int jc, int kc, int nc, double[] bp){
+		int idx = 0;
+		for (int jr = 0; jr < nc; jr += NR){
+			int nr = Math.min(NR, nc - jr);
+			for (int p = 0; p < kc; p++){
+				int jj = 0;
+				if (transB){
+					int base = bOff + (jc + jr) * ldb + pc + p;
+					for (; jj < nr; jj++) bp[idx++] = b[base + jj * ldb];
+				} else {
+					int base = bOff + (pc + p) * ldb + jc + jr;
+					for (; jj < nr; jj++) bp[idx++] = b[base + jj];
+				}
+				for (; jj < NR; jj++) bp[idx++] = 0.;
+			}
+		}
+	}
+
+	/**
+	 * 使用打包后的面板计算C的mc*nc子块
+	 */
+	static void macroKernel(int mc, int nc, int kc, double alpha, double[] ap, double[] bp,
+			double[] c, int cOff, int ldc, double[] tile){
+		for (int jr = 0; jr < nc; jr += NR){
+			int nr = Math.min(NR, nc - jr);
+			int bBase = (jr / NR) * kc * NR;
+			for (int ir = 0; ir < mc; ir += MR){
+				int mr = Math.min(MR, mc - ir);
+				int aBase = (ir / MR) * kc * MR;
+				microKernel(kc, alpha, ap, aBase, bp, bBase, c, cOff + ir * ldc + jr, ldc, mr, nr, tile);
+			}
+		}
+	}
+
+	/**
+	 * 4*4寄存器分块微内核，计算C的mr*nr子块 += alpha*Ap*Bp
+	 */
+	static void microKernel(int kc, double alpha, double[] ap, int ai, double[] bp, int bi,
+			double[] c, int ci, int ldc, int mr, int nr, double[] tile){
+		double c00 = 0., c01 = 0., c02 = 0., c03 = 0.;
+		double c10 = 0., c11 = 0., c12 = 0., c13 = 0.;
+		double c20 = 0., c21 = 0., c22 = 0., c23 = 0.;
+		double c30 = 0., c31 = 0., c32 = 0., c33 = 0.;
+		for (int p = 0; p < kc; p++, ai += MR, bi += NR){
+			double a0 = ap[ai], a1 = ap[ai + 1], a2 = ap[ai + 2], a3 = ap[ai + 3];
+			double b0 = bp[bi], b1 = bp[bi + 1], b2 = bp[bi + 2], b3 = bp[bi + 3];
+			c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+			c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+			c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+			c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+		}
+		if (mr == MR && nr == NR){
+			c[ci] += alpha * c00; c[ci + 1] += alpha * c01; c[ci + 2] += alpha * c02; c[ci + 3] += alpha * c03;
+			ci += ldc;
+			c[ci] += alpha * c10; c[ci + 1] += alpha * c11; c[ci + 2] += alpha * c12; c[ci + 3] += alpha * c13;
+			ci += ldc;
+			c[ci] += alpha * c20; c[ci + 1] += alpha * c21; c[ci + 2] += alpha * c22; c[ci + 3] += alpha * c23;
+			ci += ldc;
+			c[ci] += alpha * c30; c[ci + 1] += alpha * c31; c[ci + 2] += alpha * c32; c[ci + 3] += alpha * c33;
+			return;
+		}
+		//edge of the matrix
+		tile[0] = c00; tile[1] = c01; tile[2] = c02; tile[3] = c03;
+		tile[4] = c10; tile[5] = c11; tile[6] = c12; tile[7] = c13;
+		tile[8] = c20; tile[9] = c21; tile[10] = c22; tile[11] = c23;
+		tile[12] = c30; tile[13] = c31; tile[14] = c32; tile[15] = c33;
+		for (int i = 0; i < mr; i++)
+			for (int j = 0; j < nr; j++)
+				c[ci + i * ldc + j] += alpha * tile[i * NR + j];
+	}
+
+	/**
+	 * 计算C的一个子块[i0,i1)*[j0,j1)的任务，计算量较大时将子块一分为二并行计算
+	 */
+	static class Task extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final boolean transA, transB;
+		final int i0, i1, j0, j1, k;
+		final double alpha, beta;
+		final double[] a, b, c;
+		final int aOff, lda, bOff, ldb, cOff, ldc;
+
+		Task(boolean transA, boolean transB, int i0, int i1, int j0, int j1, int k, double alpha,
+				double[] a, int aOff, int lda, double[] b, int bOff, int ldb,
+				double beta, double[] c, int cOff, int ldc){
+			this.transA = transA; this.transB = transB;
+			this.i0 = i0; this.i1 = i1; this.j0 = j0; this.j1 = j1; this.k = k;
+			this.alpha = alpha; this.beta = beta;
+			this.a = a; this.aOff = aOff; this.lda = lda;
+			this.b = b; this.bOff = bOff; this.ldb = ldb;
+			this.c = c; this.cOff = cOff; this.ldc = ldc;
+		}
+
+		@Override
+		protected void compute() {
+			int rows = i1 - i0;
+			int cols = j1 - j0;
+			boolean split = parallel && (long)rows * cols * k > TASK_WORK && (rows > MC || cols > 2 * NR * 16);
+			if (!split || getPool() == null){
+				scale(beta, c, cOff, ldc, i0, i1, j0, j1);
+				blocked(transA, transB, i0, i1, j0, j1, k, alpha, a, aOff, lda, b, bOff, ldb, c, cOff, ldc);
+				return;
+			}
+			if (rows >= cols){
+				int mid = i0 + (rows / 2 + MR - 1) / MR * MR;
+				invokeAll(new Task(transA, transB, i0, mid, j0, j1, k, alpha, a, aOff, lda, b, bOff, ldb, beta, c, cOff, ldc),
+						new Task(transA, transB, mid, i1, j0, j1, k, alpha, a, aOff, lda, b, bOff, ldb, beta, c, cOff, ldc));
+			} else {
+				int mid = j0 + (cols / 2 + NR - 1) / NR * NR;
+				invokeAll(new Task(transA, transB, i0, i1, j0, mid, k, alpha, a, aOff, lda, b, bOff, ldb, beta, c, cOff, ldc),
+						new Task(transA, transB, i0, i1, mid, j1, k, alpha, a, aOff, lda, b, bOff, ldb, beta, c, cOff, ldc));
+			}
+		}
+	}
+}
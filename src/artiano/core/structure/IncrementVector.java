@@ -26,6 +26,8 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 	protected int incrementFactor = 2;
 	/** 存储属性值的数组 */
 	protected Object[] data = null;
+	/** 有效位图，与值同步维护 */
+	protected ValidityBitmap validity = null;
 	/** 默认容量 */
 	public static final int DEFAULT_CAPACITY = 50;
 
@@ -92,6 +94,62 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 	 */
 	public IncrementVector(int capacity) {
 		this.data = new Object[capacity];
+		this.validity = new ValidityBitmap(capacity);
+	}
+
+	/**
+	 * 判断一个值是否为缺失值，<code>null</code>与NaN都被认为是缺失值
+	 * 
+	 * @param value
+	 *            值
+	 * @return 若为缺失值则返回{@code true}
+	 */
+	protected static boolean isMissingValue(Object value) {
+		if (value == null)
+			return true;
+		if (value instanceof Double)
+			return ((Double) value).isNaN();
+		if (value instanceof Float)
+			return ((Float) value).isNaN();
+		return false;
+	}
+
+	/**
+	 * 判断在下标i处的值是否为缺失值
+	 * 
+	 * @param i
+	 *            下标
+	 * @return 若为缺失值则返回{@code true}
+	 */
+	public boolean isMissing(int i) {
+		return !validity.isValid(i);
+	}
+
+	/**
+	 * 判断向量中是否有缺失值
+	 * 
+	 * @return 若有缺失值则返回{@code true}
+	 */
+	public boolean hasMissing() {
+		return validity.hasMissing();
+	}
+
+	/**
+	 * 获取缺失值个数
+	 * 
+	 * @return 缺失值个数
+	 */
+	public int countMissing() {
+		return validity.countMissing();
+	}
+
+	/**
+	 * 获取向量的有效位图，第i位为1表示下标i处的值不是缺失值
+	 * 
+	 * @return 有效位图
+	 */
+	public ValidityBitmap validity() {
+		return validity;
 	}
 
 	/**
@@ -103,6 +161,7 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 		IncrementVector vector = new IncrementVector(this.capacity());
 		vector.size = this.size;
 		System.arraycopy(this.data, 0, vector.data, 0, size);
+		vector.validity = validity.copy();
 		return vector;
 	}
 
@@ -116,8 +175,10 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 		Object[] newObjects = new Object[capacity];
 		System.arraycopy(data, 0, newObjects, 0, Math.min(capacity, size));
 		this.data = newObjects;
-		if (data.length < size)
+		if (data.length < size) {
 			size = data.length;
+			validity.truncate(size);
+		}
 	}
 
 	/**
@@ -182,6 +243,7 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 	 */
 	public void set(int i, Object value) {
 		this.data[i] = value;
+		validity.set(i, !isMissingValue(value));
 	}
 
 	/**
@@ -203,6 +265,7 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 			System.arraycopy(data, i, newData, i + 1, size - i);
 			this.data = newData;
 		}
+		validity.insert(i, !isMissingValue(value));
 		size++;
 	}
 
@@ -216,6 +279,7 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 		System.arraycopy(data, i + 1, data, i, size - i - 1);
 		// clear the last reference
 		data[size - 1] = null;
+		validity.remove(i);
 		size--;
 	}
 
@@ -224,6 +288,7 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 	 */
 	public void clear() {
 		this.data = new Object[data.length];
+		validity.clear();
 		size = 0;
 	}
 
@@ -243,6 +308,7 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 			data[size] = ((Number) value).doubleValue();
 		else
 			data[size] = value;
+		validity.push(!isMissingValue(value));
 		size++;
 	}
 
@@ -253,9 +319,16 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 	 *            待附加的属性值向量
 	 */
 	public void append(IncrementVector vector) {
-		if (this.data.length < (data.length + vector.size))
+		if (this.data.length < (size + vector.size))
 			setCapacity(size + vector.size);
-		System.arraycopy(vector.data, 0, data, size, vector.size);
+		if (vector instanceof DoubleVector || vector instanceof DictionaryVector) {
+			// values are stored in a primitive array
+			for (int i = 0; i < vector.size; i++)
+				data[size + i] = vector.at(i);
+		} else
+			System.arraycopy(vector.data, 0, data, size, vector.size);
+		for (int i = 0; i < vector.size; i++)
+			validity.push(!vector.isMissing(i));
 		size = vector.size + size;
 	}
 
@@ -265,6 +338,27 @@ public class IncrementVector implements Serializable, Iterable<Object> {
 	public void pop() {
 		this.data[size - 1] = null;
 		size--;
+		validity.truncate(size);
+	}
+
+	/**
+	 * 按保留位压缩向量：前length个值中保留keep中对应位为1的值，length之后的值全部保留，
+	 * 被保留的值依次前移
+	 * 
+	 * @param keep
+	 *            保留位，参见{@link ValidityBitmap}
+	 * @param length
+	 *            保留位的个数
+	 */
+	public void retain(long[] keep, int length) {
+		int j = 0;
+		for (int i = 0; i < size; i++)
+			if (i >= length || ValidityBitmap.get(keep, i))
+				data[j++] = data[i];
+		for (int i = j; i < size; i++)
+			data[i] = null;
+		validity.retain(keep, length);
+		size = j;
 	}
 
 	/**
@@ -48,7 +48,7 @@ public class Matrix implements Serializable{
 	 */
 	protected Range colRange = null;
 	
-	private Matrix(){ }
+	Matrix(){ }
 	
 	/**
 	 * 使用声明的行数rows和列数cols构造一个矩阵，此时内存已经被分配
@@ -151,6 +151,19 @@ public class Matrix implements Serializable{
 		return ones(rows, cols, 1.);
 	}
 	
+	/**
+	 * 分配一个rows*cols的零矩阵。若当前线程打开了{@link MatrixArena}，数据将从其缓冲池中获取，并在作用域关闭时
+	 * 归还，此时矩阵不能在作用域之外使用；否则等同于<code>new Matrix(rows, cols)</code>。
+	 * @param rows 矩阵行数。
+	 * @param cols 矩阵列数。
+	 * @return 零矩阵
+	 * @see MatrixArena
+	 */
+	public static Matrix allocate(int rows, int cols){
+		MatrixArena arena = MatrixArena.current();
+		return arena == null ? new Matrix(rows, cols): arena.matrix(rows, cols);
+	}
+	
 	public static Matrix rowVector(double...x) {
 		Matrix mat = new Matrix(1, x.length);
 		for (int i = 0; i < x.length; i++)
@@ -177,7 +190,7 @@ public class Matrix implements Serializable{
 	 * @return
 	 */
 	public boolean isVector(){
-		return (rows!= 1&&cols!=1);
+		return rows == 1 || cols == 1;
 	}
 	
 	/**
@@ -251,6 +264,10 @@ public class Matrix implements Serializable{
 	 */
 	public Matrix abs(boolean reserve){
 		Matrix x = reserve?new Matrix(rows,cols):this;
+		if (d != null){
+			VectorKernels.abs(rows, cols, d, offset(), dCols, x.d, x.offset(), x.dCols);
+			return x;
+		}
 		for (int i=0; i<rows; i++)
 			for (int j=0; j<cols; j++){
 				double d = at(i, j);
@@ -269,6 +286,15 @@ public class Matrix implements Serializable{
 		return abs(false);
 	}
 	
+	/**
+	 * 获取矩阵的延迟计算表达式，之后的逐元素运算、广播与归约将在调用{@link MatrixExpression#eval()}时
+	 * 一次完成，见{@link MatrixExpression}。
+	 * @return 表达式
+	 */
+	public MatrixExpression lazy(){
+		return MatrixExpression.of(this);
+	}
+	
 	/**
 	 * 将矩阵清零。
 	 */
@@ -349,6 +375,7 @@ public class Matrix implements Serializable{
 	
 	/**
 	 * 获取矩阵在行下标为i处的行向量。
+	 * <br>每次调用都将创建一个新的子矩阵，在循环中逐行访问时可以使用{@link MatrixView#viewRow(Matrix, int)}。
 	 * @param i 行下标。
 	 * @return 特定的行向量。
 	 */
@@ -358,6 +385,7 @@ public class Matrix implements Serializable{
 	
 	/**
 	 * 获取矩阵在列下标为i处的列向量。
+	 * <br>每次调用都将创建一个新的子矩阵，在循环中逐列访问时可以使用{@link MatrixView#viewColumn(Matrix, int)}。
 	 * @param i 列下标。
 	 * @return 特定的列向量。
 	 */
@@ -416,6 +444,23 @@ public class Matrix implements Serializable{
 		return d[(i + rowRange.begin()) * dCols + j + colRange.begin()];
 	}
 	
+	/**
+	 * 矩阵首元素在数据数组{@link #data()}中的下标，矩阵在(i, j)处的元素的下标为
+	 * <code>offset()+i*dataColumns()+j</code>。
+	 * @return 下标
+	 */
+	public int offset(){
+		return rowRange.begin() * dCols + colRange.begin();
+	}
+	
+	/**
+	 * 数据数组{@link #data()}中每一行的长度，即最原始矩阵的列数。
+	 * @return 数据列数
+	 */
+	public int dataColumns(){
+		return dCols;
+	}
+	
 	/**
 	 * 获取由行范围和列范围决定的子矩阵。
 	 * <br><b><i>NOTICE:</i></b> 由这种方式获取的子矩阵将不会被拷贝，如果你想获得矩阵的子矩阵，并且需要修改其中的值，但是
@@ -568,6 +613,10 @@ public class Matrix implements Serializable{
 		if (rows != x.rows || cols != x.cols)
 			throw new IllegalArgumentException("Matrix add, size not match.");
 		Matrix y = reserve ? new Matrix(rows, cols): this;
+		if (d != null && x.d != null){
+			VectorKernels.add(rows, cols, d, offset(), dCols, x.d, x.offset(), x.dCols, y.d, y.offset(), y.dCols);
+			return y;
+		}
 		for (int i = 0; i < rows; i++)
 			for (int j = 0; j < cols; j++)
 				y.set(i, j, at(i, j) + x.at(i, j));
@@ -588,6 +637,10 @@ public class Matrix implements Serializable{
 	 */
 	public Matrix plus(Number x, boolean reserve){
 		Matrix y = reserve ? new Matrix(rows, cols): this;
+		if (d != null){
+			VectorKernels.addScalar(rows, cols, x.doubleValue(), d, offset(), dCols, y.d, y.offset(), y.dCols);
+			return y;
+		}
 		for (int i = 0; i < rows; i++)
 			for (int j = 0; j < cols; j++)
 				y.set(i, j, at(i, j) + x.doubleValue());
@@ -667,6 +720,10 @@ public class Matrix implements Serializable{
 		if (x.rows != rows || x.cols != cols)
 			throw new IllegalArgumentException("Matrix minus, size not match.");
 		Matrix y = reserve ? new Matrix(rows, cols): this;
+		if (d != null && x.d != null){
+			VectorKernels.subtract(rows, cols, d, offset(), dCols, x.d, x.offset(), x.dCols, y.d, y.offset(), y.dCols);
+			return y;
+		}
 		for (int i = 0; i < rows; i++)
 			for (int j = 0; j < cols; j++)
 				y.set(i, j, at(i, j) - x.at(i, j));
@@ -705,6 +762,10 @@ public class Matrix implements Serializable{
 	 */
 	public Matrix minus(Number x, boolean reserve){
 		Matrix y = reserve ? new Matrix(rows, cols): this;
+		if (d != null){
+			VectorKernels.addScalar(rows, cols, -x.doubleValue(), d, offset(), dCols, y.d, y.offset(), y.dCols);
+			return y;
+		}
 		for (int i = 0; i < rows; i++)
 			for (int j = 0; j < cols; j++)
 				y.set(i, j, at(i, j) - x.doubleValue());
@@ -713,6 +774,7 @@ public class Matrix implements Serializable{
 	
 	/**
 	 * 矩阵乘法 (z=x*y)
+	 * <br>使用分块并行的乘法核心{@link Gemm}计算。
 	 * @param x
 	 * @return 结果
 	 * @see #multiply(Number)
@@ -726,13 +788,29 @@ public class Matrix implements Serializable{
 		int s = x.rows;
 		int n = x.cols;
 		Matrix y = new Matrix(m, n);
-		for (int i = 0; i < m; i++)
-			for (int j = 0; j < n; j++)
-				for (int k = 0; k < s; k++)
-					y.plus(i, j ,at(i, k) * x.at(k, j));
+		if (d != null && x.d != null){
+			Gemm.gemm(false, false, m, n, s, 1., d, offset(), dCols, x.d, x.offset(), x.dCols, 0., y.d, 0, n);
+			return y;
+		}
+		//data not stored on heap (see BufferMatrix), stream the rows through a heap buffer
+		Matrix b = x.d != null ? x: x.clone();
+		int block = Math.max(1, Math.min(m, STREAM_BLOCK_SIZE / s));
+		Matrix buffer = new Matrix(block, s);
+		for (int i = 0; i < m; i += block){
+			int r = Math.min(block, m - i);
+			Matrix src = at(new Range(i, i + r), Range.all());
+			if (src instanceof BufferMatrix)
+				((BufferMatrix)src).copyRows(0, r, buffer.d, 0);
+			else
+				src.copyTo(buffer.at(new Range(0, r), Range.all()));
+			Gemm.gemm(false, false, r, n, s, 1., buffer.d, 0, s, b.d, b.offset(), b.dCols, 0., y.d, i * n, n);
+		}
 		return y;
 	}
 	
+	/** 数据不在堆上时，{@link #multiply(Matrix)}每次拷贝到堆上的元素个数 */
+	static final int STREAM_BLOCK_SIZE = 1 << 20;
+	
 	/**
 	 * 矩阵数乘
 	 * @param x
@@ -745,6 +823,10 @@ public class Matrix implements Serializable{
 	 */
 	public Matrix multiply(Number x, boolean reserve){
 		Matrix y = reserve ? new Matrix(rows, cols): this;
+		if (d != null){
+			VectorKernels.scale(rows, cols, x.doubleValue(), d, offset(), dCols, y.d, y.offset(), y.dCols);
+			return y;
+		}
 		for (int i = 0; i < rows; i++)
 			for (int j = 0; j < cols; j++)
 				y.set(i, j, at(i, j) * x.doubleValue());
@@ -829,14 +911,20 @@ public class Matrix implements Serializable{
 	/** 右转置乘，在方法{@link #multiplyTranspose(int)}方法中作为参数使用 */
 	public static final int MULTIPLY_RIGHT_TRANSPOSE = 1;
 	/**
-	 * 矩阵转置乘法
+	 * 矩阵转置乘法，{@link #MULTIPLY_LEFT_TRANSPOSE}计算x'*x，{@link #MULTIPLY_RIGHT_TRANSPOSE}计算x*x'。
+	 * 由于结果为对称矩阵，方法使用{@link Syrk}只计算结果的上三角并镜像，且不需要显式地转置矩阵。
 	 * @param method 使用何种方法做转置乘法，应使用参数{@link #MULTIPLY_LEFT_TRANSPOSE}或
 	 * {@link #MULTIPLY_RIGHT_TRANSPOSE}
 	 * @return 运算结果
 	 */
 	public Matrix multiplyTranspose(int method){
 		Matrix y = null;
-		if (method == MULTIPLY_RIGHT_TRANSPOSE){
+		if (d != null && (method == MULTIPLY_RIGHT_TRANSPOSE || method == MULTIPLY_LEFT_TRANSPOSE)){
+			boolean left = method == MULTIPLY_LEFT_TRANSPOSE;
+			int n = left ? cols: rows;
+			y = new Matrix(n, n);
+			Syrk.syrk(left, n, left ? rows: cols, 1., d, offset(), dCols, 0., y.d, 0, n);
+		} else if (method == MULTIPLY_RIGHT_TRANSPOSE){
 			int m = rows;
 			int s = cols;
 			int n = rows;
@@ -871,7 +959,12 @@ public class Matrix implements Serializable{
 	 * @return
 	 */
 	public Matrix rowMax(){
-		Matrix m = Matrix.ones(1, cols, Double.MIN_VALUE);
+		if (d != null && rows > 0){
+			Matrix m = new Matrix(1, cols);
+			VectorKernels.reduceRows(VectorKernels.REDUCE_MAX, rows, cols, d, offset(), dCols, m.d, 0);
+			return m;
+		}
+		Matrix m = Matrix.ones(1, cols, -Double.MAX_VALUE);
 		for (int i=0; i<rows(); i++){
 			for (int j=0; j<columns(); j++){
 				if (m.at(0, j) < at(i, j))
@@ -885,6 +978,11 @@ public class Matrix implements Serializable{
 	 * @return
 	 */
 	public Matrix rowMin(){
+		if (d != null && rows > 0){
+			Matrix m = new Matrix(1, cols);
+			VectorKernels.reduceRows(VectorKernels.REDUCE_MIN, rows, cols, d, offset(), dCols, m.d, 0);
+			return m;
+		}
 		Matrix m = Matrix.ones(1, cols, Double.MAX_VALUE);
 		for (int i=0; i<rows(); i++){
 			for (int j=0; j<columns(); j++){
@@ -901,8 +999,11 @@ public class Matrix implements Serializable{
 	 */
 	public Matrix rowMean(){
 		Matrix mean = new Matrix(1, cols);
-		for (int i = 0; i < rows; i++)
-			mean.plus(row(i));
+		if (d != null && rows > 0)
+			VectorKernels.reduceRows(VectorKernels.REDUCE_SUM, rows, cols, d, offset(), dCols, mean.d, 0);
+		else
+			for (int i = 0; i < rows; i++)
+				mean.plus(row(i));
 		mean.divide(rows);
 		return mean;
 	}
@@ -913,8 +1014,11 @@ public class Matrix implements Serializable{
 	 */
 	public Matrix colMean(){
 		Matrix mean = new Matrix(rows, 1);
-		for (int i = 0; i < cols; i++)
-			mean.plus(column(i));
+		if (d != null)
+			VectorKernels.rowSums(rows, cols, d, offset(), dCols, mean.d, 0);
+		else
+			for (int i = 0; i < cols; i++)
+				mean.plus(column(i));
 		mean.divide(cols);
 		return mean;
 	}
@@ -925,14 +1029,9 @@ public class Matrix implements Serializable{
 	 */
 	public Matrix normalizeRowsN11(boolean reserve){
 		Matrix x = reserve ? new Matrix(rows, cols): this;
-		Matrix max = rowMax();
-		Matrix min = rowMin();
-		for (int i=0; i<rows(); i++)
-			for (int j=0; j<columns(); j++){
-				double r = 2 * (at(i, j) - min.at(j))/(max.at(j) - min.at(j)) - 1;
-				x.set(i, j, r);
-			}
-		return x;
+		MatrixExpression e = lazy();
+		MatrixExpression min = e.rowMin();
+		return e.minus(min).multiply(2.).divideElements(e.rowMax().minus(min)).minus(1.).eval(x);
 	}
 	/**
 	 * 将矩阵按行归一化到[-1,1]
@@ -948,14 +1047,9 @@ public class Matrix implements Serializable{
 	 */
 	public Matrix normalizeRows01(boolean reserve){
 		Matrix x = reserve ? new Matrix(rows, cols): this;
-		Matrix max = rowMax();
-		Matrix min = rowMin();
-		for (int i=0; i<rows(); i++)
-			for (int j=0; j<columns(); j++){
-				double r = (at(i, j) - min.at(j))/(max.at(j) - min.at(j));
-				x.set(i, j, r);
-			}
-		return x;
+		MatrixExpression e = lazy();
+		MatrixExpression min = e.rowMin();
+		return e.minus(min).divideElements(e.rowMax().minus(min)).eval(x);
 	}
 	/**
 	 * 将矩阵按行归一化到[0,1]
@@ -1002,8 +1096,13 @@ public class Matrix implements Serializable{
 		Matrix mean = rowMean == null?rowMean():rowMean;
 		Matrix t = this.clone();
 		Matrix cov = null;
+		//t is compact, center it in place
+		double[] m = new double[cols];
+		for (int j=0; j<cols; j++)
+			m[j] = mean.at(0, j);
 		for (int i=0; i<t.rows; i++)
-			t.row(i).minus(mean);
+			for (int j=0; j<t.cols; j++)
+				t.d[i * t.cols + j] -= m[j];
 		if (method == Matrix.COVARIANCE_INVERTED) {
 			cov = t.multiplyTranspose(MULTIPLY_RIGHT_TRANSPOSE);
 			if (doScale)
@@ -1026,6 +1125,10 @@ public class Matrix implements Serializable{
 	 */
 	public Matrix sqrt(boolean reserve){
 		Matrix x = reserve? new Matrix(rows, cols): this;
+		if (d != null){
+			VectorKernels.sqrt(rows, cols, d, offset(), dCols, x.d, x.offset(), x.dCols);
+			return x;
+		}
 		for (int i = 0; i < rows; i++)
 			for (int j = 0; j < cols; j++)
 				x.set(i, j, Math.sqrt(at(i, j)));
@@ -1052,6 +1155,8 @@ public class Matrix implements Serializable{
 	public double difference(Matrix x){
 		if (x.rows != rows || x.cols != cols)
 			throw new IllegalArgumentException("Matrix difference, size not match.");
+		if (d != null && x.d != null)
+			return VectorKernels.sumAbsDiff(rows, cols, d, offset(), dCols, x.d, x.offset(), x.dCols);
 		double dif = 0.;
 		for (int i = 0; i < rows; i++)
 			for (int j = 0; j < cols; j++)
@@ -1062,21 +1167,22 @@ public class Matrix implements Serializable{
 	/**
 	 * 计算两个矩阵的l2范数。
 	 * <p>给定两个矩阵x、y，l2范数的计算方法为：
-	 * <br><i><code>l2-norm=sqrt{sum[x(i, j) - y(i, j)]}</code></i></p>
+	 * <br><i><code>l2-norm=sqrt{sum[(x(i, j) - y(i, j))^2]}</code></i></p>
 	 * @param x
 	 * @return - l2-norm
 	 */
 	public double l2Norm(Matrix x){
+		if (x.rows != rows || x.cols != cols)
+			throw new IllegalArgumentException("Matrix l2Norm, size not match.");
+		if (d != null && x.d != null)
+			return Math.sqrt(VectorKernels.sumSquaredDiff(rows, cols, d, offset(), dCols, x.d, x.offset(), x.dCols));
 		double norm = 0.;
-		//store the scale, avoid underflow or overflow
-		final double TINY = 1e-10;
 		for (int i = 0; i < rows; i++)
 			for (int j = 0; j < cols; j++){
 				double t = at(i, j) - x.at(i, j);
-				norm += t*t*TINY;
+				norm += t*t;
 			}
-		norm = Math.sqrt(norm)/TINY;
-		return norm;
+		return Math.sqrt(norm);
 	}
 	
 	/**
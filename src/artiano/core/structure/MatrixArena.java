@@ -0,0 +1,175 @@
+/**
+ * MatrixArena.java
+ */
+package artiano.core.structure;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * <p>矩阵数据的作用域缓冲池，用于消除迭代算法中每次迭代创建临时矩阵的开销。每个线程有一个按数组长度
+ * 索引的<code>double[]</code>缓冲池，作用域打开后通过{@link #matrix(int, int)}、{@link #array(int)}或
+ * {@link Matrix#allocate(int, int)}获取的数据都从缓冲池中借出，作用域关闭时统一归还，因此迭代进入稳定
+ * 状态后不再分配内存：</p>
+ * <pre><code>
+ * for (int it = 0; it < iterations; it++){
+ *     try (MatrixArena arena = MatrixArena.open()) {
+ *         Matrix h = arena.matrix(n, n);
+ *         ...
+ *     }
+ * }
+ * </code></pre>
+ * <p>作用域可以嵌套，内层作用域必须先关闭；{@link Matrix#allocate(int, int)}与{@link #allocate(int)}
+ * 使用当前线程最内层的作用域，没有打开的作用域时直接分配内存。作用域只能在打开它的线程中使用。</p>
+ * <p><b><i>NOTICE:</i></b> 作用域关闭后，从中获取的矩阵与数组将被重用，不能再使用，需要保留的结果应在关闭前拷贝。</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public final class MatrixArena implements AutoCloseable {
+	/** 每个线程的缓冲池中最多保留的元素个数，超出的数组在归还时被丢弃 */
+	static final long MAX_POOLED = 1L << 24;
+
+	/**
+	 * 一个线程的缓冲池
+	 */
+	static final class Pool {
+		/** 按长度索引的空闲数组 */
+		final HashMap<Integer, ArrayDeque<double[]>> free = new HashMap<Integer, ArrayDeque<double[]>>();
+		/** 空闲数组的元素个数之和 */
+		long pooled = 0;
+		/** 新分配的数组个数 */
+		long allocations = 0;
+		/** 最内层的作用域 */
+		MatrixArena top = null;
+	}
+
+	private static final ThreadLocal<Pool> pools = new ThreadLocal<Pool>(){
+		@Override
+		protected Pool initialValue() {
+			return new Pool();
+		}
+	};
+
+	private final Pool pool;
+	private final MatrixArena parent;
+	/** 本作用域借出的数组 */
+	private final ArrayList<double[]> borrowed = new ArrayList<double[]>();
+	private boolean closed = false;
+
+	private MatrixArena(Pool pool){
+		this.pool = pool;
+		this.parent = pool.top;
+		pool.top = this;
+	}
+
+	/**
+	 * 在当前线程中打开一个作用域，应在try-with-resources语句中使用。
+	 * @return 作用域
+	 */
+	public static MatrixArena open(){
+		return new MatrixArena(pools.get());
+	}
+
+	/**
+	 * 获取当前线程最内层的作用域。
+	 * @return 作用域，没有打开的作用域时为null
+	 */
+	public static MatrixArena current(){
+		return pools.get().top;
+	}
+
+	/**
+	 * 获取长度为length、元素全为0的数组，若当前线程打开了作用域则从最内层的作用域中获取，否则直接分配。
+	 * @param length 数组长度
+	 * @return 数组
+	 */
+	public static double[] allocate(int length){
+		MatrixArena arena = current();
+		return arena == null ? new double[length]: arena.array(length);
+	}
+
+	/**
+	 * 当前线程的缓冲池新分配的数组个数，可用于检查迭代是否已经不再分配内存。
+	 * @return 数组个数
+	 */
+	public static long allocations(){
+		return pools.get().allocations;
+	}
+
+	/**
+	 * 丢弃当前线程缓冲池中所有的空闲数组。
+	 */
+	public static void clear(){
+		Pool p = pools.get();
+		p.free.clear();
+		p.pooled = 0;
+	}
+
+	/**
+	 * 从缓冲池中获取长度为length、元素全为0的数组，数组在作用域关闭时归还。
+	 * @param length 数组长度
+	 * @return 数组
+	 */
+	public double[] array(int length){
+		if (closed)
+			throw new IllegalStateException("MatrixArena array, arena is closed.");
+		if (pools.get() != pool)
+			throw new IllegalStateException("MatrixArena array, arena is used by another thread.");
+		if (length < 0)
+			throw new IllegalArgumentException("MatrixArena array, length must not be negative.");
+		ArrayDeque<double[]> queue = pool.free.get(length);
+		double[] x = queue == null ? null: queue.pollLast();
+		if (x == null){
+			x = new double[length];
+			pool.allocations++;
+		} else {
+			pool.pooled -= length;
+			for (int i = 0; i < length; i++)
+				x[i] = 0.;
+		}
+		borrowed.add(x);
+		return x;
+	}
+
+	/**
+	 * 从缓冲池中获取一个rows*cols的零矩阵，矩阵的数据在作用域关闭时归还。
+	 * @param rows 行数
+	 * @param cols 列数
+	 * @return 矩阵
+	 */
+	public Matrix matrix(int rows, int cols){
+		if (cols <= 0 || rows <= 0)
+			throw new IllegalArgumentException("MatrixArena matrix, columns and rows must be positive integer.");
+		return new Matrix(rows, cols, array(rows * cols));
+	}
+
+	/**
+	 * 关闭作用域，将借出的数组归还缓冲池。
+	 */
+	@Override
+	public void close(){
+		if (closed)
+			return;
+		if (pool.top != this)
+			throw new IllegalStateException("MatrixArena close, the inner arena is not closed.");
+		for (int i = 0; i < borrowed.size(); i++){
+			double[] x = borrowed.get(i);
+			if (pool.pooled + x.length > MAX_POOLED)
+				continue;
+			ArrayDeque<double[]> queue = pool.free.get(x.length);
+			if (queue == null){
+				queue = new ArrayDeque<double[]>();
+				pool.free.put(x.length, queue);
+			}
+			queue.addLast(x);
+			pool.pooled += x.length;
+		}
+		borrowed.clear();
+		pool.top = parent;
+		closed = true;
+	}
+}
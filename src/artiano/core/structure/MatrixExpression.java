@@ -0,0 +1,756 @@
+/**
+ * MatrixExpression.java
+ */
+package artiano.core.structure;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+import artiano.math.algebra.LUDecomposition;
+
+/**
+ * <p>延迟计算的矩阵表达式。逐元素运算、广播与归约只构建表达式树，直到调用{@link #eval()}、{@link #sum()}
+ * 或遇到矩阵乘法、求逆等边界时才计算；计算时整个表达式在一次遍历中完成（融合），中间结果只存放在与行片段
+ * 等长的缓冲区中，不会为每一步创建并遍历完整的矩阵。元素较多时按行分块并行计算（见{@link Gemm#setParallel(boolean)}）。</p>
+ * <pre><code>
+ * //y = 2*(a-b)+c，只遍历一次，只创建一个矩阵
+ * Matrix y = a.lazy().minus(b).multiply(2.).plus(c).eval();
+ * //按列中心化
+ * MatrixExpression x = a.lazy();
+ * Matrix centered = x.minus(x.rowMean()).eval();
+ * </code></pre>
+ * <p>二元运算支持广播：两个操作数的行数（列数）必须相等或其中之一为1，为1的一方将沿该方向重复，
+ * 如m*n矩阵减去1*n的行向量。归约（如{@link #rowMean()}）的结果为向量，在表达式计算前先计算一次，
+ * 同一个归约对象被多次引用时只计算一次。</p>
+ * <p>结果的每个元素只依赖于操作数在相同（或广播后对应）位置的元素，因此{@link #eval(Matrix)}的输出
+ * 可以是表达式中的某个同型操作数（原地计算）。</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public abstract class MatrixExpression {
+	/** 每次计算的行片段长度 */
+	static final int CHUNK = 256;
+	/** 元素个数不小于此值时并行计算 */
+	static final long PARALLEL_SIZE = 1L << 16;
+	/** 并行计算时每个任务的最少元素个数 */
+	static final long TASK_SIZE = 1L << 14;
+
+	/** 一元运算：加标量 */
+	static final int ADD = 0;
+	/** 一元运算：乘标量 */
+	static final int MULTIPLY = 1;
+	/** 一元运算：除以标量 */
+	static final int DIVIDE = 2;
+	/** 一元运算：取反 */
+	static final int NEGATE = 3;
+	static final int ABS = 4;
+	static final int SQRT = 5;
+	static final int SQUARE = 6;
+	static final int EXP = 7;
+	static final int LOG = 8;
+
+	/** 二元运算 */
+	static final int PLUS = 0;
+	static final int MINUS = 1;
+	static final int TIMES = 2;
+	static final int OVER = 3;
+
+	/** 归约：求和 */
+	static final int SUM = 0;
+	/** 归约：最大值 */
+	static final int MAX = 1;
+	/** 归约：最小值 */
+	static final int MIN = 2;
+
+	/** 遍历方式：计算所有元素 */
+	static final int PASS_EVAL = 0;
+	/** 遍历方式：沿行方向归约，结果为1*cols */
+	static final int PASS_ACROSS_ROWS = 1;
+	/** 遍历方式：沿列方向归约，结果为rows*1 */
+	static final int PASS_ACROSS_COLUMNS = 2;
+	/** 遍历方式：所有元素求和 */
+	static final int PASS_SUM = 3;
+
+	final int rows;
+	final int cols;
+	/** 计算时需要的临时缓冲区个数 */
+	final int depth;
+
+	MatrixExpression(int rows, int cols, int depth){
+		this.rows = rows;
+		this.cols = cols;
+		this.depth = depth;
+	}
+
+	/**
+	 * 计算行i中列[j, j+len)的元素，写入buf[0, len)。
+	 * @param s 临时缓冲区，表达式只能使用s[0, depth)
+	 */
+	abstract void fill(int i, int j, int len, double[] buf, double[][] s);
+
+	/**
+	 * 计算前的准备，如计算归约的结果
+	 */
+	void prepare(){ }
+
+	/**
+	 * 计算表达式，当表达式本身就是矩阵时直接返回该矩阵（不拷贝）
+	 */
+	Matrix materialize(){
+		return eval();
+	}
+
+	/**
+	 * 使用矩阵构造一个表达式，等价于{@link Matrix#lazy()}。
+	 * @param x 矩阵
+	 * @return 表达式
+	 */
+	public static MatrixExpression of(Matrix x){
+		return new Leaf(x);
+	}
+
+	/**
+	 * 获取表达式结果的行数。
+	 * @return 行数
+	 */
+	public int rows(){
+		return rows;
+	}
+
+	/**
+	 * 获取表达式结果的列数。
+	 * @return 列数
+	 */
+	public int columns(){
+		return cols;
+	}
+
+	/**
+	 * 逐元素加法（可广播）。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression plus(MatrixExpression x){
+		return new Binary(PLUS, this, x, "plus");
+	}
+
+	/**
+	 * 逐元素加法（可广播）。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression plus(Matrix x){
+		return plus(of(x));
+	}
+
+	/**
+	 * 加上一个标量。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression plus(double x){
+		return new Unary(ADD, this, x);
+	}
+
+	/**
+	 * 逐元素减法（可广播）。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression minus(MatrixExpression x){
+		return new Binary(MINUS, this, x, "minus");
+	}
+
+	/**
+	 * 逐元素减法（可广播）。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression minus(Matrix x){
+		return minus(of(x));
+	}
+
+	/**
+	 * 减去一个标量。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression minus(double x){
+		return new Unary(ADD, this, -x);
+	}
+
+	/**
+	 * 乘以一个标量。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression multiply(double x){
+		return new Unary(MULTIPLY, this, x);
+	}
+
+	/**
+	 * 除以一个标量。
+	 * @param x 除数，不能为0
+	 * @return 表达式
+	 */
+	public MatrixExpression divide(double x){
+		if (x == 0.)
+			throw new ArithmeticException("MatrixExpression divide, divisor is 0.");
+		return new Unary(DIVIDE, this, x);
+	}
+
+	/**
+	 * 逐元素乘法（可广播）。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression multiplyElements(MatrixExpression x){
+		return new Binary(TIMES, this, x, "multiplyElements");
+	}
+
+	/**
+	 * 逐元素乘法（可广播）。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression multiplyElements(Matrix x){
+		return multiplyElements(of(x));
+	}
+
+	/**
+	 * 逐元素除法（可广播）。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression divideElements(MatrixExpression x){
+		return new Binary(OVER, this, x, "divideElements");
+	}
+
+	/**
+	 * 逐元素除法（可广播）。
+	 * @param x
+	 * @return 表达式
+	 */
+	public MatrixExpression divideElements(Matrix x){
+		return divideElements(of(x));
+	}
+
+	/**
+	 * 取反。
+	 * @return 表达式
+	 */
+	public MatrixExpression negate(){
+		return new Unary(NEGATE, this, 0.);
+	}
+
+	/**
+	 * 逐元素取绝对值。
+	 * @return 表达式
+	 */
+	public MatrixExpression abs(){
+		return new Unary(ABS, this, 0.);
+	}
+
+	/**
+	 * 逐元素开根。
+	 * @return 表达式
+	 */
+	public MatrixExpression sqrt(){
+		return new Unary(SQRT, this, 0.);
+	}
+
+	/**
+	 * 逐元素平方。
+	 * @return 表达式
+	 */
+	public MatrixExpression square(){
+		return new Unary(SQUARE, this, 0.);
+	}
+
+	/**
+	 * 逐元素计算e的幂。
+	 * @return 表达式
+	 */
+	public MatrixExpression exp(){
+		return new Unary(EXP, this, 0.);
+	}
+
+	/**
+	 * 逐元素计算自然对数。
+	 * @return 表达式
+	 */
+	public MatrixExpression log(){
+		return new Unary(LOG, this, 0.);
+	}
+
+	/**
+	 * 行向量集合的和向量，同{@link Matrix#rowMean()}的方向。
+	 * @return 1*cols的表达式
+	 */
+	public MatrixExpression rowSum(){
+		return new Reduction(PASS_ACROSS_ROWS, SUM, false, this);
+	}
+
+	/**
+	 * 行向量集合的均值向量，同{@link Matrix#rowMean()}。
+	 * @return 1*cols的表达式
+	 */
+	public MatrixExpression rowMean(){
+		return new Reduction(PASS_ACROSS_ROWS, SUM, true, this);
+	}
+
+	/**
+	 * 行向量集合的逐元素最大值，同{@link Matrix#rowMax()}。
+	 * @return 1*cols的表达式
+	 */
+	public MatrixExpression rowMax(){
+		return new Reduction(PASS_ACROSS_ROWS, MAX, false, this);
+	}
+
+	/**
+	 * 行向量集合的逐元素最小值，同{@link Matrix#rowMin()}。
+	 * @return 1*cols的表达式
+	 */
+	public MatrixExpression rowMin(){
+		return new Reduction(PASS_ACROSS_ROWS, MIN, false, this);
+	}
+
+	/**
+	 * 列向量集合的和向量，即每行元素之和。
+	 * @return rows*1的表达式
+	 */
+	public MatrixExpression colSum(){
+		return new Reduction(PASS_ACROSS_COLUMNS, SUM, false, this);
+	}
+
+	/**
+	 * 列向量集合的均值向量，同{@link Matrix#colMean()}。
+	 * @return rows*1的表达式
+	 */
+	public MatrixExpression colMean(){
+		return new Reduction(PASS_ACROSS_COLUMNS, SUM, true, this);
+	}
+
+	/**
+	 * 列向量集合的逐元素最大值，即每行的最大元素。
+	 * @return rows*1的表达式
+	 */
+	public MatrixExpression colMax(){
+		return new Reduction(PASS_ACROSS_COLUMNS, MAX, false, this);
+	}
+
+	/**
+	 * 列向量集合的逐元素最小值，即每行的最小元素。
+	 * @return rows*1的表达式
+	 */
+	public MatrixExpression colMin(){
+		return new Reduction(PASS_ACROSS_COLUMNS, MIN, false, this);
+	}
+
+	/**
+	 * 矩阵乘法，是表达式的边界：两个操作数先被计算，再使用{@link Gemm}相乘。
+	 * @param x
+	 * @return 乘积的表达式
+	 */
+	public MatrixExpression multiply(MatrixExpression x){
+		if (cols != x.rows)
+			throw new IllegalArgumentException("MatrixExpression multiply, size not match.");
+		return of(materialize().multiply(x.materialize()));
+	}
+
+	/**
+	 * 矩阵乘法，是表达式的边界，见{@link #multiply(MatrixExpression)}。
+	 * @param x
+	 * @return 乘积的表达式
+	 */
+	public MatrixExpression multiply(Matrix x){
+		if (cols != x.rows)
+			throw new IllegalArgumentException("MatrixExpression multiply, size not match.");
+		return of(materialize().multiply(x));
+	}
+
+	/**
+	 * 转置，是表达式的边界。
+	 * @return 转置的表达式
+	 */
+	public MatrixExpression t(){
+		return of(materialize().t());
+	}
+
+	/**
+	 * 求逆（使用{@link LUDecomposition}），是表达式的边界。
+	 * @return 逆矩阵的表达式
+	 */
+	public MatrixExpression inverse(){
+		if (rows != cols)
+			throw new IllegalArgumentException("MatrixExpression inverse, accept square matrix only.");
+		Matrix x = materialize();
+		//the operands of the expression must not be destroyed
+		return of(new LUDecomposition(x, this instanceof Leaf).inverse());
+	}
+
+	/**
+	 * 计算所有元素之和，计算时不会创建表达式的结果矩阵。
+	 * @return 和
+	 */
+	public double sum(){
+		return run(this, PASS_SUM, SUM, null)[0];
+	}
+
+	/**
+	 * 计算所有元素的均值。
+	 * @return 均值
+	 */
+	public double mean(){
+		return sum() / ((double)rows * cols);
+	}
+
+	/**
+	 * 计算表达式。
+	 * @return 新的矩阵
+	 */
+	public Matrix eval(){
+		Matrix x = new Matrix(rows, cols);
+		run(this, PASS_EVAL, SUM, x);
+		return x;
+	}
+
+	/**
+	 * 计算表达式，将结果写入dst。
+	 * @param dst 与表达式同型的矩阵，可以是表达式中的某个同型操作数
+	 * @return dst
+	 */
+	public Matrix eval(Matrix dst){
+		if (dst.rows != rows || dst.cols != cols)
+			throw new IllegalArgumentException("MatrixExpression eval, size not match.");
+		run(this, PASS_EVAL, SUM, dst);
+		return dst;
+	}
+
+	/**
+	 * 遍历表达式的所有元素，元素较多时并行
+	 */
+	static double[] run(MatrixExpression x, int pass, int op, Matrix dst){
+		x.prepare();
+		Pass task = new Pass(x, pass, op, dst, 0, x.rows);
+		if (Gemm.isParallel() && (long)x.rows * x.cols >= PARALLEL_SIZE && Runtime.getRuntime().availableProcessors() > 1)
+			return Gemm.pool().invoke(task);
+		return task.compute();
+	}
+
+	/**
+	 * 按广播规则计算子表达式x在行i中列[j, j+len)的元素
+	 */
+	static void fill(MatrixExpression x, int i, int j, int len, double[] buf, double[][] s){
+		int xi = x.rows == 1 ? 0: i;
+		if (x.cols == 1 && len > 1){
+			x.fill(xi, 0, 1, buf, s);
+			Arrays.fill(buf, 1, len, buf[0]);
+		} else
+			x.fill(xi, x.cols == 1 ? 0: j, len, buf, s);
+	}
+
+	/**
+	 * 矩阵
+	 */
+	static class Leaf extends MatrixExpression {
+		final Matrix x;
+
+		Leaf(Matrix x){
+			super(x.rows, x.cols, 0);
+			this.x = x;
+		}
+
+		@Override
+		void fill(int i, int j, int len, double[] buf, double[][] s) {
+			if (x.d != null)
+				System.arraycopy(x.d, x.offset() + i * x.dCols + j, buf, 0, len);
+			else
+				for (int k = 0; k < len; k++)
+					buf[k] = x.at(i, j + k);
+		}
+
+		@Override
+		Matrix materialize() {
+			return x;
+		}
+	}
+
+	/**
+	 * 一元运算
+	 */
+	static class Unary extends MatrixExpression {
+		final int op;
+		final MatrixExpression x;
+		final double alpha;
+
+		Unary(int op, MatrixExpression x, double alpha){
+			super(x.rows, x.cols, x.depth);
+			this.op = op;
+			this.x = x;
+			this.alpha = alpha;
+		}
+
+		@Override
+		void prepare() {
+			x.prepare();
+		}
+
+		@Override
+		void fill(int i, int j, int len, double[] buf, double[][] s) {
+			x.fill(i, j, len, buf, s);
+			switch (op) {
+			case ADD:
+				for (int k = 0; k < len; k++)
+					buf[k] += alpha;
+				break;
+			case MULTIPLY:
+				for (int k = 0; k < len; k++)
+					buf[k] *= alpha;
+				break;
+			case DIVIDE:
+				for (int k = 0; k < len; k++)
+					buf[k] /= alpha;
+				break;
+			case NEGATE:
+				for (int k = 0; k < len; k++)
+					buf[k] = -buf[k];
+				break;
+			case ABS:
+				for (int k = 0; k < len; k++)
+					buf[k] = Math.abs(buf[k]);
+				break;
+			case SQRT:
+				for (int k = 0; k < len; k++)
+					buf[k] = Math.sqrt(buf[k]);
+				break;
+			case SQUARE:
+				for (int k = 0; k < len; k++)
+					buf[k] *= buf[k];
+				break;
+			case EXP:
+				for (int k = 0; k < len; k++)
+					buf[k] = Math.exp(buf[k]);
+				break;
+			case LOG:
+				for (int k = 0; k < len; k++)
+					buf[k] = Math.log(buf[k]);
+				break;
+			default:
+				throw new IllegalStateException("MatrixExpression, unknown operation.");
+			}
+		}
+	}
+
+	/**
+	 * 二元运算，操作数可广播
+	 */
+	static class Binary extends MatrixExpression {
+		final int op;
+		final MatrixExpression x, y;
+
+		Binary(int op, MatrixExpression x, MatrixExpression y, String name){
+			super(broadcast(x.rows, y.rows, name), broadcast(x.cols, y.cols, name), Math.max(x.depth, y.depth + 1));
+			this.op = op;
+			this.x = x;
+			this.y = y;
+		}
+
+		private static int broadcast(int m, int n, String name){
+			if (m != n && m != 1 && n != 1)
+				throw new IllegalArgumentException("MatrixExpression " + name + ", size not match.");
+			return Math.max(m, n);
+		}
+
+		@Override
+		void prepare() {
+			x.prepare();
+			y.prepare();
+		}
+
+		@Override
+		void fill(int i, int j, int len, double[] buf, double[][] s) {
+			//y may use s[0, depth-1) only, so s[depth-1] is free
+			double[] t = s[depth - 1];
+			fill(x, i, j, len, buf, s);
+			fill(y, i, j, len, t, s);
+			switch (op) {
+			case PLUS:
+				for (int k = 0; k < len; k++)
+					buf[k] += t[k];
+				break;
+			case MINUS:
+				for (int k = 0; k < len; k++)
+					buf[k] -= t[k];
+				break;
+			case TIMES:
+				for (int k = 0; k < len; k++)
+					buf[k] *= t[k];
+				break;
+			case OVER:
+				for (int k = 0; k < len; k++)
+					buf[k] /= t[k];
+				break;
+			default:
+				throw new IllegalStateException("MatrixExpression, unknown operation.");
+			}
+		}
+	}
+
+	/**
+	 * 归约，结果在计算表达式前一次求出
+	 */
+	static class Reduction extends MatrixExpression {
+		final int pass;
+		final int op;
+		final boolean mean;
+		final MatrixExpression x;
+		Matrix value = null;
+
+		Reduction(int pass, int op, boolean mean, MatrixExpression x){
+			super(pass == PASS_ACROSS_ROWS ? 1: x.rows, pass == PASS_ACROSS_ROWS ? x.cols: 1, 0);
+			this.pass = pass;
+			this.op = op;
+			this.mean = mean;
+			this.x = x;
+		}
+
+		@Override
+		synchronized void prepare() {
+			if (value != null)
+				return;
+			Matrix v = new Matrix(rows, cols);
+			double[] partial = run(x, pass, op, v);
+			if (partial != null)
+				System.arraycopy(partial, 0, v.d, 0, partial.length);
+			if (mean){
+				double n = pass == PASS_ACROSS_ROWS ? x.rows: x.cols;
+				for (int k = 0; k < v.d.length; k++)
+					v.d[k] /= n;
+			}
+			value = v;
+		}
+
+		@Override
+		void fill(int i, int j, int len, double[] buf, double[][] s) {
+			System.arraycopy(value.d, i * cols + j, buf, 0, len);
+		}
+
+		@Override
+		Matrix materialize() {
+			prepare();
+			return value;
+		}
+	}
+
+	/**
+	 * 遍历行区间[i0,i1)的任务，行数较多时一分为二并行计算。
+	 * <br>沿行方向归约与求和返回部分结果，由父任务合并；其它遍历方式直接写入结果矩阵，返回null。
+	 */
+	static class Pass extends RecursiveTask<double[]> {
+		private static final long serialVersionUID = 1L;
+		final MatrixExpression x;
+		final int pass, op;
+		final Matrix dst;
+		final int i0, i1;
+
+		Pass(MatrixExpression x, int pass, int op, Matrix dst, int i0, int i1){
+			this.x = x;
+			this.pass = pass;
+			this.op = op;
+			this.dst = dst;
+			this.i0 = i0;
+			this.i1 = i1;
+		}
+
+		@Override
+		protected double[] compute() {
+			if (i1 - i0 > 1 && (long)(i1 - i0) * x.cols > 2 * TASK_SIZE && Gemm.isParallel() && getPool() != null){
+				int mid = (i0 + i1) >>> 1;
+				Pass left = new Pass(x, pass, op, dst, i0, mid);
+				Pass right = new Pass(x, pass, op, dst, mid, i1);
+				left.fork();
+				double[] r = right.compute();
+				return merge(left.join(), r);
+			}
+			double[] buf = new double[CHUNK];
+			double[][] s = new double[x.depth][CHUNK];
+			double[] acc = null;
+			if (pass == PASS_ACROSS_ROWS)
+				acc = new double[x.cols];
+			else if (pass == PASS_SUM)
+				acc = new double[1];
+			for (int i = i0; i < i1; i++){
+				double r = op == MAX ? Double.NEGATIVE_INFINITY: (op == MIN ? Double.POSITIVE_INFINITY: 0.);
+				for (int j = 0; j < x.cols; j += CHUNK){
+					int len = Math.min(CHUNK, x.cols - j);
+					x.fill(i, j, len, buf, s);
+					switch (pass) {
+					case PASS_EVAL:
+						if (dst.d != null)
+							System.arraycopy(buf, 0, dst.d, dst.offset() + i * dst.dCols + j, len);
+						else
+							for (int k = 0; k < len; k++)
+								dst.set(i, j + k, buf[k]);
+						break;
+					case PASS_ACROSS_ROWS:
+						if (i == i0)
+							System.arraycopy(buf, 0, acc, j, len);
+						else
+							reduce(op, buf, acc, j, len);
+						break;
+					default:
+						for (int k = 0; k < len; k++)
+							r = reduce(op, r, buf[k]);
+						break;
+					}
+				}
+				if (pass == PASS_ACROSS_COLUMNS)
+					dst.d[i] = r;
+				else if (pass == PASS_SUM)
+					acc[0] += r;
+			}
+			return acc;
+		}
+
+		private double[] merge(double[] a, double[] b){
+			if (a == null)
+				return null;
+			if (pass == PASS_SUM)
+				a[0] += b[0];
+			else
+				reduce(op, b, a, 0, a.length);
+			return a;
+		}
+
+		private static void reduce(int op, double[] x, double[] acc, int off, int len){
+			switch (op) {
+			case SUM:
+				for (int k = 0; k < len; k++)
+					acc[off + k] += x[k];
+				break;
+			case MAX:
+				for (int k = 0; k < len; k++)
+					if (acc[off + k] < x[k])
+						acc[off + k] = x[k];
+				break;
+			default:
+				for (int k = 0; k < len; k++)
+					if (acc[off + k] > x[k])
+						acc[off + k] = x[k];
+				break;
+			}
+		}
+
+		private static double reduce(int op, double r, double x){
+			if (op == SUM)
+				return r + x;
+			if (op == MAX)
+				return r < x ? x: r;
+			return r > x ? x: r;
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * MatrixView.java
+ */
+package artiano.core.structure;
+
+/**
+ * <p>可重复使用的矩阵视图。视图本身也是一个矩阵，与{@link Matrix#row(int)}、{@link Matrix#column(int)}
+ * 得到的子矩阵一样共享原始矩阵的数据，但是可以被重新指向另一行（列），而不需要创建新的对象。在需要逐行遍历
+ * 矩阵的循环中，可以写成如下代码：
+ * <pre><code>
+ * MatrixView v = new MatrixView();
+ * for (int i = 0; i < x.rows(); i++){
+ *     v.viewRow(x, i);
+ *     for (int j = 0; j < v.length(); j++)
+ *         sum += v.get(j);
+ * }
+ * </code></pre>
+ * <b><i>NOTICE:</i></b> 视图被重新指向后，它原来所表示的数据就不能再通过它访问，因此不要将视图保存
+ * 下来（例如作为{@link java.util.Map}的键）。如需保存，请使用{@link #clone()}。视图只能指向数据存放在堆上的
+ * 矩阵，不能指向{@link BufferMatrix}。</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class MatrixView extends Matrix {
+
+	private static final long serialVersionUID = 1L;
+	/** 视图首元素在数据数组中的下标 */
+	private int base = 0;
+	/** 向量相邻两个元素在数据数组中的距离，行向量为1，列向量为原始矩阵的列数 */
+	private int step = 1;
+
+	/**
+	 * 构造一个未指向任何矩阵的视图，使用前需要调用{@link #viewRow(Matrix, int)}等方法。
+	 */
+	public MatrixView(){
+		rowRange = new Range(0, 1);
+		colRange = new Range(0, 1);
+	}
+
+	/**
+	 * 构造一个指向整个矩阵的视图。
+	 * @param source 原始矩阵
+	 */
+	public MatrixView(Matrix source){
+		this();
+		view(source, 0, 0, source.rows, source.cols);
+	}
+
+	/**
+	 * 将视图指向矩阵source中以(row, col)为左上角，大小为rows*cols的子矩阵。
+	 * @param source 原始矩阵
+	 * @param row 子矩阵开始行
+	 * @param col 子矩阵开始列
+	 * @param rows 子矩阵行数
+	 * @param cols 子矩阵列数
+	 * @return 视图本身
+	 */
+	public MatrixView view(Matrix source, int row, int col, int rows, int cols){
+		if (row < 0 || col < 0 || rows <= 0 || cols <= 0 || row + rows > source.rows || col + cols > source.cols)
+			throw new IndexOutOfBoundsException("MatrixView view, out of range.");
+		if (source.d == null)
+			throw new UnsupportedOperationException("MatrixView view, data of the source is not stored on heap.");
+		int r = source.rowRange.start + row;
+		int c = source.colRange.start + col;
+		this.d = source.d;
+		this.dCols = source.dCols;
+		this.rowRange.start = r;
+		this.rowRange.end = r + rows;
+		this.colRange.start = c;
+		this.colRange.end = c + cols;
+		this.rows = rows;
+		this.cols = cols;
+		this.base = r * dCols + c;
+		this.step = cols == 1 ? dCols: 1;
+		return this;
+	}
+
+	/**
+	 * 将视图指向矩阵source的第i行。
+	 * @param source 原始矩阵
+	 * @param i 行下标
+	 * @return 视图本身
+	 */
+	public MatrixView viewRow(Matrix source, int i){
+		return view(source, i, 0, 1, source.cols);
+	}
+
+	/**
+	 * 将视图指向矩阵source的第j列。
+	 * @param source 原始矩阵
+	 * @param j 列下标
+	 * @return 视图本身
+	 */
+	public MatrixView viewColumn(Matrix source, int j){
+		return view(source, 0, j, source.rows, 1);
+	}
+
+	/**
+	 * 视图首元素在数据数组{@link #data()}中的下标。
+	 * @return 下标
+	 */
+	@Override
+	public int offset(){
+		return base;
+	}
+
+	/**
+	 * 视图（向量）中相邻两个元素在数据数组{@link #data()}中的距离，即第k个元素的下标为
+	 * <code>offset()+k*stride()</code>。
+	 * @return 距离
+	 */
+	public int stride(){
+		return step;
+	}
+
+	/**
+	 * 视图中元素的个数。
+	 * @return 元素个数
+	 */
+	public int length(){
+		return rows * cols;
+	}
+
+	/**
+	 * 获取向量视图中第k个元素的值，不做下标检查。
+	 * @param k 下标
+	 * @return 值
+	 */
+	public double get(int k){
+		return d[base + k * step];
+	}
+
+	/**
+	 * 设置向量视图中第k个元素的值，不做下标检查。
+	 * @param k 下标
+	 * @param value 值
+	 */
+	public void put(int k, double value){
+		d[base + k * step] = value;
+	}
+
+	/**
+	 * 获取子矩阵，得到的子矩阵不随视图的重新指向而改变。
+	 * @see Matrix#at(Range, Range)
+	 */
+	@Override
+	public Matrix at(Range row, Range col){
+		Matrix x = super.at(row, col);
+		if (x.rowRange == rowRange)
+			x.rowRange = new Range(rowRange.start, rowRange.end);
+		if (x.colRange == colRange)
+			x.colRange = new Range(colRange.start, colRange.end);
+		return x;
+	}
+}
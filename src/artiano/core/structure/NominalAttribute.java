@@ -24,6 +24,7 @@ public class NominalAttribute extends Attribute {
 
 	public NominalAttribute() {
 		this.type = "Nominal";
+		this.vector = new DictionaryVector();
 	}
 
 	/**
@@ -49,11 +50,81 @@ public class NominalAttribute extends Attribute {
 	public NominalAttribute(String name) {
 		super(name);
 		this.type = "Nominal";
+		this.vector = new DictionaryVector();
 	}
 
+	/**
+	 * 使用声明的名称和属性值向量构造一个符号属性，若向量不是{@link DictionaryVector}则被转换
+	 * 
+	 * @param name
+	 * @param vector
+	 */
 	public NominalAttribute(String name, IncrementVector vector) {
 		super(name, vector);
 		this.type = "Nominal";
+		getDictionaryVector();
+	}
+
+	/**
+	 * 获取存放属性值的字典编码向量
+	 * 
+	 * @return 字典编码向量
+	 */
+	public DictionaryVector getDictionaryVector() {
+		if (!(vector instanceof DictionaryVector))
+			vector = new DictionaryVector(vector);
+		return (DictionaryVector) vector;
+	}
+
+	/**
+	 * 设置属性值向量，若向量不是{@link DictionaryVector}则被转换
+	 * 
+	 * @param vector
+	 */
+	@Override
+	public void setVector(IncrementVector vector) {
+		this.vector = vector;
+		getDictionaryVector();
+	}
+
+	/**
+	 * 获取属性值向量在i处的值的编码，相等的值编码相同，编码的范围为[0, {@link #cardinality()})
+	 * 
+	 * @param i
+	 *            下标
+	 * @return 编码，缺失值为{@link DictionaryVector#MISSING_CODE}
+	 */
+	public int codeAt(int i) {
+		return getDictionaryVector().codeAt(i);
+	}
+
+	/**
+	 * 获取编码的个数，即属性值向量中出现过的不同取值（不包括缺失值）的个数
+	 * 
+	 * @return 编码的个数
+	 */
+	public int cardinality() {
+		return getDictionaryVector().cardinality();
+	}
+
+	/**
+	 * 获取编码对应的取值
+	 * 
+	 * @param code
+	 *            编码
+	 * @return 取值
+	 */
+	public Object valueOfCode(int code) {
+		return getDictionaryVector().valueOf(code);
+	}
+
+	/**
+	 * 统计每个编码出现的次数，缺失值不被统计
+	 * 
+	 * @return 长度为{@link #cardinality()}的数组
+	 */
+	public int[] countCodes() {
+		return getDictionaryVector().countCodes();
 	}
 
 	/**
@@ -112,8 +183,16 @@ public class NominalAttribute extends Attribute {
 	 * 根据向量中的元素刷新符号取值（可选操作）
 	 */
 	public void refreshNominals() {
-		for (int i = 0; i < vector.size(); i++)
-			addNominal(vector.at(i));
+		DictionaryVector v = getDictionaryVector();
+		// visit each code once, in the order of the first appearance
+		boolean[] seen = new boolean[v.cardinality() + 1];
+		int[] codes = v.codes();
+		for (int i = 0; i < v.size(); i++) {
+			if (!seen[codes[i] + 1]) {
+				seen[codes[i] + 1] = true;
+				addNominal(v.valueOf(codes[i]));
+			}
+		}
 	}
 
 	/**
@@ -123,9 +202,14 @@ public class NominalAttribute extends Attribute {
 	 * @return
 	 */
 	public int countOfNominal(Object nominal) {
+		DictionaryVector v = getDictionaryVector();
+		int code = v.codeOf(nominal);
 		int count = 0;
-		for (int i = 0; i < vector.size(); i++) {
-			if (nominal.equals(get(i)))
+		if (code < DictionaryVector.MISSING_CODE)
+			return count;
+		int[] codes = v.codes();
+		for (int i = 0; i < v.size(); i++) {
+			if (codes[i] == code)
 				count++;
 		}
 		return count;
@@ -133,11 +217,14 @@ public class NominalAttribute extends Attribute {
 	
 	public Object max() {
 		Object[] n = nominalsArray();
+		DictionaryVector v = getDictionaryVector();
+		int[] counts = v.countCodes();
 		Object x = null;
 		int max = -1;
 		for (int i = 0; i < n.length; i++) {
-			int c = countOfNominal(n[i]);
-			if (max < countOfNominal(n[i])) {
+			int code = v.codeOf(n[i]);
+			int c = code >= 0 ? counts[code] : countOfNominal(n[i]);
+			if (max < c) {
 				max = c;
 				x = n[i];
 			}
@@ -178,10 +265,16 @@ public class NominalAttribute extends Attribute {
 		for (int i = 0; i < nominals.size(); i++)
 			if (!nominalToNumericMap.containsKey(nominals.get(i)))
 				throw new IllegalArgumentException("map not completed.");
+		DictionaryVector v = getDictionaryVector();
+		// look up the map once for each code
+		Double[] values = new Double[v.cardinality() + 1];
+		for (int c = DictionaryVector.MISSING_CODE; c < v.cardinality(); c++)
+			values[c + 1] = nominalToNumericMap.get(v.valueOf(c));
 		NumericAttribute attribute = new NumericAttribute(getName(),
-				new IncrementVector(vector.size()));
-		for (int i = 0; i < vector.size(); i++)
-			attribute.vector.push(nominalToNumericMap.get(this.get(i)));
+				new DoubleVector(v.size()));
+		int[] codes = v.codes();
+		for (int i = 0; i < v.size(); i++)
+			attribute.vector.push(values[codes[i] + 1]);
 		return attribute;
 	}
 
@@ -216,18 +309,20 @@ public class NominalAttribute extends Attribute {
 			}
 		}
 		// push elements (convert nominal to binary)
-		for (int i = 0; i < this.vector.size(); i++) {
-			if (isMissing(i)) {
-				for (int j = 0; j < binaryAttributes.length; j++)
-					binaryAttributes[j].getVector().push(0.);
-				continue;
-			}
-			Object x = vector.at(i);
-			int idx = nominals.indexOf(x);
-			for (int j = 0; j < binaryAttributes.length; j++)
-				binaryAttributes[j].getVector().push(0.);
-			binaryAttributes[idx].getVector().set(i, 1.);
+		DictionaryVector v = getDictionaryVector();
+		int[] binaryIndex = new int[v.cardinality()];
+		for (int c = 0; c < binaryIndex.length; c++)
+			binaryIndex[c] = nominals.indexOf(v.valueOf(c));
+		DoubleVector[] columns = new DoubleVector[size];
+		for (int j = 0; j < size; j++) {
+			columns[j] = ((NumericAttribute) binaryAttributes[j]).getDoubleVector();
+			columns[j].setCapacity(v.size());
 		}
+		int[] codes = v.codes();
+		// push the final value of each element, a missing nominal gives all zeros
+		for (int i = 0; i < v.size(); i++)
+			for (int j = 0; j < columns.length; j++)
+				columns[j].push(codes[i] >= 0 && binaryIndex[codes[i]] == j ? 1. : 0.);
 		return binaryAttributes;
 	}
 	
@@ -36,6 +36,7 @@ public class NumericAttribute extends Attribute implements OptionsHandler {
 	 */
 	public NumericAttribute() {
 		this.type = "Numeric";
+		this.vector = new DoubleVector();
 	}
 
 	/**
@@ -46,11 +47,42 @@ public class NumericAttribute extends Attribute implements OptionsHandler {
 	public NumericAttribute(String name) {
 		super(name);
 		this.type = "Numeric";
+		this.vector = new DoubleVector();
 	}
 
+	/**
+	 * 使用声明的名称和属性值向量构造一个数值属性，若向量不是{@link DoubleVector}则被转换
+	 * 
+	 * @param name
+	 * @param vector
+	 */
 	public NumericAttribute(String name, IncrementVector vector) {
 		super(name, vector);
 		this.type = "Numeric";
+		getDoubleVector();
+	}
+
+	/**
+	 * 获取存放属性值的数值向量，可以通过{@link DoubleVector#array()}、{@link DoubleVector#buffer()}
+	 * 直接访问属性值
+	 * 
+	 * @return 数值向量
+	 */
+	public DoubleVector getDoubleVector() {
+		if (!(vector instanceof DoubleVector))
+			vector = new DoubleVector(vector);
+		return (DoubleVector) vector;
+	}
+
+	/**
+	 * 设置属性值向量，若向量不是{@link DoubleVector}则被转换
+	 * 
+	 * @param vector
+	 */
+	@Override
+	public void setVector(IncrementVector vector) {
+		this.vector = vector;
+		getDoubleVector();
 	}
 
 	/**
@@ -74,10 +106,10 @@ public class NumericAttribute extends Attribute implements OptionsHandler {
 	public void normalizeByMinMaxN11() {
 		double min = min();
 		double max = max();
-		for (int i = 0; i < vector.size(); i++) {
-			double r = 2 * (get(i) - min) / (max - min) - 1;
-			vector.set(i, r);
-		}
+		double[] x = getDoubleVector().array();
+		for (int i = 0; i < size(); i++)
+			x[i] = 2 * (x[i] - min) / (max - min) - 1;
+		getDoubleVector().refresh();
 	}
 
 	/**
@@ -86,10 +118,10 @@ public class NumericAttribute extends Attribute implements OptionsHandler {
 	public void normalizeByMinMax01() {
 		double min = min();
 		double max = max();
-		for (int i = 0; i < vector.size(); i++) {
-			double r = (get(i) - min) / (max - min);
-			vector.set(i, r);
-		}
+		double[] x = getDoubleVector().array();
+		for (int i = 0; i < size(); i++)
+			x[i] = (x[i] - min) / (max - min);
+		getDoubleVector().refresh();
 	}
 
 	/**
@@ -99,11 +131,11 @@ public class NumericAttribute extends Attribute implements OptionsHandler {
 		double max = max();
 		double min = min();
 		double d = max - min;
-		for (int i=0; i<vector.size(); i++) {
-			double r = (get(i) - min)/d *
+		double[] x = getDoubleVector().array();
+		for (int i=0; i<size(); i++)
+			x[i] = (x[i] - min)/d *
 					(mNormMax - mNormMin) + mNormMin;
-			vector.set(i, r);
-		}
+		getDoubleVector().refresh();
 	}
 
 	/**
@@ -112,50 +144,37 @@ public class NumericAttribute extends Attribute implements OptionsHandler {
 	public void normalizeByZScore() {
 		double mean = mean();
 		double stdDev = standardDeviation();
-		for (int i = 0; i < vector.size(); i++) {
-			double r = (get(i) - mean) / stdDev;
-			vector.set(i, r);
-		}
+		double[] x = getDoubleVector().array();
+		for (int i = 0; i < size(); i++)
+			x[i] = (x[i] - mean) / stdDev;
+		getDoubleVector().refresh();
 	}
 
 	/**
-	 * 求取平均值
+	 * 求取平均值，由值向量增量维护的统计量得到，参见{@link DoubleVector#mean()}
 	 * 
 	 * @return
 	 */
 	public double mean() {
-		double avg = 0;
-		for (int i = 0; i < this.vector.size(); i++)
-			if (!get(i).equals(MISSING_VALUE))
-				avg += get(i);
-		avg /= countNoneMissing();
-		return avg;
+		return getDoubleVector().mean();
 	}
 
 	/**
-	 * 求取最大值
+	 * 求取最大值，忽略缺失值
 	 * 
-	 * @return
+	 * @return 最大值，全部缺失时为{@link #MISSING_VALUE}
 	 */
 	public double max() {
-		double m = get(0);
-		for (int i = 1; i < this.vector.size(); i++)
-			if (m < get(i))
-				m = get(i);
-		return m;
+		return getDoubleVector().max();
 	}
 
 	/**
-	 * 求取最小值
+	 * 求取最小值，忽略缺失值
 	 * 
-	 * @return
+	 * @return 最小值，全部缺失时为{@link #MISSING_VALUE}
 	 */
 	public double min() {
-		double m = get(0);
-		for (int i = 1; i < this.vector.size(); i++)
-			if (m > get(i))
-				m = get(i);
-		return m;
+		return getDoubleVector().min();
 	}
 
 	/**
@@ -164,16 +183,7 @@ public class NumericAttribute extends Attribute implements OptionsHandler {
 	 * @return 当前向量的方差
 	 */
 	public double variance() {
-		double var = 0;
-		double mean = this.mean();
-		for (int i = 0; i < size(); i++) {
-			if (!isMissing(i)) {
-				double t = get(i) - mean;
-				var += t * t;
-			}
-		}
-		var /= countNoneMissing() - 1;
-		return var;
+		return getDoubleVector().variance();
 	}
 
 	/**
@@ -202,22 +212,36 @@ public class NumericAttribute extends Attribute implements OptionsHandler {
 
 	@Override
 	public void replaceMissing() {
-		for (int i = 0; i < vector.size(); i++)
-			if (isMissing(i))
-				vector.set(i, MISSING_VALUE_REPLACE);
+		double[] x = getDoubleVector().array();
+		for (int i = 0; i < size(); i++)
+			if (Double.isNaN(x[i]))
+				x[i] = MISSING_VALUE_REPLACE;
+		getDoubleVector().refresh();
 	}
 
 	@Override
 	public Double get(int i) {
-		return (Double) this.vector.at(i);
+		return getDoubleVector().doubleAt(i);
+	}
+
+	/**
+	 * 获取属性值向量在i处的值，不装箱
+	 * 
+	 * @param i
+	 *            指定下标
+	 * @return
+	 */
+	public double getDouble(int i) {
+		return getDoubleVector().doubleAt(i);
 	}
 	
 	public double[] toArray(boolean ingnoreMissing) {
 		double[] d = new double[countNoneMissing()];
+		double[] x = getDoubleVector().array();
 		int c = 0;
 		for (int i = 0; i < size(); i++) {
-			if (!isMissing(i)) {
-				d[c] = get(i);
+			if (!Double.isNaN(x[i])) {
+				d[c] = x[i];
 				c++;
 			}
 		}
@@ -226,11 +250,7 @@ public class NumericAttribute extends Attribute implements OptionsHandler {
 	
 	@Override
 	public double[] toArray() {
-		double[] d = new double[size()];
-		for (int i = 0; i < d.length; i++) {
-			d[i] = get(i);
-		}
-		return d;
+		return getDoubleVector().toDoubleArray();
 	}
 
 	public class NumericConverter extends AttributeConverter {
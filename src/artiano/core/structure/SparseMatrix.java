@@ -0,0 +1,465 @@
+/**
+ * SparseMatrix.java
+ */
+package artiano.core.structure;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>稀疏矩阵，以压缩行（CSR）或压缩列（CSC）的格式存储非零元素。</p>
+ * <p>以CSR格式为例，第i行的非零元素保存在下标区间[pointers()[i], pointers()[i+1])中，
+ * indices()保存它们的列下标（升序），values()保存它们的值；CSC格式则将行和列的角色互换。
+ * 稀疏矩阵与稠密矩阵的乘法、转置乘法等运算的时间和空间复杂度只与非零元素的个数有关，适用于独热编码后的
+ * 符号属性（参见{@link Table#toSparseMatrix()}）以及文本类特征。按行遍历非零元素的代码如下：
+ * <pre><code>
+ * SparseMatrix x = table.toSparseMatrix();
+ * for (int i = 0; i < x.rows(); i++)
+ *     for (int k = x.rowStart(i); k < x.rowEnd(i); k++)
+ *         sum += x.values()[k] * w.at(x.indices()[k]);
+ * </code></pre>
+ * <b><i>NOTICE:</i></b> 转置{@link #t()}不拷贝数据，CSR矩阵的转置是共享数据的CSC矩阵，反之亦然。</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class SparseMatrix implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	/** 矩阵的行数 */
+	private int rows = 0;
+	/** 矩阵的列数 */
+	private int cols = 0;
+	/** 是否以压缩列（CSC）格式存储 */
+	private boolean columnMajor = false;
+	/** 每一行（列）的非零元素在{@link #idx}与{@link #val}中的开始位置，长度为行（列）数加1 */
+	private int[] ptr = null;
+	/** 非零元素的列（行）下标 */
+	private int[] idx = null;
+	/** 非零元素的值 */
+	private double[] val = null;
+
+	/**
+	 * 使用预先压缩好的数据构造一个稀疏矩阵，数据不会被拷贝。
+	 * @param rows 矩阵行数
+	 * @param cols 矩阵列数
+	 * @param pointers 每一行（列）的非零元素的开始位置，长度为rows+1（CSC格式为cols+1）
+	 * @param indices 非零元素的列（行）下标，在每一行（列）内升序
+	 * @param values 非零元素的值
+	 * @param columnMajor 为<code>true</code>时表示CSC格式，否则为CSR格式
+	 */
+	public SparseMatrix(int rows, int cols, int[] pointers, int[] indices, double[] values, boolean columnMajor){
+		if (rows <= 0 || cols <= 0)
+			throw new IllegalArgumentException("SparseMatrix, columns and rows must be positive integer.");
+		int major = columnMajor ? cols: rows;
+		if (pointers.length != major + 1 || pointers[0] != 0 || pointers[major] > indices.length ||
+				indices.length != values.length)
+			throw new IllegalArgumentException("SparseMatrix, the compressed data does not match the size of the matrix.");
+		this.rows = rows;
+		this.cols = cols;
+		this.ptr = pointers;
+		this.idx = indices;
+		this.val = values;
+		this.columnMajor = columnMajor;
+	}
+
+	/**
+	 * 将稠密矩阵压缩为CSR格式的稀疏矩阵，值为0的元素将被忽略。
+	 * @param x 稠密矩阵
+	 * @return 稀疏矩阵
+	 */
+	public static SparseMatrix valueOf(Matrix x){
+		int nnz = 0;
+		for (int i = 0; i < x.rows(); i++)
+			for (int j = 0; j < x.columns(); j++)
+				if (x.at(i, j) != 0.)
+					nnz++;
+		int[] ptr = new int[x.rows() + 1];
+		int[] idx = new int[nnz];
+		double[] val = new double[nnz];
+		int k = 0;
+		for (int i = 0; i < x.rows(); i++){
+			for (int j = 0; j < x.columns(); j++){
+				double v = x.at(i, j);
+				if (v != 0.){
+					idx[k] = j;
+					val[k++] = v;
+				}
+			}
+			ptr[i + 1] = k;
+		}
+		return new SparseMatrix(x.rows(), x.columns(), ptr, idx, val, false);
+	}
+
+	/**
+	 * 使用三元组(row[k], col[k], value[k])构造CSR格式的稀疏矩阵，下标相同的元素将被累加。
+	 * @param rows 矩阵行数
+	 * @param cols 矩阵列数
+	 * @param row 元素的行下标
+	 * @param col 元素的列下标
+	 * @param value 元素的值
+	 * @param count 三元组的个数
+	 * @return 稀疏矩阵
+	 */
+	public static SparseMatrix fromTriplets(int rows, int cols, int[] row, int[] col, double[] value, int count){
+		int[] ptr = new int[rows + 1];
+		for (int k = 0; k < count; k++){
+			if (row[k] < 0 || row[k] >= rows || col[k] < 0 || col[k] >= cols)
+				throw new IndexOutOfBoundsException("SparseMatrix fromTriplets, index out of range.");
+			ptr[row[k] + 1]++;
+		}
+		for (int i = 0; i < rows; i++)
+			ptr[i + 1] += ptr[i];
+		int[] next = Arrays.copyOf(ptr, rows);
+		int[] idx = new int[count];
+		double[] val = new double[count];
+		for (int k = 0; k < count; k++){
+			int p = next[row[k]]++;
+			idx[p] = col[k];
+			val[p] = value[k];
+		}
+		//sort the columns in each row and merge the duplicated ones
+		int nnz = 0;
+		int start = 0;
+		for (int i = 0; i < rows; i++){
+			int end = ptr[i + 1];
+			sortByIndex(idx, val, start, end);
+			int first = nnz;
+			for (int k = start; k < end; k++){
+				if (nnz > first && idx[nnz - 1] == idx[k])
+					val[nnz - 1] += val[k];
+				else {
+					idx[nnz] = idx[k];
+					val[nnz++] = val[k];
+				}
+			}
+			start = end;
+			ptr[i + 1] = nnz;
+		}
+		return new SparseMatrix(rows, cols, ptr, Arrays.copyOf(idx, nnz), Arrays.copyOf(val, nnz), false);
+	}
+
+	/**
+	 * 在区间[start, end)内按下标对(idx, val)进行插入排序，每一行的元素通常很少
+	 */
+	private static void sortByIndex(int[] idx, double[] val, int start, int end){
+		for (int k = start + 1; k < end; k++){
+			int i = idx[k];
+			double v = val[k];
+			int p = k - 1;
+			for (; p >= start && idx[p] > i; p--){
+				idx[p + 1] = idx[p];
+				val[p + 1] = val[p];
+			}
+			idx[p + 1] = i;
+			val[p + 1] = v;
+		}
+	}
+
+	/**
+	 * 获取矩阵的行数。
+	 * @return 矩阵行数。
+	 */
+	public int rows(){
+		return rows;
+	}
+
+	/**
+	 * 获取矩阵的列数。
+	 * @return 矩阵的列数。
+	 */
+	public int columns(){
+		return cols;
+	}
+
+	/**
+	 * 获取非零元素的个数。
+	 * @return 非零元素的个数
+	 */
+	public int nonZeros(){
+		return ptr[columnMajor ? cols: rows];
+	}
+
+	/**
+	 * 判断矩阵是否以压缩列（CSC）格式存储。
+	 * @return CSC格式返回<code>true</code>，CSR格式返回<code>false</code>
+	 */
+	public boolean isColumnMajor(){
+		return columnMajor;
+	}
+
+	/**
+	 * 获取每一行（CSC格式为每一列）的非零元素的开始位置。
+	 * @return 开始位置
+	 */
+	public int[] pointers(){
+		return ptr;
+	}
+
+	/**
+	 * 获取非零元素的列下标（CSC格式为行下标）。
+	 * @return 下标
+	 */
+	public int[] indices(){
+		return idx;
+	}
+
+	/**
+	 * 获取非零元素的值。
+	 * @return 值
+	 */
+	public double[] values(){
+		return val;
+	}
+
+	/**
+	 * 获取CSR格式矩阵第i行的第一个非零元素在{@link #indices()}以及{@link #values()}中的位置。
+	 * @param i 行下标
+	 * @return 位置
+	 */
+	public int rowStart(int i){
+		checkRow("rowStart", i);
+		return ptr[i];
+	}
+
+	/**
+	 * 获取CSR格式矩阵第i行的最后一个非零元素在{@link #indices()}以及{@link #values()}中的位置加1。
+	 * @param i 行下标
+	 * @return 位置
+	 */
+	public int rowEnd(int i){
+		checkRow("rowEnd", i);
+		return ptr[i + 1];
+	}
+
+	private void checkRow(String method, int i){
+		if (columnMajor)
+			throw new UnsupportedOperationException("SparseMatrix " + method + ", the matrix is column major, use toCSR() first.");
+		if (i < 0 || i >= rows)
+			throw new IndexOutOfBoundsException("SparseMatrix " + method + ", index out of range.");
+	}
+
+	/**
+	 * 获取矩阵在行下标为i列下标为j处的值。
+	 * @param i 行下标。
+	 * @param j 列下标。
+	 * @return 值。
+	 */
+	public double at(int i, int j){
+		if (i < 0 || i >= rows || j < 0 || j >= cols)
+			throw new IndexOutOfBoundsException("SparseMatrix at, index out of range.");
+		int major = columnMajor ? j: i;
+		int minor = columnMajor ? i: j;
+		int k = Arrays.binarySearch(idx, ptr[major], ptr[major + 1], minor);
+		return k < 0 ? 0.: val[k];
+	}
+
+	/**
+	 * 获取第i行构成的1*columns()的稀疏行向量（CSR格式，拷贝）。
+	 * @param i 行下标
+	 * @return 行向量
+	 */
+	public SparseMatrix row(int i){
+		if (i < 0 || i >= rows)
+			throw new IndexOutOfBoundsException("SparseMatrix row, index out of range.");
+		if (!columnMajor){
+			int n = ptr[i + 1] - ptr[i];
+			return new SparseMatrix(1, cols, new int[]{0, n}, Arrays.copyOfRange(idx, ptr[i], ptr[i + 1]),
+					Arrays.copyOfRange(val, ptr[i], ptr[i + 1]), false);
+		}
+		int n = 0;
+		int[] c = new int[cols];
+		double[] v = new double[cols];
+		for (int j = 0; j < cols; j++){
+			int k = Arrays.binarySearch(idx, ptr[j], ptr[j + 1], i);
+			if (k >= 0){
+				c[n] = j;
+				v[n++] = val[k];
+			}
+		}
+		return new SparseMatrix(1, cols, new int[]{0, n}, Arrays.copyOf(c, n), Arrays.copyOf(v, n), false);
+	}
+
+	/**
+	 * 转置当前矩阵，转置后的矩阵与原矩阵共享数据，且存储格式与原矩阵相反。
+	 * @return 矩阵的转置。
+	 */
+	public SparseMatrix t(){
+		return new SparseMatrix(cols, rows, ptr, idx, val, !columnMajor);
+	}
+
+	/**
+	 * 转换为CSR格式，如果已经是CSR格式则返回本身。
+	 * @return CSR格式的稀疏矩阵
+	 */
+	public SparseMatrix toCSR(){
+		return columnMajor ? transpose().t(): this;
+	}
+
+	/**
+	 * 转换为CSC格式，如果已经是CSC格式则返回本身。
+	 * @return CSC格式的稀疏矩阵
+	 */
+	public SparseMatrix toCSC(){
+		return columnMajor ? this: transpose().t();
+	}
+
+	/**
+	 * 将压缩的数据转置（CSR与CSC互换），返回的矩阵与原矩阵格式相同而行列互换
+	 */
+	private SparseMatrix transpose(){
+		int major = columnMajor ? cols: rows;
+		int minor = columnMajor ? rows: cols;
+		int nnz = nonZeros();
+		int[] p = new int[minor + 1];
+		for (int k = 0; k < nnz; k++)
+			p[idx[k] + 1]++;
+		for (int i = 0; i < minor; i++)
+			p[i + 1] += p[i];
+		int[] next = Arrays.copyOf(p, minor);
+		int[] x = new int[nnz];
+		double[] v = new double[nnz];
+		for (int i = 0; i < major; i++){
+			for (int k = ptr[i]; k < ptr[i + 1]; k++){
+				int q = next[idx[k]]++;
+				x[q] = i;
+				v[q] = val[k];
+			}
+		}
+		return new SparseMatrix(cols, rows, p, x, v, columnMajor);
+	}
+
+	/**
+	 * 转换为稠密矩阵。
+	 * @return 稠密矩阵
+	 */
+	public Matrix toMatrix(){
+		Matrix x = new Matrix(rows, cols);
+		int major = columnMajor ? cols: rows;
+		for (int i = 0; i < major; i++){
+			for (int k = ptr[i]; k < ptr[i + 1]; k++){
+				if (columnMajor)
+					x.d[idx[k] * cols + i] = val[k];
+				else
+					x.d[i * cols + idx[k]] = val[k];
+			}
+		}
+		return x;
+	}
+
+	/**
+	 * 稀疏矩阵与稠密矩阵的乘法 (y = this * x)，计算量与非零元素个数成正比。
+	 * @param x 稠密矩阵
+	 * @return 稠密的结果矩阵
+	 */
+	public Matrix multiply(Matrix x){
+		if (x.rows() != cols)
+			throw new IllegalArgumentException("SparseMatrix multiplication, size not match.");
+		int n = x.columns();
+		Matrix y = new Matrix(rows, n);
+		double[] b = x.d;
+		int bOff = 0, ldb = 0;
+		if (b == null){
+			b = x.clone().d;
+			ldb = n;
+		} else {
+			bOff = x.offset();
+			ldb = x.dCols;
+		}
+		double[] c = y.d;
+		int major = columnMajor ? cols: rows;
+		for (int i = 0; i < major; i++){
+			for (int k = ptr[i]; k < ptr[i + 1]; k++){
+				//CSR: y[i,:] += v * x[idx,:]; CSC: y[idx,:] += v * x[i,:]
+				int ci = (columnMajor ? idx[k]: i) * n;
+				int bi = bOff + (columnMajor ? i: idx[k]) * ldb;
+				double v = val[k];
+				for (int j = 0; j < n; j++)
+					c[ci + j] += v * b[bi + j];
+			}
+		}
+		return y;
+	}
+
+	/**
+	 * 稀疏矩阵的转置与稠密矩阵的乘法 (y = this' * x)，不需要显式地转置稀疏矩阵。
+	 * @param x 稠密矩阵
+	 * @return 稠密的结果矩阵
+	 */
+	public Matrix transposeMultiply(Matrix x){
+		if (x.rows() != rows)
+			throw new IllegalArgumentException("SparseMatrix transposeMultiply, size not match.");
+		return t().multiply(x);
+	}
+
+	/**
+	 * 计算稀疏矩阵的格拉姆矩阵 (y = this' * this)，计算量与每一行非零元素个数的平方和成正比。
+	 * @return columns()*columns()的稠密对称矩阵
+	 */
+	public Matrix gram(){
+		SparseMatrix x = toCSR();
+		Matrix y = new Matrix(cols, cols);
+		double[] c = y.d;
+		for (int i = 0; i < rows; i++){
+			for (int p = x.ptr[i]; p < x.ptr[i + 1]; p++){
+				int cp = x.idx[p] * cols;
+				double v = x.val[p];
+				for (int q = x.ptr[i]; q < x.ptr[i + 1]; q++)
+					c[cp + x.idx[q]] += v * x.val[q];
+			}
+		}
+		return y;
+	}
+
+	/**
+	 * 求取矩阵每一列元素的和。
+	 * @return 1*columns()的行向量
+	 */
+	public Matrix columnSums(){
+		Matrix y = new Matrix(1, cols);
+		int major = columnMajor ? cols: rows;
+		for (int i = 0; i < major; i++)
+			for (int k = ptr[i]; k < ptr[i + 1]; k++)
+				y.d[columnMajor ? i: idx[k]] += val[k];
+		return y;
+	}
+
+	/**
+	 * 克隆一个矩阵。
+	 */
+	@Override
+	public SparseMatrix clone(){
+		return new SparseMatrix(rows, cols, ptr.clone(), idx.clone(), val.clone(), columnMajor);
+	}
+
+	/**
+	 * 检查两个矩阵是否相等（存储格式可以不同）。
+	 */
+	@Override
+	public boolean equals(Object obj){
+		if (!(obj instanceof SparseMatrix))
+			return false;
+		SparseMatrix x = (SparseMatrix)obj;
+		if (rows != x.rows || cols != x.cols)
+			return false;
+		SparseMatrix a = toCSR();
+		SparseMatrix b = x.toCSR();
+		int nnz = a.nonZeros();
+		if (nnz != b.nonZeros())
+			return false;
+		for (int i = 0; i <= rows; i++)
+			if (a.ptr[i] != b.ptr[i])
+				return false;
+		for (int k = 0; k < nnz; k++)
+			if (a.idx[k] != b.idx[k] || a.val[k] != b.val[k])
+				return false;
+		return true;
+	}
+
+	@Override
+	public int hashCode(){
+		return rows * cols + nonZeros();
+	}
+}
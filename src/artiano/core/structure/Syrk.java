@@ -0,0 +1,143 @@
+/**
+ * Syrk.java
+ */
+package artiano.core.structure;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>对称秩k更新（SYRK）计算核心，计算：
+ * <pre><code>
+ * C = alpha*A*A' + beta*C  或  C = alpha*A'*A + beta*C
+ * </code></pre>
+ * 其中C为n*n的对称矩阵。由于结果对称，只计算C的上三角部分的分块，再镜像到下三角，计算量约为通用矩阵乘法
+ * 的一半，且不需要显式地转置A。</p>
+ * <p>上三角的每一个分块都由{@link Gemm}的分块打包核心完成；当计算量超过阈值时，各个分块使用Fork/Join
+ * 并行计算，是否允许并行由{@link Gemm#setParallel(boolean)}控制。</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public final class Syrk {
+	/** C的分块大小 */
+	static final int NB = Gemm.MC;
+
+	private Syrk(){ }
+
+	/**
+	 * 计算C = alpha*op(A)*op(A)' + beta*C，op(A)为n*k矩阵，C为n*n矩阵。
+	 * <br><b><i>NOTICE:</i></b> beta不为0时，C须为对称矩阵；C不能与A共享存储空间。
+	 * @param trans 若为<code>false</code>，则op(A)=A，A以n*k的形式存放，计算A*A'；若为<code>true</code>，
+	 * 则op(A)=A'，A以k*n的形式存放，计算A'*A
+	 * @param n C的阶数
+	 * @param k op(A)的列数
+	 * @param alpha 乘积的缩放系数
+	 * @param a A的数据
+	 * @param aOff A的首元素在a中的下标
+	 * @param lda A的行跨度
+	 * @param beta C的缩放系数，为0时C的原始值将被忽略
+	 * @param c C的数据
+	 * @param cOff C的首元素在c中的下标
+	 * @param ldc C的行跨度
+	 */
+	public static void syrk(boolean trans, int n, int k, double alpha, double[] a, int aOff, int lda,
+			double beta, double[] c, int cOff, int ldc){
+		if (n < 0 || k < 0)
+			throw new IllegalArgumentException("Syrk, size must not be negative.");
+		if (n == 0)
+			return;
+		long work = (long)n * n * k / 2;
+		if (work <= Gemm.SMALL_WORK || alpha == 0.){
+			upper(trans, n, k, alpha, a, aOff, lda, beta, c, cOff, ldc);
+		} else {
+			int blocks = (n + NB - 1) / NB;
+			Task task = new Task(trans, n, k, alpha, a, aOff, lda, beta, c, cOff, ldc, 0, blocks * (blocks + 1) / 2);
+			if (Gemm.isParallel() && work >= Gemm.PARALLEL_WORK && Runtime.getRuntime().availableProcessors() > 1)
+				Gemm.pool().invoke(task);
+			else
+				task.compute();
+		}
+		//mirror the upper triangle to the lower triangle
+		for (int i = 1; i < n; i++)
+			for (int j = 0; j < i; j++)
+				c[cOff + i * ldc + j] = c[cOff + j * ldc + i];
+	}
+
+	/**
+	 * 不分块的简单实现，只计算C的上三角，用于小矩阵
+	 */
+	static void upper(boolean trans, int n, int k, double alpha, double[] a, int aOff, int lda,
+			double beta, double[] c, int cOff, int ldc){
+		for (int i = 0; i < n; i++){
+			int ci = cOff + i * ldc;
+			for (int j = i; j < n; j++){
+				double sum = 0.;
+				if (alpha != 0.){
+					if (trans)
+						for (int p = 0; p < k; p++)
+							sum += a[aOff + p * lda + i] * a[aOff + p * lda + j];
+					else {
+						int ai = aOff + i * lda, aj = aOff + j * lda;
+						for (int p = 0; p < k; p++)
+							sum += a[ai + p] * a[aj + p];
+					}
+				}
+				c[ci + j] = (beta == 0. ? 0.: beta * c[ci + j]) + alpha * sum;
+			}
+		}
+	}
+
+	/**
+	 * 计算上三角中第index个分块（按行编号，即(0,0),(0,1),...,(1,1),...）
+	 */
+	static void block(boolean trans, int n, int k, double alpha, double[] a, int aOff, int lda,
+			double beta, double[] c, int cOff, int ldc, int index){
+		int blocks = (n + NB - 1) / NB;
+		int bi = 0;
+		while (index >= blocks - bi){
+			index -= blocks - bi;
+			bi++;
+		}
+		int bj = bi + index;
+		int i0 = bi * NB, i1 = Math.min(n, i0 + NB);
+		int j0 = bj * NB, j1 = Math.min(n, j0 + NB);
+		Gemm.scale(beta, c, cOff, ldc, i0, i1, j0, j1);
+		//A*A' reads the rows of A for both operands, A'*A reads the columns
+		Gemm.blocked(trans, !trans, i0, i1, j0, j1, k, alpha, a, aOff, lda, a, aOff, lda, c, cOff, ldc);
+	}
+
+	/**
+	 * 计算上三角中分块区间[lo,hi)的任务，分块较多时一分为二并行计算
+	 */
+	static class Task extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final boolean trans;
+		final int n, k, lo, hi;
+		final double alpha, beta;
+		final double[] a, c;
+		final int aOff, lda, cOff, ldc;
+
+		Task(boolean trans, int n, int k, double alpha, double[] a, int aOff, int lda,
+				double beta, double[] c, int cOff, int ldc, int lo, int hi){
+			this.trans = trans; this.n = n; this.k = k;
+			this.alpha = alpha; this.beta = beta;
+			this.a = a; this.aOff = aOff; this.lda = lda;
+			this.c = c; this.cOff = cOff; this.ldc = ldc;
+			this.lo = lo; this.hi = hi;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo > 1 && Gemm.isParallel() && getPool() != null){
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new Task(trans, n, k, alpha, a, aOff, lda, beta, c, cOff, ldc, lo, mid),
+						new Task(trans, n, k, alpha, a, aOff, lda, beta, c, cOff, ldc, mid, hi));
+				return;
+			}
+			for (int index = lo; index < hi; index++)
+				block(trans, n, k, alpha, a, aOff, lda, beta, c, cOff, ldc, index);
+		}
+	}
+}
@@ -157,6 +157,211 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 		}
 	}
 
+	/**
+	 * <p>
+	 * 表的行游标，可重复使用的轻量行。游标不拷贝行中的值，而是通过行索引直接读取属性值向量，
+	 * 移动游标不分配内存：
+	 * </p>
+	 * <pre><code>
+	 * RowCursor cursor = table.cursor();
+	 * while (cursor.next())
+	 *     sum += cursor.getDouble(0);
+	 * </code></pre>
+	 * <p>
+	 * 游标在创建时记录表的属性值向量，表的属性或属性值向量被替换后应重新获取游标。需要保留行时使用
+	 * {@link #toRow()}。
+	 * </p>
+	 * 
+	 * @author Nano.Michael
+	 * @version 1.0.0
+	 * @date 2026-10-17
+	 * @author (latest modification by Nano.Michael)
+	 * @since 1.0.0
+	 */
+	public class RowCursor {
+		/** 各列的属性值向量 */
+		private final IncrementVector[] vectors;
+		/** 当前行 */
+		private int row = -1;
+		/** 当前行在属性值向量中的位置 */
+		private int position = -1;
+
+		/** 只能在Table中构造游标 */
+		RowCursor() {
+			vectors = new IncrementVector[columns()];
+			for (int j = 0; j < vectors.length; j++)
+				vectors[j] = attributes.get(j).getVector();
+		}
+
+		/**
+		 * 获取游标所属的表
+		 * 
+		 * @return
+		 */
+		public Table getOwner() {
+			return Table.this;
+		}
+
+		/**
+		 * 将游标移动到第i行
+		 * 
+		 * @param i
+		 *            行下标
+		 * @return 游标本身
+		 */
+		public RowCursor moveTo(int i) {
+			if (i < 0 || i >= rows)
+				throw new ArrayIndexOutOfBoundsException(i);
+			row = i;
+			position = index.at(i);
+			return this;
+		}
+
+		/**
+		 * 将游标移动到下一行
+		 * 
+		 * @return 若没有下一行则返回{@code false}
+		 */
+		public boolean next() {
+			if (row + 1 >= rows)
+				return false;
+			moveTo(row + 1);
+			return true;
+		}
+
+		/**
+		 * 将游标重置到第一行之前
+		 */
+		public void reset() {
+			row = -1;
+			position = -1;
+		}
+
+		/**
+		 * 获取当前行的下标
+		 * 
+		 * @return
+		 */
+		public int row() {
+			return row;
+		}
+
+		/**
+		 * 获取当前行在属性值向量中的位置
+		 * 
+		 * @return
+		 */
+		public int position() {
+			return position;
+		}
+
+		/**
+		 * 获取行的大小
+		 * 
+		 * @return
+		 */
+		public int size() {
+			return vectors.length;
+		}
+
+		/**
+		 * 获取当前行在下标j处的值
+		 * 
+		 * @param j
+		 *            列下标
+		 * @return
+		 */
+		public Object at(int j) {
+			return vectors[j].at(position);
+		}
+
+		/**
+		 * 获取当前行在数值列j处的值，不装箱
+		 * 
+		 * @param j
+		 *            列下标
+		 * @return
+		 */
+		public double getDouble(int j) {
+			IncrementVector v = vectors[j];
+			if (v instanceof DoubleVector)
+				return ((DoubleVector) v).doubleAt(position);
+			return ((Number) v.at(position)).doubleValue();
+		}
+
+		/**
+		 * 获取当前行在符号列j处的值的编码，参见{@link NominalAttribute#codeAt(int)}
+		 * 
+		 * @param j
+		 *            列下标
+		 * @return 编码，缺失值为{@link DictionaryVector#MISSING_CODE}
+		 * @throws UnsupportedOperationException
+		 *             如果列j不是字典编码的
+		 */
+		public int getCode(int j) {
+			IncrementVector v = vectors[j];
+			if (!(v instanceof DictionaryVector))
+				throw new UnsupportedOperationException(
+						"RowCursor getCode, column " + j + " is not dictionary encoded.");
+			return ((DictionaryVector) v).codeAt(position);
+		}
+
+		/**
+		 * 当前行在下标j处是否缺失
+		 * 
+		 * @param j
+		 *            列下标
+		 * @return
+		 */
+		public boolean isMissing(int j) {
+			return vectors[j].isMissing(position);
+		}
+
+		/**
+		 * 当前行中是否缺失数据
+		 * 
+		 * @return
+		 */
+		public boolean hasMissing() {
+			for (int j = 0; j < vectors.length; j++)
+				if (vectors[j].isMissing(position))
+					return true;
+			return false;
+		}
+
+		/**
+		 * 得到当前行的类属性值
+		 * 
+		 * @return 当前行的类属性值
+		 */
+		public Object classValue() {
+			if (!hasClass())
+				throw new UnsupportedOperationException("class not set!");
+			return at(classIndex());
+		}
+
+		/**
+		 * 将当前行拷贝为一个{@link TableRow}
+		 * 
+		 * @return
+		 */
+		public TableRow toRow() {
+			TableRow tableRow = createRow();
+			for (int j = 0; j < vectors.length; j++)
+				tableRow.set(j, at(j));
+			return tableRow;
+		}
+	}
+
+	/**
+	 * 获取表的行游标，游标位于第一行之前
+	 * 
+	 * @return 行游标
+	 */
+	public RowCursor cursor() {
+		return new RowCursor();
+	}
+
 	/**
 	 * 两个实例之间的距离
 	 * 
@@ -167,9 +372,51 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 	 * @return
 	 */
 	public double distanceOf(int i, int j) {
-		TableRow rowI = row(i);
-		TableRow rowJ = row(j);
-		return distanceOf(rowI, rowJ);
+		return distanceOf(this, index.at(i), this, index.at(j));
+	}
+
+	/**
+	 * 两个游标所在实例之间的距离，与{@link #distanceOf(TableRow, TableRow)}相同，但不拷贝行
+	 * 
+	 * @param r1
+	 *            游标1
+	 * @param r2
+	 *            游标2
+	 * @return
+	 */
+	public static double distanceOf(RowCursor r1, RowCursor r2) {
+		return distanceOf(r1.getOwner(), r1.position(), r2.getOwner(), r2.position());
+	}
+
+	/**
+	 * 表t1中位置p1处的实例与表t2中位置p2处的实例之间的距离，位置为属性值向量中的位置
+	 */
+	private static double distanceOf(Table t1, int p1, Table t2, int p2) {
+		double d = 0, a = 0, b = 0;
+		for (int k = 0; k < t1.columns(); k++) {
+			Attribute att = t1.attribute(k);
+			IncrementVector vI = att.getVector();
+			IncrementVector vJ = t2.attribute(k).getVector();
+			if (!vI.isMissing(p1) && !vJ.isMissing(p2)) {
+				b += 1;
+				if (att instanceof NumericAttribute) {
+					d = ((DoubleVector) vI).doubleAt(p1) - ((DoubleVector) vJ).doubleAt(p2);
+					d = Math.abs(d);
+					NumericAttribute nAtt = (NumericAttribute) att;
+					d /= nAtt.max() - nAtt.min();
+				} else if (vI == vJ && vI instanceof DictionaryVector) {
+					DictionaryVector v = (DictionaryVector) vI;
+					d = v.codeAt(p1) == v.codeAt(p2) ? 1 : 0;
+				} else {
+					if (vI.at(p1).equals(vJ.at(p2)))
+						d = 1;
+					else
+						d = 0;
+				}
+				a += d;
+			}
+		}
+		return 1.d - (a / b);
 	}
 	
 	public static double distanceOf(TableRow r1, TableRow r2) {
@@ -280,7 +527,7 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 		}
 
 		for (int j = 0; j < columns; j++) {
-			IncrementVector vector = new IncrementVector(rows);
+			DoubleVector vector = new DoubleVector(rows);
 			for (int i = 0; i < rows; i++) {
 				vector.push(data.at(i, j));
 			}
@@ -567,9 +814,14 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 	}
 	
 	public int indexOfRow(TableRow row) {
-		for (int i = 0; i < rows(); i++) {
-			if (row.equals(row(i)))
-				return i;
+		// compare in place instead of copying each row
+		RowCursor cursor = cursor();
+		while (cursor.next()) {
+			boolean equal = true;
+			for (int j = 0; j < columns() && equal; j++)
+				equal = cursor.at(j).equals(row.at(j));
+			if (equal)
+				return cursor.row();
 		}
 		return -1;
 	}
@@ -811,15 +1063,45 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 	public void orderByClass() {
 		if (!hasClass())
 			throw new UnsupportedOperationException("class is not set!");
-		// make distinct
-		Object[] distinct = classAttribute.distinct();
-		// position of the distinct class value
-		int[] positions = new int[distinct.length];
-		// new indices
-		IncrementIndex newIndex = new IncrementIndex(rows());
-		for (int i = 0; i < rows(); i++) {
-			
+		// group of each row, groups are ordered by first appearance
+		int c = classIndex();
+		int[] group = new int[rows()];
+		int groups = 0;
+		RowCursor cursor = cursor();
+		if (classAttribute instanceof NominalAttribute) {
+			int[] rank = new int[((NominalAttribute) classAttribute).cardinality() + 1];
+			Arrays.fill(rank, -1);
+			while (cursor.next()) {
+				// missing code -1 goes to rank[0]
+				int code = cursor.getCode(c) + 1;
+				if (rank[code] < 0)
+					rank[code] = groups++;
+				group[cursor.row()] = rank[code];
+			}
+		} else {
+			HashMap<Object, Integer> rank = new HashMap<Object, Integer>();
+			while (cursor.next()) {
+				Integer r = rank.get(cursor.at(c));
+				if (r == null) {
+					r = groups++;
+					rank.put(cursor.at(c), r);
+				}
+				group[cursor.row()] = r;
+			}
 		}
+		// stable counting sort of the index
+		int[] start = new int[groups + 1];
+		for (int i = 0; i < rows(); i++)
+			start[group[i] + 1]++;
+		for (int g = 0; g < groups; g++)
+			start[g + 1] += start[g];
+		int[] ordered = new int[rows()];
+		for (int i = 0; i < rows(); i++)
+			ordered[start[group[i]]++] = index.at(i);
+		IncrementIndex newIndex = new IncrementIndex(rows());
+		for (int i = 0; i < ordered.length; i++)
+			newIndex.push(ordered[i]);
+		this.index = newIndex;
 	}
 
 	/**
@@ -908,14 +1190,38 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 		return t;
 	}
 
+	/**
+	 * 按字求与各属性的有效位图，得到值向量中完整（没有缺失值）的位置
+	 * 
+	 * @return 完整位置的位图，参见{@link ValidityBitmap}，所有属性都没有缺失值时为{@code null}
+	 */
+	private long[] completePositions() {
+		boolean missing = false;
+		int n = Integer.MAX_VALUE;
+		for (int j = 0; j < columns(); j++) {
+			IncrementVector v = attribute(j).getVector();
+			missing |= v.hasMissing();
+			n = Math.min(n, v.size());
+		}
+		if (!missing)
+			return null;
+		long[] complete = ValidityBitmap.filled(n);
+		for (int j = 0; j < columns(); j++)
+			attribute(j).getVector().validity().andInto(complete);
+		return complete;
+	}
+
 	/**
 	 * 表中是否有缺失值
 	 * 
 	 * @return 如果有缺失值则返回{@code true}
 	 */
 	public boolean hasMissing() {
+		long[] complete = completePositions();
+		if (complete == null)
+			return false;
 		for (int i = 0; i < rows(); i++)
-			if (row(i).hasMissing())
+			if (!ValidityBitmap.get(complete, index.at(i)))
 				return true;
 		return false;
 	}
@@ -935,8 +1241,9 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 		t.name = this.name;
 		// new index
 		t.index = new IncrementIndex(this.index.size());
+		long[] complete = completePositions();
 		for (int i = 0; i < rows(); i++) {
-			if (!row(i).hasMissing())
+			if (complete == null || ValidityBitmap.get(complete, index.at(i)))
 				t.index.push(this.index.at(i));
 		}
 		t.rows = t.index.size();
@@ -948,28 +1255,29 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 	 * <b><i>NOTICE:</b></i> 在删除缺失值后，表索引将被重置
 	 */
 	public void deleteMissing() {
-		for (int i = 0; i < rows(); i++) {
-			TableRow row = row(i);
-			if (row.hasMissing()) {
-				for (int j = 0; j < columns(); j++)
-					attribute(j).getVector().remove(i);
-				i--;
-				rows--;
-			}
+		long[] complete = completePositions();
+		if (complete != null) {
+			// the first rows() positions are kept only if complete
+			for (int j = 0; j < columns(); j++)
+				attribute(j).getVector().retain(complete, rows);
+			rows = ValidityBitmap.count(complete, rows);
 		}
 		this.index = IncrementIndex.increment(0, 1, rows());
 	}
 
 	/**
-	 * 获取非缺失行数
+	 * 获取非缺失行数，即没有缺失值的行数
 	 * 
 	 * @return
 	 */
 	public int noneMissingRows() {
-		int count = Integer.MAX_VALUE;
-		for (int i = 0; i < columns(); i++)
-			if (count > attribute(i).countNoneMissing())
-				count = attribute(i).countNoneMissing();
+		long[] complete = completePositions();
+		if (complete == null)
+			return rows();
+		int count = 0;
+		for (int i = 0; i < rows(); i++)
+			if (ValidityBitmap.get(complete, index.at(i)))
+				count++;
 		return count;
 	}
 
@@ -999,15 +1307,18 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 		// convert to matrix
 		int x = ing == null ? 0 : ing.length;
 		Matrix matrix = new Matrix(rows, columns() - x);
+		// gather each column from the primitive array of the attribute
+		double[] m = matrix.data();
+		int cols = matrix.columns();
 		int c = 0;
-		for (int i = 0; i < rows; i++) {
-			c = 0;
-			for (int j = 0; j < columns(); j++) {
-				if (!isIn(j, ing)) {
-					matrix.set(i, c, (double) at(i, j));
-					c++;
-				}
-			}
+		for (int j = 0; j < columns(); j++) {
+			if (isIn(j, ing))
+				continue;
+			double[] v = ((NumericAttribute) attributes.get(j))
+					.getDoubleVector().array();
+			for (int i = 0; i < rows; i++)
+				m[i * cols + c] = v[index.at(i)];
+			c++;
 		}
 		return matrix;
 	}
@@ -1030,6 +1341,92 @@ public class Table implements Serializable, Iterable<Table.TableRow> {
 		return toMatrix(ing);
 	}
 
+	/**
+	 * 将表转换为CSR格式的稀疏矩阵，数值属性占一列，符号属性按取值进行独热编码（参见
+	 * {@link NominalAttribute#toBinary()}）占多列，缺失值以及0值不被存储。
+	 * @return 稀疏矩阵
+	 */
+	public SparseMatrix toSparseMatrix() {
+		return toSparseMatrix((int[])null);
+	}
+
+	/**
+	 * 将表转换为CSR格式的稀疏矩阵，数值属性占一列，符号属性按取值进行独热编码（参见
+	 * {@link NominalAttribute#toBinary()}）占多列，缺失值以及0值不被存储。
+	 * @param ingnores 在表中被忽略的属性下标
+	 * @return 稀疏矩阵
+	 */
+	public SparseMatrix toSparseMatrix(int[] ingnores) {
+		int[] ing = ingnores;
+		// check valid and layout the columns
+		int[] base = new int[columns()];
+		int width = 0;
+		int kept = 0;
+		for (int i = 0; i < attributes.size(); i++) {
+			if (isIn(i, ing))
+				continue;
+			Attribute att = attributes.get(i);
+			base[i] = width;
+			kept++;
+			if (att instanceof NumericAttribute)
+				width++;
+			else if (att instanceof NominalAttribute)
+				width += ((NominalAttribute) att).nominals().size();
+			else
+				throw new UnsupportedOperationException(
+						"only numeric and nominal attribute supported where " 
+								+ "convert table to sparse matrix.");
+		}
+		// each row holds at most one non-zero for every attribute
+		int[] ptr = new int[rows + 1];
+		int[] idx = new int[rows * kept];
+		double[] val = new double[rows * kept];
+		int k = 0;
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns(); j++) {
+				if (isIn(j, ing))
+					continue;
+				Attribute att = attributes.get(j);
+				if (att.isMissing(index.at(i)))
+					continue;
+				if (att instanceof NumericAttribute) {
+					double v = (Double) at(i, j);
+					if (v == 0.)
+						continue;
+					idx[k] = base[j];
+					val[k++] = v;
+				} else {
+					int c = ((NominalAttribute) att).nominals().indexOf(at(i, j));
+					if (c < 0)
+						continue;
+					idx[k] = base[j] + c;
+					val[k++] = 1.;
+				}
+			}
+			ptr[i + 1] = k;
+		}
+		return new SparseMatrix(rows, Math.max(width, 1), ptr, 
+				Arrays.copyOf(idx, k), Arrays.copyOf(val, k), false);
+	}
+
+	/**
+	 * 将表转换为CSR格式的稀疏矩阵
+	 * 
+	 * @param ingnores
+	 *            忽略的属性
+	 * @return
+	 */
+	public SparseMatrix toSparseMatrix(Attribute[] ingnores) {
+		int[] ing;
+		if (null == ingnores)
+			ing = new int[0];
+		else
+			ing = new int[ingnores.length];
+		for (int i = 0; i < ing.length; i++)
+			ing[i] = indexOf(ingnores[i]);
+		return toSparseMatrix(ing);
+	}
+
 	private boolean isIn(int x, int[] y) {
 		if (null == y) return false;
 		for (int i = 0; i < y.length; i++)
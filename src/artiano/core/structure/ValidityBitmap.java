@@ -0,0 +1,341 @@
+/**
+ * ValidityBitmap.java
+ */
+package artiano.core.structure;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * 基础数据结构，值向量的有效位图，第i位为1表示向量在下标i处的值不是缺失值。位图由{@link IncrementVector}
+ * 在写入值时维护，因此{@link #countMissing()}与{@link #hasMissing()}都是O(1)的，多个属性的完整行可以
+ * 通过{@link #andInto(long[])}按字（64位）求与得到：
+ * </p>
+ * <pre><code>
+ * long[] complete = ValidityBitmap.filled(rows);
+ * for (int j = 0; j &lt; columns; j++)
+ *     attribute(j).getVector().validity().andInto(complete);
+ * </code></pre>
+ * <p>
+ * 位图中超出{@link #size()}的位始终为0。
+ * </p>
+ *
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class ValidityBitmap implements Serializable {
+	private static final long serialVersionUID = -6107390364427961820L;
+
+	/** 存放位的字 */
+	private long[] words;
+	/** 位的个数 */
+	private int size = 0;
+	/** 有效位（值为1的位）的个数 */
+	private int valid = 0;
+
+	/**
+	 * 构造一个空位图
+	 */
+	public ValidityBitmap() {
+		this(IncrementVector.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * 构造一个空位图
+	 *
+	 * @param capacity
+	 *            位的容量
+	 */
+	public ValidityBitmap(int capacity) {
+		words = new long[wordsFor(capacity)];
+	}
+
+	/**
+	 * 存放n个位所需的字数
+	 *
+	 * @param n
+	 *            位的个数
+	 * @return 字数
+	 */
+	public static int wordsFor(int n) {
+		return (n + 63) >>> 6;
+	}
+
+	/**
+	 * 构造存放n个位的字数组，前n位全为1，可以作为{@link #andInto(long[])}的初始值
+	 *
+	 * @param n
+	 *            位的个数
+	 * @return 字数组
+	 */
+	public static long[] filled(int n) {
+		long[] w = new long[wordsFor(n)];
+		for (int k = 0; k < (n >>> 6); k++)
+			w[k] = -1L;
+		if ((n & 63) != 0)
+			w[n >>> 6] = (1L << n) - 1;
+		return w;
+	}
+
+	/**
+	 * 判断字数组中第i位是否为1
+	 *
+	 * @param words
+	 *            字数组
+	 * @param i
+	 *            下标
+	 * @return 若为1则返回{@code true}
+	 */
+	public static boolean get(long[] words, int i) {
+		return (words[i >>> 6] & (1L << i)) != 0;
+	}
+
+	/**
+	 * 统计字数组中前n位中值为1的位数
+	 *
+	 * @param words
+	 *            字数组
+	 * @param n
+	 *            位的个数
+	 * @return 值为1的位数
+	 */
+	public static int count(long[] words, int n) {
+		int c = 0;
+		for (int k = 0; k < (n >>> 6); k++)
+			c += Long.bitCount(words[k]);
+		if ((n & 63) != 0)
+			c += Long.bitCount(words[n >>> 6] & ((1L << n) - 1));
+		return c;
+	}
+
+	/**
+	 * 保证能存放声明个数的位
+	 */
+	private void ensureCapacity(int n) {
+		int w = wordsFor(n);
+		if (w > words.length) {
+			long[] newWords = new long[Math.max(w, 2 * words.length + 1)];
+			System.arraycopy(words, 0, newWords, 0, words.length);
+			words = newWords;
+		}
+	}
+
+	/**
+	 * 拷贝一份
+	 *
+	 * @return 位图的拷贝
+	 */
+	public ValidityBitmap copy() {
+		ValidityBitmap b = new ValidityBitmap(0);
+		b.words = words.clone();
+		b.size = size;
+		b.valid = valid;
+		return b;
+	}
+
+	/**
+	 * 获取位的个数
+	 *
+	 * @return 位的个数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 获取存放位的字数组，数组不是拷贝，位图增长后可能被替换
+	 *
+	 * @return 字数组
+	 */
+	public long[] words() {
+		return words;
+	}
+
+	/**
+	 * 判断下标i处的值是否有效
+	 *
+	 * @param i
+	 *            下标
+	 * @return 若有效则返回{@code true}
+	 */
+	public boolean isValid(int i) {
+		if (i < 0 || i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		return get(words, i);
+	}
+
+	/**
+	 * 获取无效位（缺失值）的个数
+	 *
+	 * @return 缺失值的个数
+	 */
+	public int countMissing() {
+		return size - valid;
+	}
+
+	/**
+	 * 是否有无效位（缺失值）
+	 *
+	 * @return 若有缺失值则返回{@code true}
+	 */
+	public boolean hasMissing() {
+		return valid != size;
+	}
+
+	/**
+	 * 设置下标i处的值是否有效
+	 *
+	 * @param i
+	 *            下标
+	 * @param isValid
+	 *            是否有效
+	 */
+	public void set(int i, boolean isValid) {
+		if (i < 0 || i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		long mask = 1L << i;
+		boolean old = (words[i >>> 6] & mask) != 0;
+		if (old == isValid)
+			return;
+		if (isValid) {
+			words[i >>> 6] |= mask;
+			valid++;
+		} else {
+			words[i >>> 6] &= ~mask;
+			valid--;
+		}
+	}
+
+	/**
+	 * 在尾部添加一位
+	 *
+	 * @param isValid
+	 *            是否有效
+	 */
+	public void push(boolean isValid) {
+		ensureCapacity(size + 1);
+		if (isValid) {
+			words[size >>> 6] |= 1L << size;
+			valid++;
+		}
+		size++;
+	}
+
+	/**
+	 * 在下标i处插入一位，其后的位依次后移
+	 *
+	 * @param i
+	 *            下标
+	 * @param isValid
+	 *            是否有效
+	 */
+	public void insert(int i, boolean isValid) {
+		if (i < 0 || i > size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		ensureCapacity(size + 1);
+		int w = i >>> 6;
+		for (int k = size >>> 6; k > w; k--)
+			words[k] = (words[k] << 1) | (words[k - 1] >>> 63);
+		long low = (1L << i) - 1;
+		long bit = isValid ? 1L << i : 0;
+		words[w] = (words[w] & low) | ((words[w] & ~low) << 1) | bit;
+		size++;
+		if (isValid)
+			valid++;
+	}
+
+	/**
+	 * 移除下标i处的位，其后的位依次前移
+	 *
+	 * @param i
+	 *            下标
+	 */
+	public void remove(int i) {
+		if (i < 0 || i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		if (get(words, i))
+			valid--;
+		int w = i >>> 6;
+		int last = (size - 1) >>> 6;
+		long low = (1L << i) - 1;
+		words[w] = (words[w] & low) | ((words[w] >>> 1) & ~low);
+		for (int k = w; k < last; k++) {
+			words[k] |= words[k + 1] << 63;
+			words[k + 1] >>>= 1;
+		}
+		size--;
+	}
+
+	/**
+	 * 截断位图，只保留前n位
+	 *
+	 * @param n
+	 *            保留的位数
+	 */
+	public void truncate(int n) {
+		if (n >= size)
+			return;
+		int w = n >>> 6;
+		if ((n & 63) != 0) {
+			words[w] &= (1L << n) - 1;
+			w++;
+		}
+		for (int k = w; k < wordsFor(size); k++)
+			words[k] = 0;
+		size = n;
+		valid = count(words, n);
+	}
+
+	/**
+	 * 清空位图
+	 */
+	public void clear() {
+		truncate(0);
+	}
+
+	/**
+	 * 按保留位压缩位图：前length位中保留keep中对应位为1的位，length之后的位全部保留，
+	 * 被保留的位依次前移
+	 *
+	 * @param keep
+	 *            保留位
+	 * @param length
+	 *            保留位的个数
+	 */
+	public void retain(long[] keep, int length) {
+		int j = 0;
+		for (int i = 0; i < size; i++) {
+			if (i < length && !get(keep, i))
+				continue;
+			if (get(words, i))
+				words[j >>> 6] |= 1L << j;
+			else
+				words[j >>> 6] &= ~(1L << j);
+			j++;
+		}
+		int n = size;
+		size = j;
+		// clear the bits shifted out
+		for (int i = j; i < n; i++)
+			words[i >>> 6] &= ~(1L << i);
+		valid = count(words, size);
+	}
+
+	/**
+	 * 将位图按字与到字数组dst中，dst中超出位图的字被置为0
+	 *
+	 * @param dst
+	 *            字数组
+	 */
+	public void andInto(long[] dst) {
+		int n = Math.min(dst.length, words.length);
+		for (int k = 0; k < n; k++)
+			dst[k] &= words[k];
+		for (int k = n; k < dst.length; k++)
+			dst[k] = 0;
+	}
+
+}
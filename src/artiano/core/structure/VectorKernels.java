@@ -0,0 +1,340 @@
+/**
+ * VectorKernels.java
+ */
+package artiano.core.structure;
+
+/**
+ * <p>矩阵逐元素运算与归约运算的计算核心。所有矩阵都以行优先的方式存放于一维数组中，由偏移量（offset）和行跨度
+ * （leading dimension）描述，与{@link Gemm}相同，因此可以直接作用于子矩阵；输出可以与输入共享存储空间（原地计算）。</p>
+ * <p>每个核心有两种实现：
+ * <li>向量化实现（默认）：每行的循环按4路展开，归约使用4个独立的累加器，打破浮点加法的依赖链，
+ * 便于JIT编译器生成SIMD指令并充分利用流水线；</li>
+ * <li>标量实现：逐元素的简单循环，作为参照。</li>
+ * 可以通过{@link #setVectorized(boolean)}在运行时切换，用于比较两者的结果与性能。由于累加顺序不同，
+ * 两种实现的归约结果可能在舍入误差范围内不同。</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public final class VectorKernels {
+	/** 循环展开的路数 */
+	static final int LANES = 4;
+
+	/** 是否使用向量化实现 */
+	private static volatile boolean vectorized = true;
+
+	private VectorKernels(){ }
+
+	/**
+	 * 设置是否使用向量化实现，默认使用。
+	 * @param enabled 若为<code>false</code>，则使用标量实现
+	 */
+	public static void setVectorized(boolean enabled){
+		vectorized = enabled;
+	}
+
+	/**
+	 * 是否使用向量化实现
+	 * @return
+	 */
+	public static boolean isVectorized(){
+		return vectorized;
+	}
+
+	/**
+	 * 计算Y = X + alpha，X、Y为m*n矩阵。
+	 * @param m 行数
+	 * @param n 列数
+	 * @param alpha 标量
+	 * @param x X的数据
+	 * @param xOff X首元素的下标
+	 * @param ldx X的行跨度
+	 * @param y Y的数据
+	 * @param yOff Y首元素的下标
+	 * @param ldy Y的行跨度
+	 */
+	public static void addScalar(int m, int n, double alpha, double[] x, int xOff, int ldx,
+			double[] y, int yOff, int ldy){
+		boolean v = vectorized;
+		for (int i = 0; i < m; i++, xOff += ldx, yOff += ldy){
+			int j = 0;
+			if (v)
+				for (; j + LANES <= n; j += LANES){
+					y[yOff + j] = x[xOff + j] + alpha;
+					y[yOff + j + 1] = x[xOff + j + 1] + alpha;
+					y[yOff + j + 2] = x[xOff + j + 2] + alpha;
+					y[yOff + j + 3] = x[xOff + j + 3] + alpha;
+				}
+			for (; j < n; j++)
+				y[yOff + j] = x[xOff + j] + alpha;
+		}
+	}
+
+	/**
+	 * 计算Y = alpha*X，X、Y为m*n矩阵，参数含义同{@link #addScalar(int, int, double, double[], int, int, double[], int, int)}。
+	 */
+	public static void scale(int m, int n, double alpha, double[] x, int xOff, int ldx,
+			double[] y, int yOff, int ldy){
+		boolean v = vectorized;
+		for (int i = 0; i < m; i++, xOff += ldx, yOff += ldy){
+			int j = 0;
+			if (v)
+				for (; j + LANES <= n; j += LANES){
+					y[yOff + j] = x[xOff + j] * alpha;
+					y[yOff + j + 1] = x[xOff + j + 1] * alpha;
+					y[yOff + j + 2] = x[xOff + j + 2] * alpha;
+					y[yOff + j + 3] = x[xOff + j + 3] * alpha;
+				}
+			for (; j < n; j++)
+				y[yOff + j] = x[xOff + j] * alpha;
+		}
+	}
+
+	/**
+	 * 计算Z = X + Y，X、Y、Z为m*n矩阵。
+	 * @param m 行数
+	 * @param n 列数
+	 * @param x X的数据
+	 * @param xOff X首元素的下标
+	 * @param ldx X的行跨度
+	 * @param y Y的数据
+	 * @param yOff Y首元素的下标
+	 * @param ldy Y的行跨度
+	 * @param z Z的数据
+	 * @param zOff Z首元素的下标
+	 * @param ldz Z的行跨度
+	 */
+	public static void add(int m, int n, double[] x, int xOff, int ldx, double[] y, int yOff, int ldy,
+			double[] z, int zOff, int ldz){
+		boolean v = vectorized;
+		for (int i = 0; i < m; i++, xOff += ldx, yOff += ldy, zOff += ldz){
+			int j = 0;
+			if (v)
+				for (; j + LANES <= n; j += LANES){
+					z[zOff + j] = x[xOff + j] + y[yOff + j];
+					z[zOff + j + 1] = x[xOff + j + 1] + y[yOff + j + 1];
+					z[zOff + j + 2] = x[xOff + j + 2] + y[yOff + j + 2];
+					z[zOff + j + 3] = x[xOff + j + 3] + y[yOff + j + 3];
+				}
+			for (; j < n; j++)
+				z[zOff + j] = x[xOff + j] + y[yOff + j];
+		}
+	}
+
+	/**
+	 * 计算Z = X - Y，参数含义同{@link #add(int, int, double[], int, int, double[], int, int, double[], int, int)}。
+	 */
+	public static void subtract(int m, int n, double[] x, int xOff, int ldx, double[] y, int yOff, int ldy,
+			double[] z, int zOff, int ldz){
+		boolean v = vectorized;
+		for (int i = 0; i < m; i++, xOff += ldx, yOff += ldy, zOff += ldz){
+			int j = 0;
+			if (v)
+				for (; j + LANES <= n; j += LANES){
+					z[zOff + j] = x[xOff + j] - y[yOff + j];
+					z[zOff + j + 1] = x[xOff + j + 1] - y[yOff + j + 1];
+					z[zOff + j + 2] = x[xOff + j + 2] - y[yOff + j + 2];
+					z[zOff + j + 3] = x[xOff + j + 3] - y[yOff + j + 3];
+				}
+			for (; j < n; j++)
+				z[zOff + j] = x[xOff + j] - y[yOff + j];
+		}
+	}
+
+	/**
+	 * 计算Y = abs(X)，参数含义同{@link #addScalar(int, int, double, double[], int, int, double[], int, int)}。
+	 */
+	public static void abs(int m, int n, double[] x, int xOff, int ldx, double[] y, int yOff, int ldy){
+		boolean v = vectorized;
+		for (int i = 0; i < m; i++, xOff += ldx, yOff += ldy){
+			int j = 0;
+			if (v)
+				for (; j + LANES <= n; j += LANES){
+					y[yOff + j] = Math.abs(x[xOff + j]);
+					y[yOff + j + 1] = Math.abs(x[xOff + j + 1]);
+					y[yOff + j + 2] = Math.abs(x[xOff + j + 2]);
+					y[yOff + j + 3] = Math.abs(x[xOff + j + 3]);
+				}
+			for (; j < n; j++){
+				double d = x[xOff + j];
+				y[yOff + j] = d >= 0. ? d: -d;
+			}
+		}
+	}
+
+	/**
+	 * 计算Y = sqrt(X)，参数含义同{@link #addScalar(int, int, double, double[], int, int, double[], int, int)}。
+	 */
+	public static void sqrt(int m, int n, double[] x, int xOff, int ldx, double[] y, int yOff, int ldy){
+		boolean v = vectorized;
+		for (int i = 0; i < m; i++, xOff += ldx, yOff += ldy){
+			int j = 0;
+			if (v)
+				for (; j + LANES <= n; j += LANES){
+					y[yOff + j] = Math.sqrt(x[xOff + j]);
+					y[yOff + j + 1] = Math.sqrt(x[xOff + j + 1]);
+					y[yOff + j + 2] = Math.sqrt(x[xOff + j + 2]);
+					y[yOff + j + 3] = Math.sqrt(x[xOff + j + 3]);
+				}
+			for (; j < n; j++)
+				y[yOff + j] = Math.sqrt(x[xOff + j]);
+		}
+	}
+
+	/**
+	 * 计算sum(abs(X - Y))，X、Y为m*n矩阵。
+	 * @return 差的绝对值之和
+	 */
+	public static double sumAbsDiff(int m, int n, double[] x, int xOff, int ldx, double[] y, int yOff, int ldy){
+		boolean v = vectorized;
+		double s0 = 0., s1 = 0., s2 = 0., s3 = 0.;
+		for (int i = 0; i < m; i++, xOff += ldx, yOff += ldy){
+			int j = 0;
+			if (v)
+				for (; j + LANES <= n; j += LANES){
+					s0 += Math.abs(x[xOff + j] - y[yOff + j]);
+					s1 += Math.abs(x[xOff + j + 1] - y[yOff + j + 1]);
+					s2 += Math.abs(x[xOff + j + 2] - y[yOff + j + 2]);
+					s3 += Math.abs(x[xOff + j + 3] - y[yOff + j + 3]);
+				}
+			for (; j < n; j++)
+				s0 += Math.abs(x[xOff + j] - y[yOff + j]);
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	/**
+	 * 计算sum((X - Y)^2)，X、Y为m*n矩阵。
+	 * @return 差的平方和
+	 */
+	public static double sumSquaredDiff(int m, int n, double[] x, int xOff, int ldx, double[] y, int yOff, int ldy){
+		boolean v = vectorized;
+		double s0 = 0., s1 = 0., s2 = 0., s3 = 0.;
+		for (int i = 0; i < m; i++, xOff += ldx, yOff += ldy){
+			int j = 0;
+			if (v)
+				for (; j + LANES <= n; j += LANES){
+					double t0 = x[xOff + j] - y[yOff + j];
+					double t1 = x[xOff + j + 1] - y[yOff + j + 1];
+					double t2 = x[xOff + j + 2] - y[yOff + j + 2];
+					double t3 = x[xOff + j + 3] - y[yOff + j + 3];
+					s0 += t0 * t0;
+					s1 += t1 * t1;
+					s2 += t2 * t2;
+					s3 += t3 * t3;
+				}
+			for (; j < n; j++){
+				double t = x[xOff + j] - y[yOff + j];
+				s0 += t * t;
+			}
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	/** 按列归约：求和 */
+	public static final int REDUCE_SUM = 0;
+	/** 按列归约：最大值 */
+	public static final int REDUCE_MAX = 1;
+	/** 按列归约：最小值 */
+	public static final int REDUCE_MIN = 2;
+
+	/**
+	 * 将m*n矩阵X的各行逐元素归约到长度为n的向量y，即y(j) = op(X(0,j), X(1,j), ..., X(m-1,j))。
+	 * 内层循环沿着连续存放的行进行，因此与逐元素运算一样可以向量化。
+	 * @param op 归约方式，{@link #REDUCE_SUM}、{@link #REDUCE_MAX}或{@link #REDUCE_MIN}
+	 * @param m 行数，至少为1
+	 * @param n 列数
+	 * @param x X的数据
+	 * @param xOff X首元素的下标
+	 * @param ldx X的行跨度
+	 * @param y 结果，长度至少为yOff+n
+	 * @param yOff y首元素的下标
+	 */
+	public static void reduceRows(int op, int m, int n, double[] x, int xOff, int ldx, double[] y, int yOff){
+		if (m <= 0)
+			throw new IllegalArgumentException("VectorKernels reduceRows, no row to reduce.");
+		System.arraycopy(x, xOff, y, yOff, n);
+		boolean v = vectorized;
+		for (int i = 1; i < m; i++){
+			xOff += ldx;
+			int j = 0;
+			switch (op) {
+			case REDUCE_SUM:
+				if (v)
+					for (; j + LANES <= n; j += LANES){
+						y[yOff + j] += x[xOff + j];
+						y[yOff + j + 1] += x[xOff + j + 1];
+						y[yOff + j + 2] += x[xOff + j + 2];
+						y[yOff + j + 3] += x[xOff + j + 3];
+					}
+				for (; j < n; j++)
+					y[yOff + j] += x[xOff + j];
+				break;
+			case REDUCE_MAX:
+				if (v)
+					for (; j + LANES <= n; j += LANES){
+						if (y[yOff + j] < x[xOff + j])
+							y[yOff + j] = x[xOff + j];
+						if (y[yOff + j + 1] < x[xOff + j + 1])
+							y[yOff + j + 1] = x[xOff + j + 1];
+						if (y[yOff + j + 2] < x[xOff + j + 2])
+							y[yOff + j + 2] = x[xOff + j + 2];
+						if (y[yOff + j + 3] < x[xOff + j + 3])
+							y[yOff + j + 3] = x[xOff + j + 3];
+					}
+				for (; j < n; j++)
+					if (y[yOff + j] < x[xOff + j])
+						y[yOff + j] = x[xOff + j];
+				break;
+			case REDUCE_MIN:
+				if (v)
+					for (; j + LANES <= n; j += LANES){
+						if (y[yOff + j] > x[xOff + j])
+							y[yOff + j] = x[xOff + j];
+						if (y[yOff + j + 1] > x[xOff + j + 1])
+							y[yOff + j + 1] = x[xOff + j + 1];
+						if (y[yOff + j + 2] > x[xOff + j + 2])
+							y[yOff + j + 2] = x[xOff + j + 2];
+						if (y[yOff + j + 3] > x[xOff + j + 3])
+							y[yOff + j + 3] = x[xOff + j + 3];
+					}
+				for (; j < n; j++)
+					if (y[yOff + j] > x[xOff + j])
+						y[yOff + j] = x[xOff + j];
+				break;
+			default:
+				throw new IllegalArgumentException("VectorKernels reduceRows, unknown reduction.");
+			}
+		}
+	}
+
+	/**
+	 * 计算m*n矩阵X每一行的元素之和，y(i) = sum(X(i,:))。
+	 * @param m 行数
+	 * @param n 列数
+	 * @param x X的数据
+	 * @param xOff X首元素的下标
+	 * @param ldx X的行跨度
+	 * @param y 结果，长度至少为yOff+m
+	 * @param yOff y首元素的下标
+	 */
+	public static void rowSums(int m, int n, double[] x, int xOff, int ldx, double[] y, int yOff){
+		boolean v = vectorized;
+		for (int i = 0; i < m; i++, xOff += ldx){
+			double s0 = 0., s1 = 0., s2 = 0., s3 = 0.;
+			int j = 0;
+			if (v)
+				for (; j + LANES <= n; j += LANES){
+					s0 += x[xOff + j];
+					s1 += x[xOff + j + 1];
+					s2 += x[xOff + j + 2];
+					s3 += x[xOff + j + 3];
+				}
+			for (; j < n; j++)
+				s0 += x[xOff + j];
+			y[yOff + i] = (s0 + s1) + (s2 + s3);
+		}
+	}
+}
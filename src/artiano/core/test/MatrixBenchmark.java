@@ -0,0 +1,172 @@
+/**
+ * MatrixBenchmark.java
+ */
+package artiano.core.test;
+
+import java.util.Random;
+
+import artiano.core.structure.Gemm;
+import artiano.core.structure.Matrix;
+import artiano.core.structure.VectorKernels;
+
+/**
+ * <p>Description: throughput benchmark of the matrix kernels.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class MatrixBenchmark {
+
+	static Matrix random(int rows, int cols, Random r){
+		Matrix x = new Matrix(rows, cols);
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < cols; j++)
+				x.set(i, j, r.nextDouble() - 0.5);
+		return x;
+	}
+
+	/**
+	 * the naive i-j-k multiplication, as reference
+	 */
+	static Matrix naiveMultiply(Matrix a, Matrix b){
+		Matrix y = new Matrix(a.rows(), b.columns());
+		for (int i = 0; i < a.rows(); i++)
+			for (int j = 0; j < b.columns(); j++)
+				for (int k = 0; k < a.columns(); k++)
+					y.plus(i, j, a.at(i, k) * b.at(k, j));
+		return y;
+	}
+
+	static double maxError(Matrix x, Matrix y){
+		double e = 0.;
+		for (int i = 0; i < x.rows(); i++)
+			for (int j = 0; j < x.columns(); j++)
+				e = Math.max(e, Math.abs(x.at(i, j) - y.at(i, j)));
+		return e;
+	}
+
+	static double gflops(int m, int n, int k, long nanos){
+		return 2. * m * n * k / nanos;
+	}
+
+	public static void benchGemm(int m, int n, int k, int repeats){
+		Random r = new Random(1);
+		Matrix a = random(m, k, r);
+		Matrix b = random(k, n, r);
+		//warm up
+		Matrix ref = naiveMultiply(a, b);
+		Matrix y = a.multiply(b);
+		System.out.println("gemm " + m + "x" + k + " * " + k + "x" + n + ", max error: " + maxError(ref, y));
+
+		long t = System.nanoTime();
+		for (int i = 0; i < repeats; i++)
+			naiveMultiply(a, b);
+		long naive = (System.nanoTime() - t) / repeats;
+
+		Gemm.setParallel(false);
+		a.multiply(b);
+		t = System.nanoTime();
+		for (int i = 0; i < repeats; i++)
+			a.multiply(b);
+		long blocked = (System.nanoTime() - t) / repeats;
+
+		Gemm.setParallel(true);
+		a.multiply(b);
+		t = System.nanoTime();
+		for (int i = 0; i < repeats; i++)
+			a.multiply(b);
+		long parallel = (System.nanoTime() - t) / repeats;
+
+		System.out.printf("  naive:    %8.2f ms  %6.2f GFLOPS%n", naive / 1e6, gflops(m, n, k, naive));
+		System.out.printf("  blocked:  %8.2f ms  %6.2f GFLOPS%n", blocked / 1e6, gflops(m, n, k, blocked));
+		System.out.printf("  parallel: %8.2f ms  %6.2f GFLOPS%n", parallel / 1e6, gflops(m, n, k, parallel));
+	}
+
+	public static void benchSyrk(int rows, int cols, int repeats){
+		Random r = new Random(1);
+		Matrix a = random(rows, cols, r);
+		Matrix ref = a.t().multiply(a);
+		Matrix y = a.multiplyTranspose(Matrix.MULTIPLY_LEFT_TRANSPOSE);
+		System.out.println("syrk " + rows + "x" + cols + ", max error: " + maxError(ref, y) +
+				", symmetric: " + y.equals(y.t()));
+
+		long t = System.nanoTime();
+		for (int i = 0; i < repeats; i++)
+			a.t().multiply(a);
+		long gemm = (System.nanoTime() - t) / repeats;
+
+		t = System.nanoTime();
+		for (int i = 0; i < repeats; i++)
+			a.multiplyTranspose(Matrix.MULTIPLY_LEFT_TRANSPOSE);
+		long syrk = (System.nanoTime() - t) / repeats;
+
+		System.out.printf("  t().multiply:      %8.2f ms%n", gemm / 1e6);
+		System.out.printf("  multiplyTranspose: %8.2f ms%n", syrk / 1e6);
+	}
+
+	public static void benchElementWise(int rows, int cols, int repeats){
+		Random r = new Random(1);
+		Matrix a = random(rows, cols, r);
+		Matrix b = random(rows, cols, r);
+		System.out.println("element-wise " + rows + "x" + cols);
+		for (int t = 0; t < 2; t++){
+			boolean vectorized = t == 1;
+			VectorKernels.setVectorized(vectorized);
+			//warm up
+			for (int i = 0; i < 3; i++){
+				a.plus(b, true).multiply(0.5).abs().sqrt();
+				a.difference(b);
+				a.rowMean();
+			}
+			long time = System.nanoTime();
+			for (int i = 0; i < repeats; i++)
+				a.plus(b, true).multiply(0.5).abs().sqrt();
+			long elementWise = (System.nanoTime() - time) / repeats;
+			time = System.nanoTime();
+			double s = 0.;
+			for (int i = 0; i < repeats; i++)
+				s += a.difference(b) + a.l2Norm(b) + a.rowMean().at(0) + a.colMean().at(0) + a.rowMax().at(0);
+			long reduction = (System.nanoTime() - time) / repeats;
+			System.out.printf("  %-10s element-wise: %8.2f ms  reduction: %8.2f ms  (%g)%n",
+					vectorized ? "vectorized": "scalar", elementWise / 1e6, reduction / 1e6, s / repeats);
+		}
+		VectorKernels.setVectorized(true);
+	}
+
+	public static void benchExpression(int rows, int cols, int repeats){
+		Random r = new Random(1);
+		Matrix a = random(rows, cols, r);
+		Matrix b = random(rows, cols, r);
+		Matrix c = random(rows, cols, r);
+		Matrix eager = a.minus(b, true).multiply(2.).plus(c).abs();
+		Matrix lazy = a.lazy().minus(b).multiply(2.).plus(c).abs().eval();
+		System.out.println("expression " + rows + "x" + cols + ", equals: " + lazy.equals(eager));
+
+		long t = System.nanoTime();
+		for (int i = 0; i < repeats; i++)
+			a.minus(b, true).multiply(2.).plus(c).abs();
+		long chained = (System.nanoTime() - t) / repeats;
+
+		t = System.nanoTime();
+		for (int i = 0; i < repeats; i++)
+			a.lazy().minus(b).multiply(2.).plus(c).abs().eval();
+		long fused = (System.nanoTime() - t) / repeats;
+
+		System.out.printf("  chained: %8.2f ms%n", chained / 1e6);
+		System.out.printf("  fused:   %8.2f ms%n", fused / 1e6);
+	}
+
+	public static void main(String[] args){
+		benchGemm(64, 64, 64, 20);
+		benchGemm(257, 129, 301, 5);
+		benchGemm(512, 512, 512, 3);
+		benchGemm(1024, 1024, 1024, 1);
+		benchSyrk(300, 7, 20);
+		benchSyrk(2000, 300, 3);
+		benchSyrk(500, 1000, 2);
+		benchElementWise(2000, 1000, 10);
+		benchExpression(2000, 1000, 10);
+	}
+}
@@ -3,9 +3,28 @@
  */
 package artiano.core.test;
 
+import java.io.File;
+import java.io.IOException;
+
+import artiano.core.operation.CovarianceAccumulator;
 import artiano.core.operation.MatrixOpt;
+import artiano.core.structure.BufferMatrix;
+import artiano.core.structure.DictionaryVector;
+import artiano.core.structure.DoubleVector;
+import artiano.core.structure.FloatMatrix;
 import artiano.core.structure.Matrix;
+import artiano.core.structure.MatrixArena;
+import artiano.core.structure.MatrixExpression;
+import artiano.core.structure.MatrixView;
+import artiano.core.structure.NominalAttribute;
+import artiano.core.structure.NumericAttribute;
 import artiano.core.structure.Range;
+import artiano.core.structure.SparseMatrix;
+import artiano.core.structure.Table;
+import artiano.core.structure.ValidityBitmap;
+import artiano.core.structure.VectorKernels;
+import artiano.math.algebra.LUDecomposition;
+import artiano.math.distance.EuclideanDistance;
 
 /**
  * <p>Description:</p>
@@ -110,9 +129,414 @@ public class Test {
 		printMatrix(cov);*/
 	}
 	
-	public static void main(String[] argStrings){
+	public static void testView(){
+		Matrix m = new Matrix(4, 5, A.clone());
+		Matrix q = m.at(new Range(1, 4), new Range(1, 4));
+		MatrixView v = new MatrixView();
+		for (int i = 0; i < q.rows(); i++){
+			v.viewRow(q, i);
+			if (!v.equals(q.row(i)))
+				System.out.println("row view " + i + " not match.");
+			for (int j = 0; j < v.length(); j++)
+				if (v.get(j) != q.at(i, j))
+					System.out.println("row view element (" + i + "," + j + ") not match.");
+		}
+		for (int j = 0; j < q.columns(); j++){
+			v.viewColumn(q, j);
+			if (!v.equals(q.column(j)))
+				System.out.println("column view " + j + " not match.");
+		}
+		Matrix sub = v.at(new Range(0, 2), Range.all());
+		v.viewColumn(q, 0);
+		printMatrix(sub);
+		v.put(0, -1);
+		System.out.println(m.at(1, 1));
+	}
+	
+	public static void testBufferMatrix() throws IOException{
+		Matrix m = new Matrix(4, 5, A.clone());
+		File file = File.createTempFile("matrix", ".mat");
+		file.deleteOnExit();
+		BufferMatrix.save(m, file);
+		BufferMatrix x = BufferMatrix.open(file, true);
+		System.out.println("mapped equals heap: " + x.equals(m));
+		Matrix y = new Matrix(5, 3, new double[]{1,2,3,4,5,6,7,8,9,10,11,12,13,14,15});
+		System.out.println("multiply equals: " + x.multiply(y).equals(m.multiply(y)));
+		System.out.println("sub-matrix equals: " + x.at(new Range(1, 3), new Range(2, 5)).equals(
+				m.at(new Range(1, 3), new Range(2, 5))));
+		BufferMatrix z = BufferMatrix.allocateDirect(3, 3);
+		z.set(0, 0, 2); z.set(0, 1, 1); z.set(1, 0, 1); z.set(1, 1, 3); z.set(2, 2, 4);
+		printMatrix(new LUDecomposition(z, true).inverse());
+	}
+	
+	public static void testFloatMatrix(){
+		Matrix m = new Matrix(4, 5, A.clone());
+		FloatMatrix f = FloatMatrix.valueOf(m);
+		System.out.println("round trip equals: " + f.toMatrix().equals(m));
+		Matrix y = new Matrix(5, 3, new double[]{1,2,3,4,5,6,7,8,9,10,11,12,13,14,15});
+		System.out.println("multiply equals: " + 
+				f.multiply(FloatMatrix.valueOf(y)).toMatrix().equals(m.multiply(y)));
+		System.out.println("transpose equals: " + f.t().toMatrix().equals(m.t()));
+		System.out.println("row mean equals: " + f.rowMean().toMatrix().equals(m.rowMean()));
+		f.normalizeRowsN11().print();
+	}
+	
+	public static void testSparseMatrix(){
+		Matrix m = new Matrix(4, 5, new double[]{0,1,0,0,2, 0,0,0,0,0, 3,0,0,4,0, 0,0,5,0,0});
+		SparseMatrix s = SparseMatrix.valueOf(m);
+		System.out.println("non-zeros: " + s.nonZeros());
+		System.out.println("dense equals: " + s.toMatrix().equals(m));
+		System.out.println("csc equals: " + s.toCSC().toMatrix().equals(m));
+		Matrix y = new Matrix(5, 3, new double[]{1,2,3,4,5,6,7,8,9,10,11,12,13,14,15});
+		System.out.println("multiply equals: " + s.multiply(y).equals(m.multiply(y)));
+		System.out.println("csc multiply equals: " + s.toCSC().multiply(y).equals(m.multiply(y)));
+		Matrix z = new Matrix(4, 2, new double[]{1,2,3,4,5,6,7,8});
+		System.out.println("transpose multiply equals: " + s.transposeMultiply(z).equals(m.t().multiply(z)));
+		System.out.println("gram equals: " + s.gram().equals(m.t().multiply(m)));
+		EuclideanDistance e = new EuclideanDistance();
+		System.out.println("distance: " + e.calculate(s.row(0), s.toCSC().row(2)) + 
+				", expected: " + Math.sqrt(30));
+	}
+	
+	public static void testBlas(){
+		Matrix m = new Matrix(4, 5, A.clone());
+		Matrix x = new Matrix(5, 1, new double[]{1,2,3,4,5});
+		Matrix y = new Matrix(1, 4);
+		MatrixOpt.gemv(false, 1., m, x, 0., y);
+		System.out.println("gemv equals: " + y.equals(m.multiply(x).t()));
+		Matrix z = new Matrix(1, 5);
+		MatrixOpt.gemv(true, 1., m, y, 0., z);
+		System.out.println("gemv transpose equals: " + z.equals(m.t().multiply(y.t()).t()));
+		Matrix q = m.at(new Range(1, 4), new Range(1, 4));
+		Matrix g = q.clone();
+		MatrixOpt.ger(2., q.column(0), q.row(1), g);
+		System.out.println("ger equals: " + g.equals(q.plus(q.column(0).multiply(q.row(1)).multiply(2.), true)));
+		MatrixOpt.axpy(-1., q, g);
+		System.out.println("dot: " + MatrixOpt.dot(q.row(0), q.column(1)) + ", nrm2: " + MatrixOpt.nrm2(q.row(2)));
+		Matrix mean = m.rowMean();
+		Matrix c = MatrixOpt.subtractRow(m, mean, m.clone());
+		System.out.println("subtract row equals: " + MatrixOpt.addRow(c, mean, c).equals(m));
+	}
+	
+	public static void testCovarianceAccumulator(){
+		java.util.Random r = new java.util.Random(1);
+		Matrix m = new Matrix(50, 6);
+		for (int i = 0; i < m.rows(); i++)
+			for (int j = 0; j < m.columns(); j++)
+				m.set(i, j, r.nextGaussian() * (j + 1) + 10 * j);
+		Matrix cov = m.covarianceOfRows(Matrix.COVARIANCE_NORMAL, null, true);
+		CovarianceAccumulator a = new CovarianceAccumulator(6);
+		CovarianceAccumulator b = new CovarianceAccumulator(6);
+		for (int i = 0; i < 7; i++)
+			a.add(m.row(i));
+		a.add(m.at(new Range(7, 30), Range.all()));
+		b.add(m.at(new Range(30, 50), Range.all()));
+		a.merge(b);
+		double e = 0.;
+		Matrix c = a.covariance(true);
+		for (int i = 0; i < 6; i++)
+			for (int j = 0; j < 6; j++)
+				e = Math.max(e, Math.abs(c.at(i, j) - cov.at(i, j)));
+		System.out.println("accumulated covariance max error: " + e + ", count: " + a.count());
+		printMatrix(a.mean().minus(m.rowMean()));
+	}
+	
+	public static void testVectorKernels(){
+		java.util.Random r = new java.util.Random(1);
+		Matrix m = new Matrix(37, 23);
+		Matrix n = new Matrix(37, 23);
+		for (int i = 0; i < m.rows(); i++)
+			for (int j = 0; j < m.columns(); j++){
+				m.set(i, j, r.nextGaussian() - 3.);
+				n.set(i, j, r.nextGaussian());
+			}
+		//sub-matrix, rows not contiguous
+		Matrix x = m.at(new Range(2, 35), new Range(1, 22));
+		Matrix y = n.at(new Range(2, 35), new Range(1, 22));
+		Matrix[] results = new Matrix[2];
+		double[][] scalars = new double[2][];
+		for (int t = 0; t < 2; t++){
+			VectorKernels.setVectorized(t == 0);
+			Matrix z = x.plus(y, true).minus(0.5).multiply(2.).abs().sqrt();
+			z.plus(x.minus(y, true).plus(1.));
+			results[t] = z;
+			scalars[t] = new double[]{x.difference(y), x.l2Norm(y), x.rowMax().at(3), x.rowMin().at(7),
+					x.rowMean().at(11), x.colMean().at(13)};
+		}
+		VectorKernels.setVectorized(true);
+		double e = 0.;
+		for (int t = 0; t < scalars[0].length; t++)
+			e = Math.max(e, Math.abs(scalars[0][t] - scalars[1][t]));
+		System.out.println("vectorized equals scalar: " + results[0].equals(results[1]) + ", reduction max error: " + e);
+		double max = -Double.MAX_VALUE;
+		for (int i = 0; i < x.rows(); i++)
+			max = Math.max(max, x.at(i, 3));
+		System.out.println("row max of negative column: " + (x.rowMax().at(3) == max));
+	}
+	
+	public static void testMatrixExpression(){
+		java.util.Random r = new java.util.Random(2);
+		Matrix a = new Matrix(300, 400);
+		Matrix b = new Matrix(300, 400);
+		Matrix c = new Matrix(300, 400);
+		for (int i = 0; i < a.rows(); i++)
+			for (int j = 0; j < a.columns(); j++){
+				a.set(i, j, r.nextGaussian());
+				b.set(i, j, r.nextGaussian());
+				c.set(i, j, r.nextGaussian());
+			}
+		Matrix eager = a.minus(b, true).multiply(2.).plus(c).abs().sqrt();
+		Matrix lazy = a.lazy().minus(b).multiply(2.).plus(c).abs().sqrt().eval();
+		System.out.println("expression equals: " + lazy.equals(eager));
+		//broadcast of the reductions
+		MatrixExpression x = a.lazy();
+		Matrix centered = x.minus(x.rowMean()).divideElements(x.colMax().minus(x.colMin())).eval();
+		Matrix mean = a.rowMean();
+		double e = 0.;
+		for (int i = 0; i < a.rows(); i++){
+			double max = -Double.MAX_VALUE, min = Double.MAX_VALUE;
+			for (int j = 0; j < a.columns(); j++){
+				max = Math.max(max, a.at(i, j));
+				min = Math.min(min, a.at(i, j));
+			}
+			for (int j = 0; j < a.columns(); j++)
+				e = Math.max(e, Math.abs(centered.at(i, j) - (a.at(i, j) - mean.at(j)) / (max - min)));
+		}
+		System.out.println("broadcast max error: " + e);
+		System.out.println("sum error: " + Math.abs(a.lazy().minus(b).square().sum() - Math.pow(a.l2Norm(b), 2)));
+		Matrix n = a.normalizeRows01(true);
+		System.out.println("normalize range: " + n.lazy().rowMin().sum() + ", " + n.lazy().rowMax().mean());
+		//in place, then the multiplication boundary
+		Matrix d = c.clone();
+		d.lazy().plus(b.row(0)).eval(d);
+		Matrix p = d.lazy().multiply(a.t()).minus(1.).eval();
+		System.out.println("boundary equals: " + p.equals(c.plus(MatrixOpt.addRow(new Matrix(300, 400), b.row(0),
+				new Matrix(300, 400)), true).multiply(a.t()).minus(1.)));
+	}
+	
+	public static void testMatrixArena(){
+		long allocations = MatrixArena.allocations();
+		double[] first = null;
+		for (int i = 0; i < 5; i++){
+			try (MatrixArena arena = MatrixArena.open()) {
+				Matrix a = arena.matrix(30, 40);
+				Matrix b = Matrix.allocate(30, 40);
+				a.fill(i + 1);
+				try (MatrixArena inner = MatrixArena.open()) {
+					Matrix c = inner.matrix(30, 40);
+					c.plus(a).plus(b);
+					if (i == 0)
+						first = c.data();
+					else if (c.data() != first)
+						System.out.println("arena, buffer not reused.");
+				}
+				System.out.println("arena " + i + ", current is outer: " + (MatrixArena.current() == arena) + 
+						", zeroed: " + (b.lazy().abs().sum() == 0.));
+			}
+		}
+		System.out.println("arena allocations: " + (MatrixArena.allocations() - allocations) + 
+				", no scope: " + (MatrixArena.current() == null));
+		MatrixArena outer = MatrixArena.open();
+		MatrixArena inner = MatrixArena.open();
+		try {
+			outer.close();
+		} catch (IllegalStateException e) {
+			System.out.println(e.getMessage());
+		}
+		inner.close();
+		outer.close();
+	}
+	
+	public static void testDoubleVector(){
+		DoubleVector v = new DoubleVector(2);
+		for (int i = 0; i < 5; i++)
+			v.push(i);
+		v.push("?");
+		v.insert(0, 10.);
+		v.remove(3);
+		v.set(1, 7);
+		v.print();
+		System.out.println("size: " + v.size() + ", missing at the back: " + Double.isNaN((Double) v.back()) + 
+				", buffer limit: " + v.buffer().limit() + ", index of 4: " + v.indexOf(4));
+		NumericAttribute att = new NumericAttribute("x");
+		att.getVector().append(v);
+		System.out.println("mean: " + att.mean() + ", max: " + att.max() + ", min: " + att.min() + 
+				", missing: " + att.countMissing());
+		Matrix m = new Matrix(4, 3, A.clone());
+		Table t = new Table(m);
+		t.randomize();
+		Matrix r = t.toMatrix();
+		boolean same = true;
+		for (int i = 0; i < r.rows(); i++)
+			for (int j = 0; j < r.columns(); j++)
+				same &= r.at(i, j) == (Double) t.at(i, j);
+		System.out.println("table to matrix equals: " + same);
+	}
+	
+	public static void testDictionaryVector(){
+		DictionaryVector v = new DictionaryVector(2);
+		String[] values = {"sunny", "rainy", "sunny", "overcast", "rainy", "sunny"};
+		for (int i = 0; i < values.length; i++)
+			v.push(values[i]);
+		v.push(Double.NaN);
+		v.set(1, "overcast");
+		v.print();
+		System.out.println("cardinality: " + v.cardinality() + ", code at 3: " + v.codeAt(3) + 
+				", code of missing: " + v.codeAt(v.size() - 1) + ", index of rainy: " + v.indexOf("rainy"));
+		DictionaryVector w = new DictionaryVector();
+		w.push("windy");
+		w.push("sunny");
+		w.append(v);
+		System.out.println("appended codes equal: " + (w.at(3).equals(v.at(1)) && w.codeAt(2) == 1));
+		NominalAttribute att = new NominalAttribute("outlook");
+		att.setVector(v);
+		int[] counts = att.countCodes();
+		for (int c = 0; c < counts.length; c++)
+			System.out.print(att.valueOfCode(c) + ": " + counts[c] + " ");
+		System.out.println("missing: " + att.countMissing());
+	}
+	
+	public static void testValidityBitmap(){
+		// random edits checked against a boolean list
+		java.util.Random r = new java.util.Random(7);
+		ValidityBitmap b = new ValidityBitmap(1);
+		java.util.ArrayList<Boolean> expect = new java.util.ArrayList<Boolean>();
+		boolean same = true;
+		for (int it = 0; it < 5000; it++) {
+			int op = r.nextInt(4);
+			boolean valid = r.nextInt(5) != 0;
+			if (op == 0 || expect.isEmpty()) {
+				b.push(valid);
+				expect.add(valid);
+			} else if (op == 1) {
+				int i = r.nextInt(expect.size() + 1);
+				b.insert(i, valid);
+				expect.add(i, valid);
+			} else if (op == 2) {
+				int i = r.nextInt(expect.size());
+				b.remove(i);
+				expect.remove(i);
+			} else {
+				int i = r.nextInt(expect.size());
+				b.set(i, valid);
+				expect.set(i, valid);
+			}
+		}
+		int missing = 0;
+		for (int i = 0; i < expect.size(); i++) {
+			same &= b.isValid(i) == expect.get(i);
+			if (!expect.get(i))
+				missing++;
+		}
+		System.out.println("bitmap size: " + b.size() + ", equals: " + same + 
+				", missing counted: " + (b.countMissing() == missing));
+		Table t = new Table(new Matrix(4, 3, A.clone()));
+		t.attribute(1).set(2, Double.NaN);
+		t.attribute(2).set(0, Double.NaN);
+		System.out.println("has missing: " + t.hasMissing() + ", complete rows: " + t.noneMissingRows() + 
+				", after disable: " + t.disableMissing().rows());
+		t.deleteMissing();
+		t.print();
+		System.out.println("has missing after delete: " + t.hasMissing());
+	}
+	
+	public static void testRowCursor(){
+		Table t = new Table(new Matrix(4, 3, A.clone()));
+		NominalAttribute cls = new NominalAttribute("class");
+		String[] labels = {"b", "a", "b", "c"};
+		for (int i = 0; i < labels.length; i++)
+			cls.push(labels[i]);
+		t.addAttribute(cls);
+		t.setClassAttribute("class");
+		t.randomize();
+		Table.RowCursor cursor = t.cursor();
+		boolean same = true;
+		while (cursor.next())
+			for (int j = 0; j < t.columns(); j++)
+				same &= cursor.at(j).equals(t.at(cursor.row(), j)) && 
+						(j == 3 || cursor.getDouble(j) == (Double) t.at(cursor.row(), j));
+		System.out.println("cursor equals rows: " + same + ", index of row 2: " + t.indexOfRow(t.row(2)) + 
+				", distance: " + (t.distanceOf(0, 1) == Table.distanceOf(t.row(0), t.row(1))));
+		t.orderByClass();
+		cursor.reset();
+		while (cursor.next())
+			System.out.print(cursor.classValue() + "(" + cursor.getCode(3) + ") ");
+		System.out.println();
+	}
+	
+	public static void testColumnStatistics(){
+		java.util.Random r = new java.util.Random(11);
+		NumericAttribute att = new NumericAttribute("x");
+		for (int i = 0; i < 1000; i++)
+			att.push(i % 17 == 0 ? Double.NaN : r.nextGaussian() * 3 + 10);
+		double mean = att.mean(), variance = att.variance();
+		att.set(5, 100.);
+		att.getVector().remove(0);
+		att.getVector().insert(3, -50.);
+		// two-pass reference
+		double[] x = att.toArray(true);
+		double sum = 0, max = x[0], min = x[0];
+		for (int i = 0; i < x.length; i++) {
+			sum += x[i];
+			max = Math.max(max, x[i]);
+			min = Math.min(min, x[i]);
+		}
+		double m = sum / x.length, var = 0;
+		for (int i = 0; i < x.length; i++)
+			var += (x[i] - m) * (x[i] - m);
+		var /= x.length - 1;
+		System.out.println("statistics before edits: " + (Math.abs(mean - 10) < 0.5) + ", " + (Math.abs(variance - 9) < 1));
+		System.out.println("max: " + (att.max() == max) + ", min: " + (att.min() == min) + 
+				", mean: " + (Math.abs(att.mean() - m) < 1e-12) + ", variance: " + (Math.abs(att.variance() - var) < 1e-9));
+		// threads reading stale statistics at once see the same values as a single reader
+		final NumericAttribute shared = att;
+		final double[] seen = new double[4];
+		boolean agree = true;
+		for (int round = 0; round < 100; round++) {
+			shared.set(round % 10, round * 0.5);
+			Thread[] threads = new Thread[seen.length];
+			for (int k = 0; k < threads.length; k++) {
+				final int id = k;
+				threads[k] = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						seen[id] = shared.variance();
+					}
+				});
+				threads[k].start();
+			}
+			try {
+				for (int k = 0; k < threads.length; k++)
+					threads[k].join();
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+			NumericAttribute reference = new NumericAttribute("y");
+			for (double v : shared.toArray(true))
+				reference.push(v);
+			for (int k = 0; k < seen.length; k++)
+				agree &= seen[k] == reference.variance();
+		}
+		System.out.println("concurrent readers agree: " + agree);
+	}
+	
+	public static void main(String[] argStrings) throws IOException{
 		//testMatrix();
 		//testMatrixOpt();
 		testMerge();
+		testView();
+		testBufferMatrix();
+		testFloatMatrix();
+		testSparseMatrix();
+		testBlas();
+		testCovarianceAccumulator();
+		testVectorKernels();
+		testMatrixExpression();
+		testMatrixArena();
+		testDoubleVector();
+		testDictionaryVector();
+		testValidityBitmap();
+		testRowCursor();
+		testColumnStatistics();
 	}
 }
@@ -3,7 +3,11 @@
  */
 package artiano.math.algebra;
 
+import artiano.core.structure.BufferMatrix;
+import artiano.core.structure.Gemm;
 import artiano.core.structure.Matrix;
+import artiano.core.structure.MatrixArena;
+import artiano.core.structure.Syrk;
 
 
 /**
@@ -28,6 +32,13 @@ import artiano.core.structure.Matrix;
  * </blockquote>
  * <li><i><b>NOTICE:</b></i> This program refer to the book Numerical Recipes, you can read the program at this book, there are detailed
  * description about Cholesky decomposition.</li>
+ * <li>The factorization is blocked and right-looking: the panels of {@link #BLOCK_SIZE} columns are factored
+ * directly, the trailing lower triangle is updated by the blocked, parallel kernels {@link Gemm} and {@link Syrk}.
+ * Only the lower triangle of A is overwritten (by L without its diagonal, which is stored separately), the upper
+ * triangle and the diagonal keep A, so {@link #refactor(double)} can factor A+shift*I again without any copy, which is
+ * what the Levenberg-Marquardt method needs when the damping factor changes.</li>
+ * <li>For a large, well-conditioned system, {@link MixedPrecisionSolver} factors in single precision and refines
+ * the solution to double accuracy.</li>
  * @author Nano.Michael
  * @version 1.0.0
  * @date 2013-8-18
@@ -35,6 +46,8 @@ import artiano.core.structure.Matrix;
  * @since 1.0.0
  */
 public class CholeskyDecomposition {
+	/** number of columns of a panel */
+	public static final int BLOCK_SIZE = 64;
 	
 	protected Matrix a = null;
 	protected double[] p = null;
@@ -46,14 +59,28 @@ public class CholeskyDecomposition {
 	 * @param reserve - to indicate reserve A whether or not
 	 */
 	public CholeskyDecomposition(Matrix a, boolean reserve){
+		this(a, reserve, 0.);
+	}
+	
+	/**
+	 * constructor, decompose A+shift*I
+	 * @param a - coefficient matrix, only the upper triangle (with the diagonal) is read
+	 * @param reserve - to indicate reserve A whether or not, if not reserve, the lower triangle of A
+	 * will be replaced with L
+	 * @param shift - added to the diagonal of A before decomposing
+	 */
+	public CholeskyDecomposition(Matrix a, boolean reserve, double shift){
 		if (a.rows() != a.columns())
 			throw new IllegalArgumentException("Accept square matrix only.");
-		if (reserve)
+		if (reserve || a instanceof BufferMatrix)
 			this.a = a.clone();
 		else
 			this.a = a;
 		p = new double[a.rows()];
-		decompose();
+		refactor(shift);
+		//data not stored on heap, write L back
+		if (!reserve && this.a != a)
+			this.a.copyTo(a);
 	}
 	
 	/* (non-Javadoc)
@@ -71,6 +98,8 @@ public class CholeskyDecomposition {
 	
 	/**
 	 * inversion of L of a been decomposed
+	 * <br><b><i>NOTICE:</i></b> if not reserve a, the upper triangle of A is cleared, {@link #refactor(double)}
+	 * and {@link #solve(Matrix)} can not be used any more.
 	 * @param reserveA - indicate reserve a whether or not
 	 * @return - inversion of L
 	 */
@@ -105,7 +134,7 @@ public class CholeskyDecomposition {
 	public Matrix inverse(){
 		//unit matrix;
 		Matrix I = Matrix.unit(a.rows(), 1);
-		return solve(I);
+		return solve(I, false);
 	}
 	
 	/**
@@ -117,56 +146,158 @@ public class CholeskyDecomposition {
 	}
 	
 	/**
-	 * decompose the coefficient matrix to the form like L*L' = A
+	 * decompose A+shift*I again, A is read from the upper triangle kept by the previous decomposition,
+	 * so it costs one factorization only, e.g. to raise the damping factor of the Levenberg-Marquardt method
+	 * until the matrix is positive-definite.
+	 * @param shift - added to the diagonal of A
+	 * @return - true if A+shift*I is positive-definite or false otherwise
 	 */
-	protected void decompose(){
-		double sum = 0.;
-		int i, j, k;
-		
+	public boolean refactor(double shift){
 		int n = a.rows();
-		for (i = 0; i < n; i++){
-			for (j = i; j < n; j++){
-				for (sum = a.at(i,j), k = i - 1; k >= 0; k--) sum -= a.at(i,k) * a.at(j, k);
-				if (i == j){
-					//non-positive-definite
-					if (sum <= 0.){
-						isDef = false;
-						return;
-					}
-					p[i] = Math.sqrt(sum);
-				}else 
-					a.set(j, i, sum / p[i]);
+		double[] x = a.data();
+		int off = a.offset(), ld = a.dataColumns();
+		//borrowed from the caller's MatrixArena if one is open, so refactoring in a loop does not allocate
+		double[] diag = MatrixArena.allocate(n);
+		//the lower triangle := the upper triangle, the diagonal saved and shifted
+		for (int i = 0; i < n; i++){
+			int xi = off + i * ld;
+			diag[i] = x[xi + i];
+			x[xi + i] += shift;
+			for (int j = i + 1; j < n; j++)
+				x[off + j * ld + i] = x[xi + j];
+		}
+		isDef = decompose(x, off, ld, n);
+		//move the diagonal of L to p, restore the diagonal of A
+		for (int i = 0; i < n; i++){
+			int xi = off + i * ld + i;
+			if (isDef)
+				p[i] = x[xi];
+			x[xi] = diag[i];
+		}
+		return isDef;
+	}
+	
+	/**
+	 * decompose the lower triangle (with the diagonal) of x in place to the form like L*L' = A
+	 * @return - true if positive-definite
+	 */
+	protected boolean decompose(double[] x, int off, int ld, int n){
+		double[] t = null;
+		for (int k0 = 0; k0 < n; k0 += BLOCK_SIZE){
+			int k1 = Math.min(n, k0 + BLOCK_SIZE);
+			int kb = k1 - k0;
+			//factor the panel, the diagonal block and L21 := A21*L11^(-T)
+			for (int j = k0; j < k1; j++){
+				int xj = off + j * ld;
+				double sum = x[xj + j];
+				for (int k = k0; k < j; k++)
+					sum -= x[xj + k] * x[xj + k];
+				//non-positive-definite
+				if (sum <= 0.)
+					return false;
+				double ljj = Math.sqrt(sum);
+				x[xj + j] = ljj;
+				for (int i = j + 1; i < n; i++){
+					int xi = off + i * ld;
+					sum = x[xi + j];
+					for (int k = k0; k < j; k++)
+						sum -= x[xi + k] * x[xj + k];
+					x[xi + j] = sum / ljj;
+				}
+			}
+			//A22 := A22 - L21*L21', lower triangle only, by block rows
+			if (t == null)
+				t = MatrixArena.allocate(BLOCK_SIZE * BLOCK_SIZE);
+			for (int i0 = k1; i0 < n; i0 += BLOCK_SIZE){
+				int i1 = Math.min(n, i0 + BLOCK_SIZE);
+				int ib = i1 - i0;
+				if (i0 > k1)
+					Gemm.gemm(false, true, ib, i0 - k1, kb, -1., x, off + i0 * ld + k0, ld,
+							x, off + k1 * ld + k0, ld, 1., x, off + i0 * ld + k1, ld);
+				//diagonal block through a buffer, keep the upper triangle of A
+				Syrk.syrk(false, ib, kb, 1., x, off + i0 * ld + k0, ld, 0., t, 0, ib);
+				for (int i = 0; i < ib; i++){
+					int xi = off + (i0 + i) * ld + i0;
+					for (int j = 0; j <= i; j++)
+						x[xi + j] -= t[i * ib + j];
+				}
 			}
 		}
+		return true;
 	}
 	
 	/**
-	 * solve the matrix equation like A*x = B, B is row vector
-	 * @param b - constant matrix
+	 * solve the matrix equation like A*x = B, all the columns of B are solved at once
+	 * @param b - constant matrix, will be reserved
 	 * @return - solution matrix
 	 */
 	public Matrix solve(Matrix b){
-		if (b.rows() != a.rows())
+		return solve(b, true);
+	}
+	
+	/**
+	 * solve the matrix equation like A*x = B, all the columns of B are solved at once by blocked
+	 * forward and backward substitutions.
+	 * @param c - constant matrix
+	 * @param reserve - to indicate reserve B whether or not, if not reserve, B will be replaced with the solution
+	 * @return - solution matrix
+	 */
+	public Matrix solve(Matrix c, boolean reserve){
+		if (c.rows() != a.rows())
 			throw new IllegalArgumentException("Cholesky decomposition solve, Size not match.");
 		if (!isDef)
 			throw new UnsupportedOperationException("Cholesky decompositon, matrix is not positive-definite.");
-		
-		int i, k;
-		double sum = 0.;
-		Matrix x = new Matrix(b.rows(), b.columns());
-		
-		int n = a.rows();
-		int m = b.columns();
-		for (int j = 0; j < m; j++){
-			for (i = 0; i < n; i++){
-				for (sum = b.at(i, j), k = i - 1; k >= 0; k--) sum -= a.at(i,k) * x.at(k, j);
-				x.set(i, j, sum / p[i]);
+		Matrix b = reserve || c instanceof BufferMatrix ? c.clone(): c;
+		int n = a.rows(), m = b.columns();
+		double[] x = a.data(), y = b.data();
+		int xOff = a.offset(), ldx = a.dataColumns();
+		int yOff = b.offset(), ldy = b.dataColumns();
+		//L*z = B
+		for (int i0 = 0; i0 < n; i0 += BLOCK_SIZE){
+			int i1 = Math.min(n, i0 + BLOCK_SIZE);
+			for (int i = i0; i < i1; i++){
+				int yi = yOff + i * ldy;
+				for (int k = i0; k < i; k++)
+					axpy(m, -x[xOff + i * ldx + k], y, yOff + k * ldy, y, yi);
+				scal(m, 1. / p[i], y, yi);
 			}
-			for (i = n - 1; i >= 0; i--){
-				for (sum = x.at(i, j), k = i + 1; k < n; k++) sum -= a.at(k, i) * x.at(k, j);
-				x.set(i, j, sum / p[i]);
+			if (i1 < n)
+				Gemm.gemm(false, false, n - i1, m, i1 - i0, -1., x, xOff + i1 * ldx + i0, ldx,
+						y, yOff + i0 * ldy, ldy, 1., y, yOff + i1 * ldy, ldy);
+		}
+		//L'*x = z
+		for (int i1 = n; i1 > 0; i1 -= BLOCK_SIZE){
+			int i0 = Math.max(0, i1 - BLOCK_SIZE);
+			for (int i = i1 - 1; i >= i0; i--){
+				int yi = yOff + i * ldy;
+				scal(m, 1. / p[i], y, yi);
+				for (int k = i0; k < i; k++)
+					axpy(m, -x[xOff + i * ldx + k], y, yi, y, yOff + k * ldy);
 			}
+			if (i0 > 0)
+				Gemm.gemm(true, false, i0, m, i1 - i0, -1., x, xOff + i0 * ldx, ldx,
+						y, yOff + i0 * ldy, ldy, 1., y, yOff, ldy);
 		}
-		return x;
+		if (!reserve && b != c)
+			b.copyTo(c);
+		return reserve ? b: c;
+	}
+	
+	/**
+	 * y[yOff..yOff+n) += alpha*x[xOff..xOff+n)
+	 */
+	private static void axpy(int n, double alpha, double[] x, int xOff, double[] y, int yOff){
+		if (alpha == 0.)
+			return;
+		for (int i = 0; i < n; i++)
+			y[yOff + i] += alpha * x[xOff + i];
+	}
+	
+	/**
+	 * x[off..off+n) *= alpha
+	 */
+	private static void scal(int n, double alpha, double[] x, int off){
+		for (int i = 0; i < n; i++)
+			x[off + i] *= alpha;
 	}
 }
@@ -3,6 +3,8 @@
  */
 package artiano.math.algebra;
 
+import artiano.core.structure.BufferMatrix;
+import artiano.core.structure.Gemm;
 import artiano.core.structure.Matrix;
 
 /**
@@ -16,6 +18,14 @@ import artiano.core.structure.Matrix;
  * <br>Matrix solution = decomposition.solve(b); //solve the equation, assume don't reserve</br>
  * <br>Matrix inversion = decompostion.inverse(); //get the inversion of A</br>
  * ...</code>
+ * <p>The decomposition is right-looking and blocked: every panel of {@link #BLOCK_SIZE} columns is
+ * factored with partial pivoting, then the trailing sub-matrix is updated by a single matrix
+ * multiplication of the blocked, parallel kernel {@link Gemm}. The forward and backward
+ * substitutions of {@link #solve(Matrix)} are blocked the same way and solve all the right-hand
+ * sides at once. All the work is done on the raw array of the matrix, so with <code>reserve==false</code>
+ * the matrix (or the sub-matrix view) is factored in place.</p>
+ * <p>For a large, well-conditioned system, {@link MixedPrecisionSolver} factors in single precision and refines
+ * the solution to double accuracy.</p>
  * @author Nano.Michael
  * @version 1.0.0
  * @date 2013-8-18
@@ -24,6 +34,8 @@ import artiano.core.structure.Matrix;
  * @since 1.0
  */
 public class LUDecomposition {
+	/** number of columns of a panel */
+	public static final int BLOCK_SIZE = 64;
 	//coefficient matrix
 	private Matrix a = null;
 	//index
@@ -40,12 +52,15 @@ public class LUDecomposition {
 	public LUDecomposition(Matrix a, boolean reserve){
 		if (a.rows() != a.columns())
 			throw new IllegalArgumentException("The class accept the square matrix only.");
-		if (reserve)
+		if (reserve || a instanceof BufferMatrix)
 			this.a = a.clone();
 		else 
 			this.a = a;
 		indx = new int[a.rows()];
 		decompose();
+		//data not stored on heap, write L*U back
+		if (!reserve && this.a != a)
+			this.a.copyTo(a);
 	}
 	
 	/* (non-Javadoc)
@@ -70,7 +85,7 @@ public class LUDecomposition {
 	 * @return - determinant of the matrix
 	 */
 	public double det(){
-		double detvalue = 1.;
+		double detvalue = d;
 		for (int i = 0; i < a.rows(); i++)
 			detvalue *= a.at(i, i);
 		return detvalue;
@@ -80,61 +95,84 @@ public class LUDecomposition {
 	 * decompose A the form like this: L*U = A, the L and U stored in a
 	 */
 	protected void decompose(){
-		final double TINY = 1.e-20;
-		//variables for count
-		int i, imax = 0, j, k;
-		//useful variable
-		double big, dum,sum,temp;
-		
 		int n = a.rows();
+		double[] x = a.data();
+		int off = a.offset(), ld = a.dataColumns();
 		//vv contents of each row for storing the scale factor
 		double[] vv = new double[n];
 		d = 1.;
-		
-		for (i = 0; i < n; i++){
-			big = 0.;
-			for (j = 0; j < n; j++)
-				if ((temp = Math.abs(a.at(i, j))) > big) big = temp;
+		for (int i = 0; i < n; i++){
+			double big = 0.;
+			int xi = off + i * ld;
+			for (int j = 0; j < n; j++)
+				big = Math.max(big, Math.abs(x[xi + j]));
 			if (big == 0.)
 				throw new IllegalArgumentException("LU decomposition, singular matrix.");
 			//store the scale factor
 			vv[i] = 1. / big;
 		}
-		
-		for (j = 0; j < n; j++){
-			for (i = 0; i < j; i++){
-				sum = a.at(i, j);
-				for (k = 0; k < i; k++) sum -= a.at(i, k) * a.at(k, j);
-				a.set(i, j, sum);
+		for (int j0 = 0; j0 < n; j0 += BLOCK_SIZE){
+			int j1 = Math.min(n, j0 + BLOCK_SIZE);
+			factorPanel(x, off, ld, n, j0, j1, vv);
+			if (j1 == n)
+				break;
+			//U12 := L11^(-1)*A12
+			int w = n - j1;
+			for (int i = j0 + 1; i < j1; i++){
+				int xi = off + i * ld;
+				for (int k = j0; k < i; k++){
+					double l = x[xi + k];
+					if (l != 0.)
+						axpy(w, -l, x, off + k * ld + j1, x, xi + j1);
+				}
 			}
-			//initialize the biggest element
-			big = 0.;
-			for (i = j; i < n; i++){
-				sum = a.at(i, j);
-				for (k = 0; k < j; k++) sum -= a.at(i, k) *a.at(k, j);
-				a.set(i, j, sum);
-				if ((dum = vv[i] * Math.abs(sum)) >= big){
+			//A22 := A22 - L21*U12
+			Gemm.gemm(false, false, w, w, j1 - j0, -1., x, off + j1 * ld + j0, ld,
+					x, off + j0 * ld + j1, ld, 1., x, off + j1 * ld + j1, ld);
+		}
+	}
+	
+	/**
+	 * factor the panel of columns [j0,j1) (rows [j0,n)) with partial pivoting, the pivot rows are
+	 * swapped across the whole matrix
+	 */
+	private void factorPanel(double[] x, int off, int ld, int n, int j0, int j1, double[] vv){
+		final double TINY = 1.e-20;
+		for (int j = j0; j < j1; j++){
+			//search the pivot with the implicit scaling
+			double big = 0.;
+			int imax = j;
+			for (int i = j; i < n; i++){
+				double dum = vv[i] * Math.abs(x[off + i * ld + j]);
+				if (dum > big){
 					big = dum;
 					imax = i;
 				}
 			}
 			if (j != imax){
 				//swap
-				for (k = 0; k < n; k++){
-					dum = a.at(imax, k);
-					a.set(imax, k, a.at(j, k));
-					a.set(j, k, dum);
+				int xj = off + j * ld, xm = off + imax * ld;
+				for (int k = 0; k < n; k++){
+					double dum = x[xm + k];
+					x[xm + k] = x[xj + k];
+					x[xj + k] = dum;
 				}
 				//change the parity
 				d = -d;
 				vv[imax] = vv[j];
 			}
 			indx[j] = imax;
+			int xj = off + j * ld;
 			//if matrix is singular, a[j][j] replaced with tiny
-			if (a.at(j, j) == 0.) a.set(j, j, TINY);
-			if (j != n - 1){
-				dum = 1. / a.at(j, j);
-				for (i = j + 1; i < n; i++) a.multiply(i, j, dum);
+			if (x[xj + j] == 0.)
+				x[xj + j] = TINY;
+			double dum = 1. / x[xj + j];
+			for (int i = j + 1; i < n; i++){
+				int xi = off + i * ld;
+				double l = x[xi + j] *= dum;
+				//rank-1 update of the rest of the panel
+				if (l != 0.)
+					axpy(j1 - j - 1, -l, x, xj + j + 1, x, xi + j + 1);
 			}
 		}
 	}
@@ -149,38 +187,72 @@ public class LUDecomposition {
 	}
 	
 	/**
-	 * solve the equation like A*v = b, v is the solution matrix
+	 * solve the equation like A*v = b, v is the solution matrix, all the columns of b are solved
+	 * at once.
 	 * @param c - specified constant matrix
 	 * @return - solution
 	 */
 	public Matrix solve(Matrix c, boolean reserve){
 		if (c.rows() != a.rows())
 			throw new IllegalArgumentException("LU solve, size not match.");
-		Matrix b = reserve ? c.clone(): c;
-		//variables for count
-		int i, ii = 0, ip, j;
-		double sum = 0;
-		
-		int n = a.rows();
-		//walk through all column-vectors
-		for (int k = 0; k < b.columns(); k++){
-			for (i = 0; i < n; i++){
-				ip = indx[i];
-				sum = b.at(ip, k);
-				b.set(ip, k, b.at(i, k));
-				if (ii != 0)
-					for (j = ii - 1; j < i; j++) sum -= a.at(i, j) * b.at(j, k);
-				else if (sum != 0.)
-					ii = i + 1;
-				b.set(i, k, sum);
+		Matrix b = reserve || c instanceof BufferMatrix ? c.clone(): c;
+		int n = a.rows(), m = b.columns();
+		double[] x = a.data(), y = b.data();
+		int xOff = a.offset(), ldx = a.dataColumns();
+		int yOff = b.offset(), ldy = b.dataColumns();
+		//apply the row interchanges
+		for (int i = 0; i < n; i++){
+			int ip = indx[i];
+			if (ip != i){
+				int yi = yOff + i * ldy, yp = yOff + ip * ldy;
+				for (int k = 0; k < m; k++){
+					double t = y[yp + k];
+					y[yp + k] = y[yi + k];
+					y[yi + k] = t;
+				}
 			}
-			
-			for (i = n - 1; i >= 0; i--){
-				sum = b.at(i, k);
-				for (j = i + 1; j < n; j++) sum -= a.at(i, j) * b.at(j, k);
-				b.set(i, k, sum / a.at(i, i));
+		}
+		//forward substitution with the unit lower triangle L
+		for (int i0 = 0; i0 < n; i0 += BLOCK_SIZE){
+			int i1 = Math.min(n, i0 + BLOCK_SIZE);
+			for (int i = i0 + 1; i < i1; i++)
+				for (int k = i0; k < i; k++){
+					double l = x[xOff + i * ldx + k];
+					if (l != 0.)
+						axpy(m, -l, y, yOff + k * ldy, y, yOff + i * ldy);
+				}
+			if (i1 < n)
+				Gemm.gemm(false, false, n - i1, m, i1 - i0, -1., x, xOff + i1 * ldx + i0, ldx,
+						y, yOff + i0 * ldy, ldy, 1., y, yOff + i1 * ldy, ldy);
+		}
+		//backward substitution with U
+		for (int i1 = n; i1 > 0; i1 -= BLOCK_SIZE){
+			int i0 = Math.max(0, i1 - BLOCK_SIZE);
+			for (int i = i1 - 1; i >= i0; i--){
+				int yi = yOff + i * ldy;
+				for (int k = i + 1; k < i1; k++){
+					double u = x[xOff + i * ldx + k];
+					if (u != 0.)
+						axpy(m, -u, y, yOff + k * ldy, y, yi);
+				}
+				double r = 1. / x[xOff + i * ldx + i];
+				for (int k = 0; k < m; k++)
+					y[yi + k] *= r;
 			}
+			if (i0 > 0)
+				Gemm.gemm(false, false, i0, m, i1 - i0, -1., x, xOff + i0, ldx,
+						y, yOff + i0 * ldy, ldy, 1., y, yOff, ldy);
 		}
-		return b;
+		if (!reserve && b != c)
+			b.copyTo(c);
+		return reserve ? b: c;
+	}
+	
+	/**
+	 * y[yOff..yOff+n) += alpha*x[xOff..xOff+n)
+	 */
+	private static void axpy(int n, double alpha, double[] x, int xOff, double[] y, int yOff){
+		for (int i = 0; i < n; i++)
+			y[yOff + i] += alpha * x[xOff + i];
 	}
 }
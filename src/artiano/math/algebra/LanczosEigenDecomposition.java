@@ -0,0 +1,250 @@
+/**
+ * LanczosEigenDecomposition.java
+ */
+package artiano.math.algebra;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import artiano.core.structure.Matrix;
+import artiano.math.algebra.iterative.LinearOperator;
+import artiano.math.algebra.iterative.MatrixOperator;
+
+/**
+ * <p>Description: partial eigen value decomposition of a real symmetric matrix, computes only the
+ * k largest eigen values and their eigen vectors by the Lanczos method with full
+ * re-orthogonalization. The Krylov subspace is expanded until the residuals of the k Ritz pairs
+ * are small enough, so the cost is dominated by a few matrix-vector products when k is much
+ * smaller than the order of the matrix. The matrix is accessed through a {@link LinearOperator}
+ * only, and just the m+1 basis vectors of m steps are stored, so the memory is O(n*m).</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class LanczosEigenDecomposition {
+	/** default relative tolerance of the residuals */
+	public static final double DEFAULT_TOLERANCE = 1e-10;
+	/** check the convergence every CHECK_STEP Lanczos steps */
+	static final int CHECK_STEP = 5;
+
+	protected int n = 0;
+	protected int k = 0;
+	/** eigen values in descending order */
+	protected double[] w = null;
+	/** eigen vectors stored by row, row i is the eigen vector of w[i] */
+	protected double[] v = null;
+	/** Lanczos steps performed */
+	protected int steps = 0;
+
+	/**
+	 * constructor
+	 * @param sym - symmetric matrix want to be decomposed
+	 * @param k - number of the largest eigen values wanted
+	 */
+	public LanczosEigenDecomposition(Matrix sym, int k){
+		this(sym, k, DEFAULT_TOLERANCE);
+	}
+
+	/**
+	 * constructor
+	 * @param sym - symmetric matrix want to be decomposed
+	 * @param k - number of the largest eigen values wanted
+	 * @param tolerance - a Ritz pair converges when its residual is less than tolerance*|eigen value|
+	 */
+	public LanczosEigenDecomposition(Matrix sym, int k, double tolerance){
+		this(new MatrixOperator(sym), k, tolerance);
+	}
+
+	/**
+	 * constructor
+	 * @param sym - symmetric operator want to be decomposed, only its products are used
+	 * @param k - number of the largest eigen values wanted
+	 */
+	public LanczosEigenDecomposition(LinearOperator sym, int k){
+		this(sym, k, DEFAULT_TOLERANCE);
+	}
+
+	/**
+	 * constructor
+	 * @param sym - symmetric operator want to be decomposed, only its products are used
+	 * @param k - number of the largest eigen values wanted
+	 * @param tolerance - a Ritz pair converges when its residual is less than tolerance*|eigen value|
+	 */
+	public LanczosEigenDecomposition(LinearOperator sym, int k, double tolerance){
+		if (sym.rows() != sym.columns())
+			throw new IllegalArgumentException("LanczosEigenDecomposition, accept square matrix only.");
+		if (k <= 0 || k > sym.rows())
+			throw new IllegalArgumentException("LanczosEigenDecomposition, k out of range.");
+		this.n = sym.rows();
+		this.k = k;
+		decompose(sym, tolerance);
+	}
+
+	/**
+	 * get eigen vectors
+	 * @return - the k eigen vectors stored by column, n*k matrix
+	 */
+	public Matrix V(){
+		Matrix x = new Matrix(n, k);
+		for (int i = 0; i < k; i++)
+			for (int j = 0; j < n; j++)
+				x.set(j, i, v[i * n + j]);
+		return x;
+	}
+
+	/**
+	 * get eigen values
+	 * @return - the k largest eigen values in descending order, 1*k row vector
+	 */
+	public Matrix W(){
+		return new Matrix(1, k, w.clone());
+	}
+
+	/**
+	 * get the number of Lanczos steps (matrix-vector products) performed
+	 * @return - number of steps
+	 */
+	public int steps(){
+		return steps;
+	}
+
+	/**
+	 * run the Lanczos iterations on the operator a
+	 */
+	protected void decompose(LinearOperator a, double tolerance){
+		//Lanczos basis, q.get(j) is q_j, grows by one vector per step
+		ArrayList<double[]> q = new ArrayList<double[]>();
+		double[] alpha = new double[n];
+		double[] beta = new double[n];
+		double[] r = new double[n];
+		Random random = new Random(1);
+		q.add(startVector(q, random));
+		double[] d = null, y = null;
+		int m = 0;
+		for (int j = 0; j < n; j++){
+			//r = A*q_j
+			double[] qj = q.get(j);
+			a.apply(qj, r);
+			double aj = 0.;
+			for (int i = 0; i < n; i++)
+				aj += qj[i] * r[i];
+			alpha[j] = aj;
+			//full re-orthogonalization, twice is enough
+			orthogonalize(q, r);
+			orthogonalize(q, r);
+			double bj = norm(r);
+			m = j + 1;
+			steps = m;
+			boolean last = m == n;
+			if ((m >= k && (m - k) % CHECK_STEP == 0) || last){
+				d = new double[m];
+				double[] e = new double[m];
+				System.arraycopy(alpha, 0, d, 0, m);
+				System.arraycopy(beta, 0, e, 0, m - 1);
+				y = identity(m);
+				SymmetricEigenDecomposition.tql2(m, d, e, y, m);
+				if (last || converged(d, y, m, bj, tolerance))
+					break;
+			}
+			if (bj <= SymmetricEigenDecomposition.EPS * Math.abs(aj)){
+				//invariant subspace found, continue with a new direction
+				beta[j] = 0.;
+				q.add(startVector(q, random));
+			} else {
+				beta[j] = bj;
+				double[] qn = new double[n];
+				for (int i = 0; i < n; i++)
+					qn[i] = r[i] / bj;
+				q.add(qn);
+			}
+		}
+		//Ritz pairs, take the k largest
+		w = new double[k];
+		v = new double[k * n];
+		boolean[] used = new boolean[m];
+		for (int t = 0; t < k; t++){
+			int best = -1;
+			for (int i = 0; i < m; i++)
+				if (!used[i] && (best < 0 || d[i] > d[best]))
+					best = i;
+			used[best] = true;
+			w[t] = d[best];
+			//v_t = sum_j y(best, j) * q_j
+			int vt = t * n;
+			for (int j = 0; j < m; j++){
+				double c = y[best * m + j];
+				double[] qj = q.get(j);
+				for (int i = 0; i < n; i++)
+					v[vt + i] += c * qj[i];
+			}
+		}
+	}
+
+	/**
+	 * the residual of Ritz pair i is |beta_m * y_i(m-1)|
+	 */
+	private boolean converged(double[] d, double[] y, int m, double bm, double tolerance){
+		boolean[] used = new boolean[m];
+		double scale = 0.;
+		for (int i = 0; i < m; i++)
+			scale = Math.max(scale, Math.abs(d[i]));
+		for (int t = 0; t < k; t++){
+			int best = -1;
+			for (int i = 0; i < m; i++)
+				if (!used[i] && (best < 0 || d[i] > d[best]))
+					best = i;
+			used[best] = true;
+			if (Math.abs(bm * y[best * m + m - 1]) > tolerance * Math.max(Math.abs(d[best]), scale * SymmetricEigenDecomposition.EPS))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * a random unit vector orthogonal to all the vectors in q
+	 */
+	private double[] startVector(ArrayList<double[]> q, Random random){
+		double[] r = new double[n];
+		double norm = 0.;
+		while (norm == 0.){
+			for (int i = 0; i < n; i++)
+				r[i] = random.nextDouble() - 0.5;
+			orthogonalize(q, r);
+			orthogonalize(q, r);
+			norm = norm(r);
+		}
+		for (int i = 0; i < n; i++)
+			r[i] /= norm;
+		return r;
+	}
+
+	/**
+	 * r := r - sum_j (q_j . r) q_j
+	 */
+	private void orthogonalize(ArrayList<double[]> q, double[] r){
+		for (int j = 0; j < q.size(); j++){
+			double[] qj = q.get(j);
+			double s = 0.;
+			for (int i = 0; i < n; i++)
+				s += qj[i] * r[i];
+			for (int i = 0; i < n; i++)
+				r[i] -= s * qj[i];
+		}
+	}
+
+	private static double norm(double[] r){
+		double s = 0.;
+		for (int i = 0; i < r.length; i++)
+			s += r[i] * r[i];
+		return Math.sqrt(s);
+	}
+
+	private static double[] identity(int m){
+		double[] x = new double[m * m];
+		for (int i = 0; i < m; i++)
+			x[i * m + i] = 1.;
+		return x;
+	}
+}
@@ -0,0 +1,446 @@
+/**
+ * MixedPrecisionSolver.java
+ */
+package artiano.math.algebra;
+
+import java.util.concurrent.RecursiveAction;
+
+import artiano.core.structure.BufferMatrix;
+import artiano.core.structure.Gemm;
+import artiano.core.structure.Matrix;
+
+/**
+ * <p>Description: mixed-precision solver of the dense system A*x=B. The O(n^3) factorization (LU with partial
+ * pivoting, or Cholesky for a symmetric positive-definite A) is done in single precision, which halves the
+ * memory and the traffic of the factor, then the solution is refined in double precision:</p>
+ * <pre><code>
+ * x = A^(-1)*b           (single precision factor)
+ * repeat
+ *     r = b - A*x        (double precision, O(n^2))
+ *     x = x + A^(-1)*r   (single precision factor)
+ * until |r| &lt;= tolerance*(|A|*|x| + |b|)
+ * </code></pre>
+ * <p>If A is too ill-conditioned for a single precision factor (roughly cond(A) &gt; 1e7), the single
+ * precision factorization fails or the refinement stops converging, the solver falls back to a double
+ * precision {@link LUDecomposition} or {@link CholeskyDecomposition} automatically and keeps it for the
+ * following solves. The normwise backward error achieved, max(|b-A*x|/(|A|*|x|+|b|)) over the columns in
+ * the infinity norm, is reported by {@link #backwardError()}.</p>
+ * <pre><code>
+ * MixedPrecisionSolver solver = new MixedPrecisionSolver(a, MixedPrecisionSolver.LU);
+ * Matrix x = solver.solve(b);
+ * System.out.println(solver.backwardError() + ", fallback: " + solver.isFallback());
+ * </code></pre>
+ * <p><b><i>NOTICE:</i></b> A is referenced, not copied, to compute the residuals, so it must not be changed while
+ * the solver is used. With {@link #CHOLESKY} the whole A is used by the residuals, so it must be symmetric.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class MixedPrecisionSolver {
+	/** LU decomposition with partial pivoting, for a general square matrix */
+	public static final int LU = 0;
+	/** Cholesky decomposition, for a symmetric positive-definite matrix */
+	public static final int CHOLESKY = 1;
+	/** default maximal number of refinement steps */
+	public static final int DEFAULT_MAX_ITERATIONS = 30;
+	/** number of columns of a panel of the single precision factorization */
+	static final int BLOCK_SIZE = 64;
+	/** minimal flops of the trailing update to run in parallel */
+	static final long PARALLEL_SIZE = 1L << 20;
+	/** unit round-off of double precision */
+	static final double EPSILON = Math.ulp(1.) / 2;
+
+	private final int type;
+	private final Matrix a;
+	private final int n;
+	//|A| in the infinity norm
+	private final double norm;
+	//single precision factor, n*n row-major, null if the factorization failed
+	private float[] f = null;
+	private int[] pivot = null;
+	//double precision decomposition of the fallback
+	private LUDecomposition lu = null;
+	private CholeskyDecomposition cd = null;
+	private double tolerance;
+	private int maxIterations = DEFAULT_MAX_ITERATIONS;
+	private int iterations = 0;
+	private double backwardError = 0.;
+
+	/**
+	 * constructor, factor A in single precision
+	 * @param a - coefficient matrix, square, symmetric positive-definite for {@link #CHOLESKY}
+	 * @param type - {@link #LU} or {@link #CHOLESKY}
+	 */
+	public MixedPrecisionSolver(Matrix a, int type){
+		if (a.rows() != a.columns())
+			throw new IllegalArgumentException("MixedPrecisionSolver, accept square matrix only.");
+		if (type != LU && type != CHOLESKY)
+			throw new IllegalArgumentException("MixedPrecisionSolver, unknown type of decomposition.");
+		this.type = type;
+		this.a = a instanceof BufferMatrix ? a.clone(): a;
+		this.n = a.rows();
+		this.tolerance = Math.sqrt(n) * EPSILON;
+		double[] x = this.a.data();
+		int off = this.a.offset(), ld = this.a.dataColumns();
+		double big = 0.;
+		boolean fits = true;
+		for (int i = 0; i < n; i++){
+			double s = 0.;
+			for (int j = 0; j < n; j++){
+				double v = Math.abs(x[off + i * ld + j]);
+				s += v;
+				fits &= v <= Float.MAX_VALUE;
+			}
+			big = Math.max(big, s);
+		}
+		norm = big;
+		if (fits){
+			f = new float[n * n];
+			for (int i = 0; i < n; i++)
+				for (int j = 0; j < n; j++)
+					f[i * n + j] = (float) x[off + i * ld + j];
+			boolean factored;
+			if (type == LU){
+				pivot = new int[n];
+				factored = factorLU();
+			} else
+				factored = factorCholesky();
+			if (!factored)
+				f = null;
+		}
+		if (f == null)
+			fallback();
+	}
+
+	/**
+	 * set the tolerance of the backward error, the default is sqrt(n) times the unit round-off of double precision
+	 * @param tolerance - positive
+	 */
+	public void setTolerance(double tolerance){
+		if (tolerance <= 0.)
+			throw new IllegalArgumentException("MixedPrecisionSolver, tolerance must be positive.");
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * set the maximal number of refinement steps before falling back to double precision
+	 * @param maxIterations - positive integer
+	 */
+	public void setMaxIterations(int maxIterations){
+		if (maxIterations <= 0)
+			throw new IllegalArgumentException("MixedPrecisionSolver, maximal iterations must be positive.");
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * @return - the normwise backward error of the last solve
+	 */
+	public double backwardError(){
+		return backwardError;
+	}
+
+	/**
+	 * @return - the refinement steps of the last solve
+	 */
+	public int iterations(){
+		return iterations;
+	}
+
+	/**
+	 * @return - true if the solver has fallen back to the double precision decomposition
+	 */
+	public boolean isFallback(){
+		return f == null;
+	}
+
+	/**
+	 * solve the equation like A*x=B, all the columns of B are solved at once
+	 * @param b - constant matrix, will be reserved
+	 * @return - solution matrix
+	 */
+	public Matrix solve(Matrix b){
+		if (b.rows() != n)
+			throw new IllegalArgumentException("MixedPrecisionSolver solve, size not match.");
+		int m = b.columns();
+		//compact copy of B
+		Matrix c = new Matrix(n, m);
+		b.copyTo(c);
+		iterations = 0;
+		if (f != null){
+			double[] bd = c.data();
+			Matrix x = new Matrix(n, m), r = new Matrix(n, m);
+			double[] xd = x.data(), rd = r.data();
+			float[] y = new float[n * m];
+			for (int i = 0; i < y.length; i++)
+				y[i] = (float) bd[i];
+			solve(y, m);
+			for (int i = 0; i < y.length; i++)
+				xd[i] = y[i];
+			double last = Double.POSITIVE_INFINITY;
+			while (true){
+				backwardError = residual(c, x, r);
+				if (backwardError <= tolerance)
+					return x;
+				//stop when the refinement does not contract any more (NaN included)
+				if (iterations >= maxIterations || !(backwardError < 0.5 * last))
+					break;
+				last = backwardError;
+				iterations++;
+				for (int i = 0; i < y.length; i++)
+					y[i] = (float) rd[i];
+				solve(y, m);
+				for (int i = 0; i < y.length; i++)
+					xd[i] += y[i];
+			}
+			//not accurate enough in single precision, factor once more in double precision
+			f = null;
+			pivot = null;
+			fallback();
+		}
+		Matrix x = type == LU ? lu.solve(c, true): cd.solve(c, true);
+		backwardError = residual(c, x, new Matrix(n, m));
+		return x;
+	}
+
+	/**
+	 * decompose A in double precision
+	 */
+	private void fallback(){
+		if (type == LU)
+			lu = new LUDecomposition(a, true);
+		else {
+			cd = new CholeskyDecomposition(a, true);
+			if (!cd.isDefinite())
+				throw new UnsupportedOperationException("MixedPrecisionSolver, matrix is not positive-definite.");
+		}
+	}
+
+	/**
+	 * r = B - A*x in double precision
+	 * @return - the normwise backward error, max(|r|/(|A|*|x|+|b|)) over the columns
+	 */
+	private double residual(Matrix b, Matrix x, Matrix r){
+		int m = b.columns();
+		double[] bd = b.data(), xd = x.data(), rd = r.data();
+		System.arraycopy(bd, 0, rd, 0, n * m);
+		Gemm.gemm(false, false, n, m, n, -1., a.data(), a.offset(), a.dataColumns(), xd, 0, m, 1., rd, 0, m);
+		double error = 0.;
+		for (int j = 0; j < m; j++){
+			double rn = 0., xn = 0., bn = 0.;
+			for (int i = 0; i < n; i++){
+				int k = i * m + j;
+				rn = Math.max(rn, Math.abs(rd[k]));
+				xn = Math.max(xn, Math.abs(xd[k]));
+				bn = Math.max(bn, Math.abs(bd[k]));
+			}
+			double scale = norm * xn + bn;
+			double e = scale == 0. ? (rn == 0. ? 0.: Double.POSITIVE_INFINITY): rn / scale;
+			//NaN is kept and propagates to the caller
+			if (e > error || e != e)
+				error = e;
+		}
+		return error;
+	}
+
+	/**
+	 * LU decomposition with partial pivoting in single precision, right-looking and blocked like
+	 * {@link LUDecomposition}
+	 * @return - false if a pivot is zero or not finite
+	 */
+	private boolean factorLU(){
+		for (int j0 = 0; j0 < n; j0 += BLOCK_SIZE){
+			int j1 = Math.min(n, j0 + BLOCK_SIZE);
+			for (int j = j0; j < j1; j++){
+				float big = 0f;
+				int imax = j;
+				for (int i = j; i < n; i++){
+					float v = Math.abs(f[i * n + j]);
+					if (v > big){
+						big = v;
+						imax = i;
+					}
+				}
+				if (big == 0f || Float.isInfinite(big) || Float.isNaN(f[imax * n + j]))
+					return false;
+				if (imax != j)
+					for (int k = 0; k < n; k++){
+						float t = f[imax * n + k];
+						f[imax * n + k] = f[j * n + k];
+						f[j * n + k] = t;
+					}
+				pivot[j] = imax;
+				float r = 1f / f[j * n + j];
+				for (int i = j + 1; i < n; i++){
+					float l = f[i * n + j] *= r;
+					if (l != 0f)
+						for (int k = j + 1; k < j1; k++)
+							f[i * n + k] -= l * f[j * n + k];
+				}
+			}
+			if (j1 == n)
+				break;
+			//U12 := L11^(-1)*A12
+			for (int i = j0 + 1; i < j1; i++)
+				for (int k = j0; k < i; k++){
+					float l = f[i * n + k];
+					if (l != 0f)
+						for (int c = j1; c < n; c++)
+							f[i * n + c] -= l * f[k * n + c];
+				}
+			update(false, j0, j1);
+		}
+		return true;
+	}
+
+	/**
+	 * Cholesky decomposition of the lower triangle in single precision, right-looking and blocked like
+	 * {@link CholeskyDecomposition}
+	 * @return - false if not positive-definite in single precision
+	 */
+	private boolean factorCholesky(){
+		for (int k0 = 0; k0 < n; k0 += BLOCK_SIZE){
+			int k1 = Math.min(n, k0 + BLOCK_SIZE);
+			for (int j = k0; j < k1; j++){
+				float sum = f[j * n + j];
+				for (int k = k0; k < j; k++)
+					sum -= f[j * n + k] * f[j * n + k];
+				if (!(sum > 0f) || Float.isInfinite(sum))
+					return false;
+				float ljj = (float) Math.sqrt(sum);
+				f[j * n + j] = ljj;
+				for (int i = j + 1; i < n; i++){
+					sum = f[i * n + j];
+					for (int k = k0; k < j; k++)
+						sum -= f[i * n + k] * f[j * n + k];
+					f[i * n + j] = sum / ljj;
+				}
+			}
+			if (k1 < n)
+				update(true, k0, k1);
+		}
+		return true;
+	}
+
+	/**
+	 * update the trailing sub-matrix [k1,n)*[k1,n) with the panel [k0,k1)
+	 */
+	private void update(boolean symmetric, int k0, int k1){
+		Update task = new Update(symmetric, f, n, k0, k1, k1, n);
+		long flops = (long) (n - k1) * (n - k1) * (k1 - k0);
+		if (Gemm.isParallel() && flops >= PARALLEL_SIZE && Runtime.getRuntime().availableProcessors() > 1)
+			Gemm.pool().invoke(task);
+		else
+			task.compute();
+	}
+
+	/**
+	 * solve A*y=c in single precision in place, y is n*m row-major
+	 */
+	private void solve(float[] y, int m){
+		if (type == LU){
+			for (int i = 0; i < n; i++){
+				int p = pivot[i];
+				if (p != i)
+					for (int k = 0; k < m; k++){
+						float t = y[p * m + k];
+						y[p * m + k] = y[i * m + k];
+						y[i * m + k] = t;
+					}
+			}
+			//L*z = P*c, L is unit lower triangular
+			for (int i = 1; i < n; i++)
+				for (int k = 0; k < i; k++)
+					axpy(m, -f[i * n + k], y, k * m, i * m);
+			//U*y = z
+			for (int i = n - 1; i >= 0; i--){
+				for (int k = i + 1; k < n; k++)
+					axpy(m, -f[i * n + k], y, k * m, i * m);
+				float r = 1f / f[i * n + i];
+				for (int k = 0; k < m; k++)
+					y[i * m + k] *= r;
+			}
+		} else {
+			//L*z = c
+			for (int i = 0; i < n; i++){
+				for (int k = 0; k < i; k++)
+					axpy(m, -f[i * n + k], y, k * m, i * m);
+				float r = 1f / f[i * n + i];
+				for (int k = 0; k < m; k++)
+					y[i * m + k] *= r;
+			}
+			//L'*y = z
+			for (int i = n - 1; i >= 0; i--){
+				float r = 1f / f[i * n + i];
+				for (int k = 0; k < m; k++)
+					y[i * m + k] *= r;
+				for (int k = 0; k < i; k++)
+					axpy(m, -f[i * n + k], y, i * m, k * m);
+			}
+		}
+	}
+
+	/**
+	 * y[yOff..yOff+len) += alpha*y[xOff..xOff+len)
+	 */
+	private static void axpy(int len, float alpha, float[] y, int xOff, int yOff){
+		if (alpha == 0f)
+			return;
+		for (int i = 0; i < len; i++)
+			y[yOff + i] += alpha * y[xOff + i];
+	}
+
+	/**
+	 * trailing update of the single precision factorization by rows [i0,i1), split over the pool of {@link Gemm}
+	 * <br>LU: A22 := A22 - L21*U12
+	 * <br>Cholesky: A22 := A22 - L21*L21', lower triangle only
+	 */
+	@SuppressWarnings("serial")
+	static final class Update extends RecursiveAction {
+		final boolean symmetric;
+		final float[] f;
+		final int n, k0, k1, i0, i1;
+
+		Update(boolean symmetric, float[] f, int n, int k0, int k1, int i0, int i1){
+			this.symmetric = symmetric;
+			this.f = f;
+			this.n = n;
+			this.k0 = k0;
+			this.k1 = k1;
+			this.i0 = i0;
+			this.i1 = i1;
+		}
+
+		@Override
+		protected void compute() {
+			if (getPool() != null && i1 - i0 > BLOCK_SIZE &&
+					(long) (i1 - i0) * (n - k1) * (k1 - k0) >= PARALLEL_SIZE){
+				int mid = (i0 + i1) >>> 1;
+				invokeAll(new Update(symmetric, f, n, k0, k1, i0, mid), new Update(symmetric, f, n, k0, k1, mid, i1));
+				return;
+			}
+			for (int i = i0; i < i1; i++){
+				int fi = i * n;
+				if (symmetric){
+					for (int j = k1; j <= i; j++){
+						int fj = j * n;
+						float s = 0f;
+						for (int k = k0; k < k1; k++)
+							s += f[fi + k] * f[fj + k];
+						f[fi + j] -= s;
+					}
+				} else {
+					for (int k = k0; k < k1; k++){
+						float l = f[fi + k];
+						if (l == 0f)
+							continue;
+						int fk = k * n;
+						for (int c = k1; c < n; c++)
+							f[fi + c] -= l * f[fk + c];
+					}
+				}
+			}
+		}
+	}
+}
@@ -3,11 +3,25 @@
  */
 package artiano.math.algebra;
 
+import java.util.concurrent.RecursiveTask;
+
+import artiano.core.structure.BufferMatrix;
+import artiano.core.structure.Gemm;
 import artiano.core.structure.Matrix;
-import artiano.math.base.Math_;
+import artiano.core.structure.Range;
+import artiano.core.structure.Syrk;
 
 /**
- * <p>Description:</p>
+ * <p>Description: QR decomposition by Householder reflections, A=Q*R, A is m*n, Q is orthogonal and R is
+ * upper triangular. Solve the linear equation system A*x=B, or the least squares problem min|A*x-B| if m&gt;n.</p>
+ * <p>The decomposition is blocked: the reflectors of a panel of {@link #BLOCK_SIZE} columns are
+ * accumulated in the compact WY form H1*H2*...*Hk = I - V*T*V' (T upper triangular), so the trailing
+ * columns and the right-hand sides are updated by the blocked, parallel matrix multiplication
+ * {@link Gemm} instead of one reflector at a time.</p>
+ * <p>For tall and skinny matrices {@link #tsqr(Matrix)} computes R only, by factoring the chunks of
+ * rows independently on the threads of {@link Gemm#pool()} and merging their R factors pairwise;
+ * {@link #leastSquares(Matrix, Matrix)} solves the least squares problem in the same way, and
+ * {@link #merge(Matrix, Matrix)} merges the R factors of row-partitioned data computed separately.</p>
  * @author Nano.Michael
  * @version 1.0.0
  * @date 2013-9-7
@@ -15,10 +29,15 @@ import artiano.math.base.Math_;
  * @since 1.0.0
  */
 public class QRDecomposition {
+	/** number of columns of a panel */
+	public static final int BLOCK_SIZE = 32;
+	/** rows factored by a single task of {@link #tsqr(Matrix)} */
+	public static final int TSQR_CHUNK_ROWS = 4096;
 	
+	//R in the upper triangle, the Householder vectors (with implicit unit first element) below
 	protected Matrix a = null;
-	protected Matrix c = null;
-	protected Matrix d = null;
+	//scalar factors of the reflectors H = I - tau*v*v'
+	protected double[] tau = null;
 	boolean singular = false;
 	
 	/**
@@ -32,53 +51,182 @@ public class QRDecomposition {
 	/**
 	 * constructor
 	 * @param a - matrix to decompose
-	 * @param reserve - indicate reserve a whether or not
+	 * @param reserve - indicate reserve a whether or not, if not reserve, a will be replaced with R
+	 * and the Householder vectors
 	 */
 	public QRDecomposition(Matrix a, boolean reserve){
-		if (a.rows() != a.columns())
-			throw new IllegalArgumentException("QRDecomposition, accept square matrix only.");
-		this.a = reserve? a.clone(): a;
-		c = new Matrix(a.rows(), 1);
-		d = new Matrix(a.rows(), 1);
+		this.a = reserve || a instanceof BufferMatrix ? a.clone(): a;
+		tau = new double[Math.min(a.rows(), a.columns())];
 		decompose();
+		//data not stored on heap, write the decomposition back
+		if (!reserve && this.a != a)
+			this.a.copyTo(a);
 	}
 	
 	/**
 	 * decompose the matrix
 	 */
 	protected void decompose(){
-		//for record index
-		int i, j, k;
-		double scale, sigma, sum, tau;
-		
-		int n = a.rows();
-		for (k = 0; k < n - 1; k++){
-			scale = 0.;
-			for (i = k; i < n; i++) scale = Math.max(scale, Math.abs(a.at(i, k)));
-			if (scale == 0.){
+		int m = a.rows(), n = a.columns(), r = tau.length;
+		double[] x = a.data();
+		int off = a.offset(), ld = a.dataColumns();
+		for (int k0 = 0; k0 < r; k0 += BLOCK_SIZE){
+			int k1 = Math.min(r, k0 + BLOCK_SIZE);
+			factorPanel(x, off, ld, m, k0, k1);
+			//apply Q' of the panel to the trailing columns
+			if (k1 < n)
+				applyBlock(k0, k1, true, x, off + k0 * ld + k1, ld, n - k1);
+		}
+		for (int k = 0; k < n; k++)
+			if (k >= m || x[off + k * ld + k] == 0.)
 				singular = true;
-				c.set(k, 0.);
-				d.set(k, 0.);
-			} else {
-				for (i = k; i < n; i++) a.divide(i, k, scale);
-				for (sum = 0., i = k; i < n; i++) sum += Math_.square(a.at(i, k));
-				sigma = Math_.sign(Math.sqrt(sum), a.at(k, k));
-				a.plus(k, k, sigma);
-				c.set(k, sigma*a.at(k, k));
-				d.set(k, -scale*sigma);
-				for (j = k+1; j<n; j++){
-					for (sum = 0., i = k; i<n; i++) sum += a.at(i, k)*a.at(i, j);
-					tau = sum/c.at(k);
-					for (i=k; i<n; i++) a.minus(i, j, tau*a.at(i, k));
+	}
+	
+	/**
+	 * unblocked Householder QR of the columns [k0,k1), only the columns of the panel are updated
+	 */
+	private void factorPanel(double[] x, int off, int ld, int m, int k0, int k1){
+		double[] w = new double[k1 - k0];
+		for (int j = k0; j < k1; j++){
+			int xj = off + j * ld;
+			double alpha = x[xj + j];
+			double xnorm = 0.;
+			for (int i = j + 1; i < m; i++){
+				double v = x[off + i * ld + j];
+				xnorm += v * v;
+			}
+			if (xnorm == 0.){
+				tau[j] = 0.;
+				continue;
+			}
+			double beta = -Math.copySign(Math.sqrt(alpha * alpha + xnorm), alpha);
+			tau[j] = (beta - alpha) / beta;
+			double scale = 1. / (alpha - beta);
+			for (int i = j + 1; i < m; i++)
+				x[off + i * ld + j] *= scale;
+			x[xj + j] = beta;
+			//w = v'*A(j:m, j+1:k1), A := A - tau*v*w
+			int c0 = j + 1, cn = k1 - c0;
+			if (cn == 0)
+				continue;
+			System.arraycopy(x, xj + c0, w, 0, cn);
+			for (int i = j + 1; i < m; i++){
+				int xi = off + i * ld;
+				double v = x[xi + j];
+				if (v != 0.)
+					for (int c = 0; c < cn; c++)
+						w[c] += v * x[xi + c0 + c];
+			}
+			for (int c = 0; c < cn; c++){
+				w[c] *= tau[j];
+				x[xj + c0 + c] -= w[c];
+			}
+			for (int i = j + 1; i < m; i++){
+				int xi = off + i * ld;
+				double v = x[xi + j];
+				if (v != 0.)
+					for (int c = 0; c < cn; c++)
+						x[xi + c0 + c] -= v * w[c];
+			}
+		}
+	}
+	
+	/**
+	 * apply the block reflector of the panel [k0,k1), I - V*T*V' (or its transpose Q' if trans), to the rows
+	 * [k0,m) of a matrix Y with cols columns, y[yOff] is the element (k0,0) of Y
+	 */
+	private void applyBlock(int k0, int k1, boolean trans, double[] y, int yOff, int ldy, int cols){
+		int m = a.rows(), rows = m - k0, kb = k1 - k0;
+		double[] x = a.data();
+		int off = a.offset(), ld = a.dataColumns();
+		//V with explicit unit diagonal and zeros above
+		double[] v = new double[rows * kb];
+		for (int r = 0; r < rows; r++){
+			int xr = off + (k0 + r) * ld + k0;
+			int vr = r * kb;
+			for (int c = 0; c < kb && c <= r; c++)
+				v[vr + c] = c == r ? 1.: x[xr + c];
+		}
+		//T from tau and S = V'*V
+		double[] t = new double[kb * kb];
+		double[] s = new double[kb * kb];
+		Syrk.syrk(true, kb, rows, 1., v, 0, kb, 0., s, 0, kb);
+		for (int i = 0; i < kb; i++){
+			double ti = tau[k0 + i];
+			t[i * kb + i] = ti;
+			for (int p = 0; p < i; p++){
+				double sum = 0.;
+				for (int q = p; q < i; q++)
+					sum += t[p * kb + q] * s[q * kb + i];
+				t[p * kb + i] = -ti * sum;
+			}
+		}
+		//W = V'*Y
+		double[] w = new double[kb * cols];
+		Gemm.gemm(true, false, kb, cols, rows, 1., v, 0, kb, y, yOff, ldy, 0., w, 0, cols);
+		//W := T'*W (Q'*Y) or T*W (Q*Y), in place
+		if (trans){
+			for (int i = kb - 1; i >= 0; i--){
+				int wi = i * cols;
+				double tii = t[i * kb + i];
+				for (int c = 0; c < cols; c++)
+					w[wi + c] *= tii;
+				for (int p = 0; p < i; p++){
+					double tpi = t[p * kb + i];
+					if (tpi != 0.)
+						for (int c = 0; c < cols; c++)
+							w[wi + c] += tpi * w[p * cols + c];
+				}
+			}
+		} else {
+			for (int i = 0; i < kb; i++){
+				int wi = i * cols;
+				double tii = t[i * kb + i];
+				for (int c = 0; c < cols; c++)
+					w[wi + c] *= tii;
+				for (int q = i + 1; q < kb; q++){
+					double tiq = t[i * kb + q];
+					if (tiq != 0.)
+						for (int c = 0; c < cols; c++)
+							w[wi + c] += tiq * w[q * cols + c];
 				}
 			}
 		}
-		d.set(n-1, a.at(n-1, n-1));
-		if (d.at(n-1) == 0.) singular = true;	
+		//Y := Y - V*W
+		Gemm.gemm(false, false, rows, cols, kb, -1., v, 0, kb, w, 0, cols, 1., y, yOff, ldy);
+	}
+	
+	/**
+	 * get the upper triangular factor
+	 * @return - R, min(m,n)*n matrix
+	 */
+	public Matrix R(){
+		int r = tau.length, n = a.columns();
+		Matrix x = new Matrix(r, n);
+		for (int i = 0; i < r; i++)
+			for (int j = i; j < n; j++)
+				x.set(i, j, a.at(i, j));
+		return x;
+	}
+	
+	/**
+	 * get the orthogonal factor with orthonormal columns (thin Q)
+	 * @return - Q, m*min(m,n) matrix
+	 */
+	public Matrix Q(){
+		int m = a.rows(), r = tau.length;
+		Matrix q = new Matrix(m, r);
+		for (int i = 0; i < r; i++)
+			q.set(i, i, 1.);
+		double[] y = q.data();
+		//Q*[I;0] = H1*(H2*(...*(Hr*[I;0])))
+		for (int k0 = (r - 1) / BLOCK_SIZE * BLOCK_SIZE; k0 >= 0; k0 -= BLOCK_SIZE)
+			applyBlock(k0, Math.min(r, k0 + BLOCK_SIZE), false, y, k0 * r, r, r);
+		return q;
 	}
 	
 	/**
-	 * inversion of the matrix
+	 * inversion of the matrix, or the pseudo-inversion if m&gt;n
 	 * @return - inversion
 	 */
 	public Matrix inverse(){
@@ -96,26 +244,29 @@ public class QRDecomposition {
 	}
 	
 	/**
-	 * solve the matrix equation like A*x=B.
-	 * @param B - constant matrix
-	 * @param reserve - indicate reserve B whether or not
-	 * @return
+	 * solve the matrix equation like A*x=B, or the least squares problem min|A*x-B| if m&gt;n, all the
+	 * columns of B are solved at once.
+	 * @param B - constant matrix, m*k
+	 * @param reserve - indicate reserve B whether or not, if not reserve, B will be replaced with Q'*B
+	 * (and the solution in the first n rows)
+	 * @return - solution, n*k matrix
 	 */
 	public Matrix solve(Matrix B, boolean reserve){
 		if (B.rows() != a.rows())
 			throw new IllegalArgumentException("QRDecomposition solve, size not match.");
-		Matrix b = reserve? B.clone(): B;
-		double sum, tau;
-		int n = a.rows();
-		for (int k=0; k<b.columns(); k++){
-			for (int j = 0; j<n-1; j++){
-				sum = 0.;
-				for (int i = j; i<n; i++) sum += a.at(i, j)*b.at(i, k);
-				tau = sum/c.at(j);
-				for (int i = j; i<n; i++) b.minus(i, k, tau*a.at(i, j));
-			}
-		}
-		return solveR(b);
+		int m = a.rows(), n = a.columns();
+		if (m < n)
+			throw new UnsupportedOperationException("QRDecomposition solve, under-determined system.");
+		Matrix b = reserve || B instanceof BufferMatrix ? B.clone(): B;
+		double[] y = b.data();
+		int yOff = b.offset(), ldy = b.dataColumns();
+		for (int k0 = 0; k0 < n; k0 += BLOCK_SIZE)
+			applyBlock(k0, Math.min(n, k0 + BLOCK_SIZE), true, y, yOff + k0 * ldy, ldy, b.columns());
+		backSubstitute(a.data(), a.offset(), a.dataColumns(), n, y, yOff, ldy, b.columns());
+		if (!reserve && b != B)
+			b.copyTo(B);
+		Matrix x = reserve ? b: B;
+		return m == n ? x: x.at(new Range(0, n), Range.all()).clone();
 	}
 	
 	/**
@@ -129,26 +280,133 @@ public class QRDecomposition {
 	
 	/**
 	 * solve the matrix equation like R*x=B, that R is the decomposition of a
-	 * @param B - constant matrix
+	 * @param B - constant matrix, n*k
 	 * @param reserve - indicate reserve B whether or not
 	 * @return - result
 	 */
 	public Matrix solveR(Matrix B, boolean reserve){
-		if (a.rows() != B.rows())
+		if (a.columns() != B.rows() || a.rows() < a.columns())
 			throw new IllegalArgumentException("QRDecomposition solveR, size not match.");
-		Matrix b = reserve? B.clone(): B;
-		double sum;
-		int n = a.rows();
+		Matrix b = reserve || B instanceof BufferMatrix ? B.clone(): B;
+		backSubstitute(a.data(), a.offset(), a.dataColumns(), a.columns(), b.data(), b.offset(), b.dataColumns(), b.columns());
+		if (!reserve && b != B)
+			b.copyTo(B);
+		return reserve ? b: B;
+	}
+	
+	/**
+	 * solve R*X=Y in place, R is the n*n upper triangle of r, Y the first n rows of y with k columns
+	 */
+	private static void backSubstitute(double[] r, int rOff, int ldr, int n, double[] y, int yOff, int ldy, int k){
+		for (int i = n - 1; i >= 0; i--){
+			int ri = rOff + i * ldr, yi = yOff + i * ldy;
+			for (int j = i + 1; j < n; j++){
+				double rij = r[ri + j];
+				if (rij != 0.){
+					int yj = yOff + j * ldy;
+					for (int c = 0; c < k; c++)
+						y[yi + c] -= rij * y[yj + c];
+				}
+			}
+			double d = 1. / r[ri + i];
+			for (int c = 0; c < k; c++)
+				y[yi + c] *= d;
+		}
+	}
+	
+	/**
+	 * compute the R factor of a tall matrix by TSQR: the chunks of {@link #TSQR_CHUNK_ROWS} rows are factored
+	 * independently (in parallel if {@link Gemm#isParallel()}), then their R factors are stacked and factored
+	 * pairwise. Q is not formed.
+	 * @param a - m*n matrix, will not be changed
+	 * @return - R, min(m,n)*n upper triangular matrix, A'*A = R'*R
+	 */
+	public static Matrix tsqr(Matrix a){
+		Matrix x = a instanceof BufferMatrix ? a.clone(): a;
+		int chunk = Math.max(TSQR_CHUNK_ROWS, x.columns());
+		TsqrTask task = new TsqrTask(x, 0, x.rows(), chunk);
+		if (Gemm.isParallel() && x.rows() >= 2 * chunk && Runtime.getRuntime().availableProcessors() > 1)
+			return Gemm.pool().invoke(task);
+		return task.compute();
+	}
+	
+	/**
+	 * merge the R factors of two blocks of rows, i.e. compute the R factor of [A1;A2] from the R factors
+	 * of A1 and A2
+	 * @param r1 - R factor of A1
+	 * @param r2 - R factor of A2, same columns as r1
+	 * @return - R factor of [A1;A2]
+	 */
+	public static Matrix merge(Matrix r1, Matrix r2){
+		if (r1.columns() != r2.columns())
+			throw new IllegalArgumentException("QRDecomposition merge, size not match.");
+		int n = r1.columns();
+		Matrix stack = new Matrix(r1.rows() + r2.rows(), n);
+		r1.copyTo(stack.at(new Range(0, r1.rows()), Range.all()));
+		r2.copyTo(stack.at(new Range(r1.rows(), stack.rows()), Range.all()));
+		return new QRDecomposition(stack, false).R();
+	}
+	
+	/**
+	 * solve the least squares problem min|A*x-B| by TSQR of the augmented matrix [A B], whose R factor is
+	 * [R Q'*B; 0 *], so x = R^(-1)*(Q'*B)
+	 * @param a - m*n matrix, m&gt;=n, full column rank
+	 * @param b - m*k matrix
+	 * @return - solution, n*k matrix
+	 */
+	public static Matrix leastSquares(Matrix a, Matrix b){
+		int m = a.rows(), n = a.columns(), k = b.columns();
+		if (b.rows() != m)
+			throw new IllegalArgumentException("QRDecomposition leastSquares, size not match.");
+		if (m < n)
+			throw new UnsupportedOperationException("QRDecomposition leastSquares, under-determined system.");
+		Matrix ab = new Matrix(m, n + k);
+		a.copyTo(ab.at(Range.all(), new Range(0, n)));
+		b.copyTo(ab.at(Range.all(), new Range(n, n + k)));
+		Matrix r = tsqr(ab);
+		Matrix x = r.at(new Range(0, n), new Range(n, n + k)).clone();
+		backSubstitute(r.data(), r.offset(), r.dataColumns(), n, x.data(), 0, k, k);
+		return x;
+	}
+	
+	/**
+	 * compute an orthonormal basis of the column space of a tall matrix (the thin Q factor), used as the
+	 * range finder of {@link SingularValueDecomposition#truncated(Matrix, int)}
+	 * @param a - m*n matrix, m&gt;=n, will not be changed
+	 * @return - m*n matrix Q with orthonormal columns, a=Q*R
+	 */
+	public static Matrix orthonormalize(Matrix a){
+		if (a.rows() < a.columns())
+			throw new IllegalArgumentException("QRDecomposition orthonormalize, accept tall matrix only.");
+		return new QRDecomposition(a, true).Q();
+	}
+	
+	/**
+	 * R factor of the rows [lo,hi), split in halves recursively
+	 */
+	static class TsqrTask extends RecursiveTask<Matrix> {
+		private static final long serialVersionUID = 1L;
+		final Matrix a;
+		final int lo, hi, chunk;
+		
+		TsqrTask(Matrix a, int lo, int hi, int chunk){
+			this.a = a; this.lo = lo; this.hi = hi; this.chunk = chunk;
+		}
 		
-		for (int k = 0; k < b.columns(); k++){
-			b.divide(n-1, k, d.at(n-1));
-			for (int i = n-2; i>=0; i--){
-				sum = 0.;
-				for (int j = i+1; j<n; j++) sum += a.at(i, j)*b.at(j, k);
-				b.set(i, k, (b.at(i, k)-sum)/d.at(i));
+		@Override
+		protected Matrix compute() {
+			if (hi - lo < 2 * chunk)
+				return new QRDecomposition(a.at(new Range(lo, hi), Range.all()), true).R();
+			int mid = (lo + hi) >>> 1;
+			TsqrTask left = new TsqrTask(a, lo, mid, chunk);
+			TsqrTask right = new TsqrTask(a, mid, hi, chunk);
+			if (inForkJoinPool()){
+				left.fork();
+				Matrix r2 = right.compute();
+				return merge(left.join(), r2);
 			}
+			return merge(left.compute(), right.compute());
 		}
-		return b;
 	}
 	
 }
@@ -3,9 +3,14 @@
  */
 package artiano.math.algebra;
 
+import java.util.Random;
+
 import javax.management.RuntimeErrorException;
 
+import artiano.core.structure.BufferMatrix;
+import artiano.core.structure.Gemm;
 import artiano.core.structure.Matrix;
+import artiano.core.structure.Range;
 
 /**
  * <p>Description: This class for singular value decomposition.</p>
@@ -27,6 +32,10 @@ import artiano.core.structure.Matrix;
  * @since 1.0.0
  */
 public class SingularValueDecomposition {
+	/** default oversampling of the randomized truncated decomposition */
+	public static final int DEFAULT_OVERSAMPLING = 10;
+	/** default power iterations of the randomized truncated decomposition */
+	public static final int DEFAULT_POWER_ITERATIONS = 2;
 	//a=u*w*v'
 	protected Matrix u = null;
 	protected Matrix w = null;
@@ -69,6 +78,78 @@ public class SingularValueDecomposition {
 		this(a, true);
 	}
 	
+	/**
+	 * constructor of a decomposition already computed
+	 */
+	private SingularValueDecomposition(Matrix u, Matrix w, Matrix v){
+		this.u = u;
+		this.w = w;
+		this.v = v;
+		this.computeRight = true;
+	}
+	
+	/**
+	 * compute the k leading singular triplets only, with default oversampling and power iterations
+	 * @param a - input matrix A, will not be changed
+	 * @param k - number of singular values wanted
+	 * @return - truncated decomposition
+	 * @see #truncated(Matrix, int, int, int, long)
+	 */
+	public static SingularValueDecomposition truncated(Matrix a, int k){
+		return truncated(a, k, DEFAULT_OVERSAMPLING, DEFAULT_POWER_ITERATIONS, 1L);
+	}
+	
+	/**
+	 * compute the k leading singular triplets only by the randomized range finder of Halko,
+	 * Martinsson and Tropp: sample the range of A with a gaussian test matrix of k+oversampling
+	 * columns, sharpen it with some power iterations (A*A')^q*A, orthonormalize it to Q by QR, then
+	 * decompose the small matrix Q'*A exactly. The cost is dominated by the blocked multiplications
+	 * with A, O(m*n*(k+oversampling)*(2q+2)), instead of O(m*n^2) for the full decomposition.
+	 * <br>U is m*k, W is 1*k in descending order and V is n*k, sort() is not needed.
+	 * @param a - input matrix A, will not be changed
+	 * @param k - number of singular values wanted
+	 * @param oversampling - extra columns sampled to improve the accuracy, usually 5~10
+	 * @param powerIterations - power iterations, 1 or 2 is enough when the singular values decay slowly
+	 * @param seed - seed of the gaussian test matrix
+	 * @return - truncated decomposition
+	 */
+	public static SingularValueDecomposition truncated(Matrix a, int k, int oversampling, int powerIterations, long seed){
+		int m = a.rows(), n = a.columns();
+		if (k <= 0 || k > Math.min(m, n))
+			throw new IllegalArgumentException("Singular value decomposition truncated, k out of range.");
+		if (oversampling < 0 || powerIterations < 0)
+			throw new IllegalArgumentException("Singular value decomposition truncated, arguments must not be negative.");
+		int l = Math.min(k + oversampling, Math.min(m, n));
+		Matrix x = a instanceof BufferMatrix ? a.clone(): a;
+		double[] xd = x.data();
+		int xOff = x.offset(), ldx = x.dataColumns();
+		//Y = A*omega
+		Random random = new Random(seed);
+		double[] omega = new double[n * l];
+		for (int i = 0; i < omega.length; i++)
+			omega[i] = random.nextGaussian();
+		double[] y = new double[m * l];
+		Gemm.gemm(false, false, m, l, n, 1., xd, xOff, ldx, omega, 0, l, 0., y, 0, l);
+		Matrix q = QRDecomposition.orthonormalize(new Matrix(m, l, y));
+		//power iterations, orthonormalize every product to keep the small singular values
+		double[] z = new double[n * l];
+		for (int it = 0; it < powerIterations; it++){
+			Gemm.gemm(true, false, n, l, m, 1., xd, xOff, ldx, q.data(), 0, l, 0., z, 0, l);
+			Matrix p = QRDecomposition.orthonormalize(new Matrix(n, l, z));
+			Gemm.gemm(false, false, m, l, n, 1., xd, xOff, ldx, p.data(), 0, l, 0., y, 0, l);
+			q = QRDecomposition.orthonormalize(new Matrix(m, l, y));
+		}
+		//B' = A'*Q = Ub*W*Vb', so A ~ Q*B = (Q*Vb)*W*Ub'
+		Gemm.gemm(true, false, n, l, m, 1., xd, xOff, ldx, q.data(), 0, l, 0., z, 0, l);
+		SingularValueDecomposition small = new SingularValueDecomposition(new Matrix(n, l, z), false, true);
+		small.sort();
+		Range first = new Range(0, k);
+		Matrix u = q.multiply(small.V().at(Range.all(), first));
+		Matrix w = small.W().at(Range.all(), first).clone();
+		Matrix v = small.U().at(Range.all(), first).clone();
+		return new SingularValueDecomposition(u, w, v);
+	}
+	
 	/**
 	 * get the left singular vectors
 	 * @return - left singular vectors
@@ -0,0 +1,285 @@
+/**
+ * SymmetricEigenDecomposition.java
+ */
+package artiano.math.algebra;
+
+import artiano.core.structure.Matrix;
+
+/**
+ * <p>Description: eigen value decomposition of a real symmetric matrix by Householder
+ * tridiagonalization followed by the implicit QL algorithm (tred2/tql2). Much faster than the
+ * Jacobi rotations of {@link EigenValueDecomposition} for large matrices, all the work is done on
+ * raw arrays.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class SymmetricEigenDecomposition {
+	/** maximum QL iterations for a single eigen value */
+	static final int MAX_ITERATIONS = 60;
+	/** machine epsilon */
+	static final double EPS = Math.pow(2., -52.);
+
+	protected int n = 0;
+	/** eigen values */
+	protected double[] d = null;
+	/** eigen vectors stored by row, row i is the eigen vector of d[i] */
+	protected double[] z = null;
+
+	/**
+	 * constructor
+	 * @param sym - symmetric matrix want to be decomposed
+	 */
+	public SymmetricEigenDecomposition(Matrix sym){
+		if (sym.rows() != sym.columns())
+			throw new IllegalArgumentException("SymmetricEigenDecomposition, accept square matrix only.");
+		n = sym.rows();
+		d = new double[n];
+		double[] e = new double[n];
+		double[] v = new double[n * n];
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				v[i * n + j] = sym.at(i, j);
+		tred2(n, v, d, e);
+		//tql2 rotates the eigen vectors by row, transpose v to keep them contiguous
+		z = new double[n * n];
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				z[j * n + i] = v[i * n + j];
+		for (int i = 1; i < n; i++)
+			e[i - 1] = e[i];
+		e[n - 1] = 0.;
+		tql2(n, d, e, z, n);
+	}
+
+	/**
+	 * get eigen vectors
+	 * @return - eigen vectors stored by column
+	 */
+	public Matrix V(){
+		Matrix v = new Matrix(n, n);
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				v.set(j, i, z[i * n + j]);
+		return v;
+	}
+
+	/**
+	 * get eigen values
+	 * @return - eigen values, 1*n row vector
+	 */
+	public Matrix W(){
+		return new Matrix(1, n, d.clone());
+	}
+
+	/**
+	 * sort the eigen values and the eigen vectors in descending order
+	 */
+	public void sort(){
+		double[] t = new double[n];
+		for (int i = 0; i < n - 1; i++){
+			int k = i;
+			for (int j = i + 1; j < n; j++)
+				if (d[j] > d[k])
+					k = j;
+			if (k != i){
+				double p = d[k];
+				d[k] = d[i];
+				d[i] = p;
+				System.arraycopy(z, i * n, t, 0, n);
+				System.arraycopy(z, k * n, z, i * n, n);
+				System.arraycopy(t, 0, z, k * n, n);
+			}
+		}
+	}
+
+	/**
+	 * set the negative eigen values to 0, used for positive semi-definite matrices (e.g. covariance)
+	 * whose smallest eigen values may be slightly negative due to rounding errors
+	 */
+	public void clampNegative(){
+		for (int i = 0; i < n; i++)
+			if (d[i] < 0.)
+				d[i] = 0.;
+	}
+
+	/**
+	 * Householder reduction of the symmetric matrix v (n*n, row-major) to tridiagonal form,
+	 * on return v holds the orthogonal transformation, d the diagonal and e[1..n) the
+	 * sub-diagonal.
+	 */
+	static void tred2(int n, double[] v, double[] d, double[] e){
+		for (int j = 0; j < n; j++)
+			d[j] = v[(n - 1) * n + j];
+		for (int i = n - 1; i > 0; i--){
+			//scale to avoid under/overflow
+			double scale = 0., h = 0.;
+			for (int k = 0; k < i; k++)
+				scale += Math.abs(d[k]);
+			if (scale == 0.){
+				e[i] = d[i - 1];
+				for (int j = 0; j < i; j++){
+					d[j] = v[(i - 1) * n + j];
+					v[i * n + j] = 0.;
+					v[j * n + i] = 0.;
+				}
+			} else {
+				//generate Householder vector
+				for (int k = 0; k < i; k++){
+					d[k] /= scale;
+					h += d[k] * d[k];
+				}
+				double f = d[i - 1];
+				double g = Math.sqrt(h);
+				if (f > 0)
+					g = -g;
+				e[i] = scale * g;
+				h -= f * g;
+				d[i - 1] = f - g;
+				for (int j = 0; j < i; j++)
+					e[j] = 0.;
+				//apply similarity transformation to the remaining columns
+				for (int j = 0; j < i; j++){
+					f = d[j];
+					v[j * n + i] = f;
+					g = e[j] + v[j * n + j] * f;
+					for (int k = j + 1; k <= i - 1; k++){
+						double vkj = v[k * n + j];
+						g += vkj * d[k];
+						e[k] += vkj * f;
+					}
+					e[j] = g;
+				}
+				f = 0.;
+				for (int j = 0; j < i; j++){
+					e[j] /= h;
+					f += e[j] * d[j];
+				}
+				double hh = f / (h + h);
+				for (int j = 0; j < i; j++)
+					e[j] -= hh * d[j];
+				for (int j = 0; j < i; j++){
+					f = d[j];
+					g = e[j];
+					for (int k = j; k <= i - 1; k++)
+						v[k * n + j] -= (f * e[k] + g * d[k]);
+					d[j] = v[(i - 1) * n + j];
+					v[i * n + j] = 0.;
+				}
+			}
+			d[i] = h;
+		}
+		//accumulate transformations
+		for (int i = 0; i < n - 1; i++){
+			v[(n - 1) * n + i] = v[i * n + i];
+			v[i * n + i] = 1.;
+			double h = d[i + 1];
+			if (h != 0.){
+				for (int k = 0; k <= i; k++)
+					d[k] = v[k * n + i + 1] / h;
+				for (int j = 0; j <= i; j++){
+					double g = 0.;
+					for (int k = 0; k <= i; k++)
+						g += v[k * n + i + 1] * v[k * n + j];
+					for (int k = 0; k <= i; k++)
+						v[k * n + j] -= g * d[k];
+				}
+			}
+			for (int k = 0; k <= i; k++)
+				v[k * n + i + 1] = 0.;
+		}
+		for (int j = 0; j < n; j++){
+			d[j] = v[(n - 1) * n + j];
+			v[(n - 1) * n + j] = 0.;
+		}
+		v[(n - 1) * n + n - 1] = 1.;
+		e[0] = 0.;
+	}
+
+	/**
+	 * Implicit QL iterations on the symmetric tridiagonal matrix with diagonal d[0..n) and
+	 * off-diagonal e[0..n-1) (e[i] couples i and i+1). On return d holds the eigen values. If z is
+	 * not null, its rows z[i*ldz..i*ldz+n) are rotated along, so starting from the identity they
+	 * become the eigen vectors of the tridiagonal matrix, starting from the rows of a basis Q they
+	 * become the eigen vectors expressed in Q.
+	 */
+	static void tql2(int n, double[] d, double[] e, double[] z, int ldz){
+		double f = 0., tst1 = 0.;
+		for (int l = 0; l < n; l++){
+			//find small sub-diagonal element
+			tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+			int m = l;
+			while (m < n - 1 && Math.abs(e[m]) > EPS * tst1)
+				m++;
+			if (m > l){
+				int iter = 0;
+				do {
+					if (++iter > MAX_ITERATIONS)
+						throw new ArithmeticException("SymmetricEigenDecomposition, no convergence in " +
+								MAX_ITERATIONS + " iterations.");
+					//compute implicit shift
+					double g = d[l];
+					double p = (d[l + 1] - g) / (2. * e[l]);
+					double r = hypot(p, 1.);
+					if (p < 0)
+						r = -r;
+					d[l] = e[l] / (p + r);
+					d[l + 1] = e[l] * (p + r);
+					double dl1 = d[l + 1];
+					double h = g - d[l];
+					for (int i = l + 2; i < n; i++)
+						d[i] -= h;
+					f += h;
+					//implicit QL transformation
+					p = d[m];
+					double c = 1., c2 = c, c3 = c;
+					double el1 = e[l + 1];
+					double s = 0., s2 = 0.;
+					for (int i = m - 1; i >= l; i--){
+						c3 = c2;
+						c2 = c;
+						s2 = s;
+						g = c * e[i];
+						h = c * p;
+						r = hypot(p, e[i]);
+						e[i + 1] = s * r;
+						s = e[i] / r;
+						c = p / r;
+						p = c * d[i] - s * g;
+						d[i + 1] = h + s * (c * g + s * d[i]);
+						if (z != null){
+							int zi = i * ldz, zi1 = zi + ldz;
+							for (int k = 0; k < n; k++){
+								h = z[zi1 + k];
+								z[zi1 + k] = s * z[zi + k] + c * h;
+								z[zi + k] = c * z[zi + k] - s * h;
+							}
+						}
+					}
+					p = -s * s2 * c3 * el1 * e[l] / dl1;
+					e[l] = s * p;
+					d[l] = c * p;
+				} while (Math.abs(e[l]) > EPS * tst1);
+			}
+			d[l] += f;
+			e[l] = 0.;
+		}
+	}
+
+	/**
+	 * sqrt(a^2 + b^2) without under/overflow
+	 */
+	static double hypot(double a, double b){
+		double x = Math.abs(a), y = Math.abs(b);
+		if (x > y){
+			double r = y / x;
+			return x * Math.sqrt(1. + r * r);
+		}
+		if (y == 0.)
+			return 0.;
+		double r = x / y;
+		return y * Math.sqrt(1. + r * r);
+	}
+}
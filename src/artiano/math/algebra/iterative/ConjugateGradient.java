@@ -0,0 +1,91 @@
+/**
+ * ConjugateGradient.java
+ */
+package artiano.math.algebra.iterative;
+
+/**
+ * <p>Description: (preconditioned) conjugate gradient method for a symmetric positive-definite operator.
+ * Each iteration costs one product with A, one application of the preconditioner and a few vector
+ * operations, the memory is O(n). Use {@link JacobiPreconditioner} or {@link IncompleteCholeskyPreconditioner}
+ * to reduce the iterations of ill-conditioned systems.</p>
+ * <pre><code>
+ * ConjugateGradient cg = new ConjugateGradient(new JacobiPreconditioner(a));
+ * cg.setTolerance(1e-8);
+ * double[] x = new double[n];
+ * if (!cg.solve(new SparseOperator(a), b, x))
+ *     ...
+ * </code></pre>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class ConjugateGradient extends KrylovSolver {
+
+	/**
+	 * constructor, without preconditioner
+	 */
+	public ConjugateGradient(){ }
+
+	/**
+	 * constructor
+	 * @param preconditioner - symmetric positive-definite preconditioner
+	 */
+	public ConjugateGradient(Preconditioner preconditioner){
+		this.preconditioner = preconditioner;
+	}
+
+	@Override
+	public boolean solve(LinearOperator a, double[] b, double[] x) {
+		check(a, b, x);
+		int n = b.length;
+		double[] r = new double[n], z = new double[n], p = new double[n], q = new double[n];
+		iterations = 0;
+		converged = false;
+		double bnorm = norm(b);
+		if (bnorm == 0.){
+			for (int i = 0; i < n; i++)
+				x[i] = 0.;
+			residual = 0.;
+			return converged = true;
+		}
+		//r = b - A*x
+		a.apply(x, q);
+		for (int i = 0; i < n; i++)
+			r[i] = b[i] - q[i];
+		residual = norm(r) / bnorm;
+		if (residual <= tolerance)
+			return converged = true;
+		precondition(r, z);
+		System.arraycopy(z, 0, p, 0, n);
+		double rz = dot(r, z);
+		while (iterations < maxIterations){
+			iterations++;
+			a.apply(p, q);
+			double pq = dot(p, q);
+			if (pq <= 0.)
+				throw new ArithmeticException("ConjugateGradient, operator is not positive-definite.");
+			double alpha = rz / pq;
+			for (int i = 0; i < n; i++){
+				x[i] += alpha * p[i];
+				r[i] -= alpha * q[i];
+			}
+			residual = norm(r) / bnorm;
+			if (residual <= tolerance)
+				return converged = true;
+			precondition(r, z);
+			double rzNew = dot(r, z);
+			double beta = rzNew / rz;
+			rz = rzNew;
+			for (int i = 0; i < n; i++)
+				p[i] = z[i] + beta * p[i];
+		}
+		return false;
+	}
+
+	@Override
+	public String descriptionOfOptions() {
+		return "设置共轭梯度法参数";
+	}
+}
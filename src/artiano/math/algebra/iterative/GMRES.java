@@ -0,0 +1,178 @@
+/**
+ * GMRES.java
+ */
+package artiano.math.algebra.iterative;
+
+import artiano.core.structure.Option;
+import artiano.core.structure.Options;
+
+/**
+ * <p>Description: restarted generalized minimal residual method, GMRES(m), for a general (non-symmetric)
+ * square operator. The Krylov basis is built by the modified Gram-Schmidt process and the small least
+ * squares problem is updated by Givens rotations, so the residual norm is known at every step without
+ * computing A*x. The memory is O(n*m), the basis is discarded every m ({@link #setRestart(int)}) steps.
+ * The preconditioner, if any, is applied on the right, A*M^(-1)*(M*x)=b, so the residual is the true one.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class GMRES extends KrylovSolver {
+	/** default restart */
+	public static final int DEFAULT_RESTART = 30;
+
+	protected static final String KEY_RESTART = "restart";
+
+	protected int restart = DEFAULT_RESTART;
+
+	/**
+	 * constructor, without preconditioner
+	 */
+	public GMRES(){ }
+
+	/**
+	 * constructor
+	 * @param preconditioner - right preconditioner
+	 */
+	public GMRES(Preconditioner preconditioner){
+		this.preconditioner = preconditioner;
+	}
+
+	/**
+	 * set the dimension of the Krylov subspace before a restart
+	 * @param restart - positive integer
+	 */
+	public void setRestart(int restart){
+		if (restart <= 0)
+			throw new IllegalArgumentException("GMRES, restart must be positive.");
+		this.restart = restart;
+	}
+
+	@Override
+	public boolean solve(LinearOperator a, double[] b, double[] x) {
+		check(a, b, x);
+		int n = b.length;
+		int m = Math.min(restart, n);
+		double[][] v = new double[m + 1][n];
+		//Hessenberg matrix, h[j] is the column j
+		double[][] h = new double[m][m + 1];
+		double[] cs = new double[m], sn = new double[m], g = new double[m + 1];
+		double[] w = new double[n], z = new double[n];
+		iterations = 0;
+		converged = false;
+		double bnorm = norm(b);
+		if (bnorm == 0.){
+			for (int i = 0; i < n; i++)
+				x[i] = 0.;
+			residual = 0.;
+			return converged = true;
+		}
+		while (true){
+			//r = b - A*x
+			a.apply(x, w);
+			for (int i = 0; i < n; i++)
+				v[0][i] = b[i] - w[i];
+			double beta = norm(v[0]);
+			residual = beta / bnorm;
+			if (residual <= tolerance)
+				return converged = true;
+			if (iterations >= maxIterations)
+				return false;
+			for (int i = 0; i < n; i++)
+				v[0][i] /= beta;
+			for (int i = 1; i <= m; i++)
+				g[i] = 0.;
+			g[0] = beta;
+			int k = 0;
+			while (k < m && iterations < maxIterations){
+				iterations++;
+				//w = A*M^(-1)*v_k
+				precondition(v[k], z);
+				a.apply(z, w);
+				double[] hk = h[k];
+				for (int j = 0; j <= k; j++){
+					double s = dot(w, v[j]);
+					hk[j] = s;
+					for (int i = 0; i < n; i++)
+						w[i] -= s * v[j][i];
+				}
+				hk[k + 1] = norm(w);
+				if (hk[k + 1] != 0.)
+					for (int i = 0; i < n; i++)
+						v[k + 1][i] = w[i] / hk[k + 1];
+				//apply the previous rotations, then eliminate h(k+1,k)
+				for (int j = 0; j < k; j++){
+					double t = cs[j] * hk[j] + sn[j] * hk[j + 1];
+					hk[j + 1] = -sn[j] * hk[j] + cs[j] * hk[j + 1];
+					hk[j] = t;
+				}
+				double r = Math.hypot(hk[k], hk[k + 1]);
+				cs[k] = hk[k] / r;
+				sn[k] = hk[k + 1] / r;
+				hk[k] = r;
+				hk[k + 1] = 0.;
+				g[k + 1] = -sn[k] * g[k];
+				g[k] = cs[k] * g[k];
+				k++;
+				residual = Math.abs(g[k]) / bnorm;
+				if (residual <= tolerance || r == 0.)
+					break;
+			}
+			//y = H^(-1)*g, x += M^(-1)*(V*y)
+			double[] y = new double[k];
+			for (int i = k - 1; i >= 0; i--){
+				double s = g[i];
+				for (int j = i + 1; j < k; j++)
+					s -= h[j][i] * y[j];
+				y[i] = s / h[i][i];
+			}
+			for (int i = 0; i < n; i++)
+				w[i] = 0.;
+			for (int j = 0; j < k; j++)
+				for (int i = 0; i < n; i++)
+					w[i] += y[j] * v[j][i];
+			precondition(w, z);
+			for (int i = 0; i < n; i++)
+				x[i] += z[i];
+			if (residual <= tolerance){
+				//the residual of the rotations may differ slightly from the true one, check it next round
+				a.apply(x, w);
+				for (int i = 0; i < n; i++)
+					w[i] = b[i] - w[i];
+				residual = norm(w) / bnorm;
+				if (residual <= tolerance)
+					return converged = true;
+			}
+		}
+	}
+
+	@Override
+	public String descriptionOfOptions() {
+		return "设置广义最小残差法参数";
+	}
+
+	private Options options = null;
+
+	@Override
+	public Options supportedOptions() {
+		if (null != options)
+			return options;
+		options = new Options();
+		options.putAll(super.supportedOptions());
+		Option option = new Option(KEY_RESTART, "重启前Krylov子空间的维数", Integer.class, DEFAULT_RESTART, false);
+		options.put(KEY_RESTART, option);
+		return options;
+	}
+
+	@Override
+	public boolean applyOptions(Options options) {
+		if (!super.applyOptions(options))
+			return false;
+		int m = ((Number) options.get(KEY_RESTART).value()).intValue();
+		if (m <= 0)
+			return false;
+		restart = m;
+		return true;
+	}
+}
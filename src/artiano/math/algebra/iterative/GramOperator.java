@@ -0,0 +1,78 @@
+/**
+ * GramOperator.java
+ */
+package artiano.math.algebra.iterative;
+
+import artiano.core.structure.Matrix;
+import artiano.core.structure.SparseMatrix;
+
+/**
+ * <p>Description: the implicit symmetric operator X'*X + shift*I, e.g. the normal equations of the
+ * (ridge) least squares problem. A product is computed as X'*(X*x) + shift*x, the n*n matrix X'*X is
+ * never formed, so it costs O(m*n) (or O(nonZeros) for a sparse X) instead of O(n^2) memory.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class GramOperator implements LinearOperator {
+	
+	protected LinearOperator x = null;
+	protected LinearOperator xt = null;
+	protected double shift = 0.;
+	//buffer of X*x
+	private double[] t = null;
+	
+	/**
+	 * constructor
+	 * @param x - operator of X
+	 * @param xt - operator of X'
+	 * @param shift - added to the diagonal
+	 */
+	public GramOperator(LinearOperator x, LinearOperator xt, double shift){
+		if (x.rows() != xt.columns() || x.columns() != xt.rows())
+			throw new IllegalArgumentException("GramOperator, size not match.");
+		this.x = x;
+		this.xt = xt;
+		this.shift = shift;
+		this.t = new double[x.rows()];
+	}
+	
+	/**
+	 * constructor of X'*X + shift*I for a dense X
+	 * @param x - the matrix X, not copied
+	 * @param shift - added to the diagonal
+	 */
+	public GramOperator(Matrix x, double shift){
+		this(new MatrixOperator(x), new MatrixOperator(x, true), shift);
+	}
+	
+	/**
+	 * constructor of X'*X + shift*I for a sparse X
+	 * @param x - the sparse matrix X, not copied
+	 * @param shift - added to the diagonal
+	 */
+	public GramOperator(SparseMatrix x, double shift){
+		this(new SparseOperator(x), new SparseOperator(x.t()), shift);
+	}
+	
+	@Override
+	public int rows() {
+		return x.columns();
+	}
+	
+	@Override
+	public int columns() {
+		return x.columns();
+	}
+	
+	@Override
+	public void apply(double[] v, double[] y) {
+		x.apply(v, t);
+		xt.apply(t, y);
+		if (shift != 0.)
+			for (int i = 0; i < y.length; i++)
+				y[i] += shift * v[i];
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * IncompleteCholeskyPreconditioner.java
+ */
+package artiano.math.algebra.iterative;
+
+import artiano.core.structure.SparseMatrix;
+
+/**
+ * <p>Description: incomplete Cholesky preconditioner without fill-in, IC(0), of a sparse symmetric
+ * positive-definite matrix: A ~ L*L', L has the same sparsity pattern as the lower triangle of A.
+ * Applying it costs two sparse triangular solves.</p>
+ * <p>IC(0) may break down (a non-positive pivot) even if A is positive-definite, a small diagonal
+ * shift A + shift*I usually fixes it.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class IncompleteCholeskyPreconditioner implements Preconditioner {
+
+	protected int n = 0;
+	//L in CSR form, the columns of a row are sorted, the diagonal is the last element of a row
+	protected int[] ptr = null;
+	protected int[] idx = null;
+	protected double[] val = null;
+	//buffer of the forward substitution
+	private double[] t = null;
+
+	/**
+	 * constructor
+	 * @param a - sparse symmetric positive-definite matrix, only the lower triangle is read
+	 */
+	public IncompleteCholeskyPreconditioner(SparseMatrix a){
+		this(a, 0.);
+	}
+
+	/**
+	 * constructor, factor A + shift*I
+	 * @param a - sparse symmetric positive-definite matrix, only the lower triangle is read
+	 * @param shift - added to the diagonal
+	 */
+	public IncompleteCholeskyPreconditioner(SparseMatrix a, double shift){
+		if (a.rows() != a.columns())
+			throw new IllegalArgumentException("IncompleteCholeskyPreconditioner, accept square matrix only.");
+		n = a.rows();
+		t = new double[n];
+		extractLower(a.isColumnMajor() ? a.toCSR(): a, shift);
+		factor();
+	}
+
+	/**
+	 * copy the lower triangle of the CSR matrix a, with the diagonal (always stored) shifted
+	 */
+	private void extractLower(SparseMatrix a, double shift){
+		int[] ap = a.pointers(), ai = a.indices();
+		double[] av = a.values();
+		ptr = new int[n + 1];
+		int count = 0;
+		for (int i = 0; i < n; i++){
+			for (int k = ap[i]; k < ap[i + 1]; k++)
+				if (ai[k] < i)
+					count++;
+			count++;
+		}
+		idx = new int[count];
+		val = new double[count];
+		int p = 0;
+		for (int i = 0; i < n; i++){
+			ptr[i] = p;
+			double diag = 0.;
+			for (int k = ap[i]; k < ap[i + 1]; k++){
+				if (ai[k] < i){
+					idx[p] = ai[k];
+					val[p++] = av[k];
+				} else if (ai[k] == i)
+					diag = av[k];
+			}
+			idx[p] = i;
+			val[p++] = diag + shift;
+		}
+		ptr[n] = p;
+	}
+
+	/**
+	 * L(i,k) = (A(i,k) - sum_j L(i,j)*L(k,j)) / L(k,k), L(i,i) = sqrt(A(i,i) - sum_j L(i,j)^2), on the pattern
+	 */
+	private void factor(){
+		//position of column j in the current row, -1 if not in the pattern
+		int[] pos = new int[n];
+		for (int j = 0; j < n; j++)
+			pos[j] = -1;
+		for (int i = 0; i < n; i++){
+			int end = ptr[i + 1] - 1;
+			for (int p = ptr[i]; p <= end; p++)
+				pos[idx[p]] = p;
+			for (int p = ptr[i]; p < end; p++){
+				int k = idx[p];
+				double sum = val[p];
+				for (int q = ptr[k]; q < ptr[k + 1] - 1; q++){
+					int j = pos[idx[q]];
+					if (j >= 0)
+						sum -= val[j] * val[q];
+				}
+				val[p] = sum / val[ptr[k + 1] - 1];
+			}
+			double sum = val[end];
+			for (int p = ptr[i]; p < end; p++)
+				sum -= val[p] * val[p];
+			if (sum <= 0.)
+				throw new ArithmeticException("IncompleteCholeskyPreconditioner, non-positive pivot at row " + i +
+						", try a diagonal shift.");
+			val[end] = Math.sqrt(sum);
+			for (int p = ptr[i]; p <= end; p++)
+				pos[idx[p]] = -1;
+		}
+	}
+
+	@Override
+	public void apply(double[] r, double[] z) {
+		//L*t = r
+		for (int i = 0; i < n; i++){
+			int end = ptr[i + 1] - 1;
+			double sum = r[i];
+			for (int p = ptr[i]; p < end; p++)
+				sum -= val[p] * t[idx[p]];
+			t[i] = sum / val[end];
+		}
+		//L'*z = t, by the rows of L
+		System.arraycopy(t, 0, z, 0, n);
+		for (int i = n - 1; i >= 0; i--){
+			int end = ptr[i + 1] - 1;
+			double zi = z[i] /= val[end];
+			if (zi != 0.)
+				for (int p = ptr[i]; p < end; p++)
+					z[idx[p]] -= val[p] * zi;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * JacobiPreconditioner.java
+ */
+package artiano.math.algebra.iterative;
+
+import artiano.core.structure.Matrix;
+import artiano.core.structure.SparseMatrix;
+
+/**
+ * <p>Description: Jacobi (diagonal) preconditioner, M = diag(A).</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class JacobiPreconditioner implements Preconditioner {
+	
+	//inversion of the diagonal
+	protected double[] inv = null;
+	
+	/**
+	 * constructor
+	 * @param diagonal - diagonal of A, all the elements must be non-zero
+	 */
+	public JacobiPreconditioner(double[] diagonal){
+		inv = new double[diagonal.length];
+		for (int i = 0; i < diagonal.length; i++){
+			if (diagonal[i] == 0.)
+				throw new IllegalArgumentException("JacobiPreconditioner, zero on the diagonal.");
+			inv[i] = 1. / diagonal[i];
+		}
+	}
+	
+	/**
+	 * constructor
+	 * @param a - square matrix A
+	 */
+	public JacobiPreconditioner(Matrix a){
+		this(diagonal(a));
+	}
+	
+	/**
+	 * constructor
+	 * @param a - square sparse matrix A
+	 */
+	public JacobiPreconditioner(SparseMatrix a){
+		this(diagonal(a));
+	}
+	
+	private static double[] diagonal(Matrix a){
+		if (a.rows() != a.columns())
+			throw new IllegalArgumentException("JacobiPreconditioner, accept square matrix only.");
+		double[] d = new double[a.rows()];
+		for (int i = 0; i < d.length; i++)
+			d[i] = a.at(i, i);
+		return d;
+	}
+	
+	private static double[] diagonal(SparseMatrix a){
+		if (a.rows() != a.columns())
+			throw new IllegalArgumentException("JacobiPreconditioner, accept square matrix only.");
+		double[] d = new double[a.rows()];
+		for (int i = 0; i < d.length; i++)
+			d[i] = a.at(i, i);
+		return d;
+	}
+	
+	@Override
+	public void apply(double[] r, double[] z) {
+		for (int i = 0; i < inv.length; i++)
+			z[i] = inv[i] * r[i];
+	}
+}
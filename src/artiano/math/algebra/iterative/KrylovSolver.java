@@ -0,0 +1,178 @@
+/**
+ * KrylovSolver.java
+ */
+package artiano.math.algebra.iterative;
+
+import artiano.core.operation.OptionsHandler;
+import artiano.core.structure.Matrix;
+import artiano.core.structure.Option;
+import artiano.core.structure.Options;
+
+/**
+ * <p>Description: base of the iterative (Krylov subspace) solvers of A*x=b. The operator is given as a
+ * {@link LinearOperator}, so only products A*v are needed. The iterations stop when the relative residual
+ * |b-A*x|/|b| is not greater than the tolerance, or the maximum number of iterations is reached; both are
+ * controlled by {@link #applyOptions(Options)} or the setters.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public abstract class KrylovSolver implements OptionsHandler {
+	/** default relative tolerance */
+	public static final double DEFAULT_TOLERANCE = 1e-10;
+	/** default maximum iterations */
+	public static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+	protected static final String KEY_TOLERANCE = "tolerance";
+	protected static final String KEY_MAX_ITERATIONS = "max iterations";
+
+	protected double tolerance = DEFAULT_TOLERANCE;
+	protected int maxIterations = DEFAULT_MAX_ITERATIONS;
+	protected Preconditioner preconditioner = null;
+	//statistics of the last solve
+	protected int iterations = 0;
+	protected double residual = 0.;
+	protected boolean converged = false;
+
+	/**
+	 * set the relative tolerance of the residual
+	 * @param tolerance - positive tolerance
+	 */
+	public void setTolerance(double tolerance){
+		if (tolerance <= 0.)
+			throw new IllegalArgumentException("KrylovSolver, tolerance must be positive.");
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * set the maximum number of iterations
+	 * @param maxIterations - positive integer
+	 */
+	public void setMaxIterations(int maxIterations){
+		if (maxIterations <= 0)
+			throw new IllegalArgumentException("KrylovSolver, max iterations must be positive.");
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * set the preconditioner
+	 * @param preconditioner - preconditioner, null for none
+	 */
+	public void setPreconditioner(Preconditioner preconditioner){
+		this.preconditioner = preconditioner;
+	}
+
+	/**
+	 * get the number of iterations of the last solve
+	 * @return - iterations
+	 */
+	public int iterations(){
+		return iterations;
+	}
+
+	/**
+	 * get the relative residual |b-A*x|/|b| of the last solve
+	 * @return - relative residual
+	 */
+	public double residual(){
+		return residual;
+	}
+
+	/**
+	 * whether the last solve converged to the tolerance
+	 * @return - true if converged
+	 */
+	public boolean isConverged(){
+		return converged;
+	}
+
+	/**
+	 * solve A*x=b
+	 * @param a - square operator
+	 * @param b - right-hand side, will not be changed
+	 * @param x - initial guess, replaced with the solution
+	 * @return - true if converged
+	 */
+	public abstract boolean solve(LinearOperator a, double[] b, double[] x);
+
+	/**
+	 * solve A*X=B column by column, starting from zero
+	 * @param a - square operator
+	 * @param b - right-hand sides, n*k matrix
+	 * @return - solution, n*k matrix
+	 */
+	public Matrix solve(LinearOperator a, Matrix b){
+		int n = a.rows();
+		if (a.columns() != n || b.rows() != n)
+			throw new IllegalArgumentException("KrylovSolver solve, size not match.");
+		Matrix x = new Matrix(n, b.columns());
+		double[] bj = new double[n], xj = new double[n];
+		for (int j = 0; j < b.columns(); j++){
+			for (int i = 0; i < n; i++){
+				bj[i] = b.at(i, j);
+				xj[i] = 0.;
+			}
+			solve(a, bj, xj);
+			for (int i = 0; i < n; i++)
+				x.set(i, j, xj[i]);
+		}
+		return x;
+	}
+
+	/**
+	 * check the sizes of a solve
+	 */
+	protected void check(LinearOperator a, double[] b, double[] x){
+		int n = a.rows();
+		if (a.columns() != n || b.length != n || x.length != n)
+			throw new IllegalArgumentException(getClass().getSimpleName() + " solve, size not match.");
+	}
+
+	/**
+	 * z = M^(-1)*r, or a copy of r if no preconditioner
+	 */
+	protected void precondition(double[] r, double[] z){
+		if (preconditioner != null)
+			preconditioner.apply(r, z);
+		else
+			System.arraycopy(r, 0, z, 0, r.length);
+	}
+
+	protected static double dot(double[] x, double[] y){
+		double s = 0.;
+		for (int i = 0; i < x.length; i++)
+			s += x[i] * y[i];
+		return s;
+	}
+
+	protected static double norm(double[] x){
+		return Math.sqrt(dot(x, x));
+	}
+
+	private Options options = null;
+
+	@Override
+	public Options supportedOptions() {
+		if (null != options)
+			return options;
+		options = new Options();
+		Option option = new Option(KEY_TOLERANCE, "相对残差的容许误差", Double.class, DEFAULT_TOLERANCE, false);
+		options.put(KEY_TOLERANCE, option);
+		option = new Option(KEY_MAX_ITERATIONS, "最大迭代次数", Integer.class, DEFAULT_MAX_ITERATIONS, false);
+		options.put(KEY_MAX_ITERATIONS, option);
+		return options;
+	}
+
+	@Override
+	public boolean applyOptions(Options options) {
+		double tol = ((Number) options.get(KEY_TOLERANCE).value()).doubleValue();
+		int iters = ((Number) options.get(KEY_MAX_ITERATIONS).value()).intValue();
+		if (tol <= 0. || iters <= 0)
+			return false;
+		tolerance = tol;
+		maxIterations = iters;
+		return true;
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ * LinearOperator.java
+ */
+package artiano.math.algebra.iterative;
+
+/**
+ * <p>Description: a linear operator y = A*x given by its action on a vector only, so the iterative solvers
+ * work with dense matrices ({@link MatrixOperator}), sparse matrices ({@link SparseOperator}) or implicit
+ * products like X'*X ({@link GramOperator}) without materializing A.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public interface LinearOperator {
+	
+	/**
+	 * number of rows of A, the length of y
+	 * @return - rows
+	 */
+	public int rows();
+	
+	/**
+	 * number of columns of A, the length of x
+	 * @return - columns
+	 */
+	public int columns();
+	
+	/**
+	 * compute y = A*x
+	 * @param x - input vector, columns() elements, will not be changed
+	 * @param y - output vector, rows() elements, must not be x
+	 */
+	public void apply(double[] x, double[] y);
+}
@@ -0,0 +1,70 @@
+/**
+ * MatrixOperator.java
+ */
+package artiano.math.algebra.iterative;
+
+import artiano.core.operation.MatrixOpt;
+import artiano.core.structure.BufferMatrix;
+import artiano.core.structure.Matrix;
+
+/**
+ * <p>Description: linear operator of a dense matrix A (or its transpose A'), the products are computed
+ * on the raw array of the matrix.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class MatrixOperator implements LinearOperator {
+	
+	protected Matrix a = null;
+	protected boolean transpose = false;
+	
+	/**
+	 * constructor
+	 * @param a - the matrix A, not copied
+	 */
+	public MatrixOperator(Matrix a){
+		this(a, false);
+	}
+	
+	/**
+	 * constructor
+	 * @param a - the matrix A, not copied
+	 * @param transpose - if true, the operator is A'
+	 */
+	public MatrixOperator(Matrix a, boolean transpose){
+		//data not stored on heap, work on a copy
+		this.a = a instanceof BufferMatrix ? a.clone(): a;
+		this.transpose = transpose;
+	}
+	
+	@Override
+	public int rows() {
+		return transpose ? a.columns(): a.rows();
+	}
+	
+	@Override
+	public int columns() {
+		return transpose ? a.rows(): a.columns();
+	}
+	
+	@Override
+	public void apply(double[] x, double[] y) {
+		double[] d = a.data();
+		int off = a.offset(), ld = a.dataColumns();
+		int m = a.rows(), n = a.columns();
+		if (transpose){
+			//y = sum x[i]*a(i,:)
+			for (int j = 0; j < n; j++)
+				y[j] = 0.;
+			for (int i = 0; i < m; i++)
+				if (x[i] != 0.)
+					MatrixOpt.axpy(n, x[i], d, off + i * ld, 1, y, 0, 1);
+		} else {
+			for (int i = 0; i < m; i++)
+				y[i] = MatrixOpt.dot(n, d, off + i * ld, 1, x, 0, 1);
+		}
+	}
+}
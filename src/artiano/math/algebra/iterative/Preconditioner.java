@@ -0,0 +1,23 @@
+/**
+ * Preconditioner.java
+ */
+package artiano.math.algebra.iterative;
+
+/**
+ * <p>Description: a preconditioner M ~ A of an iterative solver, given by the action of its inversion
+ * z = M^(-1)*r, which should be much cheaper than solving A itself.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public interface Preconditioner {
+	
+	/**
+	 * compute z = M^(-1)*r
+	 * @param r - input vector, will not be changed
+	 * @param z - output vector, must not be r
+	 */
+	public void apply(double[] r, double[] z);
+}
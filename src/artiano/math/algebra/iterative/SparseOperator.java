@@ -0,0 +1,62 @@
+/**
+ * SparseOperator.java
+ */
+package artiano.math.algebra.iterative;
+
+import artiano.core.structure.SparseMatrix;
+
+/**
+ * <p>Description: linear operator of a sparse matrix in CSR or CSC form, a product costs O(nonZeros()).
+ * The operator of A' is obtained by <code>new SparseOperator(a.t())</code> without any copy.</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public class SparseOperator implements LinearOperator {
+	
+	protected SparseMatrix a = null;
+	
+	/**
+	 * constructor
+	 * @param a - the sparse matrix A, not copied
+	 */
+	public SparseOperator(SparseMatrix a){
+		this.a = a;
+	}
+	
+	@Override
+	public int rows() {
+		return a.rows();
+	}
+	
+	@Override
+	public int columns() {
+		return a.columns();
+	}
+	
+	@Override
+	public void apply(double[] x, double[] y) {
+		int[] ptr = a.pointers(), idx = a.indices();
+		double[] val = a.values();
+		if (a.isColumnMajor()){
+			//scatter the columns
+			for (int i = 0; i < a.rows(); i++)
+				y[i] = 0.;
+			for (int j = 0; j < a.columns(); j++){
+				double xj = x[j];
+				if (xj != 0.)
+					for (int k = ptr[j]; k < ptr[j + 1]; k++)
+						y[idx[k]] += val[k] * xj;
+			}
+		} else {
+			for (int i = 0; i < a.rows(); i++){
+				double sum = 0.;
+				for (int k = ptr[i]; k < ptr[i + 1]; k++)
+					sum += val[k] * x[idx[k]];
+				y[i] = sum;
+			}
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ * BaseDistance.java
+ */
+package artiano.math.distance;
+
+import artiano.core.structure.BufferMatrix;
+import artiano.core.structure.Matrix;
+import artiano.core.structure.SparseMatrix;
+
+/**
+ * <p>按元素累加的距离的基类。子类只需给出如何把对应元素的差累加到部分距离上，以及如何由部分距离得到距离，
+ * 稠密、稀疏、一对多与有界的计算都由本类完成。给定两个向量a、b，距离计算为：
+ * <pre><code>
+ * d(a,b) = finish(accumulate(...accumulate(0, a(0)-b(0))..., a(n-1)-b(n-1)))
+ * </code></pre></p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public abstract class BaseDistance implements Distance {
+	/** 有界计算中每计算这么多个元素比较一次部分距离 */
+	static final int CHECK_BLOCK = 8;
+
+	/**
+	 * 将一个元素的差t累加到部分距离d上
+	 * @param d 部分距离
+	 * @param t 对应元素的差
+	 * @return 新的部分距离
+	 */
+	protected abstract double accumulate(double d, double t);
+
+	/**
+	 * 将数组a中从aOffset开始的length个元素与数组b中从bOffset开始的length个元素的差依次累加到部分距离d上
+	 * @param d 部分距离
+	 * @param a
+	 * @param aOffset a的起始下标
+	 * @param b
+	 * @param bOffset b的起始下标
+	 * @param length 元素的个数
+	 * @return 新的部分距离
+	 */
+	protected abstract double accumulate(double d, double[] a, int aOffset, double[] b, int bOffset, int length);
+
+	/**
+	 * 由部分距离得到距离，默认即为部分距离
+	 * @param d 部分距离
+	 * @return 距离
+	 */
+	protected double finish(double d) {
+		return d;
+	}
+
+	/**
+	 * 将距离的上界换算为部分距离的上界，默认即为距离的上界
+	 * @param bound 距离的上界
+	 * @return 部分距离的上界
+	 */
+	protected double limit(double bound) {
+		return bound;
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.Distance#calculate(artiano.core.structure.Matrix, artiano.core.structure.Matrix)
+	 */
+	@Override
+	public double calculate(Matrix a, Matrix b) {
+		check(a, b);
+		a = contiguous(a);
+		b = contiguous(b);
+		return calculate(a.data(), a.offset(), b.data(), b.offset(), a.size());
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.Distance#calculate(artiano.core.structure.Matrix, artiano.core.structure.Matrix, double)
+	 */
+	@Override
+	public double calculate(Matrix a, Matrix b, double bound) {
+		check(a, b);
+		a = contiguous(a);
+		b = contiguous(b);
+		return calculate(a.data(), a.offset(), b.data(), b.offset(), a.size(), bound);
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.Distance#calculate(artiano.core.structure.SparseMatrix, artiano.core.structure.SparseMatrix)
+	 */
+	@Override
+	public double calculate(SparseMatrix a, SparseMatrix b) {
+		if (a.rows() != 1 || b.rows() != 1)
+			throw new UnsupportedOperationException("Distance calculate, accept row vector only.");
+		if (a.columns() != b.columns())
+			throw new UnsupportedOperationException("Distance calculate, type not same.");
+		SparseMatrix x = a.toCSR(), y = b.toCSR();
+		int[] xi = x.indices(), yi = y.indices();
+		double[] xv = x.values(), yv = y.values();
+		int p = x.rowStart(0), pe = x.rowEnd(0);
+		int q = y.rowStart(0), qe = y.rowEnd(0);
+		double d = 0.;
+		//walk the non-zeros of both vectors in the order of column index
+		while (p < pe || q < qe) {
+			double t;
+			if (q >= qe || (p < pe && xi[p] < yi[q]))
+				t = xv[p++];
+			else if (p >= pe || yi[q] < xi[p])
+				t = -yv[q++];
+			else
+				t = xv[p++] - yv[q++];
+			d = accumulate(d, t);
+		}
+		return finish(d);
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.Distance#calculate(double[], int, double[], int, int)
+	 */
+	@Override
+	public double calculate(double[] a, int aOffset, double[] b, int bOffset, int length) {
+		return finish(accumulate(0., a, aOffset, b, bOffset, length));
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.Distance#calculate(double[], int, double[], int, int, int, int, double[], int)
+	 */
+	@Override
+	public void calculate(double[] x, int xOffset, double[] data, int offset, int stride, int count,
+			int length, double[] y, int yOffset) {
+		for (int j = 0; j < count; j++)
+			y[yOffset + j] = calculate(x, xOffset, data, offset + j * stride, length);
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.Distance#calculate(double[], int, double[], int, int, double)
+	 */
+	@Override
+	public double calculate(double[] a, int aOffset, double[] b, int bOffset, int length, double bound) {
+		double limit = limit(bound);
+		double d = 0.;
+		for (int i = 0; i < length; i += CHECK_BLOCK){
+			//compare once per block to keep the inner loop free of branches
+			d = accumulate(d, a, aOffset + i, b, bOffset + i, Math.min(CHECK_BLOCK, length - i));
+			if (d > limit)
+				break;
+		}
+		return finish(d);
+	}
+
+	/**
+	 * 检查a、b是否为同型的向量
+	 */
+	private static void check(Matrix a, Matrix b) {
+		if (!a.isVector() || !b.isVector())
+			throw new UnsupportedOperationException("Distance calculate, accept vector only.");
+		if (!a.sameType(b))
+			throw new UnsupportedOperationException("Distance calculate, type not same.");
+	}
+
+	/**
+	 * 堆上的行向量是连续存放的，直接返回，其它向量返回拷贝
+	 */
+	private static Matrix contiguous(Matrix a) {
+		return a instanceof BufferMatrix || !a.isRowVector() ? a.clone() : a;
+	}
+
+}
@@ -16,24 +16,38 @@ import artiano.core.structure.Matrix;
  * @author (latest modification by Nano.Michael)
  * @since 1.0.0
  */
-public class ChebyshevDistance implements Distance{
+public class ChebyshevDistance extends BaseDistance {
 
 	/* (non-Javadoc)
-	 * @see artiano.math.distance.Distance#calculate(artiano.core.structure.Matrix, artiano.core.structure.Matrix)
+	 * @see artiano.math.distance.BaseDistance#accumulate(double, double)
 	 */
 	@Override
-	public double calculate(Matrix a, Matrix b) {
-		if (!a.isVector() || !b.isVector())
-			throw new UnsupportedOperationException("Distance calculate, accept vector only.");
-		if (!a.sameType(b))
-			throw new UnsupportedOperationException("Distance calculate, type not same.");
-		double d = Math.abs(a.at(0)-b.at(0));
-		for (int i=0; i<a.size();i++){
-			double t = Math.abs(a.at(i)-b.at(i));
-			if (d<t)
+	protected double accumulate(double d, double t) {
+		t = Math.abs(t);
+		return d < t ? t: d;
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.BaseDistance#accumulate(double, double[], int, double[], int, int)
+	 */
+	@Override
+	protected double accumulate(double d, double[] a, int aOffset, double[] b, int bOffset, int length) {
+		for (int i = 0; i < length; i++){
+			double t = Math.abs(a[aOffset + i] - b[bOffset + i]);
+			if (d < t)
 				d = t;
 		}
 		return d;
 	}
 
+	/**
+	 * 批量计算A的每一行与B的每一行之间的切比雪夫距离，见{@link PairwiseDistance}
+	 * @param a n*d矩阵
+	 * @param b m*d矩阵
+	 * @return n*m距离矩阵
+	 */
+	public Matrix pairwise(Matrix a, Matrix b) {
+		return PairwiseDistance.chebyshev(a, b);
+	}
+
 }
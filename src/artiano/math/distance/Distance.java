@@ -4,6 +4,7 @@
 package artiano.math.distance;
 
 import artiano.core.structure.Matrix;
+import artiano.core.structure.SparseMatrix;
 
 /**
  * <p>表示距离的接口。</p>
@@ -21,4 +22,62 @@ public interface Distance {
 	 * @return 距离
 	 */
 	public double calculate(Matrix a, Matrix b);
+	
+	/**
+	 * 计算给定两个向量a、b之间的有界距离，见{@link #calculate(double[], int, double[], int, int, double)}
+	 * @param a 
+	 * @param b
+	 * @param bound 上界，通常为当前最近的距离
+	 * @return 不超过bound时为距离，否则为大于bound的值
+	 */
+	public double calculate(Matrix a, Matrix b, double bound);
+	
+	/**
+	 * 计算给定两个稀疏行向量a、b之间的距离，计算量与非零元素的个数成正比
+	 * @param a 
+	 * @param b
+	 * @return 距离
+	 */
+	public double calculate(SparseMatrix a, SparseMatrix b);
+	
+	/**
+	 * 计算数组a中从aOffset开始的length个元素与数组b中从bOffset开始的length个元素构成的两个向量之间的距离，
+	 * 不创建任何对象
+	 * @param a 
+	 * @param aOffset a的起始下标
+	 * @param b
+	 * @param bOffset b的起始下标
+	 * @param length 向量的长度
+	 * @return 距离
+	 */
+	public double calculate(double[] a, int aOffset, double[] b, int bOffset, int length);
+	
+	/**
+	 * 计算向量x与count个向量之间的距离，第j个向量从data[offset+j*stride]开始，距离写入y[yOffset+j]。
+	 * 按行存放的矩阵的每一行的stride为{@link Matrix#dataColumns()}。
+	 * @param x 
+	 * @param xOffset x的起始下标
+	 * @param data 存放count个向量的数组
+	 * @param offset 第一个向量的起始下标
+	 * @param stride 相邻两个向量起始下标的间隔
+	 * @param count 向量的个数
+	 * @param length 向量的长度
+	 * @param y 存放距离的数组
+	 * @param yOffset y的起始下标
+	 */
+	public void calculate(double[] x, int xOffset, double[] data, int offset, int stride, int count, 
+			int length, double[] y, int yOffset);
+	
+	/**
+	 * 有界的距离计算，用于最近邻搜索：部分距离一旦超过bound就提前返回，此时返回值大于bound，但不一定等于
+	 * 真实的距离；否则返回真实的距离。
+	 * @param a 
+	 * @param aOffset a的起始下标
+	 * @param b
+	 * @param bOffset b的起始下标
+	 * @param length 向量的长度
+	 * @param bound 上界，通常为当前最近的距离
+	 * @return 不超过bound时为距离，否则为大于bound的值
+	 */
+	public double calculate(double[] a, int aOffset, double[] b, int bOffset, int length, double bound);
 }
@@ -13,24 +13,52 @@ import artiano.core.structure.Matrix;
  * @author (latest modification by Nano.Michael)
  * @since 1.0.0
  */
-public class EuclideanDistance implements Distance {
+public class EuclideanDistance extends BaseDistance {
 
 	/* (non-Javadoc)
-	 * @see artiano.math.distance.Distance#calculate(artiano.core.structure.Matrix, artiano.core.structure.Matrix)
+	 * @see artiano.math.distance.BaseDistance#accumulate(double, double)
 	 */
 	@Override
-	public double calculate(Matrix a, Matrix b) {
-		if (!a.isVector() || !b.isVector())
-			throw new UnsupportedOperationException("Distance calculate, accept vector only.");
-		if (!a.sameType(b))
-			throw new UnsupportedOperationException("Distance calculate, type not same.");
-		double d = 0.;
-		Matrix x = a.minus(b);
-		if (x.isRowVector())
-			d = x.multiply(x.t()).sqrt().data()[0];
-		else
-			d = x.t().multiply(x).sqrt().data()[0];
+	protected double accumulate(double d, double t) {
+		return d + t * t;
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.BaseDistance#accumulate(double, double[], int, double[], int, int)
+	 */
+	@Override
+	protected double accumulate(double d, double[] a, int aOffset, double[] b, int bOffset, int length) {
+		for (int i = 0; i < length; i++){
+			double t = a[aOffset + i] - b[bOffset + i];
+			d += t * t;
+		}
 		return d;
 	}
 
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.BaseDistance#finish(double)
+	 */
+	@Override
+	protected double finish(double d) {
+		return Math.sqrt(d);
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.BaseDistance#limit(double)
+	 */
+	@Override
+	protected double limit(double bound) {
+		return bound < 0. ? -1.: bound * bound;
+	}
+
+	/**
+	 * 批量计算A的每一行与B的每一行之间的欧几里得距离，见{@link PairwiseDistance}
+	 * @param a n*d矩阵
+	 * @param b m*d矩阵
+	 * @return n*m距离矩阵
+	 */
+	public Matrix pairwise(Matrix a, Matrix b) {
+		return PairwiseDistance.euclidean(a, b);
+	}
+
 }
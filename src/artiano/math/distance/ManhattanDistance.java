@@ -13,22 +13,34 @@ import artiano.core.structure.Matrix;
  * @author (latest modification by Nano.Michael)
  * @since 1.0.0
  */
-public class ManhattanDistance implements Distance {
+public class ManhattanDistance extends BaseDistance {
 
 	/* (non-Javadoc)
-	 * @see artiano.math.distance.Distance#calculate(artiano.core.structure.Matrix, artiano.core.structure.Matrix)
+	 * @see artiano.math.distance.BaseDistance#accumulate(double, double)
 	 */
 	@Override
-	public double calculate(Matrix a, Matrix b) {
-		if (!a.isVector() || !b.isVector())
-			throw new UnsupportedOperationException("Distance calculate, accept vector only.");
-		if (!a.sameType(b))
-			throw new UnsupportedOperationException("Distance calculate, type not same.");
-		double d = 0.;
-		Matrix c = a.minus(b).abs();
-		for (int i=0; i<c.size(); i++)
-			d += c.at(i);
+	protected double accumulate(double d, double t) {
+		return d + Math.abs(t);
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.BaseDistance#accumulate(double, double[], int, double[], int, int)
+	 */
+	@Override
+	protected double accumulate(double d, double[] a, int aOffset, double[] b, int bOffset, int length) {
+		for (int i = 0; i < length; i++)
+			d += Math.abs(a[aOffset + i] - b[bOffset + i]);
 		return d;
 	}
 
+	/**
+	 * 批量计算A的每一行与B的每一行之间的曼哈顿距离，见{@link PairwiseDistance}
+	 * @param a n*d矩阵
+	 * @param b m*d矩阵
+	 * @return n*m距离矩阵
+	 */
+	public Matrix pairwise(Matrix a, Matrix b) {
+		return PairwiseDistance.manhattan(a, b);
+	}
+
 }
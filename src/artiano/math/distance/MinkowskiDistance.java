@@ -3,8 +3,6 @@
  */
 package artiano.math.distance;
 
-import artiano.core.structure.Matrix;
-
 /**
  * <p>闵可夫斯基距离</p>
  * @author Nano.Michael
@@ -13,8 +11,7 @@ import artiano.core.structure.Matrix;
  * @author (latest modification by Nano.Michael)
  * @since 1.0.0
  */
-public class MinkowskiDistance implements Distance {
-
+public class MinkowskiDistance extends BaseDistance {
 	private int power = 2;
 	
 	/**
@@ -41,11 +38,37 @@ public class MinkowskiDistance implements Distance {
 	}
 
 	/* (non-Javadoc)
-	 * @see artiano.math.distance.Distance#calculate(artiano.core.structure.Matrix, artiano.core.structure.Matrix)
+	 * @see artiano.math.distance.BaseDistance#accumulate(double, double)
 	 */
 	@Override
-	public double calculate(Matrix a, Matrix b) {
-		return 0;
+	protected double accumulate(double d, double t) {
+		return d + Math.pow(Math.abs(t), power);
 	}
-	
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.BaseDistance#accumulate(double, double[], int, double[], int, int)
+	 */
+	@Override
+	protected double accumulate(double d, double[] a, int aOffset, double[] b, int bOffset, int length) {
+		for (int i = 0; i < length; i++)
+			d += Math.pow(Math.abs(a[aOffset + i] - b[bOffset + i]), power);
+		return d;
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.BaseDistance#finish(double)
+	 */
+	@Override
+	protected double finish(double d) {
+		return Math.pow(d, 1. / power);
+	}
+
+	/* (non-Javadoc)
+	 * @see artiano.math.distance.BaseDistance#limit(double)
+	 */
+	@Override
+	protected double limit(double bound) {
+		return bound < 0. ? -1.: Math.pow(bound, power);
+	}
+
 }
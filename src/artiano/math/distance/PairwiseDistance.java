@@ -0,0 +1,345 @@
+/**
+ * PairwiseDistance.java
+ */
+package artiano.math.distance;
+
+import java.util.concurrent.RecursiveAction;
+
+import artiano.core.structure.BufferMatrix;
+import artiano.core.structure.Gemm;
+import artiano.core.structure.Matrix;
+
+/**
+ * <p>批量计算两组向量之间的距离。A为n*d矩阵、B为m*d矩阵，每行为一个向量，结果D为n*m矩阵，
+ * D(i,j)为A的第i行与B的第j行之间的距离。</p>
+ * <p>欧几里得距离按|a-b|^2 = |a|^2 + |b|^2 - 2*a*b'分解，主要的计算量A*B'由分块乘法{@link Gemm}完成；
+ * 曼哈顿距离与切比雪夫距离使用分块的直接计算，B的一块驻留在缓存中，同时与A的4行计算。</p>
+ * <p>{@link #compute(int, Matrix, Matrix, BlockHandler)}按分块计算结果并逐块交给{@link BlockHandler}处理，
+ * 不需要保存完整的n*m矩阵：</p>
+ * <pre><code>
+ * PairwiseDistance.compute(PairwiseDistance.EUCLIDEAN, a, b, new PairwiseDistance.BlockHandler() {
+ *     public void handle(int row, int column, Matrix block) {
+ *         //D(row+i, column+j) = block.at(i, j)
+ *     }
+ * });
+ * </code></pre>
+ * <p><b><i>NOTICE:</i></b> 分解形式的欧几里得距离在两个向量非常接近时有舍入误差，负的结果被截断为0。</p>
+ * @author Nano.Michael
+ * @version 1.0.0
+ * @date 2026-10-17
+ * @author (latest modification by Nano.Michael)
+ * @since 1.0.0
+ */
+public final class PairwiseDistance {
+	/** 欧几里得距离的平方 */
+	public static final int SQUARED_EUCLIDEAN = 0;
+	/** 欧几里得距离 */
+	public static final int EUCLIDEAN = 1;
+	/** 曼哈顿距离 */
+	public static final int MANHATTAN = 2;
+	/** 切比雪夫距离 */
+	public static final int CHEBYSHEV = 3;
+
+	/** 流式计算时分块的行数 */
+	static final int TILE_ROWS = 256;
+	/** 流式计算时分块的列数 */
+	static final int TILE_COLUMNS = 1024;
+	/** 直接计算时驻留在缓存中的B的元素个数 */
+	static final int CACHE_ELEMENTS = 1 << 15;
+	/** 并行计算的最小运算量 */
+	static final long PARALLEL_SIZE = 1L << 18;
+
+	/**
+	 * 分块处理器
+	 */
+	public interface BlockHandler {
+		/**
+		 * 处理结果的一个分块
+		 * @param row 分块第一行在结果中的行号
+		 * @param column 分块第一列在结果中的列号
+		 * @param block 分块，D(row+i, column+j) = block.at(i, j)；分块的数据在处理下一块时被重用，需要保留时应拷贝
+		 */
+		void handle(int row, int column, Matrix block);
+	}
+
+	private PairwiseDistance(){ }
+
+	/**
+	 * 计算A的每一行与B的每一行之间的欧几里得距离的平方
+	 * @param a n*d矩阵
+	 * @param b m*d矩阵
+	 * @return n*m距离矩阵
+	 */
+	public static Matrix squaredEuclidean(Matrix a, Matrix b){
+		return compute(SQUARED_EUCLIDEAN, a, b);
+	}
+
+	/**
+	 * 计算A的每一行与B的每一行之间的欧几里得距离
+	 * @param a n*d矩阵
+	 * @param b m*d矩阵
+	 * @return n*m距离矩阵
+	 */
+	public static Matrix euclidean(Matrix a, Matrix b){
+		return compute(EUCLIDEAN, a, b);
+	}
+
+	/**
+	 * 计算A的每一行与B的每一行之间的曼哈顿距离
+	 * @param a n*d矩阵
+	 * @param b m*d矩阵
+	 * @return n*m距离矩阵
+	 */
+	public static Matrix manhattan(Matrix a, Matrix b){
+		return compute(MANHATTAN, a, b);
+	}
+
+	/**
+	 * 计算A的每一行与B的每一行之间的切比雪夫距离
+	 * @param a n*d矩阵
+	 * @param b m*d矩阵
+	 * @return n*m距离矩阵
+	 */
+	public static Matrix chebyshev(Matrix a, Matrix b){
+		return compute(CHEBYSHEV, a, b);
+	}
+
+	/**
+	 * 计算A的每一行与B的每一行之间的距离
+	 * @param metric 距离，{@link #SQUARED_EUCLIDEAN}、{@link #EUCLIDEAN}、{@link #MANHATTAN}或{@link #CHEBYSHEV}
+	 * @param a n*d矩阵
+	 * @param b m*d矩阵
+	 * @return n*m距离矩阵
+	 */
+	public static Matrix compute(int metric, Matrix a, Matrix b){
+		check(metric, a, b);
+		a = heap(a);
+		b = heap(b);
+		int n = a.rows(), m = b.rows();
+		Matrix d = new Matrix(n, m);
+		if (metric == SQUARED_EUCLIDEAN || metric == EUCLIDEAN){
+			//Gemm is blocked and parallel by itself
+			double[] an = squaredNorms(a), bn = squaredNorms(b);
+			euclidean(metric, a, b, an, bn, 0, n, 0, m, d.data(), 0, m);
+			return d;
+		}
+		Task task = new Task(metric, a, b, 0, n, d.data());
+		if (Gemm.isParallel() && (long) n * m * a.columns() >= PARALLEL_SIZE &&
+				Runtime.getRuntime().availableProcessors() > 1)
+			Gemm.pool().invoke(task);
+		else
+			task.compute();
+		return d;
+	}
+
+	/**
+	 * 按分块计算A的每一行与B的每一行之间的距离，每一块计算完成后交给handler处理。分块按行优先的顺序处理，
+	 * 最多{@value #TILE_ROWS}*{@value #TILE_COLUMNS}，计算过程只使用一个分块大小的缓冲区。
+	 * @param metric 距离，{@link #SQUARED_EUCLIDEAN}、{@link #EUCLIDEAN}、{@link #MANHATTAN}或{@link #CHEBYSHEV}
+	 * @param a n*d矩阵
+	 * @param b m*d矩阵
+	 * @param handler 分块处理器
+	 */
+	public static void compute(int metric, Matrix a, Matrix b, BlockHandler handler){
+		check(metric, a, b);
+		if (handler == null)
+			throw new IllegalArgumentException("PairwiseDistance compute, handler is null.");
+		a = heap(a);
+		b = heap(b);
+		int n = a.rows(), m = b.rows();
+		boolean euclidean = metric == SQUARED_EUCLIDEAN || metric == EUCLIDEAN;
+		double[] an = euclidean ? squaredNorms(a): null;
+		double[] bn = euclidean ? squaredNorms(b): null;
+		double[] buffer = new double[Math.min(n, TILE_ROWS) * Math.min(m, TILE_COLUMNS)];
+		for (int i0 = 0; i0 < n; i0 += TILE_ROWS){
+			int i1 = Math.min(n, i0 + TILE_ROWS);
+			for (int j0 = 0; j0 < m; j0 += TILE_COLUMNS){
+				int j1 = Math.min(m, j0 + TILE_COLUMNS);
+				int ld = j1 - j0;
+				if (euclidean)
+					euclidean(metric, a, b, an, bn, i0, i1, j0, j1, buffer, 0, ld);
+				else
+					direct(metric, a, b, i0, i1, j0, j1, buffer, 0, ld);
+				handler.handle(i0, j0, new Matrix(i1 - i0, ld, buffer));
+			}
+		}
+	}
+
+	/**
+	 * 检查参数
+	 */
+	private static void check(int metric, Matrix a, Matrix b){
+		if (metric < SQUARED_EUCLIDEAN || metric > CHEBYSHEV)
+			throw new IllegalArgumentException("PairwiseDistance compute, unknown metric.");
+		if (a.columns() != b.columns())
+			throw new IllegalArgumentException("PairwiseDistance compute, columns of a and b not match.");
+	}
+
+	/**
+	 * 需要直接访问数组时，将不在堆中的矩阵拷贝到堆中
+	 */
+	private static Matrix heap(Matrix x){
+		return x instanceof BufferMatrix ? x.clone(): x;
+	}
+
+	/**
+	 * 计算每一行的模的平方
+	 */
+	private static double[] squaredNorms(Matrix x){
+		double[] xd = x.data();
+		int ld = x.dataColumns(), cols = x.columns();
+		double[] norms = new double[x.rows()];
+		for (int i = 0; i < norms.length; i++){
+			int p = x.offset() + i * ld;
+			double s = 0.;
+			for (int k = 0; k < cols; k++)
+				s += xd[p + k] * xd[p + k];
+			norms[i] = s;
+		}
+		return norms;
+	}
+
+	/**
+	 * 计算A的[i0, i1)行与B的[j0, j1)行之间的欧几里得距离（的平方），y(i-i0, j-j0) = |a_i|^2 + |b_j|^2 - 2*a_i*b_j'
+	 */
+	private static void euclidean(int metric, Matrix a, Matrix b, double[] an, double[] bn,
+			int i0, int i1, int j0, int j1, double[] y, int yOff, int ldy){
+		int r = i1 - i0, c = j1 - j0;
+		int lda = a.dataColumns(), ldb = b.dataColumns();
+		Gemm.gemm(false, true, r, c, a.columns(), -2., a.data(), a.offset() + i0 * lda, lda,
+				b.data(), b.offset() + j0 * ldb, ldb, 0., y, yOff, ldy);
+		boolean sqrt = metric == EUCLIDEAN;
+		for (int i = 0; i < r; i++){
+			int p = yOff + i * ldy;
+			double s = an[i0 + i];
+			for (int j = 0; j < c; j++){
+				double t = y[p + j] + s + bn[j0 + j];
+				if (t < 0.)
+					t = 0.;
+				y[p + j] = sqrt ? Math.sqrt(t): t;
+			}
+		}
+	}
+
+	/**
+	 * 直接计算A的[i0, i1)行与B的[j0, j1)行之间的曼哈顿距离或切比雪夫距离。B按列块划分使一块驻留在缓存中，
+	 * 每次同时计算A的4行与B的一行，B的每个元素读取一次用于4个距离。
+	 */
+	private static void direct(int metric, Matrix a, Matrix b,
+			int i0, int i1, int j0, int j1, double[] y, int yOff, int ldy){
+		double[] ad = a.data(), bd = b.data();
+		int lda = a.dataColumns(), ldb = b.dataColumns(), dim = a.columns();
+		boolean max = metric == CHEBYSHEV;
+		int block = Math.max(1, CACHE_ELEMENTS / Math.max(1, dim));
+		for (int jb = j0; jb < j1; jb += block){
+			int je = Math.min(j1, jb + block);
+			int i = i0;
+			for (; i + 4 <= i1; i += 4){
+				int a0 = a.offset() + i * lda;
+				int p = yOff + (i - i0) * ldy - j0;
+				for (int j = jb; j < je; j++){
+					int q = b.offset() + j * ldb;
+					if (max)
+						chebyshev4(ad, a0, lda, bd, q, dim, y, p + j, ldy);
+					else
+						manhattan4(ad, a0, lda, bd, q, dim, y, p + j, ldy);
+				}
+			}
+			for (; i < i1; i++){
+				int a0 = a.offset() + i * lda;
+				int p = yOff + (i - i0) * ldy - j0;
+				for (int j = jb; j < je; j++){
+					int q = b.offset() + j * ldb;
+					double s = 0.;
+					for (int k = 0; k < dim; k++){
+						double t = Math.abs(ad[a0 + k] - bd[q + k]);
+						if (!max)
+							s += t;
+						else if (s < t)
+							s = t;
+					}
+					y[p + j] = s;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A的连续4行与B的一行之间的曼哈顿距离，结果写入y的一列中连续的4个元素
+	 */
+	private static void manhattan4(double[] a, int a0, int lda, double[] b, int q, int dim,
+			double[] y, int p, int ldy){
+		int a1 = a0 + lda, a2 = a1 + lda, a3 = a2 + lda;
+		double s0 = 0., s1 = 0., s2 = 0., s3 = 0.;
+		for (int k = 0; k < dim; k++){
+			double v = b[q + k];
+			s0 += Math.abs(a[a0 + k] - v);
+			s1 += Math.abs(a[a1 + k] - v);
+			s2 += Math.abs(a[a2 + k] - v);
+			s3 += Math.abs(a[a3 + k] - v);
+		}
+		y[p] = s0;
+		y[p + ldy] = s1;
+		y[p + 2 * ldy] = s2;
+		y[p + 3 * ldy] = s3;
+	}
+
+	/**
+	 * A的连续4行与B的一行之间的切比雪夫距离，结果写入y的一列中连续的4个元素
+	 */
+	private static void chebyshev4(double[] a, int a0, int lda, double[] b, int q, int dim,
+			double[] y, int p, int ldy){
+		int a1 = a0 + lda, a2 = a1 + lda, a3 = a2 + lda;
+		double s0 = 0., s1 = 0., s2 = 0., s3 = 0.;
+		for (int k = 0; k < dim; k++){
+			double v = b[q + k];
+			double t0 = Math.abs(a[a0 + k] - v), t1 = Math.abs(a[a1 + k] - v);
+			double t2 = Math.abs(a[a2 + k] - v), t3 = Math.abs(a[a3 + k] - v);
+			if (s0 < t0)
+				s0 = t0;
+			if (s1 < t1)
+				s1 = t1;
+			if (s2 < t2)
+				s2 = t2;
+			if (s3 < t3)
+				s3 = t3;
+		}
+		y[p] = s0;
+		y[p + ldy] = s1;
+		y[p + 2 * ldy] = s2;
+		y[p + 3 * ldy] = s3;
+	}
+
+	/**
+	 * 按行分块并行地直接计算完整的距离矩阵
+	 */
+	@SuppressWarnings("serial")
+	static final class Task extends RecursiveAction {
+		final int metric;
+		final Matrix a, b;
+		final int i0, i1;
+		final double[] y;
+
+		Task(int metric, Matrix a, Matrix b, int i0, int i1, double[] y){
+			this.metric = metric;
+			this.a = a;
+			this.b = b;
+			this.i0 = i0;
+			this.i1 = i1;
+			this.y = y;
+		}
+
+		@Override
+		protected void compute() {
+			int m = b.rows();
+			if (getPool() != null && i1 - i0 > TILE_ROWS / 4 &&
+					(long) (i1 - i0) * m * a.columns() >= PARALLEL_SIZE){
+				//keep the halves aligned to the 4-row kernel
+				int mid = i0 + (((i1 - i0) >> 1) & ~3);
+				invokeAll(new Task(metric, a, b, i0, mid, y), new Task(metric, a, b, mid, i1, y));
+				return;
+			}
+			direct(metric, a, b, i0, i1, 0, m, y, i0 * m, m);
+		}
+	}
+}
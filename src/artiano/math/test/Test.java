@@ -5,13 +5,32 @@ package artiano.math.test;
 
 import java.text.DecimalFormat;
 
+import artiano.core.structure.BufferMatrix;
 import artiano.core.structure.Matrix;
+import artiano.core.structure.Range;
+import artiano.core.structure.SparseMatrix;
 import artiano.math.algebra.CholeskyDecomposition;
 import artiano.math.algebra.EigenValueDecomposition;
 import artiano.math.algebra.GaussJordan;
 import artiano.math.algebra.LUDecomposition;
+import artiano.math.algebra.LanczosEigenDecomposition;
+import artiano.math.algebra.MixedPrecisionSolver;
 import artiano.math.algebra.QRDecomposition;
 import artiano.math.algebra.SingularValueDecomposition;
+import artiano.math.algebra.SymmetricEigenDecomposition;
+import artiano.math.algebra.iterative.ConjugateGradient;
+import artiano.math.algebra.iterative.GMRES;
+import artiano.math.algebra.iterative.IncompleteCholeskyPreconditioner;
+import artiano.math.algebra.iterative.JacobiPreconditioner;
+import artiano.math.algebra.iterative.KrylovSolver;
+import artiano.math.algebra.iterative.LinearOperator;
+import artiano.math.algebra.iterative.SparseOperator;
+import artiano.math.distance.ChebyshevDistance;
+import artiano.math.distance.Distance;
+import artiano.math.distance.EuclideanDistance;
+import artiano.math.distance.ManhattanDistance;
+import artiano.math.distance.MinkowskiDistance;
+import artiano.math.distance.PairwiseDistance;
 
 /**
  * <p>Description:</p>
@@ -71,6 +90,20 @@ public class Test {
 		Matrix s = d.solve(new Matrix(3,2, GB));
 		System.out.println("Solution:");
 		printMatrix(s);
+		System.out.println("Determinant: " + d.det());
+		//larger than a panel, blocked factorization and many right-hand sides
+		int n = 150;
+		Matrix a = new Matrix(n, n);
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				a.set(i, j, Math.sin(i * 7 + j * 3) + (i == j ? 2. : 0.));
+		Matrix x = new LUDecomposition(a, true).inverse();
+		Matrix identity = a.multiply(x);
+		double error = 0.;
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				error = Math.max(error, Math.abs(identity.at(i, j) - (i == j ? 1. : 0.)));
+		System.out.println("max |A*inv(A)-I| (" + n + "*" + n + "): " + error);
 		System.out.println("-------------------------------");
 	}
 	
@@ -105,6 +138,29 @@ public class Test {
 		}
 		else 
 			System.out.println("Matrix is not positive-definite.");
+		//(A+I)*x = b by refactoring with a diagonal shift, larger than a panel
+		int n = 100;
+		Matrix g = new Matrix(n + 3, n);
+		for (int i = 0; i < g.rows(); i++)
+			for (int j = 0; j < n; j++)
+				g.set(i, j, Math.sin(i * 5 + j * 11));
+		Matrix a = g.multiplyTranspose(Matrix.MULTIPLY_LEFT_TRANSPOSE);
+		Matrix b = new Matrix(n, 2);
+		for (int i = 0; i < n; i++){
+			b.set(i, 0, 1.);
+			b.set(i, 1, i);
+		}
+		CholeskyDecomposition shifted = new CholeskyDecomposition(a, true);
+		shifted.refactor(1.);
+		Matrix y = shifted.solve(b);
+		for (int i = 0; i < n; i++)
+			a.plus(i, i, 1.);
+		Matrix r = a.multiply(y);
+		double error = 0.;
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < 2; j++)
+				error = Math.max(error, Math.abs(r.at(i, j) - b.at(i, j)));
+		System.out.println("max |(A+I)*x-b| (" + n + "*" + n + "): " + error);
 		System.out.println("------------------------------------");
 	}
 	
@@ -130,6 +186,34 @@ public class Test {
 		System.out.println("----------------------------------------");
 	}
 	
+	public static void testTruncatedSVD(){
+		System.out.println("\n------Truncated Singular Value Decomposition------");
+		//rank 3 matrix
+		Matrix x = new Matrix(40, 3), y = new Matrix(3, 20);
+		for (int i = 0; i < x.rows(); i++)
+			for (int j = 0; j < x.columns(); j++)
+				x.set(i, j, Math.sin(i * (j + 1)) * (3 - j));
+		for (int i = 0; i < y.rows(); i++)
+			for (int j = 0; j < y.columns(); j++)
+				y.set(i, j, Math.cos(i + j * j));
+		Matrix a = x.multiply(y);
+		SingularValueDecomposition full = new SingularValueDecomposition(a, true, true);
+		full.sort();
+		SingularValueDecomposition svd = SingularValueDecomposition.truncated(a, 2);
+		System.out.println("W (full)");
+		printMatrix(full.W().at(new Range(0, 1), new Range(0, 4)));
+		System.out.println("W (truncated, k=2)");
+		printMatrix(svd.W());
+		//A*v = w*u
+		Matrix av = a.multiply(svd.V());
+		double error = 0.;
+		for (int i = 0; i < av.rows(); i++)
+			for (int j = 0; j < av.columns(); j++)
+				error = Math.max(error, Math.abs(av.at(i, j) - svd.W().at(0, j) * svd.U().at(i, j)));
+		System.out.println("max |A*V-U*W|: " + error);
+		System.out.println("----------------------------------------");
+	}
+	
 	public static void testQR(){
 		System.out.println("\n---------QR-decomposition----------------");
 		QRDecomposition qr = new QRDecomposition(new Matrix(3, 3, GA));
@@ -137,6 +221,82 @@ public class Test {
 		Matrix x = qr.solve(b);
 		System.out.println("\n----------solve----------------");
 		x.print();
+		//least squares of a tall system, blocked QR and TSQR
+		int m = 500, n = 40;
+		Matrix a = new Matrix(m, n), y = new Matrix(m, 1);
+		for (int i = 0; i < m; i++){
+			double sum = 0.;
+			for (int j = 0; j < n; j++){
+				a.set(i, j, Math.sin(i * (j + 1) * 0.37));
+				sum += a.at(i, j) * j;
+			}
+			y.set(i, 0, sum);
+		}
+		Matrix w1 = new QRDecomposition(a, true).solve(y, true);
+		Matrix w2 = QRDecomposition.leastSquares(a, y);
+		double error = 0.;
+		for (int j = 0; j < n; j++)
+			error = Math.max(error, Math.max(Math.abs(w1.at(j, 0) - j), Math.abs(w2.at(j, 0) - j)));
+		System.out.println("max |w-w*| (" + m + "*" + n + "): " + error);
+		//tall enough for the TSQR split and the merge of the R factors
+		m = 5 * QRDecomposition.TSQR_CHUNK_ROWS + 123;
+		a = new Matrix(m, n);
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				a.set(i, j, Math.sin(i * (j + 1) * 0.37) + (i % (j + 2) == 0 ? 1: 0));
+		//unblocked reference by modified Gram-Schmidt, positive diagonal
+		double[][] qs = new double[n][m];
+		Matrix rs = new Matrix(n, n);
+		for (int j = 0; j < n; j++){
+			for (int i = 0; i < m; i++)
+				qs[j][i] = a.at(i, j);
+			for (int p = 0; p < j; p++){
+				double s = 0.;
+				for (int i = 0; i < m; i++)
+					s += qs[p][i] * qs[j][i];
+				rs.set(p, j, s);
+				for (int i = 0; i < m; i++)
+					qs[j][i] -= s * qs[p][i];
+			}
+			double s = 0.;
+			for (int i = 0; i < m; i++)
+				s += qs[j][i] * qs[j][i];
+			s = Math.sqrt(s);
+			rs.set(j, j, s);
+			for (int i = 0; i < m; i++)
+				qs[j][i] /= s;
+		}
+		QRDecomposition blocked = new QRDecomposition(a, true);
+		Matrix[] rf = {blocked.R(), QRDecomposition.tsqr(a)};
+		String[] names = {"blocked", "TSQR"};
+		for (int t = 0; t < rf.length; t++){
+			Matrix r = rf[t];
+			//Q = A*R^(-1) row by row, so TSQR is checked without forming Q
+			Matrix q = t == 0 ? blocked.Q(): new Matrix(m, n);
+			if (t == 1)
+				for (int i = 0; i < m; i++)
+					for (int j = 0; j < n; j++){
+						double s = a.at(i, j);
+						for (int p = 0; p < j; p++)
+							s -= q.at(i, p) * r.at(p, j);
+						q.set(i, j, s / r.at(j, j));
+					}
+			Matrix qtq = q.t().multiply(q), prod = q.multiply(r);
+			double orth = 0., rec = 0., ref = 0.;
+			for (int i = 0; i < n; i++){
+				for (int j = 0; j < n; j++){
+					orth = Math.max(orth, Math.abs(qtq.at(i, j) - (i == j ? 1: 0)));
+					//R is unique up to the signs of its rows
+					double sign = Math.signum(r.at(i, i));
+					ref = Math.max(ref, Math.abs(sign * r.at(i, j) - rs.at(i, j)) / rs.at(0, 0));
+				}
+			}
+			for (int i = 0; i < m; i++)
+				for (int j = 0; j < n; j++)
+					rec = Math.max(rec, Math.abs(prod.at(i, j) - a.at(i, j)));
+			System.out.println(names[t] + " (" + m + "*" + n + "): |Q'Q-I| below 1e-10: " + (orth < 1e-10) + 
+					", |QR-A| below 1e-10: " + (rec < 1e-10) + ", R matches unblocked QR: " + (ref < 1e-10));
+		}
 	}
 	
 	public static void testED(){
@@ -151,12 +311,254 @@ public class Test {
 		w.print();
 	}
 	
+	public static void testSymmetricED(){
+		System.out.println("\n---------Symmetric eigen value decomposition--------");
+		double[] s = {14,10,-5,
+					10,9,1,
+					-5,1,14};
+		SymmetricEigenDecomposition ed = new SymmetricEigenDecomposition(new Matrix(3, 3, s));
+		ed.sort();
+		System.out.println("\nEigen-Vectors");
+		ed.V().print();
+		System.out.println("\nEigen-Values");
+		ed.W().print();
+		//the largest 2 by Lanczos, should equal to the first 2 above
+		LanczosEigenDecomposition lanczos = new LanczosEigenDecomposition(new Matrix(3, 3, s), 2);
+		System.out.println("\nLanczos Eigen-Values");
+		lanczos.W().print();
+		//A*V = V*diag(W)
+		Matrix v = ed.V(), w = ed.W();
+		Matrix av = new Matrix(3, 3, s).multiply(v);
+		double error = 0.;
+		for (int i = 0; i < 3; i++)
+			for (int j = 0; j < 3; j++)
+				error = Math.max(error, Math.abs(av.at(i, j) - v.at(i, j) * w.at(0, j)));
+		System.out.println("max |A*V-V*W|: " + error);
+		//matrix-free: diagonal operator of order 20000 with 3 separated top eigen values
+		final int n = 20000;
+		final double[] diag = new double[n];
+		for (int i = 0; i < n; i++)
+			diag[i] = Math.sin(i) * 0.5 + 0.5;
+		diag[7] = 30; diag[100] = 20; diag[n - 1] = 10;
+		LinearOperator op = new LinearOperator() {
+			public int rows() { return n; }
+			public int columns() { return n; }
+			public void apply(double[] x, double[] y) {
+				for (int i = 0; i < n; i++)
+					y[i] = diag[i] * x[i];
+			}
+		};
+		LanczosEigenDecomposition free = new LanczosEigenDecomposition(op, 3);
+		Matrix fw = free.W(), fv = free.V();
+		System.out.println("operator Lanczos: steps=" + free.steps() + ", W error=" + 
+				Math.max(Math.abs(fw.at(0, 0) - 30), Math.max(Math.abs(fw.at(0, 1) - 20), Math.abs(fw.at(0, 2) - 10))) + 
+				", |v_0(7)|=" + Math.abs(fv.at(7, 0)));
+	}
+	
+	public static void testKrylov(){
+		System.out.println("\n---------Krylov solvers--------");
+		//1D Laplacian, tridiagonal(-1, 2.5, -1)
+		int n = 400;
+		int[] row = new int[3 * n], col = new int[3 * n];
+		double[] value = new double[3 * n];
+		int count = 0;
+		for (int i = 0; i < n; i++){
+			row[count] = i; col[count] = i; value[count++] = 2.5;
+			if (i > 0){
+				row[count] = i; col[count] = i - 1; value[count++] = -1.;
+			}
+			if (i < n - 1){
+				row[count] = i; col[count] = i + 1; value[count++] = -1.;
+			}
+		}
+		SparseMatrix a = SparseMatrix.fromTriplets(n, n, row, col, value, count);
+		double[] b = new double[n];
+		for (int i = 0; i < n; i++)
+			b[i] = Math.cos(i);
+		KrylovSolver[] solvers = {new ConjugateGradient(), new ConjugateGradient(new JacobiPreconditioner(a)),
+				new ConjugateGradient(new IncompleteCholeskyPreconditioner(a)), new GMRES()};
+		String[] names = {"CG", "Jacobi-CG", "IC-CG", "GMRES"};
+		SparseOperator op = new SparseOperator(a);
+		for (int k = 0; k < solvers.length; k++){
+			double[] x = new double[n];
+			boolean converged = solvers[k].solve(op, b, x);
+			System.out.println(names[k] + ": converged=" + converged + ", iterations=" + solvers[k].iterations() +
+					", residual=" + solvers[k].residual());
+		}
+	}
+	
+	public static void testSparseCSC(){
+		System.out.println("\n---------Sparse CSC round trip------------");
+		Matrix[] ms = {new Matrix(2, 3, new double[]{1,0,2, 0,3,0}), 
+				new Matrix(4, 5, new double[]{0,1,0,0,2, 0,0,0,0,0, 3,0,0,4,0, 0,0,5,0,0})};
+		for (int k = 0; k < ms.length; k++){
+			Matrix m = ms[k];
+			SparseMatrix csr = SparseMatrix.valueOf(m);
+			SparseMatrix csc = csr.toCSC();
+			SparseMatrix t = csc.t();
+			System.out.println(m.rows() + "x" + m.columns() + ": csc=" + csc.isColumnMajor() + 
+					", round trip equals: " + csc.toCSR().equals(csr) + 
+					", csc dense equals: " + csc.toMatrix().equals(m) + 
+					", transpose size: " + t.rows() + "x" + t.columns() + 
+					", transpose equals: " + t.toCSR().toMatrix().equals(m.t()) + 
+					", gram equals: " + csc.gram().equals(m.t().multiply(m)));
+		}
+	}
+	
+	public static void testPairwiseDistance(){
+		System.out.println("\n---------Pairwise distance----------------");
+		//sizes that leave partial tiles and rows outside the 4-row kernel
+		final int n = 301, m = 1029, d = 7;
+		Matrix a = new Matrix(n, d), b = new Matrix(m, d);
+		for (int i = 0; i < n; i++)
+			for (int k = 0; k < d; k++)
+				a.set(i, k, Math.sin(i * (k + 1) * 0.13));
+		for (int j = 0; j < m; j++)
+			for (int k = 0; k < d; k++)
+				b.set(j, k, Math.cos(j * (k + 2) * 0.07));
+		String[] names = {"squared euclidean", "euclidean", "manhattan", "chebyshev"};
+		for (int metric = 0; metric < names.length; metric++){
+			final Matrix dist = PairwiseDistance.compute(metric, a, b);
+			double error = 0.;
+			for (int i = 0; i < n; i++)
+				for (int j = 0; j < m; j++){
+					double s = 0., t = 0.;
+					for (int k = 0; k < d; k++){
+						double x = Math.abs(a.at(i, k) - b.at(j, k));
+						s += metric == PairwiseDistance.MANHATTAN ? x: x * x;
+						t = Math.max(t, x);
+					}
+					double expected = metric == PairwiseDistance.EUCLIDEAN ? Math.sqrt(s):
+						metric == PairwiseDistance.CHEBYSHEV ? t: s;
+					error = Math.max(error, Math.abs(dist.at(i, j) - expected));
+				}
+			//the streamed blocks must cover the full matrix
+			final double[] blockError = {0.};
+			final int[] covered = {0};
+			PairwiseDistance.compute(metric, a, b, new PairwiseDistance.BlockHandler() {
+				@Override
+				public void handle(int row, int column, Matrix block) {
+					for (int i = 0; i < block.rows(); i++)
+						for (int j = 0; j < block.columns(); j++)
+							blockError[0] = Math.max(blockError[0],
+									Math.abs(block.at(i, j) - dist.at(row + i, column + j)));
+					covered[0] += block.size();
+				}
+			});
+			//off-heap operands are copied to the heap
+			Matrix offHeap = PairwiseDistance.compute(metric, BufferMatrix.allocateDirect(a), 
+					BufferMatrix.allocateDirect(b));
+			System.out.println(names[metric] + ": max error=" + error + ", block error=" + blockError[0] +
+					", covered=" + (covered[0] == n * m) + ", off-heap=" + offHeap.equals(dist));
+		}
+	}
+	
+	public static void testDistance(){
+		System.out.println("\n---------Distance-------------------------");
+		final int n = 50, d = 21;
+		Matrix x = new Matrix(n, d);
+		for (int i = 0; i < n; i++)
+			for (int k = 0; k < d; k++)
+				x.set(i, k, Math.sin(i * (k + 1) * 0.29));
+		Distance[] distances = {new EuclideanDistance(), new ManhattanDistance(), new ChebyshevDistance(), 
+				new MinkowskiDistance(3)};
+		String[] names = {"euclidean", "manhattan", "chebyshev", "minkowski(3)"};
+		Matrix row0 = x.row(0), row1 = x.row(1);
+		Matrix before = row0.clone();
+		for (int m = 0; m < distances.length; m++){
+			Distance dist = distances[m];
+			double[] y = new double[n];
+			dist.calculate(x.data(), 0, x.data(), 0, d, n, d, y, 0);
+			double error = Math.abs(y[0]), bounded = 0.;
+			boolean abandoned = true;
+			for (int i = 1; i < n; i++){
+				double s = 0., t = 0.;
+				for (int k = 0; k < d; k++){
+					double v = Math.abs(x.at(0, k) - x.at(i, k));
+					s += Math.pow(v, m == 0 ? 2: m == 3 ? 3: 1);
+					t = Math.max(t, v);
+				}
+				double expected = m == 0 ? Math.sqrt(s): m == 1 ? s: m == 2 ? t: Math.pow(s, 1. / 3);
+				error = Math.max(error, Math.abs(y[i] - expected));
+				//exact under the bound, greater than the bound otherwise
+				bounded = Math.max(bounded, Math.abs(dist.calculate(x.data(), 0, x.data(), i * d, d, 
+						expected * 1.01) - expected));
+				abandoned &= dist.calculate(x.data(), 0, x.data(), i * d, d, expected * 0.5) > expected * 0.5;
+			}
+			//row vector, column vector and view
+			double dense = dist.calculate(row0, row1);
+			double column = dist.calculate(row0.t(), row1.t());
+			double view = dist.calculate(row0.t(), row1.t(), y[1] * 2.);
+			double sparse = dist.calculate(SparseMatrix.valueOf(row0), SparseMatrix.valueOf(row1));
+			double offHeap = dist.calculate(BufferMatrix.allocateDirect(row0), BufferMatrix.allocateDirect(row1));
+			System.out.println(names[m] + ": max error=" + error + ", bounded error=" + bounded + 
+					", abandoned=" + abandoned + ", dense=" + (Math.abs(dense - y[1]) < 1e-12) + 
+					", column=" + (Math.abs(column - y[1]) < 1e-12) + ", bounded view=" + 
+					(Math.abs(view - y[1]) < 1e-12) + ", sparse=" + (Math.abs(sparse - y[1]) < 1e-12) + 
+					", off-heap=" + (Math.abs(offHeap - y[1]) < 1e-12));
+		}
+		System.out.println("operand unchanged: " + row0.equals(before));
+	}
+	
+	public static void testMixedPrecision(){
+		System.out.println("\n---------Mixed precision solve------------");
+		int n = 300;
+		//diagonally dominant general matrix and symmetric positive-definite matrix
+		Matrix g = new Matrix(n, n), s = new Matrix(n, n), b = new Matrix(n, 2);
+		for (int i = 0; i < n; i++){
+			for (int j = 0; j < n; j++){
+				g.set(i, j, Math.sin(i * 0.7 + j * 1.3) + (i == j ? n: 0));
+				s.set(i, j, 1. / (1 + Math.abs(i - j)) + (i == j ? 2: 0));
+			}
+			b.set(i, 0, Math.cos(i));
+			b.set(i, 1, i % 7 - 3);
+		}
+		//Hilbert matrix, too ill-conditioned for single precision
+		int h = 8;
+		Matrix hilbert = new Matrix(h, h), c = new Matrix(h, 1);
+		for (int i = 0; i < h; i++){
+			for (int j = 0; j < h; j++)
+				hilbert.set(i, j, 1. / (i + j + 1));
+			c.set(i, 0, 1.);
+		}
+		Matrix[] as = {g, s, hilbert};
+		Matrix[] bs = {b, b, c};
+		int[] types = {MixedPrecisionSolver.LU, MixedPrecisionSolver.CHOLESKY, MixedPrecisionSolver.CHOLESKY};
+		String[] names = {"LU", "Cholesky", "Cholesky (Hilbert)"};
+		for (int k = 0; k < as.length; k++){
+			MixedPrecisionSolver solver = new MixedPrecisionSolver(as[k], types[k]);
+			Matrix x = solver.solve(bs[k]);
+			Matrix y = new LUDecomposition(as[k], true).solve(bs[k], true);
+			double error = 0., scale = 0.;
+			for (int i = 0; i < x.rows(); i++)
+				for (int j = 0; j < x.columns(); j++){
+					error = Math.max(error, Math.abs(x.at(i, j) - y.at(i, j)));
+					scale = Math.max(scale, Math.abs(y.at(i, j)));
+				}
+			System.out.println(names[k] + ": refinements=" + solver.iterations() + ", fallback=" + solver.isFallback() + 
+					", backward error below 1e-15: " + (solver.backwardError() < 1e-15) + 
+					//the solutions of the ill-conditioned system agree to a few digits only
+					(k < 2 ? ", relative difference to LU below 1e-10: " + (error / scale < 1e-10): ""));
+		}
+		//off-heap operands are copied to the heap
+		Matrix x = new MixedPrecisionSolver(BufferMatrix.allocateDirect(g), MixedPrecisionSolver.LU)
+				.solve(BufferMatrix.allocateDirect(b));
+		System.out.println("off-heap: " + x.equals(new MixedPrecisionSolver(g, MixedPrecisionSolver.LU).solve(b)));
+	}
+	
 	public static void main(String[] args){
 		//testGJ();
-		//testLU();
-		//testCD();
+		testLU();
+		testCD();
 		testSVD();
-		//testQR();
+		testTruncatedSVD();
+		testQR();
 		//testED();
+		testSymmetricED();
+		testKrylov();
+		testSparseCSC();
+		testPairwiseDistance();
+		testDistance();
+		testMixedPrecision();
 	}
 }
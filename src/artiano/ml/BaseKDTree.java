@@ -4,10 +4,15 @@ import java.util.LinkedList;
 import java.util.Queue;
 
 import artiano.core.structure.Matrix;
+import artiano.core.structure.MatrixView;
+import artiano.math.distance.Distance;
+import artiano.math.distance.EuclideanDistance;
 
 public abstract class BaseKDTree {
 	
 	protected BaseKDTree.BaseKDNode root;  //KD-Tree的根节点		
+	
+	private static final Distance EUCLIDEAN = new EuclideanDistance();
 
 	/**
 	 * 计算方差
@@ -70,8 +75,9 @@ public abstract class BaseKDTree {
 	 */
 	protected int getPartitionFeatureIndex(Matrix dataSet) {
 		double[] variances = new double[dataSet.columns()];  
+		MatrixView singlFeature = new MatrixView();
 		for(int j=0; j<dataSet.columns(); j++) {
-			Matrix singlFeature = dataSet.column(j); 
+			singlFeature.viewColumn(dataSet, j); 
 			variances[j] = computeVariance(singlFeature);
 		}
 		
@@ -94,17 +100,23 @@ public abstract class BaseKDTree {
 	 * @return 两个数据点之间的欧式距离
 	 */
 	protected double distance(Matrix point1, Matrix point2) {
+		return distance(point1, point2, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * 计算两个数据点之间有界的欧式距离，距离一旦超过bound就不再继续计算
+	 * @param point1 - 数据点
+	 * @param point2 - 数据点
+	 * @param bound - 上界，通常为当前最近的距离
+	 * @return 不超过bound时为两个数据点之间的欧式距离，否则为大于bound的值
+	 */
+	protected double distance(Matrix point1, Matrix point2, double bound) {
 		if(point1.columns() != point2.columns() || 
 				point1.rows() != 1 || point2.rows() != 1) {
 			throw new IllegalArgumentException(
 				"两个数据点列的维数应该一致且行为1!");
 		}
-		
-		double distance = 0;
-		for(int i=0; i<point1.columns(); i++) {
-			distance += Math.pow(point1.at(i) - point2.at(i), 2);
-		}
-		return Math.sqrt(distance);
+		return EUCLIDEAN.calculate(point1, point2, bound);
 	}
 
 	/**  
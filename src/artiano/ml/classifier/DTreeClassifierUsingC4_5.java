@@ -748,14 +748,22 @@ public class DTreeClassifierUsingC4_5 extends Classifier {
 	// 统计各个类标出现的次数
 	private Map<Object, Integer> countEachLabelValue(
 			NominalAttribute remainingTrainLabel) {
-		Map<Object, Integer> labelMap = new LinkedHashMap<Object, Integer>();
+		/* Count with the codes of the labels, index 0 is the missing label */
+		int[] counts = new int[remainingTrainLabel.cardinality() + 1];
+		int[] order = new int[counts.length];
+		int distinct = 0;
 		for (int i = 0; i < remainingTrainLabel.size(); i++) {
-			String label = remainingTrainLabel.get(i).toString();
-			if (!labelMap.containsKey(label)) {
-				labelMap.put(label, 1);
-			} else {
-				labelMap.put(label, labelMap.get(label) + 1);
-			}
+			int c = remainingTrainLabel.codeAt(i) + 1;
+			if (counts[c]++ == 0)
+				order[distinct++] = c;
+		}
+		Map<Object, Integer> labelMap = new LinkedHashMap<Object, Integer>();
+		for (int k = 0; k < distinct; k++) {
+			String label = remainingTrainLabel.valueOfCode(order[k] - 1)
+					.toString();
+			Integer count = labelMap.get(label);
+			labelMap.put(label, count == null ? counts[order[k]] : count
+					+ counts[order[k]]);
 		}
 		return labelMap;
 	}
@@ -147,15 +147,15 @@ public class KDTree extends BaseKDTree {
 		KDNode kd_point = null;
 		while (!searchPath.empty()) {
 			KDNode back_point = searchPath.pop();
-			double distance2 = distance(back_point.nodeData, target);
+			double distance2 = distance(back_point.nodeData, target, min_dist);
 			if (min_dist > distance2) {
 				min_dist = distance2;
 				nearestNode = back_point;
 			}
 			// 作为数据分类的属性
 			featureIndex = back_point.featureIndex; 
-			double dist1 = distance(target.column(featureIndex),
-					back_point.nodeData.column(featureIndex));
+			double dist1 = Math.abs(target.at(featureIndex)
+					- back_point.nodeData.at(featureIndex));
 			if (dist1 < max_dist) {
 				if (target.at(featureIndex) <= back_point.partitionValue) {
 					kd_point = (KDNode) back_point.right;
@@ -172,7 +172,7 @@ public class KDTree extends BaseKDTree {
 				continue;
 			}
 
-			double dist3 = distance(kd_point.nodeData, target);
+			double dist3 = distance(kd_point.nodeData, target, min_dist);
 			if (dist3 < min_dist) {
 				nearestNode = kd_point;
 				min_dist = dist3;
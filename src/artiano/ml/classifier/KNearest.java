@@ -5,6 +5,7 @@ import java.util.Map.Entry;
 
 import artiano.core.structure.Attribute;
 import artiano.core.structure.Capability;
+import artiano.core.structure.FloatMatrix;
 import artiano.core.structure.Matrix;
 import artiano.core.structure.NominalAttribute;
 import artiano.core.structure.NumericAttribute;
@@ -85,6 +86,23 @@ public class KNearest extends Classifier {
 		return results;
 	}
 
+	/**
+	 * 使用构造的KD树对单精度的样本矩阵进行分类，矩阵的每一行为一个样本
+	 * 
+	 * @param samples
+	 *            待分类的样本矩阵（不包含类标列）
+	 * @return 输入数据的类标构成的向量
+	 */
+	public NominalAttribute predict(FloatMatrix samples) {
+		NominalAttribute results = new NominalAttribute("label");
+		Matrix sample = new Matrix(1, samples.columns());
+		for (int i = 0; i < samples.rows(); i++) {
+			samples.rowTo(i, sample);
+			results.push(findKNearestForSingleSample(sample, k));
+		}
+		return results;
+	}
+
 	/**
 	 * 找到数据集的分类
 	 * 
@@ -217,17 +217,26 @@ public class NaiveBayesClassifier extends Classifier {
 	 * @return 键值对, 类标号作为键, 类标号对应的数据作为值.
 	 */
 	private Map<Object, Matrix> groupTraningDataByLabel() {
-		Map<Object, Matrix> labelMap = new HashMap<Object, Matrix>();
-		for (int i = 0; i < trainData.rows(); i++) {
-			Object label = classAttribute.get(i);  // 获取该条数据的类标号
-			if(!labelMap.containsKey(label)) {
-				labelMap.put(label, trainData.row(i));
-			} else {
-				Matrix oldMatrix = labelMap.get(label);
-				oldMatrix.mergeAfterRow(trainData.row(i));
-				labelMap.put(label, oldMatrix);
-			}		
+		// 类标号为符号属性且不含缺失值（见capability()），按编码分组
+		NominalAttribute label = (NominalAttribute) classAttribute;
+		int rows = trainData.rows(), cols = trainData.columns();
+		int[] counts = new int[label.cardinality()];
+		for (int i = 0; i < rows; i++)
+			counts[label.codeAt(i)]++;
+		Matrix[] groups = new Matrix[counts.length];
+		int[] filled = new int[counts.length];
+		for (int i = 0; i < rows; i++) {
+			int c = label.codeAt(i);  // 获取该条数据的类标号的编码
+			if (groups[c] == null)
+				groups[c] = new Matrix(counts[c], cols);
+			for (int j = 0; j < cols; j++)
+				groups[c].set(filled[c], j, trainData.at(i, j));
+			filled[c]++;
 		}
+		Map<Object, Matrix> labelMap = new HashMap<Object, Matrix>();
+		for (int c = 0; c < groups.length; c++)
+			if (groups[c] != null)
+				labelMap.put(label.valueOfCode(c), groups[c]);
 		return labelMap;
 	}
 	
@@ -8,6 +8,7 @@ import artiano.core.structure.NominalAttribute;
 import artiano.core.structure.NumericAttribute;
 import artiano.core.structure.Options;
 import artiano.core.structure.Table;
+import artiano.core.structure.Table.RowCursor;
 import artiano.core.structure.Table.TableRow;
 import artiano.ml.clustering.structure.Cluster;
 import artiano.ml.clustering.structure.ClusterModel;
@@ -80,12 +81,14 @@ public class Agenes extends Clustering {
 					Cluster cluster_2 = currentClusters.get(j);
 					Table dataPoints_1 = cluster_1.getDataPoints();
 					Table dataPoints_2 = cluster_2.getDataPoints();
+					RowCursor point_1 = dataPoints_1.cursor();
+					RowCursor point_2 = dataPoints_2.cursor();
 					// 获取当前两个簇最小的簇间距离
 					for (int m = 0; m < dataPoints_1.rows(); m++) {
 						for (int n = 0; n < dataPoints_2.rows(); n++) {
 							// 簇1中的点到簇2中的点的距离
-							double tempDistance = Table.distanceOf(dataPoints_1.row(m),
-									dataPoints_2.row(n));
+							double tempDistance = Table.distanceOf(point_1.moveTo(m),
+									point_2.moveTo(n));
 							if (tempDistance < minDistance) {
 								minDistance = tempDistance;
 								clusterIndex_1 = i;
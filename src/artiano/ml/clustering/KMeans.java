@@ -5,10 +5,12 @@ import java.util.Map.Entry;
 import java.text.DecimalFormat;
 
 import sun.tools.jar.resources.jar;
+import artiano.core.operation.MatrixOpt;
 import artiano.core.structure.*;
 import artiano.ml.BaseKDTree.BaseKDNode;
 import artiano.ml.clustering.structure.ClusterModel;
 import artiano.ml.clustering.structure.KDTree;
+import artiano.math.distance.PairwiseDistance;
 
 /**
  * <p>
@@ -45,6 +47,19 @@ public class KMeans extends Clustering {
 		return findFinalCenters(data, k);
 	}
 
+	/**
+	 * 对单精度的数据集进行聚类，数据将被转换为双精度矩阵
+	 * 
+	 * @param data
+	 *            待聚类的数据集
+	 * @param k
+	 *            将要划分的簇的数目
+	 * @return clusterMap 键值对，簇的中心作为键，簇内的数据点作为值
+	 */
+	public Map<Matrix, Matrix> kmeans(FloatMatrix data, int k) {
+		return kmeans(data.toMatrix(), k);
+	}
+
 	/**
 	 * 聚类
 	 * 
@@ -105,10 +120,13 @@ public class KMeans extends Clustering {
 		KDTree kdTree = new KDTree(centers); // 构造簇中心组成的KD-Tree
 		// 用LinkedHashMap来维持簇中心点之间的顺序
 		Map<Matrix, Matrix> clusterMap = new LinkedHashMap<Matrix, Matrix>();
+		MatrixView centerView = new MatrixView();
+		MatrixView point = new MatrixView();
 		for (int i = 0; i < centers.rows(); i++) {
 			boolean isPart = false;
+			centerView.viewRow(centers, i);
 			for (int m = 0; m < data.rows(); m++) {
-				if (centers.row(i).equals(data.row(m))) {
+				if (centerView.equals(point.viewRow(data, m))) {
 					isPart = true;
 					break;
 				}
@@ -155,19 +173,16 @@ public class KMeans extends Clustering {
 		Set<Entry<Matrix, Matrix>> entrySet = clusterMap.entrySet();
 		int count = 0;
 		DecimalFormat f = new DecimalFormat("#.###"); // 实数格式化
+		MatrixView newCenter = new MatrixView();
+		MatrixView member = new MatrixView();
 		for (Entry<Matrix, Matrix> entry : entrySet) {
 			Matrix aCluster = entry.getValue();
-			Matrix newCenter = new Matrix(1, columns); // 计算平均矩阵
-			for (int j = 0; j < columns; j++) {
-				double sum = 0;
-				for (int i = 0; i < aCluster.rows(); i++) {
-					sum += aCluster.at(i, j);
-				}
-				double value = Double.parseDouble(f.format(sum
-						/ aCluster.rows())); // 实数格式化
-				newCenter.set(0, j, value);
-			}
-			newCenters.setRow(count, newCenter);
+			newCenter.viewRow(newCenters, count); // 计算平均矩阵
+			for (int i = 0; i < aCluster.rows(); i++)
+				MatrixOpt.axpy(1., member.viewRow(aCluster, i), newCenter);
+			MatrixOpt.scal(1. / aCluster.rows(), newCenter);
+			for (int j = 0; j < columns; j++) // 实数格式化
+				newCenter.put(j, Double.parseDouble(f.format(newCenter.get(j))));
 			count++;
 		}
 		return newCenters;
@@ -183,10 +198,13 @@ public class KMeans extends Clustering {
 	private Matrix getNonCenterData(Matrix centers) {
 		// 统计数据集中作为簇中心的数据点的数目
 		int centerInDataNum = 0;
+		MatrixView center = new MatrixView();
+		MatrixView point = new MatrixView();
 		for (int i = 0; i < centers.rows(); i++) {
 			boolean isInData = false;
+			center.viewRow(centers, i);
 			for (int m = 0; m < data.rows(); m++) {
-				if (centers.row(i).equals(data.row(m))) {
+				if (center.equals(point.viewRow(data, m))) {
 					isInData = true;
 				}
 			}
@@ -201,14 +219,15 @@ public class KMeans extends Clustering {
 		int count = 0;
 		for (int i = 0; i < data.rows(); i++) {
 			boolean isSplit = false; // 当前数据点是不是中心点
+			point.viewRow(data, i);
 			for (int m = 0; m < centers.rows(); m++) {
-				if (data.row(i).equals(centers.row(m))) {
+				if (point.equals(center.viewRow(centers, m))) {
 					isSplit = true;
 					break;
 				}
 			}
 			if (!isSplit) {
-				remaining.setRow(count, data.row(i));
+				remaining.setRow(count, point);
 				count++;
 			}
 		}
@@ -243,32 +262,16 @@ public class KMeans extends Clustering {
 	 * @return 聚类质量评估值
 	 */
 	private double evaluate(Matrix center, Matrix members) {
-		double evaluation = 0;
-		for (int i = 0; i < members.rows(); i++) {
-			evaluation += distance(center, members.row(i));
-		}
-		return evaluation;
-	}
-
-	/**
-	 * 获取两个向量之间的欧氏距离
-	 * 
-	 * @param mat1
-	 *            向量1
-	 * @param mat2
-	 *            向量2
-	 * @return 两个向量之间的欧氏距离
-	 */
-	private double distance(Matrix mat1, Matrix mat2) {
-		if (mat1.columns() != mat2.columns() || mat1.rows() != 1
-				|| mat2.rows() != 1) {
+		if (center.rows() != 1 || center.columns() != members.columns()) {
 			throw new IllegalArgumentException("两个向量应该具有相同的大小!");
 		}
-		double distance = 0;
-		for (int j = 0; j < mat1.columns(); j++) {
-			distance += Math.pow(mat1.at(0, j) - mat2.at(0, j), 2);
+		// 一次计算所有数据点到簇中心的欧氏距离的平方
+		Matrix distances = PairwiseDistance.squaredEuclidean(members, center);
+		double evaluation = 0;
+		for (int i = 0; i < distances.rows(); i++) {
+			evaluation += distances.at(i, 0);
 		}
-		return distance;
+		return evaluation;
 	}
 
 	/**
@@ -285,13 +288,15 @@ public class KMeans extends Clustering {
 		int sampleCount = data.rows();
 		Random random = new Random(System.currentTimeMillis());
 		int count = 0;
+		MatrixView currentData = new MatrixView();
+		MatrixView center = new MatrixView();
 		while (count < k) {
 			int randomRowIndex = random.nextInt(sampleCount);
-			Matrix currentData = data.row(randomRowIndex);
+			currentData.viewRow(data, randomRowIndex);
 			/** 检查当前数据点是不是已经被选为了中心点 */
 			boolean alreadyExist = false;
 			for (int i = 0; i < count; i++) {
-				if (currentData.equals(centers.row(i))) {
+				if (currentData.equals(center.viewRow(centers, i))) {
 					alreadyExist = true;
 					break;
 				}
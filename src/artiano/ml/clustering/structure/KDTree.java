@@ -121,7 +121,7 @@ public class KDTree extends BaseKDTree {
 		BaseKDTree.BaseKDNode kd_point = null;
 		while (!searchPath.empty()) {
 			BaseKDTree.BaseKDNode back_point = searchPath.pop();
-			double distance2 = distance(back_point.nodeData, target);
+			double distance2 = distance(back_point.nodeData, target, min_dist);
 			if (min_dist > distance2) {
 				min_dist = distance2;
 				nearestNode = back_point;
@@ -129,8 +129,8 @@ public class KDTree extends BaseKDTree {
 
 			featureIndex = back_point.featureIndex; // 作为数据分类的属性
 
-			double dist1 = distance(target.column(featureIndex),
-					back_point.nodeData.column(featureIndex));
+			double dist1 = Math.abs(target.at(featureIndex)
+					- back_point.nodeData.at(featureIndex));
 			if (dist1 < max_dist) { // Get next sub space
 				if (target.at(featureIndex) <= back_point.partitionValue) {
 					kd_point = back_point.right;
@@ -147,7 +147,7 @@ public class KDTree extends BaseKDTree {
 				continue;
 			}
 
-			double dist3 = distance(kd_point.nodeData, target);
+			double dist3 = distance(kd_point.nodeData, target, min_dist);
 			if (dist3 < min_dist) {
 				nearestNode = kd_point;
 				min_dist = dist3;
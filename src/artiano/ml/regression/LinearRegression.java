@@ -4,7 +4,9 @@
 package artiano.ml.regression;
 
 import artiano.core.structure.Matrix;
+import artiano.core.structure.SparseMatrix;
 import artiano.math.algebra.CholeskyDecomposition;
+import artiano.math.algebra.QRDecomposition;
 
 /**
  * <p>使用最小二乘方法生成一个线性模型。
@@ -30,43 +32,43 @@ public class LinearRegression extends Regression {
 	@Override
 	public Matrix fit(Matrix XData, Matrix YData) {
 		Matrix coefficients = generateCoefficientMatrix(XData);
-    	/* Solve AW=b to coefficients of the linear regression Polynomial */
-    	Matrix A = genearteLeftHandSide(coefficients);
-    	Matrix b = generateRightHandSide(YData, coefficients);
-    	CholeskyDecomposition decomposition = new CholeskyDecomposition(A);
-    	return decomposition.solve(b);
+    	/* Solve min|[1 X]W-y| by TSQR, the chunks of rows are factored in parallel */
+    	return QRDecomposition.leastSquares(coefficients, YData);
 	}
 	
-	private static Matrix generateRightHandSide(Matrix right_hand, Matrix coefficients) {
-		int rows = coefficients.rows();
-		int cols = coefficients.columns() - 1;
+	/**
+	 * 使用稀疏的x数据拟合参数模型，正规方程由稀疏矩阵的格拉姆矩阵直接生成，
+	 * 计算量与非零元素的个数相关而不需要生成稠密的系数矩阵。
+	 * @param XData x数据，每一行为一个样本
+	 * @param YData y数据，为XData.rows()*1的列向量
+	 * @return 参数矩阵
+	 */
+	public Matrix fit(SparseMatrix XData, Matrix YData) {
+		if (XData.rows() != YData.rows())
+			throw new IllegalArgumentException("LinearRegression fit, size not match.");
+		int cols = XData.columns();
+		Matrix gram = XData.gram();
+		Matrix sums = XData.columnSums();
+		Matrix xy = XData.transposeMultiply(YData);
+		/* Solve AW=b with A = [1 X]'[1 X] and b = [1 X]'y */
+		Matrix A = new Matrix(cols + 1, cols + 1);
 		Matrix b = new Matrix(cols + 1, 1);
-    	for(int i=0; i<cols+1; i++) {
-    		double sumY = 0;
-    		for(int n=0; n<rows; n++) {
-				sumY += right_hand.at(n, 0) * coefficients.at(n, i);    				
-			}
-			b.set(i, 0, sumY);
-    	}
-		return b;
-	}
-
-	private static Matrix genearteLeftHandSide(Matrix coefficients) {
-		int rows = coefficients.rows();
-		int cols = coefficients.columns() - 1;
-		Matrix a = new Matrix(cols + 1, cols + 1);
-    	for(int i=0; i<a.rows(); i++) {
-    		for(int j=0; j<a.columns(); j++) {
-    			double sumX = 0;
-    			for(int n=0; n<rows; n++) {
-    				sumX += coefficients.at(n, j) * coefficients.at(n, i);    				
-    			}
-    			a.set(i, j, sumX);    			    		
-    		}    		    		
-    	}
-		return a;
+		double sumY = 0;
+		for (int n = 0; n < YData.rows(); n++)
+			sumY += YData.at(n, 0);
+		A.set(0, 0, XData.rows());
+		b.set(0, 0, sumY);
+		for (int i = 0; i < cols; i++) {
+			A.set(0, i + 1, sums.at(0, i));
+			A.set(i + 1, 0, sums.at(0, i));
+			b.set(i + 1, 0, xy.at(i, 0));
+			for (int j = 0; j < cols; j++)
+				A.set(i + 1, j + 1, gram.at(i, j));
+		}
+		CholeskyDecomposition decomposition = new CholeskyDecomposition(A);
+		return decomposition.solve(b);
 	}
-
+	
 	private static Matrix generateCoefficientMatrix(Matrix left_hand) {
 		Matrix coefficients = 
 			new Matrix(left_hand.rows(), left_hand.columns() + 1);
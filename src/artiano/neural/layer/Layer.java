@@ -6,6 +6,7 @@ package artiano.neural.layer;
 
 import java.io.Serializable;
 
+import artiano.core.structure.FloatMatrix;
 import artiano.core.structure.Matrix;
 import artiano.neural.neuron.Neuron;
 import artiano.randomizer.Randomizer;
@@ -58,4 +59,15 @@ public abstract class Layer implements Serializable{
 			outputs.set(0, i, neurons[i].compute(inputs));
 		return outputs;
 	}
+	
+	/**
+	 * compute the output with a single-precision input
+	 * @param inputs inputs of the layer
+	 * @return output
+	 */
+	public Matrix compute(FloatMatrix inputs){
+		for (int i = 0; i < neuronsCount; i++)
+			outputs.set(0, i, neurons[i].compute(inputs));
+		return outputs;
+	}
 }
@@ -3,9 +3,12 @@
  */
 package artiano.neural.learning;
 
+import artiano.core.structure.Gemm;
 import artiano.core.structure.Matrix;
+import artiano.core.structure.MatrixArena;
 import artiano.core.structure.Option;
 import artiano.core.structure.Options;
+import artiano.core.structure.Syrk;
 import artiano.math.algebra.CholeskyDecomposition;
 import artiano.neural.actfun.ActivationFunction;
 import artiano.neural.layer.ActivationLayer;
@@ -26,10 +29,14 @@ public class LevenbergMarquardtLearning extends SupervisedNeuralLearning {
 
 	protected ActivationNetwork network = null;
 	protected Matrix jacobian = null;
+	//the hessian and its decomposition are pooled by MatrixArena, set only while a block is trained
 	protected Matrix hessian = null;
+	protected CholeskyDecomposition decomposition = null;
 	protected Matrix error = null;
 	protected int numParameters = 0;
 	protected double regularizationFactor = 0.01;
+	//times to raise the damping when the hessian is not positive-definite
+	protected static final int DAMPING_TRIES = 5;
 	
 	protected int blockSize = 1;
 	protected int finalBlockSize = 0;
@@ -228,27 +235,35 @@ public class LevenbergMarquardtLearning extends SupervisedNeuralLearning {
 	}
 	
 	/**
-	 * compute the inversion of hessian matrix
+	 * compute the hessian matrix and decompose it in place, the damping is raised (the hessian is refactored
+	 * without recomputing) until it is positive-definite. The hessian is drawn from the current
+	 * {@link MatrixArena}, if any.
 	 * @return - success or not
 	 */
 	protected boolean computeHessian(){
-		hessian = jacobian.t().multiply(jacobian);
-		for (int i = 0; i < hessian.rows(); i++)
-			hessian.plus(i, i, regularizationFactor);
-		CholeskyDecomposition decomposition = new CholeskyDecomposition(hessian);
-		if (!decomposition.isDefinite())
-			return false;
-		Matrix t = decomposition.inverseOfL(false);
-		hessian = t.t().multiply(t);
-		return true;
+		int n = jacobian.columns();
+		hessian = Matrix.allocate(n, n);
+		Syrk.syrk(true, n, jacobian.rows(), 1., jacobian.data(), jacobian.offset(), jacobian.dataColumns(),
+				0., hessian.data(), 0, n);
+		double damping = regularizationFactor;
+		decomposition = new CholeskyDecomposition(hessian, false, damping);
+		for (int i = 0; i < DAMPING_TRIES && !decomposition.isDefinite(); i++){
+			damping *= 10.;
+			decomposition.refactor(damping);
+		}
+		return decomposition.isDefinite();
 	}
 	
 	/**
 	 * update the network
 	 */
 	protected void update(){
-		Matrix t = jacobian.t().multiply(error);
-		Matrix updater = hessian.multiply(t);
+		//t = J'*e, without transposing J
+		int n = jacobian.columns();
+		Matrix t = Matrix.allocate(n, 1);
+		Gemm.gemm(true, false, n, 1, jacobian.rows(), 1., jacobian.data(), jacobian.offset(), jacobian.dataColumns(),
+				error.data(), error.offset(), error.dataColumns(), 0., t.data(), 0, 1);
+		Matrix updater = decomposition.solve(t, false);
 		//Matrix updater = jacobian.t().multiply(error);
 		ActivationLayer layer;
 		//update
@@ -266,6 +281,7 @@ public class LevenbergMarquardtLearning extends SupervisedNeuralLearning {
 	}
 	
 	@Override
+	@SuppressWarnings("try")
 	public double runEpoch(Matrix inputs, Matrix targetOutputs) {
 		finalBlockSize = inputs.rows() % blockSize;
 		int blocks = inputs.rows() / blockSize;
@@ -289,8 +305,17 @@ public class LevenbergMarquardtLearning extends SupervisedNeuralLearning {
 				outputBlock[j] = targetOutputs.row(blockIdx);
 			}
 			sumSquaredError += computeJacobian(inputBlock, outputBlock);
-			if (computeHessian()){
-				update();
+			//the hessian and the gradient are temporaries of the block
+			try (MatrixArena arena = MatrixArena.open()) {
+				try {
+					if (computeHessian()){
+						update();
+					}
+				} finally {
+					//the pooled arrays are handed out again once the scope is closed
+					hessian = null;
+					decomposition = null;
+				}
 			}
 		}
 		network.epochs++;
@@ -4,6 +4,7 @@
 package artiano.neural.learning;
 
 import artiano.core.structure.Matrix;
+import artiano.core.structure.MatrixView;
 import artiano.neural.layer.DistanceLayer;
 import artiano.neural.network.DistanceNetwork;
 import artiano.neural.neuron.DistanceNeuron;
@@ -58,8 +59,9 @@ public class SOMLearning implements UnsupervisedNeuralLearning {
 	@Override
 	public double runEpoch(Matrix inputs) {
 		double error = 0.;
+		MatrixView input = new MatrixView();
 		for (int i = 0; i < inputs.rows(); i++)
-			error += run(inputs.row(i));
+			error += run(input.viewRow(inputs, i));
 		return error;
 	}
 	
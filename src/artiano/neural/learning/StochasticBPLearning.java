@@ -1,6 +1,8 @@
 package artiano.neural.learning;
 
+import artiano.core.operation.MatrixOpt;
 import artiano.core.structure.Matrix;
+import artiano.core.structure.MatrixView;
 import artiano.core.structure.Option;
 import artiano.core.structure.Options;
 import artiano.neural.actfun.ActivationFunction;
@@ -133,9 +135,7 @@ public class StochasticBPLearning extends SupervisedNeuralLearning {
 				// current neuron
 				neuron = (ActivationNeuron) layer.neurons[j];
 				// update weights
-				for (int k = 0; k < neuron.weights.length; k++) {
-					neuron.weights[k] += learningRate * neuron.e * v.at(0, k);
-				}
+				MatrixOpt.axpy(learningRate * neuron.e, v, neuron.weights);
 				// update bias
 				neuron.bias += learningRate * neuron.e;
 			}
@@ -155,8 +155,10 @@ public class StochasticBPLearning extends SupervisedNeuralLearning {
 	public double runEpoch(Matrix inputs, Matrix targetOutputs) {
 		network.epochs++;
 		double e = 0.;
+		MatrixView input = new MatrixView();
+		MatrixView targetOutput = new MatrixView();
 		for (int i = 0; i < inputs.rows(); i++)
-			e += run(inputs.row(i), targetOutputs.row(i));
+			e += run(input.viewRow(inputs, i), targetOutput.viewRow(targetOutputs, i));
 		e /= inputs.rows();
 		network.squreError = e;
 		return e;
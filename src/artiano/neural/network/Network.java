@@ -4,6 +4,7 @@
 package artiano.neural.network;
 
 import artiano.core.operation.Preservable;
+import artiano.core.structure.FloatMatrix;
 import artiano.core.structure.Matrix;
 import artiano.neural.layer.Layer;
 import artiano.randomizer.Randomizer;
@@ -63,4 +64,18 @@ public abstract class Network extends Preservable {
 		outputs = v;
 		return outputs;
 	}
+	
+	/**
+	 * compute the output with a single-precision input, only the first layer 
+	 * reads the input in single precision
+	 * @param input input vector
+	 * @return output vector
+	 */
+	public Matrix compute(FloatMatrix input){
+		Matrix v = layers[0].compute(input);
+		for (int i = 1; i < layers.length; i++)
+			v = layers[i].compute(v);
+		outputs = v;
+		return outputs;
+	}
 }
@@ -4,6 +4,7 @@
 package artiano.neural.neuron;
 
 
+import artiano.core.structure.FloatMatrix;
 import artiano.core.structure.Matrix;
 import artiano.neural.actfun.ActivationFunction;
 import artiano.randomizer.Randomizer;
@@ -61,4 +62,22 @@ public class ActivationNeuron extends Neuron {
 		output = actfun.calculate(sum);
 		return output;
 	}
+	
+	/* (non-Javadoc)
+	 * @see artiano.neural.neuron.Neuron#compute(artiano.core.structure.FloatMatrix)
+	 */
+	@Override
+	public double compute(FloatMatrix input) {
+		if (input.rows() != 1)
+			throw new IllegalArgumentException("Accept row vector only.");
+		if (input.columns() != weights.length)
+			throw new IllegalArgumentException("Inputs size not match.");
+		float[] x = input.data();
+		double sum = 0.;
+		for (int i = 0; i < weights.length; i++)
+			sum += weights[i] * x[i];
+		sum += bias;
+		output = actfun.calculate(sum);
+		return output;
+	}
 }
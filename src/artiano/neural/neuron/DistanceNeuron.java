@@ -3,6 +3,7 @@
  */
 package artiano.neural.neuron;
 
+import artiano.core.structure.FloatMatrix;
 import artiano.core.structure.Matrix;
 
 /**
@@ -42,4 +43,21 @@ public class DistanceNeuron extends Neuron {
 		return output;
 	}
 
+	/* (non-Javadoc)
+	 * @see artiano.neural.neuron.Neuron#compute(artiano.core.structure.FloatMatrix)
+	 */
+	@Override
+	public double compute(FloatMatrix input) {
+		if (input.rows() != 1)
+			throw new IllegalArgumentException("Accept row vector only.");
+		if (input.columns() != weights.length)
+			throw new IllegalArgumentException("Inputs size not match.");
+		float[] x = input.data();
+		double sum = 0.;
+		for (int i = 0; i < weights.length; i++)
+			sum += Math.abs(weights[i] - x[i]);
+		output = sum;
+		return output;
+	}
+
 }
@@ -5,6 +5,7 @@ package artiano.neural.neuron;
 
 import java.io.Serializable;
 
+import artiano.core.structure.FloatMatrix;
 import artiano.core.structure.Matrix;
 import artiano.randomizer.Randomizer;
 
@@ -48,4 +49,13 @@ public abstract class Neuron implements Serializable{
 	 * @return the output
 	 */
 	public abstract double compute(Matrix input);
+	
+	/**
+	 * compute the output of the neuron with a single-precision input
+	 * @param input the input vector
+	 * @return the output
+	 */
+	public double compute(FloatMatrix input){
+		return compute(input.toMatrix());
+	}
 }
@@ -3,9 +3,12 @@
  */
 package artiano.statistics.reducer;
 
+import artiano.core.operation.CovarianceAccumulator;
+import artiano.core.operation.MatrixOpt;
 import artiano.core.structure.Matrix;
 import artiano.core.structure.Range;
 import artiano.math.algebra.SingularValueDecomposition;
+import artiano.math.algebra.SymmetricEigenDecomposition;
 
 /**
  * <p>广义主成分分析特征提取器。</p>
@@ -109,9 +112,8 @@ public class PrincipleComponentAnalysis extends Reducer implements UnsupervisedR
 		Matrix cov = computeCovariance(samples);
 		//the covariance calculated by row, fast PCA algorithm
 		if (covarianceInverted){
-			SingularValueDecomposition svd = new SingularValueDecomposition(cov, false);
-			svd.sort();
-			Matrix w = svd.W().clone().sqrt();
+			SymmetricEigenDecomposition evd = decompose(cov);
+			Matrix w = evd.W().sqrt();
 			int zeroIdx = 0;
 			//w := w^(-1/2)
 			final double TINY = 1e-7;
@@ -127,8 +129,8 @@ public class PrincipleComponentAnalysis extends Reducer implements UnsupervisedR
 				zeroIdx = w.columns();
 			w = w.at(Range.all(), new Range(0, zeroIdx));
 			//eigen values
-			eigenValues = svd.W().at(Range.all(), new Range(0, zeroIdx)).clone();
-			Matrix v = svd.U().at(Range.all(), new Range(0, zeroIdx));
+			eigenValues = evd.W().at(Range.all(), new Range(0, zeroIdx)).clone();
+			Matrix v = evd.V().at(Range.all(), new Range(0, zeroIdx));
 			/**
 			 * u=A*[v*w^(-1/2)]
 			 * calculate v := v*w^(-1/2) first to speed up computing
@@ -139,17 +141,50 @@ public class PrincipleComponentAnalysis extends Reducer implements UnsupervisedR
 			/**
 			 * eigen-vectors = A*v
 			 */
-			Matrix t_a = samples.clone();
-			for (int i=0; i<t_a.rows(); i++)
-				t_a.row(i).minus(mean);
+			Matrix t_a = MatrixOpt.subtractRow(samples, mean, new Matrix(samples.rows(), samples.columns()));
 			Matrix x = t_a.t();
 			eigenVectors = x.multiply(v);
-		} else {
-			SingularValueDecomposition svd = new SingularValueDecomposition(cov, false);
-			svd.sort();
-			eigenVectors = svd.U();
-			eigenValues = svd.W().sqrt();
-		}
+		} else
+			computeEigensOfCovariance(cov);
+		eigenVectors = eigenVectors.t();
+	}
+	
+	/**
+	 * compute the eigen-vectors of the covariance computed by column
+	 * @param cov
+	 */
+	private void computeEigensOfCovariance(Matrix cov){
+		SymmetricEigenDecomposition evd = decompose(cov);
+		eigenVectors = evd.V();
+		eigenValues = evd.W().sqrt();
+	}
+	
+	/**
+	 * eigen decomposition of the covariance, eigen values sorted in descending order, the tiny
+	 * negative ones caused by rounding errors are set to 0
+	 * @param cov
+	 * @return
+	 */
+	private static SymmetricEigenDecomposition decompose(Matrix cov){
+		SymmetricEigenDecomposition evd = new SymmetricEigenDecomposition(cov);
+		evd.sort();
+		evd.clampNegative();
+		return evd;
+	}
+	
+	/**
+	 * 使用累加器中的均值与协方差训练，不需要将样本全部读入内存。
+	 * @param accumulator 已累加了全部样本的累加器
+	 */
+	public void train(CovarianceAccumulator accumulator) {
+		if (accumulator.count() == 0)
+			throw new IllegalArgumentException("PrincipleComponentAnalysis train, no sample accumulated.");
+		samplesNumber = (int) Math.min(accumulator.count(), Integer.MAX_VALUE);
+		sampleSize = accumulator.dimension();
+		eigens = Math.min(samplesNumber, sampleSize);
+		mean = accumulator.mean();
+		covarianceInverted = false;
+		computeEigensOfCovariance(accumulator.covariance(false));
 		eigenVectors = eigenVectors.t();
 	}
 	
@@ -164,12 +199,34 @@ public class PrincipleComponentAnalysis extends Reducer implements UnsupervisedR
 		computeEigens(samples);
 	}
 	
+	/**
+	 * 只计算前components个主成分进行训练。直接对中心化后的样本矩阵做随机化的截断奇异值分解
+	 * （见{@link SingularValueDecomposition#truncated(Matrix, int)}），不需要计算协方差矩阵及其全部特征向量，
+	 * 当样本数与维数很大而需要的主成分很少时，比{@link #train(Matrix)}快得多。
+	 * @param samples 样本矩阵，每一行为一个样本
+	 * @param components 需要的主成分个数
+	 */
+	public void train(Matrix samples, int components) {
+		if (components <= 0 || components > Math.min(samples.rows(), samples.columns()))
+			throw new IllegalArgumentException("PrincipleComponentAnalysis train, components out of range.");
+		samplesNumber = samples.rows();
+		sampleSize = samples.columns();
+		eigens = components;
+		covarianceInverted = false;
+		mean = samples.rowMean();
+		Matrix centered = MatrixOpt.subtractRow(samples, mean, new Matrix(samples.rows(), samples.columns()));
+		//the singular values of the centered samples are the square roots of the eigen values of the covariance
+		SingularValueDecomposition svd = SingularValueDecomposition.truncated(centered, components);
+		eigenValues = svd.W();
+		eigenVectors = svd.V().t();
+	}
+	
 	@Override
 	public Matrix reduce(Matrix sample) {
 		if (sample.columns() != this.sampleSize)
 			throw new IllegalArgumentException("PrincipleComponentAnalysis reduce, size not match.");
-		Matrix feature;
-		feature = eigenVectors.multiply(sample.minus(mean, true).t()).t();
+		Matrix feature = new Matrix(1, eigenVectors.rows());
+		MatrixOpt.gemv(false, 1., eigenVectors, sample.minus(mean, true), 0., feature);
 		return feature;
 	}
 
@@ -186,8 +243,8 @@ public class PrincipleComponentAnalysis extends Reducer implements UnsupervisedR
 	 */
 	@Override
 	public Matrix reconstruct(Matrix feature) {
-		Matrix sample = null;
-		sample = feature.multiply(eigenVectors).plus(mean);
+		Matrix sample = mean.clone();
+		MatrixOpt.gemv(true, 1., eigenVectors, feature, 1., sample);
 		return sample;
 	}
 	